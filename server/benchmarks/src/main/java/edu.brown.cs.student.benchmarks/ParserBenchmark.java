@@ -0,0 +1,130 @@
+package edu.brown.cs.student.benchmarks;
+
+import edu.brown.cs.student.main.parser.Parser;
+import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.classes.Star;
+import edu.brown.cs.student.main.parser.classes.StudentRecord;
+import edu.brown.cs.student.main.parser.creators.StarCreator;
+import edu.brown.cs.student.main.parser.creators.StudentRecordCreator;
+import edu.brown.cs.student.main.parser.creators.TrivialCreator;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks Parser.parse over a whole file with each of the creators. Each file has a header row
+ * and the given number of rows after it, and is read from disk on every parse (from the page cache,
+ * after the first).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+  /** The number of rows in each file; run with -p rows=10000000 for the largest files. */
+  @Param({"10000", "100000", "1000000"})
+  public int rows;
+
+  /** The directory the files are written to. */
+  private Path directory;
+  /** Rows of town incomes, parsed into lists of strings. */
+  private Path towns;
+  /** Rows of stars. */
+  private Path stars;
+  /** Rows of students. */
+  private Path students;
+
+  /**
+   * Writes the files parsed.
+   *
+   * @throws IOException if a file can't be written
+   */
+  @Setup(Level.Trial)
+  public void writeFiles() throws IOException {
+    directory = Files.createTempDirectory("parser-benchmark");
+    towns = directory.resolve("towns.csv");
+    stars = directory.resolve("stars.csv");
+    students = directory.resolve("students.csv");
+    SyntheticData.writeTowns(towns, rows);
+    SyntheticData.writeStars(stars, rows);
+    SyntheticData.writeStudents(students, rows);
+  }
+
+  /**
+   * Deletes the files parsed.
+   *
+   * @throws IOException if a file can't be deleted
+   */
+  @TearDown(Level.Trial)
+  public void deleteFiles() throws IOException {
+    SyntheticData.delete(towns);
+    SyntheticData.delete(stars);
+    SyntheticData.delete(students);
+    Files.deleteIfExists(directory);
+  }
+
+  /**
+   * Parses town incomes into lists of strings.
+   *
+   * @return the parsed rows
+   * @throws IOException if the file can't be read
+   * @throws FactoryFailureException if a row can't be created
+   */
+  @Benchmark
+  public List<List<String>> parseTrivial() throws IOException, FactoryFailureException {
+    Parser<List<String>> parser =
+        new Parser<>(new FileReader(towns.toFile()), new TrivialCreator(), true, true);
+    parser.parse();
+    return parser.getParsedContent();
+  }
+
+  /**
+   * Parses stars into Stars.
+   *
+   * @return the parsed stars
+   * @throws IOException if the file can't be read
+   * @throws FactoryFailureException if a row can't be created
+   */
+  @Benchmark
+  public List<Star> parseStars() throws IOException, FactoryFailureException {
+    Parser<Star> parser =
+        new Parser<>(new FileReader(stars.toFile()), new StarCreator(), true, true);
+    parser.parse();
+    return parser.getParsedContent();
+  }
+
+  /**
+   * Parses students into StudentRecords.
+   *
+   * @return the parsed students
+   * @throws IOException if the file can't be read
+   * @throws FactoryFailureException if a row can't be created
+   */
+  @Benchmark
+  public List<StudentRecord> parseStudents() throws IOException, FactoryFailureException {
+    Parser<StudentRecord> parser =
+        new Parser<>(new FileReader(students.toFile()), new StudentRecordCreator(), true, true);
+    parser.parse();
+    return parser.getParsedContent();
+  }
+}
@@ -0,0 +1,102 @@
+package edu.brown.cs.student.benchmarks;
+
+import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.searcher.Searcher;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks each of the Searcher.search overloads over a file of town incomes, searching for a
+ * town found in one of every few dozen rows. The file is loaded (or, if streaming, its first row
+ * read) once, so only the searches are timed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class SearcherBenchmark {
+  /** The number of rows in the file; run with -p rows=10000000 for the largest file. */
+  @Param({"10000", "100000", "1000000"})
+  public int rows;
+
+  /** Whether the file is re-read on every search instead of held in memory. */
+  @Param({"false", "true"})
+  public boolean streaming;
+
+  /** The file searched. */
+  private Path file;
+  /** The searcher over the file. */
+  private Searcher searcher;
+
+  /**
+   * Writes the file searched and loads it.
+   *
+   * @throws IOException if the file can't be written or read
+   * @throws FactoryFailureException if the file can't be parsed
+   */
+  @Setup(Level.Trial)
+  public void loadFile() throws IOException, FactoryFailureException {
+    file = SyntheticData.writeTownsResource(rows);
+    searcher = new Searcher(file.getFileName().toString(), true, streaming);
+  }
+
+  /**
+   * Deletes the file searched.
+   *
+   * @throws IOException if the file can't be deleted
+   */
+  @TearDown(Level.Trial)
+  public void deleteFile() throws IOException {
+    SyntheticData.delete(file);
+  }
+
+  /**
+   * Searches every column for the town.
+   *
+   * @return the rows found
+   */
+  @Benchmark
+  public List<List<String>> searchAllColumns() {
+    return searcher.search(SyntheticData.SEARCHED_TOWN);
+  }
+
+  /**
+   * Searches the column named City/Town for the town.
+   *
+   * @return the rows found
+   * @throws IOException if the column isn't found
+   */
+  @Benchmark
+  public List<List<String>> searchColumnName() throws IOException {
+    return searcher.search(SyntheticData.SEARCHED_TOWN, "City/Town");
+  }
+
+  /**
+   * Searches the first column for the town.
+   *
+   * @return the rows found
+   */
+  @Benchmark
+  public List<List<String>> searchColumnIndex() {
+    return searcher.search(SyntheticData.SEARCHED_TOWN, 0);
+  }
+}
@@ -0,0 +1,97 @@
+package edu.brown.cs.student.benchmarks;
+
+import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.server.csvfuncs.SearchCSV;
+import edu.brown.cs.student.main.server.csvfuncs.ViewCSV;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the JSON the /viewcsv and /searchcsv endpoints return, from ViewCSV and SearchCSV. The
+ * file is parsed once while setting up, so each call loads it from its snapshot like the server
+ * does, then writes the rows as JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+  /** The number of rows in the file; run with -p rows=10000000 for the largest file. */
+  @Param({"10000", "100000", "1000000"})
+  public int rows;
+
+  /** The file viewed and searched. */
+  private Path file;
+  /** Views the file. */
+  private ViewCSV viewer;
+  /** Searches the file. */
+  private SearchCSV searcher;
+
+  /**
+   * Writes the file, then views and searches it once, so the snapshots of both ways of parsing it
+   * are made before anything is timed.
+   *
+   * @throws IOException if the file can't be written or read
+   * @throws FactoryFailureException if the file can't be parsed
+   */
+  @Setup(Level.Trial)
+  public void loadFile() throws IOException, FactoryFailureException {
+    file = SyntheticData.writeTownsResource(rows);
+    viewer = new ViewCSV();
+    searcher = new SearchCSV();
+    viewer.viewCSV(file.toString());
+    searcher.searchCSV(file.toString(), true, SyntheticData.SEARCHED_TOWN, null);
+  }
+
+  /**
+   * Deletes the file.
+   *
+   * @throws IOException if the file can't be deleted
+   */
+  @TearDown(Level.Trial)
+  public void deleteFile() throws IOException {
+    SyntheticData.delete(file);
+  }
+
+  /**
+   * Writes every row of the file as JSON.
+   *
+   * @return the JSON
+   * @throws IOException if the file can't be read
+   * @throws FactoryFailureException if the file can't be parsed
+   */
+  @Benchmark
+  public String viewCSV() throws IOException, FactoryFailureException {
+    return viewer.viewCSV(file.toString());
+  }
+
+  /**
+   * Writes the rows of the town as JSON.
+   *
+   * @return the JSON
+   * @throws IOException if the file can't be read
+   * @throws FactoryFailureException if the file can't be parsed
+   */
+  @Benchmark
+  public String searchCSV() throws IOException, FactoryFailureException {
+    return searcher.searchCSV(file.toString(), true, SyntheticData.SEARCHED_TOWN, "City/Town");
+  }
+}
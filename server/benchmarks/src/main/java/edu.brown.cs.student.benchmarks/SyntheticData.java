@@ -0,0 +1,196 @@
+package edu.brown.cs.student.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Writes synthetic CSV files for the benchmarks, shaped like the datasets in data/csv but of any
+ * number of rows. The same number of rows always gives the same file, so runs can be compared.
+ */
+final class SyntheticData {
+  /** The directory the Searcher finds files in, relative to where the benchmarks are run. */
+  static final Path RESOURCES = Path.of("data", "resources", "benchmarks");
+  /** The town searched for, which appears in one of every {@code TOWNS.length} rows. */
+  static final String SEARCHED_TOWN = "Providence";
+
+  /** The towns rows are spread over. */
+  private static final String[] TOWNS = {
+    "Barrington",
+    "Bristol",
+    "Burrillville",
+    "Central Falls",
+    "Charlestown",
+    "Coventry",
+    "Cranston",
+    "Cumberland",
+    "East Greenwich",
+    "East Providence",
+    "Exeter",
+    "Foster",
+    "Glocester",
+    "Hopkinton",
+    "Jamestown",
+    "Johnston",
+    "Lincoln",
+    "Little Compton",
+    "Middletown",
+    "Narragansett",
+    "Newport",
+    "New Shoreham",
+    "North Kingstown",
+    "North Providence",
+    "North Smithfield",
+    "Pawtucket",
+    "Portsmouth",
+    SEARCHED_TOWN,
+    "Richmond",
+    "Scituate",
+    "Smithfield",
+    "South Kingstown",
+    "Tiverton",
+    "Warren",
+    "Warwick",
+    "Westerly",
+    "West Greenwich",
+    "West Warwick",
+    "Woonsocket"
+  };
+  /** The first names students are given. */
+  private static final String[] FIRST_NAMES = {
+    "Alice", "Bob", "Carmen", "Dev", "Elena", "Farid", "Grace", "Hiro", "Ines", "Jamal", "Kofi",
+    "Lena", "Mateo", "Nadia", "Omar", "Priya"
+  };
+  /** The last names students are given. */
+  private static final String[] LAST_NAMES = {
+    "Johnson", "Smith", "Garcia", "Chen", "Okafor", "Haddad", "Kim", "Novak", "Silva", "Patel"
+  };
+  /** The majors students are given. */
+  private static final String[] MAJORS = {
+    "Computer Science",
+    "Mechanical Engineering",
+    "Biology",
+    "Economics",
+    "History",
+    "Applied Mathematics",
+    "Philosophy",
+    "Chemistry"
+  };
+
+  /** Not instantiable. */
+  private SyntheticData() {}
+
+  /**
+   * Writes rows of town incomes (City/Town, State, Median Household Income, Per Capita Income,
+   * Listings), with the incomes quoted because of their thousands separators, like
+   * ri_town_and_income.csv.
+   *
+   * @param file - the file to write
+   * @param rows - the number of rows after the header row
+   * @throws IOException if the file can't be written
+   */
+  static void writeTowns(Path file, int rows) throws IOException {
+    Random random = new Random(rows);
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writer.write("City/Town,State,Median Household Income,Per Capita Income,Listings\n");
+      for (int row = 0; row < rows; row++) {
+        writer.write(TOWNS[row % TOWNS.length]);
+        writer.write(",RI,\"");
+        writer.write(String.format(Locale.US, "%,.2f", 40_000 + random.nextInt(120_000) + 0.0));
+        writer.write("\",\"");
+        writer.write(String.format(Locale.US, "%,.2f", 20_000 + random.nextInt(60_000) + 0.0));
+        writer.write("\",");
+        writer.write(Integer.toString(random.nextInt(500)));
+        writer.write('\n');
+      }
+    }
+  }
+
+  /**
+   * Writes rows of stars (StarID, ProperName, X, Y, Z), most of them unnamed, like the HYG stars
+   * data.
+   *
+   * @param file - the file to write
+   * @param rows - the number of rows after the header row
+   * @throws IOException if the file can't be written
+   */
+  static void writeStars(Path file, int rows) throws IOException {
+    Random random = new Random(rows);
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writer.write("StarID,ProperName,X,Y,Z\n");
+      for (int row = 0; row < rows; row++) {
+        writer.write(Integer.toString(row));
+        writer.write(',');
+        if (row % 50 == 0) {
+          writer.write("Star " + row);
+        }
+        for (int d = 0; d < 3; d++) {
+          writer.write(',');
+          writer.write(String.format(Locale.US, "%.5f", random.nextDouble() * 2000 - 1000));
+        }
+        writer.write('\n');
+      }
+    }
+  }
+
+  /**
+   * Writes rows of students (StudentID, Name, Major), like students.csv.
+   *
+   * @param file - the file to write
+   * @param rows - the number of rows after the header row
+   * @throws IOException if the file can't be written
+   */
+  static void writeStudents(Path file, int rows) throws IOException {
+    Random random = new Random(rows);
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writer.write("StudentID,Name,Major\n");
+      for (int row = 0; row < rows; row++) {
+        writer.write(Integer.toString(1000 + row));
+        writer.write(',');
+        writer.write(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+        writer.write(' ');
+        writer.write(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+        writer.write(',');
+        writer.write(MAJORS[random.nextInt(MAJORS.length)]);
+        writer.write('\n');
+      }
+    }
+  }
+
+  /**
+   * Writes a file of town incomes where the Searcher (and so the server's endpoints) finds it,
+   * under data/resources/benchmarks.
+   *
+   * @param rows - the number of rows after the header row
+   * @return the path of the file, whose name is unique to the number of rows
+   * @throws IOException if the file can't be written
+   */
+  static Path writeTownsResource(int rows) throws IOException {
+    Files.createDirectories(RESOURCES);
+    Path file = RESOURCES.resolve("benchmark_towns_" + rows + ".csv");
+    writeTowns(file, rows);
+    return file;
+  }
+
+  /**
+   * Deletes a file and, if that leaves it empty, the directory it was in.
+   *
+   * @param file - the file to delete
+   * @throws IOException if the file can't be deleted
+   */
+  static void delete(Path file) throws IOException {
+    Files.deleteIfExists(file);
+    Path directory = file.getParent();
+    if (directory != null) {
+      try (var entries = Files.list(directory)) {
+        if (entries.findAny().isEmpty()) {
+          Files.delete(directory);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package edu.brown.cs.student.main.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * An input stream which reads its source on a background thread, a few chunks ahead of the reader.
+ * Wrapped around a slow source like a GZIPInputStream, the source is decompressed on one core while
+ * the bytes already decompressed are tokenized on another.
+ *
+ * <p>Only a fixed number of chunks are ever read ahead, and their buffers are reused once the
+ * reader is done with them, so the memory used doesn't grow with the size of the input. Errors
+ * reading the source are rethrown to the reader once it reaches the point they happened at.
+ */
+public class BackgroundInputStream extends InputStream {
+  /** Number of bytes read from the source at a time. */
+  private static final int CHUNK_SIZE = 1 << 16;
+  /** Number of chunks the background thread may read ahead of the reader. */
+  private static final int CHUNKS_AHEAD = 4;
+
+  /** A chunk of bytes read from the source. */
+  private record Chunk(byte[] bytes, int length) {}
+
+  /** Marks the end of the source (or the point it failed to be read). */
+  private static final Chunk END = new Chunk(new byte[0], 0);
+
+  /** The stream being read in the background. */
+  private final InputStream source;
+  /** Chunks read from the source, waiting for the reader. */
+  private final BlockingQueue<Chunk> full;
+  /** Buffers the reader is done with, for the background thread to reuse. */
+  private final BlockingQueue<byte[]> empty;
+  /** The thread reading the source. */
+  private final Thread thread;
+  /** The error hit reading the source, or null if there wasn't one. */
+  private volatile IOException error;
+  /** The chunk being read. */
+  private Chunk chunk;
+  /** Index of the next byte to read in the chunk. */
+  private int position;
+
+  /**
+   * Creates a stream over the given source and starts reading it in the background.
+   *
+   * @param source - the stream to read
+   * @param name - the name of the background thread
+   * @throws IllegalArgumentException when given a null input
+   */
+  public BackgroundInputStream(InputStream source, String name) {
+    if (source == null || name == null) {
+      throw new IllegalArgumentException("null input");
+    }
+    this.source = source;
+    this.full = new ArrayBlockingQueue<>(CHUNKS_AHEAD);
+    this.empty = new ArrayBlockingQueue<>(CHUNKS_AHEAD + 2);
+    this.error = null;
+    this.chunk = null;
+    this.position = 0;
+    this.thread = new Thread(this::readSource, name);
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!this.nextChunk()) {
+      return -1;
+    }
+    return chunk.bytes()[position++] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    } else if (!this.nextChunk()) {
+      return -1;
+    }
+    int count = Math.min(len, chunk.length() - position);
+    System.arraycopy(chunk.bytes(), position, b, off, count);
+    position += count;
+    return count;
+  }
+
+  /** Stops the background thread and closes the source. */
+  @Override
+  public void close() throws IOException {
+    thread.interrupt();
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    source.close();
+  }
+
+  /**
+   * Makes sure there are bytes left in the current chunk, waiting for the next one if needed.
+   *
+   * @return false at the end of the source
+   * @throws IOException if the source failed to be read, or the wait was interrupted
+   */
+  private boolean nextChunk() throws IOException {
+    if (chunk != null && position < chunk.length()) {
+      return true;
+    } else if (chunk == END) {
+      return this.end();
+    }
+    if (chunk != null) {
+      empty.offer(chunk.bytes());
+    }
+    try {
+      chunk = full.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted while waiting for input");
+    }
+    position = 0;
+    return chunk == END ? this.end() : true;
+  }
+
+  /**
+   * Reports the end of the source to the reader.
+   *
+   * @return false, since there are no bytes left
+   * @throws IOException if the source ended because it failed to be read
+   */
+  private boolean end() throws IOException {
+    if (error != null) {
+      throw new IOException("failed to read input: " + error.getMessage(), error);
+    }
+    return false;
+  }
+
+  /** Reads the source into chunks until it ends, fails, or the stream is closed. */
+  private void readSource() {
+    try {
+      while (true) {
+        byte[] bytes = empty.poll();
+        if (bytes == null) {
+          bytes = new byte[CHUNK_SIZE];
+        }
+        int length = source.readNBytes(bytes, 0, bytes.length);
+        if (length > 0) {
+          full.put(new Chunk(bytes, length));
+        }
+        if (length < bytes.length) {
+          break;
+        }
+      }
+    } catch (IOException e) {
+      error = e;
+    } catch (InterruptedException e) {
+      // closed before the whole source was read
+      return;
+    }
+    try {
+      full.put(END);
+    } catch (InterruptedException e) {
+      // closed while waiting for the reader
+    }
+  }
+}
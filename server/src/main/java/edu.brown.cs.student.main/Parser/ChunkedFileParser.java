@@ -0,0 +1,609 @@
+package edu.brown.cs.student.main.parser;
+
+import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.creators.CreatorFromRow;
+import edu.brown.cs.student.main.parser.table.ColumnEncoding;
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import edu.brown.cs.student.main.parser.tokenizers.RowTokenizer;
+import edu.brown.cs.student.main.parser.tokenizers.RowView;
+import edu.brown.cs.student.main.parser.tokenizers.UnterminatedQuoteException;
+import edu.brown.cs.student.main.parser.tokenizers.Utf8Rfc4180Tokenizer;
+import java.io.CharArrayReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * A parser for large files which memory-maps the file, splits it into chunks at record boundaries
+ * and tokenizes and creates the chunks on a ForkJoinPool. The results are put back together in file
+ * order, so the parsed content is the same as a {@link Parser} over the same file would give.
+ *
+ * <p>Record boundaries are found in parallel too: each chunk counts its quotes and remembers its
+ * first line break after an even and after an odd number of quotes. Once the number of quotes
+ * before each chunk is known, that picks the first line break which isn't inside a quoted field.
+ * Counting quotes goes wrong on a stray quote in an unquoted field (5" pipe), which the tokenizer
+ * keeps as it is, and can put the start of a segment inside a quoted field. The segment before it
+ * then ends inside an open quote, so from the first segment that does, the rest of the file is
+ * parsed in one go. Any other error in a segment is kept and reported in file order, without
+ * parsing anything again.
+ */
+public class ChunkedFileParser<T> {
+  /** Default number of bytes in each chunk. */
+  private static final int DEFAULT_CHUNK_SIZE = 8 << 20;
+  /**
+   * Regions of the file smaller than this are read into memory rather than mapped. Each mapping is
+   * only released once it's garbage collected, so many tiny ones can run out of address space.
+   */
+  private static final int MIN_MAPPED_SIZE = 1 << 20;
+
+  /** The file to parse. */
+  private final Path file;
+  /** describes how to convert rows into data objects. */
+  private final CreatorFromRow<T> creator;
+  /** Indicates whether there's a header row to skip when parsing data. */
+  private final boolean headerRow;
+  /** If there's a set number of columns. */
+  private final boolean setNumberColumns;
+  /** How the input is split into rows and fields. */
+  private final CsvFormat format;
+  /** The pool the chunks are parsed on. */
+  private final ForkJoinPool pool;
+  /** Number of bytes in each chunk (chunks grow or shrink to end on a record boundary). */
+  private final int chunkSize;
+  /** The content parsed from the file. */
+  private List<T> parsedContent;
+  /** The indices of the projected columns in ascending order, or null to read every column. */
+  private int[] projection;
+
+  /** The results of scanning one chunk for quotes and line breaks. */
+  private record ChunkScan(long quotes, long firstEvenLineBreak, long firstOddLineBreak) {}
+
+  /**
+   * The results of parsing one segment of the file.
+   *
+   * @param rows - what the segment's rows were added to
+   * @param firstRow - the segment's first (non-header) row, or null if it had none
+   * @param firstWidth - the number of fields the first row had in the file, before projection
+   * @param error - the first error hit in the segment, or null if there wasn't one
+   * @param openQuote - whether the segment ended inside a quoted field, so the next segment may not
+   *     start on a record
+   */
+  private record Segment<R>(
+      R rows, List<String> firstRow, int firstWidth, Exception error, boolean openQuote) {}
+
+  /**
+   * Where the rows of one segment are put as they're read.
+   *
+   * @param <R> - what the rows are added to
+   */
+  private interface RowSink<R> {
+    /**
+     * Gets whether rows are read into a view rather than into lists.
+     *
+     * @return true to read rows into a view
+     */
+    boolean readsViews();
+
+    /**
+     * Keeps the header row, if it's needed.
+     *
+     * @param header - the header row, with just the projected columns
+     */
+    default void setHeader(List<String> header) {}
+
+    /**
+     * Adds a row.
+     *
+     * @param row - the fields of the row, or null if it was read into the view
+     * @param view - the view holding the row, or null if it was read into a list
+     * @throws FactoryFailureException if the row can't be created
+     */
+    void add(List<String> row, RowView view) throws FactoryFailureException;
+
+    /**
+     * Gets what the rows were added to.
+     *
+     * @return the rows
+     */
+    R rows();
+  }
+
+  /**
+   * Used to parse a CSV file in parallel on the common ForkJoinPool.
+   *
+   * @param file - path of the file to parse
+   * @param creator - creator class provided to convert Strings to data objects
+   * @param headerRow - indicates whether there's a header row to skip when parsing data
+   * @param setNumColumns - indicates whether there's a set number of columns in the data (if true,
+   *     we throw an error when encountering an inconsistent number of columns)
+   * @param format - how rows are split into fields
+   * @throws IllegalArgumentException when given a null input
+   */
+  public ChunkedFileParser(
+      Path file,
+      CreatorFromRow<T> creator,
+      boolean headerRow,
+      boolean setNumColumns,
+      CsvFormat format)
+      throws IllegalArgumentException {
+    this(
+        file,
+        creator,
+        headerRow,
+        setNumColumns,
+        format,
+        ForkJoinPool.commonPool(),
+        DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Used to parse a CSV file in parallel on the given pool, with chunks of the given size.
+   *
+   * @param file - path of the file to parse
+   * @param creator - creator class provided to convert Strings to data objects
+   * @param headerRow - indicates whether there's a header row to skip when parsing data
+   * @param setNumColumns - indicates whether there's a set number of columns in the data (if true,
+   *     we throw an error when encountering an inconsistent number of columns)
+   * @param format - how rows are split into fields
+   * @param pool - the pool to parse the chunks on
+   * @param chunkSize - the number of bytes in each chunk
+   * @throws IllegalArgumentException when given a null input or a chunk size less than one
+   */
+  public ChunkedFileParser(
+      Path file,
+      CreatorFromRow<T> creator,
+      boolean headerRow,
+      boolean setNumColumns,
+      CsvFormat format,
+      ForkJoinPool pool,
+      int chunkSize)
+      throws IllegalArgumentException {
+    if (file == null || creator == null || format == null || pool == null) {
+      throw new IllegalArgumentException("null input");
+    } else if (chunkSize < 1) {
+      throw new IllegalArgumentException("chunk size " + chunkSize + " must be at least one");
+    }
+    this.file = file;
+    this.creator = creator;
+    this.headerRow = headerRow;
+    this.setNumberColumns = setNumColumns;
+    this.format = format;
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+    this.parsedContent = new ArrayList<>();
+    this.projection = null;
+  }
+
+  /**
+   * Only reads the given columns, like {@link Parser#setProjection(int...)}: the fields of every
+   * other column are skipped without being copied, and rows are handed to the creator with just the
+   * projected columns.
+   *
+   * @param columns - the indices of the columns to read
+   * @throws IllegalArgumentException if there are no columns, or a column is negative
+   */
+  public void setProjection(int... columns) {
+    if (columns == null || columns.length == 0) {
+      throw new IllegalArgumentException("no columns to project");
+    }
+    for (int column : columns) {
+      if (column < 0) {
+        throw new IllegalArgumentException("column " + column + " must be zero or greater");
+      }
+    }
+    this.projection = Arrays.stream(columns).sorted().distinct().toArray();
+  }
+
+  /**
+   * Parses the file in parallel, runs every row through the creator, then stitches the results back
+   * together in file order. Errors are reported for the first bad row in the file, just like {@link
+   * Parser#parse()}.
+   *
+   * @throws IOException when the file can't be mapped or read
+   * @throws FactoryFailureException when data isn’t of the form the creator object expected
+   */
+  public void parse() throws IOException, FactoryFailureException {
+    List<List<T>> segments =
+        this.parseSegments(
+            () ->
+                new RowSink<>() {
+                  private final List<T> rows = new ArrayList<>();
+
+                  @Override
+                  public boolean readsViews() {
+                    return projection != null;
+                  }
+
+                  @Override
+                  public void add(List<String> row, RowView view) throws FactoryFailureException {
+                    rows.add(creator.create(row == null ? view.toList() : row));
+                  }
+
+                  @Override
+                  public List<T> rows() {
+                    return rows;
+                  }
+                });
+    int numRows = 0;
+    for (List<T> rows : segments) {
+      numRows += rows.size();
+    }
+    List<T> stitched = new ArrayList<>(numRows);
+    for (List<T> rows : segments) {
+      stitched.addAll(rows);
+    }
+    this.parsedContent = stitched;
+  }
+
+  /**
+   * Parses the file in parallel into a {@link ColumnarTable} instead of running it through the
+   * creator, like {@link Parser#parseToTable(ColumnEncoding)}. Each segment copies its fields
+   * straight from the tokenizer into its own columns, without making a list for each row, and the
+   * segments' columns are then joined in file order.
+   *
+   * @param encoding - how to store the columns
+   * @return the table of parsed data
+   * @throws IOException when the file can't be mapped or read
+   * @throws FactoryFailureException when setNumColumns is true and a row has a different number of
+   *     columns
+   * @throws IllegalArgumentException if the encoding is null
+   */
+  public ColumnarTable parseToTable(ColumnEncoding encoding)
+      throws IOException, FactoryFailureException {
+    if (encoding == null) {
+      throw new IllegalArgumentException("null encoding input");
+    }
+    List<ColumnarTable.Builder> segments =
+        this.parseSegments(
+            () ->
+                new RowSink<>() {
+                  private final ColumnarTable.Builder rows = new ColumnarTable.Builder(encoding);
+
+                  @Override
+                  public boolean readsViews() {
+                    return true;
+                  }
+
+                  @Override
+                  public void setHeader(List<String> header) {
+                    rows.setHeader(header);
+                  }
+
+                  @Override
+                  public void add(List<String> row, RowView view) {
+                    rows.addRow(view);
+                  }
+
+                  @Override
+                  public ColumnarTable.Builder rows() {
+                    return rows;
+                  }
+                });
+    // the first segment holds the header row, if there is one
+    ColumnarTable.Builder table = segments.get(0);
+    for (int i = 1; i < segments.size(); i++) {
+      table.append(segments.get(i));
+    }
+    return table.build();
+  }
+
+  /**
+   * Splits the file into segments at record starts and parses them on the pool, each into its own
+   * sink. Errors are reported for the first bad row in the file, just like {@link Parser#parse()}.
+   *
+   * @param sinks - makes the sink each segment's rows are put in
+   * @return what each segment's rows were added to, in file order
+   * @throws IOException when the file can't be mapped or read
+   * @throws FactoryFailureException when data isn’t of the form the creator object expected
+   */
+  private <R> List<R> parseSegments(Supplier<RowSink<R>> sinks)
+      throws IOException, FactoryFailureException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      List<Long> starts = findRecordStarts(channel, size);
+
+      // parse each segment between two record starts on the pool
+      List<Callable<Segment<R>>> tasks = new ArrayList<>();
+      for (int i = 0; i < starts.size(); i++) {
+        long start = starts.get(i);
+        long end = i + 1 < starts.size() ? starts.get(i + 1) : size;
+        boolean skipHeader = headerRow && i == 0;
+        tasks.add(() -> parseSegment(channel, start, end, skipHeader, sinks.get()));
+      }
+      List<Segment<R>> segments = new ArrayList<>(getAll(pool.invokeAll(tasks)));
+      for (int i = 0; i + 1 < segments.size(); i++) {
+        Segment<R> segment = segments.get(i);
+        if (segment.openQuote()) {
+          // the next segment may not start on a record: parse from this segment's start to the
+          // end of the file without splitting it
+          Segment<R> rest =
+              parseSegment(channel, starts.get(i), size, headerRow && i == 0, sinks.get());
+          segments.subList(i, segments.size()).clear();
+          segments.add(rest);
+        } else if (segment.error() != null) {
+          // every segment up to here started on a record, so this is the first bad row
+          break;
+        }
+      }
+
+      // go through the segments in order so the first error in the file is the one thrown
+      List<String> expectedWidthRow = null;
+      int expectedWidth = -1;
+      List<R> results = new ArrayList<>(segments.size());
+      for (Segment<R> segment : segments) {
+        if (segment.firstRow() != null) {
+          if (expectedWidthRow == null) {
+            expectedWidthRow = segment.firstRow();
+            expectedWidth = segment.firstWidth();
+          } else if (setNumberColumns && segment.firstWidth() != expectedWidth) {
+            throw inconsistentColumns(segment.firstRow());
+          }
+        }
+        if (segment.error() instanceof FactoryFailureException e) {
+          throw e;
+        } else if (segment.error() instanceof IOException e) {
+          throw e;
+        } else if (segment.error() instanceof RuntimeException e) {
+          throw e;
+        }
+        results.add(segment.rows());
+      }
+      return results;
+    }
+  }
+
+  /**
+   * Gets the parsed content. Unlike {@link Parser#getParsedContent()} this isn't a copy, since the
+   * content can be large; the returned list can't be modified.
+   *
+   * @return the objects created from each row, in file order
+   */
+  public List<T> getParsedContent() {
+    return Collections.unmodifiableList(parsedContent);
+  }
+
+  /**
+   * Splits the file into chunks and finds the offset of the first record starting in each chunk.
+   *
+   * @param channel - channel of the file
+   * @param size - size of the file in bytes
+   * @return the offsets that records start at (always beginning with 0), in increasing order
+   * @throws IOException if a chunk can't be mapped
+   */
+  private List<Long> findRecordStarts(FileChannel channel, long size) throws IOException {
+    // quotes only matter when a quoted field may span lines
+    boolean quotesSpanLines = format != CsvFormat.REGEX;
+    List<Callable<ChunkScan>> tasks = new ArrayList<>();
+    for (long start = 0; start < size; start += chunkSize) {
+      long chunkStart = start;
+      long chunkEnd = Math.min(size, start + chunkSize);
+      tasks.add(() -> scanChunk(channel, chunkStart, chunkEnd, quotesSpanLines));
+    }
+    List<ChunkScan> scans = getAll(pool.invokeAll(tasks));
+
+    List<Long> starts = new ArrayList<>();
+    starts.add(0L);
+    long quotesBefore = 0;
+    for (int i = 0; i < scans.size(); i++) {
+      ChunkScan scan = scans.get(i);
+      if (i > 0) {
+        long lineBreak =
+            quotesBefore % 2 == 0 ? scan.firstEvenLineBreak() : scan.firstOddLineBreak();
+        // if every line break in the chunk is quoted, the chunk is part of the previous record
+        if (lineBreak != -1 && lineBreak + 1 < size) {
+          starts.add(lineBreak + 1);
+        }
+      }
+      quotesBefore += scan.quotes();
+    }
+    return starts;
+  }
+
+  /**
+   * Counts the quotes in a chunk, and finds its first line break after an even and an odd number of
+   * quotes (counting from the start of the chunk).
+   *
+   * @param channel - channel of the file
+   * @param start - offset of the chunk's first byte
+   * @param end - offset just past the chunk's last byte
+   * @param countQuotes - false to ignore quotes, so every line break counts as even
+   * @return the results of the scan, with line breaks as file offsets (-1 if not found)
+   * @throws IOException if the chunk can't be mapped
+   */
+  private static ChunkScan scanChunk(FileChannel channel, long start, long end, boolean countQuotes)
+      throws IOException {
+    ByteBuffer bytes = readRegion(channel, start, end);
+    int length = bytes.limit();
+    long quotes = 0;
+    long firstEven = -1;
+    long firstOdd = -1;
+    for (int i = 0; i < length; i++) {
+      byte b = bytes.get(i);
+      if (b == '"' && countQuotes) {
+        quotes++;
+      } else if (b == '\n') {
+        if ((quotes & 1) == 0) {
+          if (firstEven == -1) {
+            firstEven = start + i;
+          }
+        } else if (firstOdd == -1) {
+          firstOdd = start + i;
+        }
+      }
+    }
+    return new ChunkScan(quotes, firstEven, firstOdd);
+  }
+
+  /**
+   * Decodes and tokenizes the rows in one segment of the file, and puts them in a sink. Errors are
+   * returned in the segment rather than thrown, so they can be reported in file order.
+   *
+   * @param channel - channel of the file
+   * @param start - offset of the segment's first byte (the start of a record)
+   * @param end - offset just past the segment's last byte
+   * @param skipHeader - whether the segment starts with the header row
+   * @param sink - where to put the segment's rows
+   * @return the parsed segment
+   */
+  private <R> Segment<R> parseSegment(
+      FileChannel channel, long start, long end, boolean skipHeader, RowSink<R> sink) {
+    List<String> firstRow = null;
+    int firstWidth = -1;
+    // rows read into a view don't copy the fields of columns that aren't projected
+    RowView view = null;
+    if (projection != null || sink.readsViews()) {
+      view = new RowView();
+      if (projection != null) {
+        view.setProjection(projection);
+      }
+    }
+    try {
+      ByteBuffer bytes = readRegion(channel, start, end);
+      try (RowTokenizer tokenizer = this.openSegment(bytes)) {
+        if (skipHeader) {
+          sink.setHeader(nextRow(tokenizer, view));
+        }
+        List<String> row = null;
+        while (view == null ? (row = tokenizer.nextRow()) != null : tokenizer.nextRowView(view)) {
+          int width = view == null ? row.size() : view.getWidth();
+          if (firstRow == null) {
+            firstRow = view == null ? row : view.toList();
+            firstWidth = width;
+          } else if (setNumberColumns && width != firstWidth) {
+            return new Segment<>(
+                sink.rows(), firstRow, firstWidth, inconsistentColumns(row, view), false);
+          }
+          if (projection != null && width <= projection[projection.length - 1]) {
+            return new Segment<>(
+                sink.rows(), firstRow, firstWidth, inconsistentColumns(row, view), false);
+          }
+          sink.add(row, view);
+        }
+      }
+    } catch (IOException | FactoryFailureException | RuntimeException e) {
+      boolean openQuote = e instanceof UnterminatedQuoteException;
+      return new Segment<>(sink.rows(), firstRow, firstWidth, e, openQuote);
+    }
+    return new Segment<>(sink.rows(), firstRow, firstWidth, null, false);
+  }
+
+  /**
+   * Reads the next row of a segment, through the view if there is one.
+   *
+   * @param tokenizer - the tokenizer over the segment
+   * @param view - the view to read rows into, or null to read them into lists
+   * @return the fields of the row, or null if there are no rows left
+   * @throws IOException if the segment is malformed
+   */
+  private static List<String> nextRow(RowTokenizer tokenizer, RowView view) throws IOException {
+    if (view == null) {
+      return tokenizer.nextRow();
+    }
+    return tokenizer.nextRowView(view) ? view.toList() : null;
+  }
+
+  /**
+   * Opens a tokenizer over one segment of the file. RFC 4180 segments are tokenized on their mapped
+   * bytes, so only the fields are decoded; other formats decode the whole segment to chars first.
+   *
+   * @param bytes - the segment's bytes
+   * @return the tokenizer
+   */
+  private RowTokenizer openSegment(ByteBuffer bytes) {
+    if (format == CsvFormat.RFC4180) {
+      return new Utf8Rfc4180Tokenizer(bytes);
+    }
+    // record starts are always just after a \n byte, which is never part of a multi-byte char
+    CharBuffer chars = StandardCharsets.UTF_8.decode(bytes);
+    return format.open(
+        new CharArrayReader(
+            chars.array(), chars.arrayOffset() + chars.position(), chars.remaining()));
+  }
+
+  /**
+   * Gets the bytes of a region of the file, mapping it if it's large and reading it if not.
+   *
+   * @param channel - channel of the file
+   * @param start - offset of the region's first byte
+   * @param end - offset just past the region's last byte
+   * @return the region's bytes, from position 0 to the limit
+   * @throws IOException if the region can't be mapped or read
+   */
+  private static ByteBuffer readRegion(FileChannel channel, long start, long end)
+      throws IOException {
+    if (end - start >= MIN_MAPPED_SIZE) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+    }
+    ByteBuffer bytes = ByteBuffer.allocate((int) (end - start));
+    while (bytes.hasRemaining()) {
+      if (channel.read(bytes, start + bytes.position()) < 0) {
+        throw new EOFException("file ended before offset " + end);
+      }
+    }
+    return bytes.flip();
+  }
+
+  /**
+   * Builds the exception thrown for a row with the wrong number of columns.
+   *
+   * @param row - the fields of the row, or null if it was read into the view
+   * @param view - the view holding the row, or null if it was read into a list
+   * @return the exception
+   */
+  private static FactoryFailureException inconsistentColumns(List<String> row, RowView view) {
+    return inconsistentColumns(row == null ? view.toList() : row);
+  }
+
+  /**
+   * Builds the exception thrown for a row with the wrong number of columns.
+   *
+   * @param row - the row
+   * @return the exception
+   */
+  private static FactoryFailureException inconsistentColumns(List<String> row) {
+    return new FactoryFailureException(
+        "Inconsistent number of columns at row: " + String.join(",", row), row);
+  }
+
+  /**
+   * Waits for the given futures and returns their results in order.
+   *
+   * @param futures - the futures to wait for
+   * @return the results
+   * @throws IOException if a task threw an IOException or the wait was interrupted
+   */
+  private static <R> List<R> getAll(List<Future<R>> futures) throws IOException {
+    List<R> results = new ArrayList<>(futures.size());
+    try {
+      for (Future<R> future : futures) {
+        results.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted while parsing");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException cause) {
+        throw cause;
+      } else if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException("failed to parse chunk", e.getCause());
+    }
+    return results;
+  }
+}
@@ -0,0 +1,49 @@
+package edu.brown.cs.student.main.parser;
+
+import edu.brown.cs.student.main.parser.tokenizers.RegexRowTokenizer;
+import edu.brown.cs.student.main.parser.tokenizers.Rfc4180Tokenizer;
+import edu.brown.cs.student.main.parser.tokenizers.RowTokenizer;
+import java.io.Reader;
+
+/** The ways a Parser can split its input into rows and fields. */
+public enum CsvFormat {
+  /**
+   * The original line-based regex split. Quotes are kept in the fields, trailing empty fields are
+   * dropped and quoted fields can't contain line breaks.
+   */
+  REGEX {
+    @Override
+    public RowTokenizer open(Reader reader) {
+      return new RegexRowTokenizer(reader);
+    }
+  },
+  /**
+   * A linear-time state machine following RFC 4180. Quotes are removed and unescaped, and quoted
+   * fields may span multiple lines.
+   */
+  RFC4180 {
+    @Override
+    public RowTokenizer open(Reader reader) {
+      return new Rfc4180Tokenizer(reader);
+    }
+  },
+  /**
+   * The same as RFC4180, but scanning for delimiters, quotes and line breaks many chars at a time
+   * with the Vector API. Needs the JVM to be started with --add-modules jdk.incubator.vector, and
+   * falls back to scanning one char at a time (with the same results) when it isn't.
+   */
+  RFC4180_VECTOR {
+    @Override
+    public RowTokenizer open(Reader reader) {
+      return new Rfc4180Tokenizer(reader, true);
+    }
+  };
+
+  /**
+   * Creates a tokenizer of this format over a reader.
+   *
+   * @param reader - the reader to tokenize
+   * @return the tokenizer
+   */
+  public abstract RowTokenizer open(Reader reader);
+}
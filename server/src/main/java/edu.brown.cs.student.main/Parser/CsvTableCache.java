@@ -0,0 +1,235 @@
+package edu.brown.cs.student.main.parser;
+
+import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.creators.TrivialCreator;
+import edu.brown.cs.student.main.parser.table.ColumnEncoding;
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import edu.brown.cs.student.main.parser.table.TableSnapshot;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Loads ColumnarTables from CSV files, keeping a binary {@link TableSnapshot} of each one in a
+ * directory. The first load of a file parses it and writes the snapshot; later loads (even after a
+ * restart) map the snapshot instead, until the CSV file changes and it is parsed again.
+ *
+ * <p>A snapshot's checksum is only checked the first time the cache reads that snapshot file (or
+ * not at all, if the cache wrote it), so loading a file again, e.g. once per search, only maps the
+ * snapshot and checks the CSV file hasn't changed.
+ */
+public class CsvTableCache {
+  /** The cache the server uses, keeping its snapshots under data/snapshots. */
+  private static final CsvTableCache DEFAULT = new CsvTableCache(Path.of("data/snapshots"));
+
+  /** The directory snapshots are kept in. */
+  private final Path directory;
+  /**
+   * The snapshot files whose checksums have been checked, by the path of each snapshot (which is
+   * different for each file and options).
+   */
+  private final Map<Path, SnapshotFile> checkedSnapshots;
+
+  /**
+   * Tells one snapshot file apart from another written to the same path later; snapshots are moved
+   * into place, so a new one is a new file.
+   *
+   * @param fileKey - the file's key (e.g. its inode), or null if the platform has none
+   * @param modified - when the file was last modified
+   * @param size - the file's size in bytes
+   */
+  private record SnapshotFile(Object fileKey, FileTime modified, long size) {
+    /**
+     * Looks at the snapshot file now at a path.
+     *
+     * @param snapshot - the path of the snapshot
+     * @return the file
+     * @throws IOException if there's no file, or it can't be looked at
+     */
+    static SnapshotFile at(Path snapshot) throws IOException {
+      BasicFileAttributes attributes = Files.readAttributes(snapshot, BasicFileAttributes.class);
+      return new SnapshotFile(
+          attributes.fileKey(), attributes.lastModifiedTime(), attributes.size());
+    }
+  }
+
+  /** Describes how to parse a CSV file into a table when there is no valid snapshot of it. */
+  @FunctionalInterface
+  public interface TableLoader {
+    /**
+     * Parses the CSV file into a table.
+     *
+     * @return the table
+     * @throws IOException when the file fails to be read
+     * @throws FactoryFailureException when the file's data isn't of the expected form
+     */
+    ColumnarTable load() throws IOException, FactoryFailureException;
+  }
+
+  /**
+   * Creates a cache keeping its snapshots in the given directory, which is created when the first
+   * snapshot is written.
+   *
+   * @param directory - the directory to keep snapshots in
+   * @throws IllegalArgumentException if the directory is null
+   */
+  public CsvTableCache(Path directory) {
+    if (directory == null) {
+      throw new IllegalArgumentException("null directory input");
+    }
+    this.directory = directory;
+    this.checkedSnapshots = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Gets the cache the server uses, which keeps its snapshots under data/snapshots.
+   *
+   * @return the default cache
+   */
+  public static CsvTableCache getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Describes how a CSV file is parsed into a table, for telling apart the snapshots of tables
+   * parsed different ways. Every load parsing a file the same way should use the same options, so
+   * they share one snapshot.
+   *
+   * @param format - how rows are split into fields
+   * @param headerRow - whether the file's header row becomes the table's header
+   * @param setNumColumns - whether rows with different numbers of columns are an error
+   * @param encoding - how the columns are stored
+   * @param inferTypes - whether numeric columns are stored as numbers
+   * @param projection - the indices of the only columns parsed, or null if every column is
+   * @return the options
+   */
+  public static String options(
+      CsvFormat format,
+      boolean headerRow,
+      boolean setNumColumns,
+      ColumnEncoding encoding,
+      boolean inferTypes,
+      int[] projection) {
+    String options =
+        String.join(
+            ",",
+            format.name(),
+            "headerRow=" + headerRow,
+            "setNumColumns=" + setNumColumns,
+            encoding.name(),
+            "inferTypes=" + inferTypes);
+    if (projection == null) {
+      return options;
+    }
+    return options
+        + ",columns="
+        + Arrays.stream(projection).mapToObj(Integer::toString).collect(Collectors.joining(";"));
+  }
+
+  /**
+   * Loads a CSV file into a table with a Parser, from its snapshot if there is a valid one. Gzipped
+   * files (.csv.gz) are decompressed while they're parsed.
+   *
+   * @param csvFile - the CSV file to load
+   * @param headerRow - whether the file has a header row, which becomes the table's header
+   * @param setNumColumns - whether to throw an error when rows have different numbers of columns
+   * @param format - how rows are split into fields
+   * @param encoding - how to store the columns
+   * @param inferTypes - whether to store numeric columns as numbers
+   * @return the table
+   * @throws IOException when the file fails to be read
+   * @throws FactoryFailureException when setNumColumns is true and a row has a different number of
+   *     columns
+   */
+  public ColumnarTable load(
+      Path csvFile,
+      boolean headerRow,
+      boolean setNumColumns,
+      CsvFormat format,
+      ColumnEncoding encoding,
+      boolean inferTypes)
+      throws IOException, FactoryFailureException {
+    String options = options(format, headerRow, setNumColumns, encoding, inferTypes, null);
+    return load(
+        csvFile,
+        options,
+        () ->
+            new Parser<>(
+                    CsvInput.openReader(csvFile),
+                    new TrivialCreator(),
+                    headerRow,
+                    setNumColumns,
+                    format)
+                .parseToTable(encoding, inferTypes));
+  }
+
+  /**
+   * Loads a CSV file into a table, from its snapshot if there is a valid one, or else with the
+   * given loader (writing a new snapshot afterwards). Snapshots are only used by loads with the
+   * same options, since the same file parsed differently gives a different table; loads with
+   * different options keep separate snapshots, so they don't replace each other's.
+   *
+   * @param csvFile - the CSV file to load
+   * @param options - describes how the loader parses the file
+   * @param loader - parses the file when there is no valid snapshot
+   * @return the table
+   * @throws IOException when the file fails to be read
+   * @throws FactoryFailureException when the file's data isn't of the expected form
+   */
+  public ColumnarTable load(Path csvFile, String options, TableLoader loader)
+      throws IOException, FactoryFailureException {
+    Path snapshot = this.getSnapshotPath(csvFile, options);
+    try {
+      SnapshotFile file = SnapshotFile.at(snapshot);
+      boolean checked = file.equals(checkedSnapshots.get(snapshot));
+      ColumnarTable table = TableSnapshot.read(snapshot, csvFile, options, !checked);
+      if (table != null) {
+        checkedSnapshots.put(snapshot, file);
+        return table;
+      }
+    } catch (IOException e) {
+      // an unreadable snapshot is the same as a missing one; the loader reports a missing file
+    }
+
+    FileTime modifiedBefore = Files.getLastModifiedTime(csvFile);
+    long sizeBefore = Files.size(csvFile);
+    ColumnarTable table = loader.load();
+    // a file changed mid-parse would get a snapshot that looks valid but isn't, so skip it
+    if (modifiedBefore.equals(Files.getLastModifiedTime(csvFile))
+        && sizeBefore == Files.size(csvFile)) {
+      try {
+        TableSnapshot.write(table, snapshot, csvFile, options);
+        checkedSnapshots.put(snapshot, SnapshotFile.at(snapshot));
+      } catch (IOException e) {
+        // snapshots only speed up later loads, so failing to write one isn't an error
+      }
+    }
+    return table;
+  }
+
+  /**
+   * Gets where the snapshot of a CSV file parsed with some options is kept. The name includes a
+   * hash of the file's full path, so files with the same name in different directories don't share
+   * a snapshot, and a hash of the options, so the same file parsed different ways doesn't either.
+   *
+   * @param csvFile - the CSV file
+   * @param options - describes how the file is parsed
+   * @return the path of its snapshot
+   */
+  public Path getSnapshotPath(Path csvFile, String options) {
+    Path absolute = csvFile.toAbsolutePath().normalize();
+    return directory.resolve(
+        absolute.getFileName()
+            + "-"
+            + Integer.toHexString(absolute.hashCode())
+            + "-"
+            + Integer.toHexString(options.hashCode())
+            + ".snap");
+  }
+}
@@ -0,0 +1,263 @@
+package edu.brown.cs.student.main.parser;
+
+import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.table.ColumnEncoding;
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import edu.brown.cs.student.main.parser.tokenizers.RowTokenizer;
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A table of an append-only CSV file (such as a log) which is kept up to date without parsing the
+ * whole file again. It remembers the byte offset just past the last complete record it has parsed,
+ * and each refresh only parses the bytes appended since then, adding their rows to the end of the
+ * table.
+ *
+ * <p>A record is complete once its line break has been written; anything after the last line break
+ * (a partly written record, or a last record the writer hasn't ended yet) is left for a later
+ * refresh, so a half-flushed line is never parsed. If the file gets shorter, it wasn't just
+ * appended to, so the table is parsed again from the start. Listeners are told about every change,
+ * so anything built from the table (like an index) can be updated with just the new rows.
+ */
+public class IncrementalCsvTable {
+  /** The file being followed. */
+  private final Path file;
+  /** Indicates whether the file's first row is a header. */
+  private final boolean headerRow;
+  /** If there's a set number of columns. */
+  private final boolean setNumberColumns;
+  /** How the file is split into rows and fields. */
+  private final CsvFormat format;
+  /** How the table's columns are stored. */
+  private final ColumnEncoding encoding;
+  /** Told about the rows added by each refresh. */
+  private final List<AppendListener> listeners;
+  /** Holds every row parsed so far. */
+  private ColumnarTable.Builder builder;
+  /** Offset just past the last complete record parsed so far. */
+  private long offset;
+  /** The number of columns every row must have, or -1 if no row has been parsed yet. */
+  private int numColumns;
+  /** The table of every row parsed so far. */
+  private volatile ColumnarTable table;
+
+  /** Listens for rows being added to an IncrementalCsvTable. */
+  @FunctionalInterface
+  public interface AppendListener {
+    /**
+     * Called after a refresh adds rows to the table.
+     *
+     * @param table - the table, including the new rows
+     * @param firstNewRow - the index of the first new row; 0 when the whole table was parsed again,
+     *     so anything built from the old table should be thrown away
+     */
+    void rowsAppended(ColumnarTable table, int firstNewRow);
+  }
+
+  /**
+   * Creates a table following the given file. Nothing is parsed until the first refresh.
+   *
+   * @param file - the CSV file to follow
+   * @param headerRow - whether the file has a header row, which becomes the table's header
+   * @param setNumColumns - whether to throw an error when rows have different numbers of columns
+   * @param format - how rows are split into fields
+   * @param encoding - how to store the columns
+   * @throws IllegalArgumentException when given a null input
+   */
+  public IncrementalCsvTable(
+      Path file,
+      boolean headerRow,
+      boolean setNumColumns,
+      CsvFormat format,
+      ColumnEncoding encoding) {
+    if (file == null || format == null || encoding == null) {
+      throw new IllegalArgumentException("null input");
+    }
+    this.file = file;
+    this.headerRow = headerRow;
+    this.setNumberColumns = setNumColumns;
+    this.format = format;
+    this.encoding = encoding;
+    this.listeners = new CopyOnWriteArrayList<>();
+    this.reset();
+  }
+
+  /**
+   * Parses whatever complete records have been appended to the file since the last refresh, and
+   * returns the table of every row parsed so far. If a new row is bad, none of the new rows are
+   * added, and the next refresh tries them again.
+   *
+   * @return the table
+   * @throws IOException when the file fails to be read
+   * @throws FactoryFailureException when setNumColumns is true and a new row has a different number
+   *     of columns
+   */
+  public synchronized ColumnarTable refresh() throws IOException, FactoryFailureException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      // the file was rewritten
+      boolean rebuilt = size < offset;
+      if (rebuilt) {
+        this.reset();
+      }
+      int end = 0;
+      MappedByteBuffer bytes = null;
+      if (size > offset) {
+        bytes = channel.map(FileChannel.MapMode.READ_ONLY, offset, size - offset);
+        end = findRecordsEnd(bytes);
+      }
+      if (end == 0) {
+        if (rebuilt) {
+          this.notifyListeners(0);
+        }
+        return table;
+      }
+
+      int firstNewRow = table.getRowCount();
+      this.parse(bytes.slice(0, end));
+      offset += end;
+      this.notifyListeners(rebuilt ? 0 : firstNewRow);
+      return table;
+    }
+  }
+
+  /**
+   * Gets the table of every row parsed so far, without checking the file for new records.
+   *
+   * @return the table
+   */
+  public ColumnarTable getTable() {
+    return table;
+  }
+
+  /**
+   * Gets the offset just past the last complete record parsed so far, which is where the next
+   * refresh starts parsing from.
+   *
+   * @return the offset in bytes
+   */
+  public synchronized long getOffset() {
+    return offset;
+  }
+
+  /**
+   * Adds a listener to be told about the rows each refresh adds.
+   *
+   * @param listener - the listener
+   * @throws IllegalArgumentException if the listener is null
+   */
+  public void addListener(AppendListener listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("null listener input");
+    }
+    listeners.add(listener);
+  }
+
+  /**
+   * Removes a listener added with addListener.
+   *
+   * @param listener - the listener
+   */
+  public void removeListener(AppendListener listener) {
+    listeners.remove(listener);
+  }
+
+  /** Forgets everything parsed so far, so the next refresh parses the file from the start. */
+  private void reset() {
+    builder = new ColumnarTable.Builder(encoding);
+    offset = 0;
+    numColumns = -1;
+    table = builder.snapshot();
+  }
+
+  /**
+   * Tokenizes the given complete records and adds their rows to the table, or none of them if one
+   * has the wrong number of columns.
+   *
+   * @param bytes - the bytes of the records
+   * @throws IOException when the records can't be tokenized
+   * @throws FactoryFailureException when setNumColumns is true and a row has a different number of
+   *     columns
+   */
+  private void parse(ByteBuffer bytes) throws IOException, FactoryFailureException {
+    // the bytes start just after a \n byte, which is never part of a multi-byte char
+    CharBuffer chars = StandardCharsets.UTF_8.decode(bytes);
+    List<List<String>> rows = new ArrayList<>();
+    List<String> header = null;
+    int expectedColumns = numColumns;
+    try (RowTokenizer tokenizer =
+        format.open(
+            new CharArrayReader(
+                chars.array(), chars.arrayOffset() + chars.position(), chars.remaining()))) {
+      if (headerRow && offset == 0) {
+        header = tokenizer.nextRow();
+      }
+      List<String> row;
+      while ((row = tokenizer.nextRow()) != null) {
+        if (setNumberColumns) {
+          if (expectedColumns == -1) {
+            expectedColumns = row.size();
+          } else if (row.size() != expectedColumns) {
+            throw new FactoryFailureException(
+                "Inconsistent number of columns at row: " + String.join(",", row), row);
+          }
+        }
+        rows.add(row);
+      }
+    }
+
+    if (header != null) {
+      builder.setHeader(header);
+    }
+    for (List<String> row : rows) {
+      builder.addRow(row);
+    }
+    numColumns = expectedColumns;
+    table = builder.snapshot();
+  }
+
+  /**
+   * Finds the end of the last complete record in the given bytes: just past the last line break
+   * that isn't inside a quoted field.
+   *
+   * @param bytes - the bytes appended since the last refresh
+   * @return the index just past the last complete record, or 0 if there isn't one
+   */
+  private int findRecordsEnd(MappedByteBuffer bytes) {
+    // quotes only matter when a quoted field may span lines
+    boolean countQuotes = format != CsvFormat.REGEX;
+    int length = bytes.limit();
+    long quotes = 0;
+    int end = 0;
+    for (int i = 0; i < length; i++) {
+      byte b = bytes.get(i);
+      if (b == '"' && countQuotes) {
+        quotes++;
+      } else if (b == '\n' && (quotes & 1) == 0) {
+        end = i + 1;
+      }
+    }
+    return end;
+  }
+
+  /**
+   * Tells every listener about the rows the last refresh added.
+   *
+   * @param firstNewRow - the index of the first new row, or 0 if the table was parsed again
+   */
+  private void notifyListeners(int firstNewRow) {
+    for (AppendListener listener : listeners) {
+      listener.rowsAppended(table, firstNewRow);
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package edu.brown.cs.student.main.parser;
+
+import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The rows a lenient {@link Parser} rejected instead of failing on. Only the first few rejected
+ * rows are kept (up to the report's capacity), so a file full of bad rows can't use up memory, but
+ * every rejected row is counted.
+ *
+ * <p>Rejected rows are stored as their parts (line number, reason, fields) rather than as messages,
+ * so rejecting a row costs next to nothing; messages are only built by {@link
+ * RejectedRow#describe()}.
+ */
+public class ParseErrorReport {
+  /** Why a row was rejected. */
+  public enum Reason {
+    /** The row had a different number of columns to the first row. */
+    INCONSISTENT_COLUMNS,
+    /** The creator failed to create an object from the row. */
+    CREATOR_FAILED
+  }
+
+  /**
+   * A row that was rejected.
+   *
+   * @param lineNumber - the (1-based) line of the input the row started on
+   * @param reason - why the row was rejected
+   * @param row - the fields of the row
+   * @param expectedColumns - the number of columns rows were expected to have, or -1 if the row was
+   *     rejected by the creator
+   * @param cause - the creator's exception if it failed, or null if it wasn't run
+   */
+  public record RejectedRow(
+      long lineNumber,
+      Reason reason,
+      List<String> row,
+      int expectedColumns,
+      FactoryFailureException cause) {
+    /**
+     * Describes why the row was rejected.
+     *
+     * @return a message describing the rejection
+     */
+    public String describe() {
+      if (reason == Reason.INCONSISTENT_COLUMNS) {
+        return "line "
+            + lineNumber
+            + ": expected "
+            + expectedColumns
+            + " columns but found "
+            + row.size()
+            + ": "
+            + String.join(",", row);
+      }
+      return "line " + lineNumber + ": " + cause.getMessage();
+    }
+  }
+
+  /** The most rejected rows kept. */
+  private final int capacity;
+  /** The first rejected rows, up to the capacity. */
+  private final List<RejectedRow> rejectedRows;
+  /** The number of rows rejected, including those that weren't kept. */
+  private long rejectedCount;
+
+  /**
+   * Creates an empty report keeping up to the given number of rejected rows.
+   *
+   * @param capacity - the most rejected rows to keep
+   * @throws IllegalArgumentException if the capacity is negative
+   */
+  public ParseErrorReport(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("capacity " + capacity + " must be zero or greater");
+    }
+    this.capacity = capacity;
+    this.rejectedRows = new ArrayList<>(Math.min(capacity, 16));
+    this.rejectedCount = 0;
+  }
+
+  /**
+   * Gets the first rejected rows, in the order they were read.
+   *
+   * @return up to the report's capacity of rejected rows
+   */
+  public List<RejectedRow> getRejectedRows() {
+    return Collections.unmodifiableList(rejectedRows);
+  }
+
+  /**
+   * Gets the number of rows rejected, including those that weren't kept.
+   *
+   * @return the number of rejected rows
+   */
+  public long getRejectedCount() {
+    return rejectedCount;
+  }
+
+  /**
+   * Checks if more rows were rejected than were kept.
+   *
+   * @return true if some rejected rows weren't kept
+   */
+  public boolean isTruncated() {
+    return rejectedCount > rejectedRows.size();
+  }
+
+  /**
+   * Checks if the next rejected row will be kept, so the caller knows whether to copy its fields.
+   *
+   * @return true if there's room for another rejected row
+   */
+  boolean hasRoom() {
+    return rejectedRows.size() < capacity;
+  }
+
+  /**
+   * Records a row rejected for having the wrong number of columns.
+   *
+   * @param lineNumber - the line the row started on
+   * @param expectedColumns - the number of columns the row should have had
+   * @param row - the fields of the row, which may be null if there's no room to keep it
+   */
+  void rejectColumns(long lineNumber, int expectedColumns, List<String> row) {
+    rejectedCount++;
+    if (rejectedRows.size() < capacity) {
+      rejectedRows.add(
+          new RejectedRow(lineNumber, Reason.INCONSISTENT_COLUMNS, row, expectedColumns, null));
+    }
+  }
+
+  /**
+   * Records a row the creator failed on.
+   *
+   * @param lineNumber - the line the row started on
+   * @param row - the fields of the row, which may be null if there's no room to keep it
+   * @param cause - the creator's exception
+   */
+  void rejectCreated(long lineNumber, List<String> row, FactoryFailureException cause) {
+    rejectedCount++;
+    if (rejectedRows.size() < capacity) {
+      rejectedRows.add(new RejectedRow(lineNumber, Reason.CREATOR_FAILED, row, -1, cause));
+    }
+  }
+}
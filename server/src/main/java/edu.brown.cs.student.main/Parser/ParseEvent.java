@@ -0,0 +1,54 @@
+package edu.brown.cs.student.main.parser;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A JFR event recorded for each parse, holding its {@link ParseMetrics}. The event's duration is
+ * the whole parse, so slow parses show up in a flight recording alongside what they spent their
+ * time on.
+ */
+@Name("edu.brown.cs.student.Parse")
+@Label("CSV Parse")
+@Category("CSV")
+@Description("A CSV file parsed by a Parser")
+final class ParseEvent extends Event {
+  /** The class of the creator the rows went through. */
+  @Label("Creator")
+  String creator;
+
+  /** The chars (or bytes) read from the input. */
+  @Label("Input Read")
+  long inputRead;
+
+  /** The number of rows split into fields. */
+  @Label("Rows Tokenized")
+  long rowsTokenized;
+
+  /** The number of rows turned into objects. */
+  @Label("Rows Created")
+  long rowsCreated;
+
+  /** The number of bad rows skipped. */
+  @Label("Rows Rejected")
+  long rowsRejected;
+
+  /** The time spent waiting on the input source. */
+  @Label("Read Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long readTime;
+
+  /** The time spent splitting rows into fields. */
+  @Label("Tokenize Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long tokenizeTime;
+
+  /** The time spent in the creator. */
+  @Label("Create Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long createTime;
+}
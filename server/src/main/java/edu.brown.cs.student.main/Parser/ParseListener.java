@@ -0,0 +1,17 @@
+package edu.brown.cs.student.main.parser;
+
+/**
+ * Interface for listeners told how a {@link Parser}'s input was parsed: how much was read, how many
+ * rows were tokenized, created and rejected, and how long each stage took. Listeners are called
+ * once per parse, when the input has been used up, the parse fails, or a stream over it is closed
+ * early.
+ */
+public interface ParseListener {
+
+  /**
+   * Called when a parse is over.
+   *
+   * @param metrics - what the parse read and how long it spent on each stage
+   */
+  void parseFinished(ParseMetrics metrics);
+}
@@ -0,0 +1,139 @@
+package edu.brown.cs.student.main.parser;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Counts what a parse reads and times each of its stages, for {@link ParseMetrics}. The input is
+ * metered by wrapping the reader (or channel) the tokenizer reads from, so time spent waiting on
+ * the input can be taken out of the time spent tokenizing.
+ */
+final class ParseMeter {
+  /** When the parse started, from System.nanoTime. */
+  private final long startNanos;
+  /** The chars (or bytes) read from the input. */
+  private long inputRead;
+  /** The time spent reading from the input. */
+  private long readNanos;
+  /** The number of rows tokenized. */
+  private long rowsTokenized;
+  /** The time spent in the tokenizer, including reading. */
+  private long tokenizerNanos;
+  /** The number of rows created. */
+  private long rowsCreated;
+  /** The time spent creating rows. */
+  private long createNanos;
+  /** The number of rows rejected. */
+  private long rowsRejected;
+
+  /** Starts metering a parse. */
+  ParseMeter() {
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Wraps a reader so its reads are counted and timed.
+   *
+   * @param reader - the reader to meter
+   * @return the metered reader
+   */
+  Reader meter(Reader reader) {
+    return new FilterReader(reader) {
+      @Override
+      public int read() throws IOException {
+        long start = System.nanoTime();
+        int c = super.read();
+        readNanos += System.nanoTime() - start;
+        if (c != -1) {
+          inputRead++;
+        }
+        return c;
+      }
+
+      @Override
+      public int read(char[] buffer, int offset, int length) throws IOException {
+        long start = System.nanoTime();
+        int read = super.read(buffer, offset, length);
+        readNanos += System.nanoTime() - start;
+        inputRead += Math.max(read, 0);
+        return read;
+      }
+    };
+  }
+
+  /**
+   * Wraps a channel so its reads are counted and timed.
+   *
+   * @param channel - the channel to meter
+   * @return the metered channel
+   */
+  ReadableByteChannel meter(ReadableByteChannel channel) {
+    return new ReadableByteChannel() {
+      @Override
+      public int read(ByteBuffer buffer) throws IOException {
+        long start = System.nanoTime();
+        int read = channel.read(buffer);
+        readNanos += System.nanoTime() - start;
+        inputRead += Math.max(read, 0);
+        return read;
+      }
+
+      @Override
+      public boolean isOpen() {
+        return channel.isOpen();
+      }
+
+      @Override
+      public void close() throws IOException {
+        channel.close();
+      }
+    };
+  }
+
+  /**
+   * Records a call to the tokenizer.
+   *
+   * @param start - when the call started, from System.nanoTime
+   * @param rows - the number of rows it returned (0 at the end of the input)
+   */
+  void tokenized(long start, int rows) {
+    tokenizerNanos += System.nanoTime() - start;
+    rowsTokenized += rows;
+  }
+
+  /**
+   * Records a call to the creator.
+   *
+   * @param start - when the call started, from System.nanoTime
+   * @param rows - the number of rows it created
+   */
+  void created(long start, int rows) {
+    createNanos += System.nanoTime() - start;
+    rowsCreated += rows;
+  }
+
+  /** Records a rejected row. */
+  void rejected() {
+    rowsRejected++;
+  }
+
+  /**
+   * Gets the metrics of the parse so far.
+   *
+   * @return the metrics
+   */
+  ParseMetrics metrics() {
+    return new ParseMetrics(
+        inputRead,
+        rowsTokenized,
+        rowsCreated,
+        rowsRejected,
+        readNanos,
+        Math.max(tokenizerNanos - readNanos, 0),
+        createNanos,
+        System.nanoTime() - startNanos);
+  }
+}
@@ -0,0 +1,43 @@
+package edu.brown.cs.student.main.parser;
+
+/**
+ * What a parse read and how long it spent on each stage, to tell whether a slow parse is held up by
+ * reading its input, by tokenizing it, or by the creator.
+ *
+ * @param inputRead - the amount of input read: chars from a reader, or bytes from a channel
+ * @param rowsTokenized - the number of rows split into fields (not counting the header row)
+ * @param rowsCreated - the number of rows turned into objects (or added to a table)
+ * @param rowsRejected - the number of bad rows skipped by a lenient parse
+ * @param readNanos - the time spent waiting on the input source
+ * @param tokenizeNanos - the time spent splitting rows into fields, not counting reading
+ * @param createNanos - the time spent in the creator (or adding rows to a table)
+ * @param totalNanos - the time from the start of the parse to the end
+ */
+public record ParseMetrics(
+    long inputRead,
+    long rowsTokenized,
+    long rowsCreated,
+    long rowsRejected,
+    long readNanos,
+    long tokenizeNanos,
+    long createNanos,
+    long totalNanos) {
+
+  /**
+   * Gets the number of rows created per second over the whole parse.
+   *
+   * @return the rows created per second, or 0 if no time passed
+   */
+  public double rowsPerSecond() {
+    return totalNanos == 0 ? 0 : rowsCreated * 1e9 / totalNanos;
+  }
+
+  /**
+   * Gets the amount of input read per second over the whole parse.
+   *
+   * @return the chars (or bytes) read per second, or 0 if no time passed
+   */
+  public double inputPerSecond() {
+    return totalNanos == 0 ? 0 : inputRead * 1e9 / totalNanos;
+  }
+}
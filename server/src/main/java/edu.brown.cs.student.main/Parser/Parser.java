@@ -1,30 +1,104 @@
 package edu.brown.cs.student.main.parser;
 
 import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.classes.UncheckedFactoryFailureException;
+import edu.brown.cs.student.main.parser.creators.BatchCreatorFromRow;
 import edu.brown.cs.student.main.parser.creators.CreatorFromRow;
-import java.io.BufferedReader;
+import edu.brown.cs.student.main.parser.creators.RowViewCreator;
+import edu.brown.cs.student.main.parser.table.ColumnEncoding;
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import edu.brown.cs.student.main.parser.tokenizers.RowBatch;
+import edu.brown.cs.student.main.parser.tokenizers.RowTokenizer;
+import edu.brown.cs.student.main.parser.tokenizers.RowView;
+import edu.brown.cs.student.main.parser.tokenizers.Utf8Rfc4180Tokenizer;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-/** A Parser class used for parsing data and containing the parse method. */
+/**
+ * A Parser class used for parsing data and containing the parse method. If the creator is a {@link
+ * RowViewCreator}, it is handed one reusable {@link RowView} for every row instead of a new list of
+ * Strings, so reading a row allocates close to nothing beyond what the creator itself builds. If
+ * it's a {@link BatchCreatorFromRow}, parse hands it blocks of rows at a time instead.
+ *
+ * <p>With a projection (see {@link #setProjection(int...)}) only some of the columns are read: the
+ * other fields are skipped over by the tokenizer without being copied, and the creator (and the
+ * table, or the header) only sees the projected columns.
+ *
+ * <p>Listeners added with {@link #addListener(ParseListener)} are told how much was read and how
+ * long reading, tokenizing and creating took, and the same metrics are recorded as a JFR event
+ * (edu.brown.cs.student.Parse) when a flight recording has it enabled. Nothing is timed when
+ * neither is listening.
+ */
 public class Parser<T> {
+  /** The most rows handed to a batch creator at once. */
+  private static final int BATCH_SIZE = 1024;
+
   /** Reader object for reading from the input source. */
   private Reader reader;
   /** describes how to convert rows into data objects. */
   private CreatorFromRow<T> creator;
+  /** The creator, if it can create objects from row views (null if not). */
+  private RowViewCreator<T> viewCreator;
+  /** The creator, if it can create objects from batches of rows (null if not). */
+  private BatchCreatorFromRow<T> batchCreator;
+  /** The view each row is read into when the creator takes views or batches (null if not). */
+  private RowView rowView;
   /** The content parsed using the reader object. */
   private List<T> parsedContent;
   /** Indicates whether there's a header row to skip when parsing data. */
   private boolean headerRow;
   /** If there's a set number of columns. */
   private boolean setNumberColumns;
+  /** How the input is split into rows and fields. */
+  private CsvFormat format;
+  /**
+   * Tokenizer over the input, opened on first use (unless given up front) and closed once the input
+   * is used up.
+   */
+  private RowTokenizer tokenizer;
+  /** Number of columns every row must have if setNumberColumns is true (-1 until the first row). */
+  private int numColumns;
+  /** Whether the input has been read (or started being read) already. */
+  private boolean started;
+  /** Whether the input has been read to the end and closed. */
+  private boolean finished;
+  /** Whether the header row (if there is one) has been read yet. */
+  private boolean headerSkipped;
+  /** The header row, once it has been read (null if there is none). */
+  private List<String> header;
+  /** The object created from the most recently read row. */
+  private T current;
+  /** Where bad rows are recorded and skipped, or null to throw on the first bad row. */
+  private ParseErrorReport errorReport;
+  /** The indices of the projected columns in ascending order, or null to read every column. */
+  private int[] projection;
+  /** The names of the projected columns, to be found in the header once it has been read. */
+  private List<String> projectionNames;
+  /** Channel of UTF-8 bytes to parse data from, or null if parsing from the reader. */
+  private ReadableByteChannel channel;
+  /** Listeners told the parse's metrics once it's over. */
+  private final List<ParseListener> listeners;
+  /** Counts and times the parse, or null if nothing is listening. */
+  private ParseMeter meter;
+  /** The JFR event recording the parse, or null if it isn't enabled. */
+  private ParseEvent event;
+  /** Whether rows are still being created after the input is closed, so reporting waits. */
+  private boolean batching;
 
   /**
-   * Used to parse CSV data from any Reader object provided with any creator class provided.
+   * Used to parse CSV data from any Reader object provided with any creator class provided. Rows
+   * are split with the original regex format ({@link CsvFormat#REGEX}).
    *
    * @param reader - reader objected provided to parse data from/with
    * @param creator - creator class provided to convert Strings to data objects
@@ -36,62 +110,739 @@ public class Parser<T> {
    */
   public Parser(Reader reader, CreatorFromRow<T> creator, boolean headerRow, boolean setNumColumns)
       throws IllegalArgumentException {
+    this(reader, creator, headerRow, setNumColumns, CsvFormat.REGEX);
+  }
+
+  /**
+   * Used to parse CSV data from any Reader object provided with any creator class provided, using
+   * the given format to split rows.
+   *
+   * @param reader - reader objected provided to parse data from/with
+   * @param creator - creator class provided to convert Strings to data objects
+   * @param headerRow - indicates whether there's a header row to skip when parsing data (true if
+   *     there is)
+   * @param setNumColumns - indicates whether there's a set number of columns in the data (if true,
+   *     we throw an error when encountering an inconsistent number of columns)
+   * @param format - how rows are split into fields
+   * @throws IllegalArgumentException when given a null input
+   */
+  public Parser(
+      Reader reader,
+      CreatorFromRow<T> creator,
+      boolean headerRow,
+      boolean setNumColumns,
+      CsvFormat format)
+      throws IllegalArgumentException {
+    this(reader, null, creator, headerRow, setNumColumns, format);
+  }
+
+  /**
+   * Creates a parser over the given reader, or over a channel of UTF-8 bytes.
+   *
+   * @param reader - reader to parse data from, or null if a channel is given
+   * @param channel - channel to parse data from, or null to parse from the reader
+   * @param creator - creator class provided to convert Strings to data objects
+   * @param headerRow - indicates whether there's a header row to skip when parsing data
+   * @param setNumColumns - indicates whether there's a set number of columns in the data
+   * @param format - how rows are split into fields
+   * @throws IllegalArgumentException when given a null input
+   */
+  private Parser(
+      Reader reader,
+      ReadableByteChannel channel,
+      CreatorFromRow<T> creator,
+      boolean headerRow,
+      boolean setNumColumns,
+      CsvFormat format)
+      throws IllegalArgumentException {
     // detailed error throwing for user
-    if (reader == null && creator == null) {
+    if (reader == null && channel == null && creator == null) {
       throw new IllegalArgumentException("null reader and creator inputs");
-    } else if (reader == null) {
+    } else if (reader == null && channel == null) {
       throw new IllegalArgumentException("null reader input");
     } else if (creator == null) {
       throw new IllegalArgumentException("null creator input");
+    } else if (format == null) {
+      throw new IllegalArgumentException("null format input");
     }
     this.reader = reader;
+    this.channel = channel;
+    this.tokenizer = null;
     this.creator = creator;
+    this.viewCreator = creator instanceof RowViewCreator<T> rowViewCreator ? rowViewCreator : null;
+    this.batchCreator =
+        creator instanceof BatchCreatorFromRow<T> batchRowCreator ? batchRowCreator : null;
+    this.rowView = this.viewCreator == null && this.batchCreator == null ? null : new RowView();
     this.headerRow = headerRow;
     this.setNumberColumns = setNumColumns;
+    this.format = format;
     this.parsedContent = new ArrayList<>();
+    this.numColumns = -1;
+    this.started = false;
+    this.finished = false;
+    this.headerSkipped = false;
+    this.header = null;
+    this.errorReport = null;
+    this.projection = null;
+    this.projectionNames = null;
+    this.listeners = new ArrayList<>();
+    this.meter = null;
+    this.event = null;
+    this.batching = false;
+  }
+
+  /**
+   * Used to parse CSV data straight from the UTF-8 bytes of a channel (such as a FileChannel), with
+   * any creator class provided. Rows are split following RFC 4180, the same as {@link
+   * CsvFormat#RFC4180}, but on raw bytes: nothing goes through a Reader, and each field is only
+   * decoded once it's handed to the creator. The channel is closed once the input is used up.
+   *
+   * @param channel - channel of UTF-8 bytes to parse data from
+   * @param creator - creator class provided to convert Strings to data objects
+   * @param headerRow - indicates whether there's a header row to skip when parsing data (true if
+   *     there is)
+   * @param setNumColumns - indicates whether there's a set number of columns in the data (if true,
+   *     we throw an error when encountering an inconsistent number of columns)
+   * @return the parser
+   * @throws IllegalArgumentException when given a null input
+   */
+  public static <T> Parser<T> fromChannel(
+      ReadableByteChannel channel,
+      CreatorFromRow<T> creator,
+      boolean headerRow,
+      boolean setNumColumns)
+      throws IllegalArgumentException {
+    if (channel == null) {
+      throw new IllegalArgumentException("null channel input");
+    }
+    return new Parser<>(null, channel, creator, headerRow, setNumColumns, CsvFormat.RFC4180);
+  }
+
+  /**
+   * Makes the parser lenient: rows with an inconsistent number of columns, or that the creator
+   * fails on, are recorded in the given report and skipped, instead of the parse failing on the
+   * first one. Errors reading the input still fail the parse.
+   *
+   * @param errorReport - the report to record bad rows in, or null to fail on the first bad row
+   * @throws IllegalStateException if the input has already been read by this parser
+   */
+  public void setErrorReport(ParseErrorReport errorReport) {
+    if (started) {
+      throw new IllegalStateException("input has already been parsed");
+    }
+    this.errorReport = errorReport;
+  }
+
+  /**
+   * Adds a listener told how the input was parsed once the parse is over.
+   *
+   * @param listener - the listener to add
+   * @throws IllegalArgumentException if the listener is null
+   * @throws IllegalStateException if the input has already been read by this parser
+   */
+  public void addListener(ParseListener listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("null listener input");
+    } else if (started) {
+      throw new IllegalStateException("input has already been parsed");
+    }
+    listeners.add(listener);
+  }
+
+  /**
+   * Only reads the given columns. The fields of every other column are skipped by the tokenizer
+   * without being copied, and rows are handed to the creator (or put in the table) with just the
+   * projected columns, in the order they appear in the input. Rows without every projected column
+   * are treated like rows with an inconsistent number of columns.
+   *
+   * @param columns - the indices of the columns to read
+   * @throws IllegalArgumentException if there are no columns, or a column is negative
+   * @throws IllegalStateException if the input has already been read by this parser
+   */
+  public void setProjection(int... columns) {
+    if (started) {
+      throw new IllegalStateException("input has already been parsed");
+    } else if (columns == null || columns.length == 0) {
+      throw new IllegalArgumentException("no columns to project");
+    }
+    for (int column : columns) {
+      if (column < 0) {
+        throw new IllegalArgumentException("column " + column + " must be zero or greater");
+      }
+    }
+    this.projection = Arrays.stream(columns).sorted().distinct().toArray();
+    this.projectionNames = null;
+    if (this.rowView == null) {
+      this.rowView = new RowView();
+    }
+    this.rowView.setProjection(this.projection);
+  }
+
+  /**
+   * Only reads the columns with the given names in the header row (not case-sensitive), like {@link
+   * #setProjection(int...)}. The names are looked up once the header has been read.
+   *
+   * @param columnNames - the names of the columns to read
+   * @throws IllegalArgumentException if there are no names or there's no header row
+   * @throws IllegalStateException if the input has already been read by this parser
+   */
+  public void setProjection(List<String> columnNames) {
+    if (started) {
+      throw new IllegalStateException("input has already been parsed");
+    } else if (columnNames == null || columnNames.isEmpty()) {
+      throw new IllegalArgumentException("no columns to project");
+    } else if (!headerRow) {
+      throw new IllegalArgumentException("header row not present, cannot access column names");
+    }
+    this.projection = null;
+    this.projectionNames = List.copyOf(columnNames);
+    if (this.rowView == null) {
+      this.rowView = new RowView();
+    }
   }
 
   /**
    * a method which parses the given data with the Parser object's reader, runs the data through the
    * Parser objects creator, then adds it to the parsed content instance variable. Skips the first
-   * line if the headerRow instance variable is true.
+   * row if the headerRow instance variable is true.
    *
-   * @throws IOException when buffer reader fails to read-in a line
+   * @throws IOException when the reader fails to read-in a row
    * @throws FactoryFailureException when data isn’t of the form the creator object expected
+   * @throws IllegalStateException if the input has already been read by this parser
    */
   public void parse() throws FactoryFailureException, IOException {
-    String line;
-    Pattern regexSplitCsvRow =
-        Pattern.compile(",(?=([^\\\"]*\\\"[^\\\"]*\\\")" + "*(?![^\\\"]*\\\"))");
-    BufferedReader readInBuffer =
-        new BufferedReader(reader); // wraps around readers to improve efficiency when reading
-    // skip the header if it's there
-    if (headerRow) {
-      line = readInBuffer.readLine();
+    start();
+    if (batchCreator != null) {
+      parseBatches();
+      return;
     }
+    while (advance()) {
+      parsedContent.add(current);
+    }
+  }
 
-    // use firstline and numcolumns to handle errors when there's an inconsistent number of columns
-    boolean firstLine = true;
-    int numColumns = 0;
-    while ((line = readInBuffer.readLine()) != null) {
-      String[] result = regexSplitCsvRow.split(line);
-      List<String> lineToArr = Arrays.stream(result).toList();
-      if (setNumberColumns) {
-        if (firstLine) {
-          numColumns = lineToArr.size();
-          firstLine = false;
-        } else if (lineToArr.size() != numColumns) {
-          throw new FactoryFailureException(
-              "Inconsistent number of columns at row: " + line, lineToArr);
-        }
+  /**
+   * Parses the data into a {@link ColumnarTable} instead of running it through the creator. The
+   * header row, if there is one, becomes the table's header. Rows are checked for an inconsistent
+   * number of columns the same way as in parse.
+   *
+   * @return the table of parsed data
+   * @throws IOException when the reader fails to read-in a row
+   * @throws FactoryFailureException when setNumColumns is true and a row has a different number of
+   *     columns
+   * @throws IllegalStateException if the input has already been read by this parser
+   */
+  public ColumnarTable parseToTable() throws FactoryFailureException, IOException {
+    return parseToTable(ColumnEncoding.PLAIN);
+  }
+
+  /**
+   * Parses the data into a {@link ColumnarTable} whose columns are stored with the given encoding.
+   * Dictionary encoding stores each distinct value of a column once, which is much smaller for
+   * columns that repeat a few values across every row.
+   *
+   * @param encoding - how to store the columns
+   * @return the table of parsed data
+   * @throws IOException when the reader fails to read-in a row
+   * @throws FactoryFailureException when setNumColumns is true and a row has a different number of
+   *     columns
+   * @throws IllegalArgumentException if the encoding is null
+   * @throws IllegalStateException if the input has already been read by this parser
+   */
+  public ColumnarTable parseToTable(ColumnEncoding encoding)
+      throws FactoryFailureException, IOException {
+    return parseToTable(encoding, false);
+  }
+
+  /**
+   * Parses the data into a {@link ColumnarTable}, optionally inferring the type of each column.
+   * Columns of ints, longs, decimals or amounts of money (e.g. "$1,234.00") are then parsed once
+   * and stored as numbers, and can be read with {@link ColumnarTable#getNumericColumn(int)}.
+   *
+   * @param encoding - how to store the columns that are left as text
+   * @param inferTypes - whether to infer the type of each column
+   * @return the table of parsed data
+   * @throws IOException when the reader fails to read-in a row
+   * @throws FactoryFailureException when setNumColumns is true and a row has a different number of
+   *     columns
+   * @throws IllegalArgumentException if the encoding is null
+   * @throws IllegalStateException if the input has already been read by this parser
+   */
+  public ColumnarTable parseToTable(ColumnEncoding encoding, boolean inferTypes)
+      throws FactoryFailureException, IOException {
+    ColumnarTable.Builder builder = new ColumnarTable.Builder(encoding);
+    builder.setInferTypes(inferTypes);
+    start();
+    List<String> row;
+    while ((row = nextRow()) != null) {
+      long start = meter == null ? 0 : System.nanoTime();
+      builder.addRow(row);
+      if (meter != null) {
+        meter.created(start, 1);
       }
-      T arrToData = creator.create(lineToArr);
-      parsedContent.add(arrToData);
     }
-    readInBuffer.close();
+    builder.setHeader(header);
+    return builder.build();
+  }
+
+  /**
+   * Returns an iterator which reads and creates one row at a time, instead of loading every row
+   * into the parsed content first. The reader is closed once the iterator reaches the end of the
+   * input. Errors are rethrown wrapped in an {@link UncheckedIOException} or an {@link
+   * UncheckedFactoryFailureException}, since iterators can't throw checked exceptions.
+   *
+   * @return an iterator over the objects created from each row
+   * @throws IllegalStateException if the input has already been read by this parser
+   */
+  public Iterator<T> iterator() {
+    start();
+    return new Iterator<>() {
+      /** Whether the current object has been read but not returned yet. */
+      private boolean ready = false;
+
+      @Override
+      public boolean hasNext() {
+        if (!ready && !finished) {
+          try {
+            ready = advance();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          } catch (FactoryFailureException e) {
+            throw new UncheckedFactoryFailureException(e);
+          }
+        }
+        return ready;
+      }
+
+      @Override
+      public T next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException("no rows left to parse");
+        }
+        ready = false;
+        return current;
+      }
+    };
+  }
+
+  /**
+   * Returns a sequential stream which reads and creates one row at a time, like {@link
+   * #iterator()}. Closing the stream closes the reader, even if it wasn't read to the end.
+   *
+   * @return a stream of the objects created from each row
+   * @throws IllegalStateException if the input has already been read by this parser
+   */
+  public Stream<T> stream() {
+    Spliterator<T> spliterator =
+        Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+    return StreamSupport.stream(spliterator, false)
+        .onClose(
+            () -> {
+              try {
+                close();
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            });
   }
 
   public List<T> getParsedContent() {
     return new ArrayList<>(parsedContent);
   }
+
+  /**
+   * Gets the header row, which is read (and skipped) when parsing starts.
+   *
+   * @return the header row, or null if there is none or it hasn't been read yet
+   */
+  public List<String> getHeader() {
+    return header;
+  }
+
+  /**
+   * Opens the tokenizer, making sure the input is only read once.
+   *
+   * @throws IllegalStateException if the input has already been read by this parser
+   */
+  private void start() {
+    if (started) {
+      throw new IllegalStateException("input has already been parsed");
+    }
+    started = true;
+    ParseEvent parseEvent = new ParseEvent();
+    if (parseEvent.isEnabled()) {
+      parseEvent.begin();
+      event = parseEvent;
+    }
+    if (event != null || !listeners.isEmpty()) {
+      meter = new ParseMeter();
+    }
+    if (channel != null) {
+      tokenizer = new Utf8Rfc4180Tokenizer(meter == null ? channel : meter.meter(channel));
+    } else {
+      tokenizer = format.open(meter == null ? reader : meter.meter(reader));
+    }
+  }
+
+  /**
+   * Reads the input a block of rows at a time and runs each block through the batch creator. If a
+   * block fails, its rows are created one at a time instead, so the rows before a bad row are kept
+   * and the bad row is thrown (or recorded and skipped, if there's an error report), just as if the
+   * rows had never been batched.
+   *
+   * @throws IOException when the reader fails to read-in a row
+   * @throws FactoryFailureException when data isn’t of the form the creator object expected
+   */
+  private void parseBatches() throws IOException, FactoryFailureException {
+    RowBatch batch = new RowBatch();
+    long[] lineNumbers = new long[BATCH_SIZE];
+    batching = true;
+    try {
+      parseBatchesUntilDone(batch, lineNumbers);
+    } finally {
+      batching = false;
+      report();
+    }
+  }
+
+  /**
+   * Fills and creates batches until the input runs out.
+   *
+   * @param batch - the batch to fill
+   * @param lineNumbers - where the line number of each row in the batch is kept
+   * @throws IOException when the reader fails to read-in a row
+   * @throws FactoryFailureException when data isn’t of the form the creator object expected
+   */
+  private void parseBatchesUntilDone(RowBatch batch, long[] lineNumbers)
+      throws IOException, FactoryFailureException {
+    boolean more = true;
+    while (more) {
+      batch.clear();
+      while (batch.size() < BATCH_SIZE && (more = nextRowView())) {
+        lineNumbers[batch.size()] = tokenizer.getLineNumber();
+        batch.add(rowView);
+      }
+      if (batch.size() == 0) {
+        return;
+      }
+      int before = parsedContent.size();
+      long start = meter == null ? 0 : System.nanoTime();
+      try {
+        batchCreator.createAll(batch, parsedContent);
+        if (meter != null) {
+          meter.created(start, batch.size());
+        }
+      } catch (FactoryFailureException e) {
+        parsedContent.subList(before, parsedContent.size()).clear();
+        createEach(batch, lineNumbers);
+      } catch (RuntimeException e) {
+        close();
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Creates each row of a batch on its own, after creating the whole batch failed.
+   *
+   * @param batch - the rows to create
+   * @param lineNumbers - the line each row of the batch was read from
+   * @throws IOException if the reader fails to close
+   * @throws FactoryFailureException when a row isn’t of the form the creator expected and there's
+   *     no error report
+   */
+  private void createEach(RowBatch batch, long[] lineNumbers)
+      throws IOException, FactoryFailureException {
+    for (int row = 0; row < batch.size(); row++) {
+      List<String> fields = batch.getRow(row);
+      long start = meter == null ? 0 : System.nanoTime();
+      try {
+        parsedContent.add(batchCreator.create(fields));
+        if (meter != null) {
+          meter.created(start, 1);
+        }
+      } catch (FactoryFailureException e) {
+        if (errorReport == null) {
+          close();
+          throw e;
+        }
+        errorReport.rejectCreated(lineNumbers[row], fields, e);
+        if (meter != null) {
+          meter.rejected();
+        }
+      } catch (RuntimeException e) {
+        close();
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Reads the next row and runs it through the creator, storing the result in current.
+   *
+   * @return true if a row was read, false if there are no rows left
+   * @throws IOException when the reader fails to read-in a row
+   * @throws FactoryFailureException when data isn’t of the form the creator object expected
+   */
+  private boolean advance() throws IOException, FactoryFailureException {
+    while (true) {
+      List<String> lineToArr = null;
+      if (viewCreator != null) {
+        if (!nextRowView()) {
+          return false;
+        }
+      } else {
+        lineToArr = nextRow();
+        if (lineToArr == null) {
+          return false;
+        }
+      }
+      long start = meter == null ? 0 : System.nanoTime();
+      try {
+        current = viewCreator != null ? viewCreator.create(rowView) : creator.create(lineToArr);
+        if (meter != null) {
+          meter.created(start, 1);
+        }
+        return true;
+      } catch (FactoryFailureException e) {
+        if (errorReport == null) {
+          close();
+          throw e;
+        }
+        // skip the row; a view's fields are only copied out if the report keeps them
+        if (lineToArr == null && errorReport.hasRoom()) {
+          lineToArr = rowView.toList();
+        }
+        errorReport.rejectCreated(tokenizer.getLineNumber(), lineToArr, e);
+        if (meter != null) {
+          meter.rejected();
+        }
+      } catch (RuntimeException e) {
+        close();
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Reads the next row and checks its number of columns. Reads the header row first if there is
+   * one, and closes the tokenizer at the end of the input. Rows with the wrong number of columns
+   * are recorded and skipped if there's an error report.
+   *
+   * @return the fields of the next row, or null if there are no rows left
+   * @throws IOException when the reader fails to read-in a row
+   * @throws FactoryFailureException when there's an inconsistent number of columns and no error
+   *     report
+   */
+  private List<String> nextRow() throws IOException, FactoryFailureException {
+    if (projection != null || projectionNames != null) {
+      return nextRowView() ? rowView.toList() : null;
+    } else if (finished) {
+      return null;
+    }
+    try {
+      readHeader();
+      while (true) {
+        long start = meter == null ? 0 : System.nanoTime();
+        List<String> lineToArr = tokenizer.nextRow();
+        if (meter != null) {
+          meter.tokenized(start, lineToArr == null ? 0 : 1);
+        }
+        if (lineToArr == null) {
+          close();
+          return null;
+        }
+        if (hasExpectedColumns(lineToArr.size())) {
+          return lineToArr;
+        } else if (errorReport == null) {
+          throw inconsistentColumns(lineToArr);
+        }
+        errorReport.rejectColumns(tokenizer.getLineNumber(), numColumns, lineToArr);
+        if (meter != null) {
+          meter.rejected();
+        }
+      }
+    } catch (IOException | FactoryFailureException | RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  /**
+   * Reads the next row into the row view and checks its number of columns, like {@link #nextRow()}.
+   *
+   * @return true if a row was read, false if there are no rows left
+   * @throws IOException when the reader fails to read-in a row
+   * @throws FactoryFailureException when there's an inconsistent number of columns
+   */
+  private boolean nextRowView() throws IOException, FactoryFailureException {
+    if (finished) {
+      return false;
+    }
+    try {
+      readHeader();
+      while (true) {
+        long start = meter == null ? 0 : System.nanoTime();
+        boolean read = tokenizer.nextRowView(rowView);
+        if (meter != null) {
+          meter.tokenized(start, read ? 1 : 0);
+        }
+        if (!read) {
+          close();
+          return false;
+        }
+        int width = rowView.getWidth();
+        if (hasExpectedColumns(width) && (projection == null || width > lastProjected())) {
+          return true;
+        } else if (errorReport == null) {
+          throw inconsistentColumns(rowView.toList());
+        }
+        errorReport.rejectColumns(
+            tokenizer.getLineNumber(),
+            projection == null || numColumns != -1 ? numColumns : lastProjected() + 1,
+            errorReport.hasRoom() ? rowView.toList() : null);
+        if (meter != null) {
+          meter.rejected();
+        }
+      }
+    } catch (IOException | FactoryFailureException | RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  /**
+   * Skips the header if it's there and hasn't been read yet, keeping it in case it's needed.
+   *
+   * @throws IOException when the reader fails to read-in the header
+   */
+  private void readHeader() throws IOException {
+    if (headerRow && !headerSkipped) {
+      headerSkipped = true;
+      long start = meter == null ? 0 : System.nanoTime();
+      header = tokenizer.nextRow();
+      if (meter != null) {
+        meter.tokenized(start, 0);
+      }
+      if (header != null && projectionNames != null) {
+        projection = findColumns(header, projectionNames);
+        rowView.setProjection(projection);
+      }
+      if (header != null && projection != null) {
+        List<String> projected = new ArrayList<>(projection.length);
+        for (int column : projection) {
+          if (column < header.size()) {
+            projected.add(header.get(column));
+          }
+        }
+        header = projected;
+      }
+    }
+  }
+
+  /**
+   * Finds the indices of the named columns in the header row (not case-sensitive).
+   *
+   * @param header - the header row
+   * @param columnNames - the names of the columns
+   * @return the indices of the columns, in ascending order
+   * @throws IOException if a name isn't in the header
+   */
+  private static int[] findColumns(List<String> header, List<String> columnNames)
+      throws IOException {
+    int[] columns = new int[columnNames.size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = -1;
+      for (int col = 0; col < header.size() && columns[i] == -1; col++) {
+        if (header.get(col).equalsIgnoreCase(columnNames.get(i))) {
+          columns[i] = col;
+        }
+      }
+      if (columns[i] == -1) {
+        throw new IOException(
+            "column name "
+                + columnNames.get(i)
+                + " not found in header. Columns in header: "
+                + String.join(", ", header));
+      }
+    }
+    return Arrays.stream(columns).sorted().distinct().toArray();
+  }
+
+  /**
+   * Gets the last (highest) projected column, which every row must have.
+   *
+   * @return the index of the last projected column
+   */
+  private int lastProjected() {
+    return projection[projection.length - 1];
+  }
+
+  /**
+   * Uses numColumns to check for an inconsistent number of columns, if setNumColumns is true. The
+   * first row sets the number of columns the rest must have.
+   *
+   * @param size - the number of columns in the row just read
+   * @return false if the row has the wrong number of columns
+   */
+  private boolean hasExpectedColumns(int size) {
+    if (!setNumberColumns) {
+      return true;
+    }
+    if (numColumns == -1) {
+      numColumns = size;
+    }
+    return size == numColumns;
+  }
+
+  /**
+   * Builds the exception thrown for a row with the wrong number of columns.
+   *
+   * @param lineToArr - the fields of the row
+   * @return the exception
+   */
+  private FactoryFailureException inconsistentColumns(List<String> lineToArr) {
+    return new FactoryFailureException(
+        "Inconsistent number of columns at row: " + String.join(",", lineToArr), lineToArr);
+  }
+
+  /**
+   * Closes the tokenizer and the reader under it, then reports the parse's metrics.
+   *
+   * @throws IOException if the reader fails to close
+   */
+  private void close() throws IOException {
+    if (!finished) {
+      finished = true;
+      try {
+        tokenizer.close();
+      } finally {
+        if (!batching) {
+          report();
+        }
+      }
+    }
+  }
+
+  /** Records the parse's metrics in its JFR event and tells the listeners, if any are metered. */
+  private void report() {
+    if (meter == null) {
+      return;
+    }
+    ParseMetrics metrics = meter.metrics();
+    if (event != null) {
+      event.creator = creator.getClass().getName();
+      event.inputRead = metrics.inputRead();
+      event.rowsTokenized = metrics.rowsTokenized();
+      event.rowsCreated = metrics.rowsCreated();
+      event.rowsRejected = metrics.rowsRejected();
+      event.readTime = metrics.readNanos();
+      event.tokenizeTime = metrics.tokenizeNanos();
+      event.createTime = metrics.createNanos();
+      event.commit();
+    }
+    for (ParseListener listener : listeners) {
+      listener.parseFinished(metrics);
+    }
+  }
 }
@@ -0,0 +1,238 @@
+package edu.brown.cs.student.main.parser;
+
+import edu.brown.cs.student.main.parser.classes.UncheckedFactoryFailureException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Publishes the objects a {@link Parser} creates, in batches, to a {@link Flow.Subscriber}. Rows
+ * are only read from the input once the subscriber asks for them: each batch requested reads and
+ * creates at most batchSize rows, so a slow subscriber (indexing, writing JSON to a client, ...)
+ * holds back the parser instead of the whole file piling up in memory.
+ *
+ * <p>A parser's input can only be read once, so a publisher only takes one subscriber. Batches are
+ * sent from the given executor, one at a time and in file order. Errors from the parser end the
+ * subscription with onError, with the underlying IOException or FactoryFailureException. The input
+ * is closed once it's used up, fails, or the subscription is cancelled.
+ */
+public class ParserPublisher<T> implements Flow.Publisher<List<T>> {
+  /** Default number of objects in each batch. */
+  private static final int DEFAULT_BATCH_SIZE = 1 << 10;
+
+  /** The parser whose objects are published. */
+  private final Parser<T> parser;
+  /** The most objects sent in one batch. */
+  private final int batchSize;
+  /** Runs the work of reading rows and sending batches. */
+  private final Executor executor;
+  /** Whether a subscriber has already subscribed. */
+  private final AtomicBoolean subscribed;
+
+  /**
+   * Creates a publisher of the given parser's objects, sending batches from the common
+   * ForkJoinPool.
+   *
+   * @param parser - the parser, which must not have been read yet
+   * @throws IllegalArgumentException when given a null input
+   */
+  public ParserPublisher(Parser<T> parser) {
+    this(parser, DEFAULT_BATCH_SIZE, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates a publisher of the given parser's objects.
+   *
+   * @param parser - the parser, which must not have been read yet
+   * @param batchSize - the most objects to send in one batch
+   * @param executor - runs the work of reading rows and sending batches
+   * @throws IllegalArgumentException when given a null input or a batch size less than one
+   */
+  public ParserPublisher(Parser<T> parser, int batchSize, Executor executor) {
+    if (parser == null || executor == null) {
+      throw new IllegalArgumentException("null input");
+    } else if (batchSize < 1) {
+      throw new IllegalArgumentException("batch size " + batchSize + " must be at least one");
+    }
+    this.parser = parser;
+    this.batchSize = batchSize;
+    this.executor = executor;
+    this.subscribed = new AtomicBoolean(false);
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super List<T>> subscriber) {
+    if (subscriber == null) {
+      throw new NullPointerException("null subscriber input");
+    }
+    if (!subscribed.compareAndSet(false, true)) {
+      subscriber.onSubscribe(new CancelledSubscription());
+      subscriber.onError(new IllegalStateException("publisher already has a subscriber"));
+      return;
+    }
+    Stream<T> rows;
+    try {
+      rows = parser.stream();
+    } catch (RuntimeException e) {
+      subscriber.onSubscribe(new CancelledSubscription());
+      subscriber.onError(e);
+      return;
+    }
+    subscriber.onSubscribe(new BatchSubscription(subscriber, rows));
+  }
+
+  /** The subscription of a subscriber which was refused, so there's nothing to request. */
+  private static final class CancelledSubscription implements Flow.Subscription {
+    @Override
+    public void request(long n) {}
+
+    @Override
+    public void cancel() {}
+  }
+
+  /** Reads and sends batches of objects as the subscriber asks for them. */
+  private final class BatchSubscription implements Flow.Subscription {
+    /** The subscriber being sent batches. */
+    private final Flow.Subscriber<? super List<T>> subscriber;
+    /** The parser's objects, closed once the subscription is done. */
+    private final Stream<T> rows;
+    /** Iterator over the objects, only used while draining. */
+    private final Iterator<T> iterator;
+    /** Number of batches asked for but not sent yet (Long.MAX_VALUE meaning unbounded). */
+    private final AtomicLong demand;
+    /** Counts calls to drain, so only one runs at a time and none are missed. */
+    private final AtomicInteger pending;
+    /** Set once the subscription is cancelled or has ended. */
+    private volatile boolean done;
+    /** An invalid request to report to the subscriber, or null if there wasn't one. */
+    private volatile IllegalArgumentException invalidRequest;
+
+    /**
+     * Creates a subscription sending the given objects to the subscriber.
+     *
+     * @param subscriber - the subscriber
+     * @param rows - the parser's objects
+     */
+    BatchSubscription(Flow.Subscriber<? super List<T>> subscriber, Stream<T> rows) {
+      this.subscriber = subscriber;
+      this.rows = rows;
+      this.iterator = rows.iterator();
+      this.demand = new AtomicLong(0);
+      this.pending = new AtomicInteger(0);
+      this.done = false;
+      this.invalidRequest = null;
+    }
+
+    /**
+     * Asks for up to n more batches.
+     *
+     * @param n - the number of batches to ask for, which must be positive
+     */
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        invalidRequest = new IllegalArgumentException("requested " + n + " batches, must be > 0");
+      } else {
+        // demand that overflows is unbounded
+        demand.getAndAccumulate(
+            n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+      }
+      this.schedule();
+    }
+
+    @Override
+    public void cancel() {
+      done = true;
+      this.schedule();
+    }
+
+    /** Makes sure a drain runs after this call, starting one if none is running. */
+    private void schedule() {
+      if (pending.getAndIncrement() == 0) {
+        try {
+          executor.execute(this::drain);
+        } catch (RuntimeException e) {
+          pending.set(0);
+          this.fail(e);
+        }
+      }
+    }
+
+    /** Sends as many batches as have been asked for, until none are asked for or rows run out. */
+    private void drain() {
+      int missed = 1;
+      do {
+        while (!done) {
+          if (invalidRequest != null) {
+            this.fail(invalidRequest);
+          } else if (demand.get() == 0) {
+            break;
+          } else {
+            this.sendBatch();
+          }
+        }
+        if (done) {
+          try {
+            rows.close();
+          } catch (UncheckedIOException e) {
+            // the subscriber has already been told how the subscription ended
+          }
+        }
+        missed = pending.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    /**
+     * Reads the next batch and sends it. Ends the subscription once the rows run out, or after
+     * sending the rows read before an error.
+     */
+    private void sendBatch() {
+      List<T> batch = new ArrayList<>(batchSize);
+      Throwable error = null;
+      boolean more = false;
+      try {
+        while (batch.size() < batchSize && iterator.hasNext()) {
+          batch.add(iterator.next());
+        }
+        // looks one row ahead, so the subscriber hears the rows ended without asking for more
+        more = iterator.hasNext();
+      } catch (UncheckedIOException | UncheckedFactoryFailureException e) {
+        error = e.getCause();
+      } catch (RuntimeException e) {
+        error = e;
+      }
+      if (!batch.isEmpty()) {
+        if (demand.get() != Long.MAX_VALUE) {
+          demand.decrementAndGet();
+        }
+        subscriber.onNext(batch);
+      }
+      if (error != null) {
+        this.fail(error);
+      } else if (!more && !done) {
+        done = true;
+        subscriber.onComplete();
+      }
+    }
+
+    /**
+     * Ends the subscription with an error.
+     *
+     * @param error - the error to send the subscriber
+     */
+    private void fail(Throwable error) {
+      if (!done) {
+        done = true;
+        subscriber.onError(error);
+      }
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package edu.brown.cs.student.main.parser.classes;
+
+/**
+ * Wraps a {@link FactoryFailureException} in an unchecked exception, so it can be thrown from
+ * iterators and streams over parsed rows.
+ */
+public class UncheckedFactoryFailureException extends RuntimeException {
+
+  /**
+   * Wraps the given creator failure.
+   *
+   * @param cause the FactoryFailureException to wrap
+   */
+  public UncheckedFactoryFailureException(FactoryFailureException cause) {
+    super(cause.getMessage(), cause);
+  }
+
+  /**
+   * Returns the wrapped FactoryFailureException.
+   *
+   * @return the original exception
+   */
+  @Override
+  public FactoryFailureException getCause() {
+    return (FactoryFailureException) super.getCause();
+  }
+}
@@ -0,0 +1,54 @@
+package edu.brown.cs.student.main.parser.creators;
+
+import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.tokenizers.RowBatch;
+import java.util.List;
+
+/**
+ * Interface for creators which can build the objects for a whole block of rows at once, from a
+ * {@link RowBatch}. Going through a column at a time (parsing every row's coordinates in one loop,
+ * say) keeps the loops tight enough for the JIT to optimize, and lets a creator build its outputs
+ * in bulk. A Parser given one of these creators hands it batches when parsing all its input.
+ */
+public interface BatchCreatorFromRow<T> extends CreatorFromRow<T> {
+
+  /**
+   * Create method which turns every row of a batch into a general object, adding them to the output
+   * in row order. The batch is reused for the next block of rows, so anything kept from it must be
+   * copied out.
+   *
+   * @param rows - the batch of rows to be converted
+   * @param out - the list to add the object created from each row to
+   * @throws FactoryFailureException if any of the rows fail to be converted
+   */
+  void createAll(RowBatch rows, List<? super T> out) throws FactoryFailureException;
+
+  /**
+   * Adapts any creator to create batches, by creating each row of a batch in turn. Batch creators
+   * are returned as they are.
+   *
+   * @param creator - the creator to adapt
+   * @return a batch creator which creates the same objects
+   * @throws IllegalArgumentException if the creator is null
+   */
+  static <T> BatchCreatorFromRow<T> adapt(CreatorFromRow<T> creator) {
+    if (creator == null) {
+      throw new IllegalArgumentException("null creator input");
+    } else if (creator instanceof BatchCreatorFromRow<T> batchCreator) {
+      return batchCreator;
+    }
+    return new BatchCreatorFromRow<>() {
+      @Override
+      public T create(List<String> row) throws FactoryFailureException {
+        return creator.create(row);
+      }
+
+      @Override
+      public void createAll(RowBatch rows, List<? super T> out) throws FactoryFailureException {
+        for (int row = 0; row < rows.size(); row++) {
+          out.add(creator.create(rows.getRow(row)));
+        }
+      }
+    };
+  }
+}
@@ -0,0 +1,305 @@
+package edu.brown.cs.student.main.parser.creators;
+
+import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.tokenizers.RowView;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A creator for any record class, so a new record type doesn't need a hand-written creator. Each
+ * component of the record is read from a column of the row, converted to the component's type:
+ * Strings are kept as they are; ints, longs, doubles, booleans and BigDecimals are parsed the same
+ * as by their parse methods (e.g. {@link Integer#parseInt(String)}); and enums are looked up by
+ * name.
+ *
+ * <p>Nothing is looked up by reflection per row. When the creator is made, the record's canonical
+ * constructor and a typed converter for each column are joined into one {@link MethodHandle} from a
+ * row to the record (and one from a row view, reading numbers in place like {@link
+ * RowView#getInt(int)}), so creating a row is a single call which the JIT can compile like a
+ * hand-written creator, with no boxing of numbers in between.
+ *
+ * <p>Rows only need the mapped columns; any other columns are ignored.
+ */
+public final class RecordCreator<T extends Record> implements RowViewCreator<T> {
+  /** The types components can have, other than enums. */
+  private static final List<Class<?>> SUPPORTED_TYPES =
+      List.of(String.class, int.class, long.class, double.class, boolean.class, BigDecimal.class);
+
+  /** The record class created. */
+  private final Class<T> type;
+  /** Creates the record from a list of fields, as (List)Object. */
+  private final MethodHandle fromList;
+  /** Creates the record from a row view, as (RowView)Object. */
+  private final MethodHandle fromView;
+
+  /**
+   * Builds the handles creating the record from rows.
+   *
+   * @param type - the record class to create
+   * @param columns - the column each component is read from, in component order
+   * @throws IllegalArgumentException if a component's type isn't supported
+   */
+  private RecordCreator(Class<T> type, int[] columns) throws IllegalArgumentException {
+    this.type = type;
+    RecordComponent[] components = type.getRecordComponents();
+    Class<?>[] types = new Class<?>[components.length];
+    for (int i = 0; i < components.length; i++) {
+      types[i] = components[i].getType();
+    }
+    MethodHandle constructor;
+    try {
+      Constructor<T> canonical = type.getDeclaredConstructor(types);
+      constructor = MethodHandles.lookup().unreflectConstructor(canonical);
+    } catch (ReflectiveOperationException | SecurityException e) {
+      throw new IllegalArgumentException(
+          "can't access the constructor of " + type.getSimpleName(), e);
+    }
+
+    MethodHandle[] listFilters = new MethodHandle[components.length];
+    MethodHandle[] viewFilters = new MethodHandle[components.length];
+    for (int i = 0; i < components.length; i++) {
+      listFilters[i] = listConverter(components[i], columns[i]);
+      viewFilters[i] = viewConverter(components[i], columns[i]);
+    }
+    // every argument of the constructor reads the same row, so the row is passed in once
+    int[] sameRow = new int[components.length];
+    this.fromList =
+        MethodHandles.permuteArguments(
+                MethodHandles.filterArguments(constructor, 0, listFilters),
+                MethodType.methodType(type, List.class),
+                sameRow)
+            .asType(MethodType.methodType(Object.class, List.class));
+    this.fromView =
+        MethodHandles.permuteArguments(
+                MethodHandles.filterArguments(constructor, 0, viewFilters),
+                MethodType.methodType(type, RowView.class),
+                sameRow)
+            .asType(MethodType.methodType(Object.class, RowView.class));
+  }
+
+  /**
+   * Makes a creator which reads the record's components from the columns of the row in order, the
+   * first component from the first column and so on.
+   *
+   * @param type - the record class to create
+   * @return the creator
+   * @throws IllegalArgumentException if the type is null, or a component's type isn't supported
+   */
+  public static <T extends Record> RecordCreator<T> of(Class<T> type)
+      throws IllegalArgumentException {
+    if (type == null) {
+      throw new IllegalArgumentException("null type input");
+    }
+    int[] columns = new int[type.getRecordComponents().length];
+    Arrays.setAll(columns, i -> i);
+    return new RecordCreator<>(type, columns);
+  }
+
+  /**
+   * Makes a creator which reads each of the record's components from the given column.
+   *
+   * @param type - the record class to create
+   * @param columns - the index of the column each component is read from, in component order
+   * @return the creator
+   * @throws IllegalArgumentException if the type is null, there isn't one column for each
+   *     component, a column is negative, or a component's type isn't supported
+   */
+  public static <T extends Record> RecordCreator<T> of(Class<T> type, int... columns)
+      throws IllegalArgumentException {
+    if (type == null) {
+      throw new IllegalArgumentException("null type input");
+    } else if (columns == null || columns.length != type.getRecordComponents().length) {
+      throw new IllegalArgumentException(
+          type.getSimpleName()
+              + " needs a column for each of its "
+              + type.getRecordComponents().length
+              + " components");
+    }
+    for (int column : columns) {
+      if (column < 0) {
+        throw new IllegalArgumentException("column " + column + " must be zero or greater");
+      }
+    }
+    return new RecordCreator<>(type, columns.clone());
+  }
+
+  /**
+   * Makes a creator which reads each of the record's components from the column of the header with
+   * the same name, ignoring case (so a studentId component is read from a "StudentID" column).
+   *
+   * @param type - the record class to create
+   * @param header - the header row of the data
+   * @return the creator
+   * @throws IllegalArgumentException if the type or header is null, a component has no column in
+   *     the header, or a component's type isn't supported
+   */
+  public static <T extends Record> RecordCreator<T> fromHeader(Class<T> type, List<String> header)
+      throws IllegalArgumentException {
+    if (type == null || header == null) {
+      throw new IllegalArgumentException("null type or header input");
+    }
+    RecordComponent[] components = type.getRecordComponents();
+    int[] columns = new int[components.length];
+    for (int i = 0; i < components.length; i++) {
+      columns[i] = -1;
+      for (int col = 0; col < header.size() && columns[i] == -1; col++) {
+        if (components[i].getName().equalsIgnoreCase(header.get(col).strip())) {
+          columns[i] = col;
+        }
+      }
+      if (columns[i] == -1) {
+        throw new IllegalArgumentException(
+            "no column in the header for " + components[i].getName());
+      }
+    }
+    return new RecordCreator<>(type, columns);
+  }
+
+  /**
+   * Create method which turns a (parsed) list of strings into a record.
+   *
+   * @param row - the list of strings to be converted
+   * @return - the record created from the list of strings
+   * @throws FactoryFailureException if a column is missing or can't be converted
+   */
+  @Override
+  public T create(List<String> row) throws FactoryFailureException {
+    try {
+      return type.cast((Object) fromList.invokeExact(row));
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new FactoryFailureException("Error creating " + type.getSimpleName(), row);
+    }
+  }
+
+  /**
+   * Create method which turns a view of a (parsed) row into a record, parsing ints and doubles in
+   * place.
+   *
+   * @param row - the view of the row to be converted
+   * @return - the record created from the row
+   * @throws FactoryFailureException if a column is missing or can't be converted
+   */
+  @Override
+  public T create(RowView row) throws FactoryFailureException {
+    try {
+      return type.cast((Object) fromView.invokeExact(row));
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new FactoryFailureException("Error creating " + type.getSimpleName(), row.toList());
+    }
+  }
+
+  /**
+   * Builds the handle reading a component from a column of a list of fields.
+   *
+   * @param component - the component to read
+   * @param column - the column it's read from
+   * @return a handle from the list to the component's type
+   * @throws IllegalArgumentException if the component's type isn't supported
+   */
+  private static MethodHandle listConverter(RecordComponent component, int column)
+      throws IllegalArgumentException {
+    try {
+      MethodHandle get =
+          MethodHandles.insertArguments(
+                  MethodHandles.lookup()
+                      .findVirtual(
+                          List.class, "get", MethodType.methodType(Object.class, int.class)),
+                  1,
+                  column)
+              .asType(MethodType.methodType(String.class, List.class));
+      return MethodHandles.filterReturnValue(get, fromString(component));
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Builds the handle reading a component from a column of a row view, parsing ints and doubles in
+   * place.
+   *
+   * @param component - the component to read
+   * @param column - the column it's read from
+   * @return a handle from the view to the component's type
+   * @throws IllegalArgumentException if the component's type isn't supported
+   */
+  private static MethodHandle viewConverter(RecordComponent component, int column)
+      throws IllegalArgumentException {
+    Class<?> type = component.getType();
+    String getter = type == int.class ? "getInt" : type == double.class ? "getDouble" : "getString";
+    Class<?> returned = getter.equals("getString") ? String.class : type;
+    try {
+      MethodHandle get =
+          MethodHandles.insertArguments(
+              MethodHandles.lookup()
+                  .findVirtual(RowView.class, getter, MethodType.methodType(returned, int.class)),
+              1,
+              column);
+      return returned == String.class
+          ? MethodHandles.filterReturnValue(get, fromString(component))
+          : get;
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Builds the handle converting a field to a component's type.
+   *
+   * @param component - the component to convert to
+   * @return a handle from String to the component's type
+   * @throws IllegalArgumentException if the component's type isn't supported
+   */
+  private static MethodHandle fromString(RecordComponent component)
+      throws IllegalArgumentException {
+    Class<?> type = component.getType();
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    try {
+      if (type == String.class) {
+        return MethodHandles.identity(String.class);
+      } else if (type == int.class) {
+        return lookup.findStatic(
+            Integer.class, "parseInt", MethodType.methodType(int.class, String.class));
+      } else if (type == long.class) {
+        return lookup.findStatic(
+            Long.class, "parseLong", MethodType.methodType(long.class, String.class));
+      } else if (type == double.class) {
+        return lookup.findStatic(
+            Double.class, "parseDouble", MethodType.methodType(double.class, String.class));
+      } else if (type == boolean.class) {
+        return lookup.findStatic(
+            Boolean.class, "parseBoolean", MethodType.methodType(boolean.class, String.class));
+      } else if (type == BigDecimal.class) {
+        return lookup.findConstructor(
+            BigDecimal.class, MethodType.methodType(void.class, String.class));
+      } else if (type.isEnum()) {
+        MethodHandle valueOf =
+            lookup.findStatic(
+                Enum.class,
+                "valueOf",
+                MethodType.methodType(Enum.class, Class.class, String.class));
+        return MethodHandles.insertArguments(valueOf, 0, type)
+            .asType(MethodType.methodType(type, String.class));
+      }
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+    throw new IllegalArgumentException(
+        "component "
+            + component.getName()
+            + " has type "
+            + type.getSimpleName()
+            + ", but only enums and "
+            + SUPPORTED_TYPES.stream().map(Class::getSimpleName).toList()
+            + " are supported");
+  }
+}
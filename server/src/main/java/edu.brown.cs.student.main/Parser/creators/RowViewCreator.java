@@ -0,0 +1,22 @@
+package edu.brown.cs.student.main.parser.creators;
+
+import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.tokenizers.RowView;
+
+/**
+ * Interface for creators which can also build their objects from a reusable {@link RowView},
+ * without a String being made for every field. A Parser given one of these creators hands it views
+ * instead of lists.
+ */
+public interface RowViewCreator<T> extends CreatorFromRow<T> {
+
+  /**
+   * Create method which turns a view of a (parsed) row into a general object. The view is reused
+   * for the next row, so anything kept from it must be copied out.
+   *
+   * @param row - the view of the row to be converted
+   * @return - the object created from the row
+   * @throws FactoryFailureException if there are any errors with the conversion
+   */
+  T create(RowView row) throws FactoryFailureException;
+}
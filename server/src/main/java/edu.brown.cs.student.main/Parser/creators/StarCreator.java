@@ -2,10 +2,13 @@ package edu.brown.cs.student.main.parser.creators;
 
 import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
 import edu.brown.cs.student.main.parser.classes.Star;
+import edu.brown.cs.student.main.parser.table.StarTable;
+import edu.brown.cs.student.main.parser.tokenizers.RowBatch;
+import edu.brown.cs.student.main.parser.tokenizers.RowView;
 import java.util.List;
 
 /** A creator to convert parsed data into a Star object. */
-public class StarCreator implements CreatorFromRow<Star> {
+public class StarCreator implements RowViewCreator<Star>, BatchCreatorFromRow<Star> {
 
   /**
    * Create method which turns a (parsed) list of strings into a Star object.
@@ -30,4 +33,85 @@ public class StarCreator implements CreatorFromRow<Star> {
       throw new FactoryFailureException("Error creating Star", row);
     }
   }
+
+  /**
+   * Create method which turns a view of a (parsed) row into a Star object. Only the name is copied
+   * out of the row; the numbers are parsed in place.
+   *
+   * @param row - the view of the row to be converted
+   * @return - the Star created from the row
+   * @throws FactoryFailureException if there are any errors with the conversion
+   */
+  @Override
+  public Star create(RowView row) throws FactoryFailureException {
+    if (row.size() != 5) {
+      throw new FactoryFailureException("Error creating Star", row.toList());
+    }
+    try {
+      double[] coordinates = new double[3];
+      coordinates[0] = row.getDouble(2);
+      coordinates[1] = row.getDouble(3);
+      coordinates[2] = row.getDouble(4);
+      return new Star(row.getInt(0), row.getString(1), coordinates);
+    } catch (Exception e) {
+      throw new FactoryFailureException("Error creating Star", row.toList());
+    }
+  }
+
+  /**
+   * Adds a view of a (parsed) row to a table of stars, without creating a Star or a coordinates
+   * array for it.
+   *
+   * @param row - the view of the row to be added
+   * @param table - the builder of the table to add the star to
+   * @throws FactoryFailureException if there are any errors with the conversion
+   */
+  public void addTo(RowView row, StarTable.Builder table) throws FactoryFailureException {
+    if (row.size() != 5) {
+      throw new FactoryFailureException("Error creating Star", row.toList());
+    }
+    try {
+      table.add(
+          row.getInt(0), row.getString(1), row.getDouble(2), row.getDouble(3), row.getDouble(4));
+    } catch (Exception e) {
+      throw new FactoryFailureException("Error creating Star", row.toList());
+    }
+  }
+
+  /**
+   * Create method which turns a batch of (parsed) rows into Star objects. Each numeric column is
+   * parsed for the whole batch in one loop, then the Stars are put together.
+   *
+   * @param rows - the batch of rows to be converted
+   * @param out - the list to add the Stars to
+   * @throws FactoryFailureException if any of the rows fail to be converted
+   */
+  @Override
+  public void createAll(RowBatch rows, List<? super Star> out) throws FactoryFailureException {
+    int size = rows.size();
+    int[] ids = new int[size];
+    double[] x = new double[size];
+    double[] y = new double[size];
+    double[] z = new double[size];
+    try {
+      for (int row = 0; row < size; row++) {
+        if (rows.getWidth(row) != 5) {
+          throw new IllegalArgumentException("incorrect number of columns");
+        }
+      }
+      rows.getInts(0, ids);
+      rows.getDoubles(2, x);
+      rows.getDoubles(3, y);
+      rows.getDoubles(4, z);
+    } catch (RuntimeException e) {
+      // create the rows one at a time, so the first bad row is the one reported
+      for (int row = 0; row < size; row++) {
+        this.create(rows.getRow(row));
+      }
+      throw new FactoryFailureException("Error creating Star", rows.getRow(0));
+    }
+    for (int row = 0; row < size; row++) {
+      out.add(new Star(ids[row], rows.getString(row, 1), new double[] {x[row], y[row], z[row]}));
+    }
+  }
 }
@@ -2,10 +2,13 @@ package edu.brown.cs.student.main.parser.creators;
 
 import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
 import edu.brown.cs.student.main.parser.classes.StudentRecord;
+import edu.brown.cs.student.main.parser.tokenizers.RowBatch;
+import edu.brown.cs.student.main.parser.tokenizers.RowView;
 import java.util.List;
 
 /** A creator to convert parsed data into a StudentRecord object. */
-public class StudentRecordCreator implements CreatorFromRow<StudentRecord> {
+public class StudentRecordCreator
+    implements RowViewCreator<StudentRecord>, BatchCreatorFromRow<StudentRecord> {
 
   /**
    * Create method which turns a (parsed) list of strings into a StudentRecord object.
@@ -26,4 +29,56 @@ public class StudentRecordCreator implements CreatorFromRow<StudentRecord> {
       throw new FactoryFailureException("Error creating StudentRecord", row);
     }
   }
+
+  /**
+   * Create method which turns a view of a (parsed) row into a StudentRecord object, parsing the id
+   * in place.
+   *
+   * @param row - the view of the row to be converted
+   * @return - the StudentRecord created from the row
+   * @throws FactoryFailureException if there are any errors with the conversion
+   */
+  @Override
+  public StudentRecord create(RowView row) throws FactoryFailureException {
+    if (row.size() != 3) {
+      throw new FactoryFailureException("Error creating StudentRecord", row.toList());
+    }
+    try {
+      return new StudentRecord(row.getInt(0), row.getString(1), row.getString(2));
+    } catch (Exception e) {
+      throw new FactoryFailureException("Error creating StudentRecord", row.toList());
+    }
+  }
+
+  /**
+   * Create method which turns a batch of (parsed) rows into StudentRecord objects, parsing the ids
+   * of the whole batch in one loop.
+   *
+   * @param rows - the batch of rows to be converted
+   * @param out - the list to add the StudentRecords to
+   * @throws FactoryFailureException if any of the rows fail to be converted
+   */
+  @Override
+  public void createAll(RowBatch rows, List<? super StudentRecord> out)
+      throws FactoryFailureException {
+    int size = rows.size();
+    int[] ids = new int[size];
+    try {
+      for (int row = 0; row < size; row++) {
+        if (rows.getWidth(row) != 3) {
+          throw new IllegalArgumentException("incorrect number of columns");
+        }
+      }
+      rows.getInts(0, ids);
+    } catch (RuntimeException e) {
+      // create the rows one at a time, so the first bad row is the one reported
+      for (int row = 0; row < size; row++) {
+        this.create(rows.getRow(row));
+      }
+      throw new FactoryFailureException("Error creating StudentRecord", rows.getRow(0));
+    }
+    for (int row = 0; row < size; row++) {
+      out.add(new StudentRecord(ids[row], rows.getString(row, 1), rows.getString(row, 2)));
+    }
+  }
 }
@@ -0,0 +1,32 @@
+package edu.brown.cs.student.main.parser.table;
+
+/** Base class for the columns a ColumnarTable.Builder fills in one value at a time. */
+abstract class AppendableColumn implements Column {
+
+  /**
+   * Adds a value to the end of the column.
+   *
+   * @param value - the value to add, which may be a slice of a reused buffer (it's copied)
+   */
+  abstract void add(CharSequence value);
+
+  /**
+   * Adds every value of another column to the end of this one, e.g. the same column of a later part
+   * of a file parsed in parallel. Columns of the same kind are joined without copying each value.
+   *
+   * @param other - the column whose values to add, which shouldn't be added to afterwards
+   */
+  abstract void addAll(AppendableColumn other);
+
+  /** Shrinks the column's storage to fit its values, once it is done being added to. */
+  abstract void trimToSize();
+
+  /**
+   * Gets a read-only view of the values added so far, without copying them. Values are only ever
+   * added past the end of the view (or into new, bigger arrays), so the view never changes while
+   * this column keeps being added to.
+   *
+   * @return a column of the values added so far
+   */
+  abstract Column snapshot();
+}
@@ -0,0 +1,56 @@
+package edu.brown.cs.student.main.parser.table;
+
+import java.util.function.IntPredicate;
+
+/** Interface for the columns of a ColumnarTable, which hold one value for every row. */
+public interface Column {
+
+  /**
+   * Gets the number of values in the column.
+   *
+   * @return the number of values
+   */
+  int size();
+
+  /**
+   * Gets the value in a row of the column.
+   *
+   * @param row - the index of the row
+   * @return the value
+   * @throws IndexOutOfBoundsException if the row is out of range
+   */
+  String get(int row);
+
+  /**
+   * Checks whether the value in a row equals the given value, ignoring case, without building a
+   * String for the value in the row.
+   *
+   * @param row - the index of the row
+   * @param value - the value to compare against
+   * @return true if they are equal ignoring case
+   * @throws IndexOutOfBoundsException if the row is out of range
+   */
+  boolean equalsIgnoreCase(int row, String value);
+
+  /**
+   * Makes a test for which rows of the column equal the given value, ignoring case. When checking
+   * many rows this can be faster than calling {@link #equalsIgnoreCase(int, String)} on each, since
+   * columns can do some of the work once up front.
+   *
+   * @param value - the value to compare against
+   * @return a predicate which is true for the indices of the rows equal to the value, and which
+   *     throws IndexOutOfBoundsException for rows out of range
+   */
+  default IntPredicate matchIgnoreCase(String value) {
+    return row -> equalsIgnoreCase(row, value);
+  }
+
+  /**
+   * Gets the kind of values the column holds.
+   *
+   * @return the column's type, STRING unless the column stores parsed numbers
+   */
+  default ColumnType getType() {
+    return ColumnType.STRING;
+  }
+}
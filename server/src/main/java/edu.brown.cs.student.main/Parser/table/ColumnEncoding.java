@@ -0,0 +1,16 @@
+package edu.brown.cs.student.main.parser.table;
+
+/** The ways a ColumnarTable can store the values of its columns. */
+public enum ColumnEncoding {
+  /** Every value is stored as its own chars (see {@link StringColumn}). */
+  PLAIN,
+  /**
+   * Each distinct value is stored once, and rows hold an int code (see {@link DictionaryColumn}).
+   */
+  DICTIONARY,
+  /**
+   * Each column starts out dictionary encoded, and switches to plain if it turns out to have too
+   * many distinct values for the dictionary to pay off.
+   */
+  AUTO
+}
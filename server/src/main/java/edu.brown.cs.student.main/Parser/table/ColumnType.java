@@ -0,0 +1,15 @@
+package edu.brown.cs.student.main.parser.table;
+
+/** The kinds of values a column of a ColumnarTable can be inferred to hold. */
+public enum ColumnType {
+  /** Any text; the values are kept as Strings. */
+  STRING,
+  /** Whole numbers that fit in an int, written the way Integer.toString would write them. */
+  INT,
+  /** Whole numbers that fit in a long, written the way Long.toString would write them. */
+  LONG,
+  /** Decimal numbers such as -282.43485 or 1e5. Empty values are read as NaN. */
+  DOUBLE,
+  /** Amounts of money such as $1,234.00 or "74,489.00". Empty values are read as NaN. */
+  CURRENCY
+}
@@ -0,0 +1,446 @@
+package edu.brown.cs.student.main.parser.table;
+
+import edu.brown.cs.student.main.parser.tokenizers.RowView;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Parsed CSV data stored column by column instead of row by row. Each column keeps its values in
+ * one contiguous structure (see {@link StringColumn} and {@link DictionaryColumn}), so scanning a
+ * column doesn't chase a pointer per row, and no per-row lists or per-cell Strings are kept around.
+ * Rows may have different numbers of fields; a row simply has no value in the columns past its own
+ * width.
+ */
+public class ColumnarTable {
+  /** The header row, or null if the data had none. */
+  private final List<String> header;
+  /** The columns of the table, as wide as the widest row. */
+  private final Column[] columns;
+  /** The number of fields in each row. */
+  private final int[] rowWidths;
+  /** The number of rows in the table (not counting the header). */
+  private final int rowCount;
+
+  /**
+   * Creates a table from finished columns.
+   *
+   * @param header - the header row, or null if there is none
+   * @param columns - the columns, each with a value for every row
+   * @param rowWidths - the number of fields in each row
+   * @param rowCount - the number of rows
+   */
+  ColumnarTable(List<String> header, Column[] columns, int[] rowWidths, int rowCount) {
+    this.header = header == null ? null : List.copyOf(header);
+    this.columns = columns;
+    this.rowWidths = rowWidths;
+    this.rowCount = rowCount;
+  }
+
+  /**
+   * Builds a table out of rows that have already been parsed.
+   *
+   * @param rows - the rows to put in the table
+   * @param header - the header row, or null if there is none
+   * @return the table
+   */
+  public static ColumnarTable fromRows(List<List<String>> rows, List<String> header) {
+    return fromRows(rows, header, ColumnEncoding.PLAIN);
+  }
+
+  /**
+   * Builds a table out of rows that have already been parsed, storing the columns with the given
+   * encoding.
+   *
+   * @param rows - the rows to put in the table
+   * @param header - the header row, or null if there is none
+   * @param encoding - how to store the columns
+   * @return the table
+   */
+  public static ColumnarTable fromRows(
+      List<List<String>> rows, List<String> header, ColumnEncoding encoding) {
+    Builder builder = new Builder(encoding);
+    builder.setHeader(header);
+    for (List<String> row : rows) {
+      builder.addRow(row);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Gets the number of rows in the table (not counting the header).
+   *
+   * @return the number of rows
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Gets the number of columns in the table, which is the width of its widest row.
+   *
+   * @return the number of columns
+   */
+  public int getColumnCount() {
+    return columns.length;
+  }
+
+  /**
+   * Gets the header row.
+   *
+   * @return the header row, or null if the data had none
+   */
+  public List<String> getHeader() {
+    return header;
+  }
+
+  /**
+   * Gets the number of fields in a row.
+   *
+   * @param row - the index of the row
+   * @return the number of fields in the row
+   * @throws IndexOutOfBoundsException if the row is out of range
+   */
+  public int getRowWidth(int row) {
+    Objects.checkIndex(row, rowCount);
+    return rowWidths[row];
+  }
+
+  /**
+   * Gets a single value.
+   *
+   * @param row - the index of the row
+   * @param col - the index of the column
+   * @return the value, or null if the row has no value in that column
+   * @throws IndexOutOfBoundsException if the row or column is out of range
+   */
+  public String get(int row, int col) {
+    Objects.checkIndex(col, columns.length);
+    return col < getRowWidth(row) ? columns[col].get(row) : null;
+  }
+
+  /**
+   * Gets a whole row, built from the columns.
+   *
+   * @param row - the index of the row
+   * @return an unmodifiable list of the row's fields
+   * @throws IndexOutOfBoundsException if the row is out of range
+   */
+  public List<String> getRow(int row) {
+    String[] fields = new String[getRowWidth(row)];
+    for (int col = 0; col < fields.length; col++) {
+      fields[col] = columns[col].get(row);
+    }
+    return Collections.unmodifiableList(Arrays.asList(fields));
+  }
+
+  /**
+   * Gets a column, to scan its values directly.
+   *
+   * @param col - the index of the column
+   * @return the column
+   * @throws IndexOutOfBoundsException if the column is out of range
+   */
+  public Column getColumn(int col) {
+    Objects.checkIndex(col, columns.length);
+    return columns[col];
+  }
+
+  /**
+   * Gets the kind of values in a column.
+   *
+   * @param col - the index of the column
+   * @return the column's type
+   * @throws IndexOutOfBoundsException if the column is out of range
+   */
+  public ColumnType getColumnType(int col) {
+    return getColumn(col).getType();
+  }
+
+  /**
+   * Gets a column whose values have been parsed into numbers, to read them without parsing again.
+   *
+   * @param col - the index of the column
+   * @return the column
+   * @throws IndexOutOfBoundsException if the column is out of range
+   * @throws IllegalArgumentException if the column isn't numeric
+   */
+  public NumericColumn getNumericColumn(int col) {
+    if (!(getColumn(col) instanceof NumericColumn numericColumn)) {
+      throw new IllegalArgumentException("column " + col + " is not numeric");
+    }
+    return numericColumn;
+  }
+
+  /**
+   * Gets a table of just some of the columns, in ascending order. The columns are shared with this
+   * table rather than copied, so this is cheap even for a large table.
+   *
+   * @param columns - the indices of the columns to keep
+   * @return the table of the kept columns
+   * @throws IndexOutOfBoundsException if a column is out of range
+   */
+  public ColumnarTable select(int... columns) {
+    int[] sorted = Arrays.stream(columns).sorted().distinct().toArray();
+    Column[] selected = new Column[sorted.length];
+    for (int i = 0; i < sorted.length; i++) {
+      selected[i] = getColumn(sorted[i]);
+    }
+    // a row keeps the selected columns it had, which come before the rest since they're sorted
+    int[] selectedWidths = new int[rowCount];
+    for (int row = 0; row < rowCount; row++) {
+      int width = 0;
+      while (width < sorted.length && sorted[width] < rowWidths[row]) {
+        width++;
+      }
+      selectedWidths[row] = width;
+    }
+    List<String> selectedHeader = null;
+    if (header != null) {
+      selectedHeader = new ArrayList<>();
+      for (int col : sorted) {
+        if (col < header.size()) {
+          selectedHeader.add(header.get(col));
+        }
+      }
+    }
+    return new ColumnarTable(selectedHeader, selected, selectedWidths, rowCount);
+  }
+
+  /**
+   * Checks whether a value equals the given value, ignoring case, without building a String.
+   *
+   * @param row - the index of the row
+   * @param col - the index of the column
+   * @param value - the value to compare against
+   * @return true if they are equal ignoring case, false if not or if the row has no such column
+   * @throws IndexOutOfBoundsException if the row or column is out of range
+   */
+  public boolean equalsIgnoreCase(int row, int col, String value) {
+    Objects.checkIndex(col, columns.length);
+    return col < getRowWidth(row) && columns[col].equalsIgnoreCase(row, value);
+  }
+
+  /** Builds a ColumnarTable one row at a time. */
+  public static class Builder {
+    /**
+     * With AUTO encoding, a column with more distinct values than this goes back to plain as soon
+     * as more than half of its values are distinct, rather than growing its dictionary further.
+     */
+    private static final int AUTO_MAX_DICTIONARY_SIZE = 1 << 10;
+
+    /** How the columns are stored. */
+    private final ColumnEncoding encoding;
+    /** Whether numeric columns are converted to primitive storage when the table is built. */
+    private boolean inferTypes;
+    /** The header row, or null if there is none. */
+    private List<String> header;
+    /** The columns being filled in. */
+    private final List<AppendableColumn> columns;
+    /** The number of fields in each row added so far. */
+    private int[] rowWidths;
+    /** The number of rows added so far. */
+    private int rowCount;
+
+    /** Creates a builder for an empty table with plain columns. */
+    public Builder() {
+      this(ColumnEncoding.PLAIN);
+    }
+
+    /**
+     * Creates a builder for an empty table.
+     *
+     * @param encoding - how to store the columns
+     * @throws IllegalArgumentException if the encoding is null
+     */
+    public Builder(ColumnEncoding encoding) {
+      if (encoding == null) {
+        throw new IllegalArgumentException("null encoding input");
+      }
+      this.encoding = encoding;
+      this.inferTypes = false;
+      this.header = null;
+      this.columns = new ArrayList<>();
+      this.rowWidths = new int[16];
+      this.rowCount = 0;
+    }
+
+    /**
+     * Sets the header row of the table.
+     *
+     * @param header - the header row, or null if there is none
+     */
+    public void setHeader(List<String> header) {
+      this.header = header;
+    }
+
+    /**
+     * Sets whether the type of each column is inferred when the table is built. Columns whose
+     * values are all ints, longs, decimals or amounts of money are then stored as numbers (see
+     * {@link ColumnType}), so they don't have to be parsed again on every use.
+     *
+     * @param inferTypes - true to infer column types
+     */
+    public void setInferTypes(boolean inferTypes) {
+      this.inferTypes = inferTypes;
+    }
+
+    /**
+     * Adds a row to the end of the table, adding columns if it's wider than the rows before it.
+     *
+     * @param row - the fields of the row
+     */
+    public void addRow(List<String> row) {
+      this.addColumns(row.size());
+      for (int col = 0; col < columns.size(); col++) {
+        columns.get(col).add(col < row.size() ? row.get(col) : "");
+        this.checkEncoding(col);
+      }
+      this.addRowWidth(row.size());
+    }
+
+    /**
+     * Adds a row read into a view to the end of the table, copying its fields straight into the
+     * columns without making a String or a list for the row.
+     *
+     * @param row - the view holding the row
+     */
+    public void addRow(RowView row) {
+      this.addColumns(row.size());
+      for (int col = 0; col < columns.size(); col++) {
+        columns.get(col).add(col < row.size() ? row.get(col) : "");
+        this.checkEncoding(col);
+      }
+      this.addRowWidth(row.size());
+    }
+
+    /**
+     * Adds every row of another builder to the end of the table, e.g. the rows of a later part of a
+     * file parsed in parallel. The other builder shouldn't be used afterwards.
+     *
+     * @param other - the builder whose rows to add
+     * @throws IllegalArgumentException if the other builder stores its columns another way
+     */
+    public void append(Builder other) {
+      if (other.encoding != encoding) {
+        throw new IllegalArgumentException("can't append rows encoded " + other.encoding);
+      }
+      this.addColumns(other.columns.size());
+      for (int col = 0; col < columns.size(); col++) {
+        if (col < other.columns.size()) {
+          AppendableColumn added = other.columns.get(col);
+          if (columns.get(col) instanceof DictionaryColumn encoded
+              && !(added instanceof DictionaryColumn)) {
+            // the other part already gave up on its dictionary, so this one will too
+            columns.set(col, encoded.toPlain());
+          }
+          columns.get(col).addAll(added);
+        } else {
+          for (int row = 0; row < other.rowCount; row++) {
+            columns.get(col).add("");
+          }
+        }
+        this.checkEncoding(col);
+      }
+      if (rowCount + other.rowCount > rowWidths.length) {
+        rowWidths = Arrays.copyOf(rowWidths, Math.max(rowCount + other.rowCount, rowCount * 2));
+      }
+      System.arraycopy(other.rowWidths, 0, rowWidths, rowCount, other.rowCount);
+      rowCount += other.rowCount;
+    }
+
+    /**
+     * Finishes the table. The builder shouldn't be used afterwards.
+     *
+     * @return the table
+     */
+    public ColumnarTable build() {
+      Column[] finished = new Column[columns.size()];
+      for (int col = 0; col < finished.length; col++) {
+        AppendableColumn column = columns.get(col);
+        if (encoding == ColumnEncoding.AUTO && hasTooManyValues(column, false)) {
+          column = ((DictionaryColumn) column).toPlain();
+        }
+        column.trimToSize();
+        finished[col] = inferTypes ? TypeInference.infer(column) : column;
+      }
+      return new ColumnarTable(header, finished, Arrays.copyOf(rowWidths, rowCount), rowCount);
+    }
+
+    /**
+     * Gets a table of the rows added so far, without copying them or finishing the builder, which
+     * can keep being added to. Rows added later aren't seen by the table. Unlike build, columns
+     * aren't trimmed, converted from dictionary to plain at the end, or given inferred types.
+     *
+     * @return a table of the rows added so far
+     */
+    public ColumnarTable snapshot() {
+      Column[] current = new Column[columns.size()];
+      for (int col = 0; col < current.length; col++) {
+        current[col] = columns.get(col).snapshot();
+      }
+      return new ColumnarTable(header, current, rowWidths, rowCount);
+    }
+
+    /**
+     * Adds columns until the table is at least as wide as a row.
+     *
+     * @param width - the number of fields in the row
+     */
+    private void addColumns(int width) {
+      while (columns.size() < width) {
+        // earlier rows have no value in the new column
+        AppendableColumn column =
+            encoding == ColumnEncoding.PLAIN ? new StringColumn() : new DictionaryColumn();
+        for (int i = 0; i < rowCount; i++) {
+          column.add("");
+        }
+        columns.add(column);
+      }
+    }
+
+    /**
+     * Switches a column to plain storage once its dictionary stops paying off, with AUTO encoding.
+     *
+     * @param col - the index of the column
+     */
+    private void checkEncoding(int col) {
+      if (encoding == ColumnEncoding.AUTO && hasTooManyValues(columns.get(col), true)) {
+        columns.set(col, ((DictionaryColumn) columns.get(col)).toPlain());
+      }
+    }
+
+    /**
+     * Records the number of fields of the row just added.
+     *
+     * @param width - the number of fields in the row
+     */
+    private void addRowWidth(int width) {
+      if (rowCount == rowWidths.length) {
+        rowWidths = Arrays.copyOf(rowWidths, rowCount * 2);
+      }
+      rowWidths[rowCount++] = width;
+    }
+
+    /**
+     * Checks whether a dictionary column has so many distinct values that it would be smaller as a
+     * plain column.
+     *
+     * @param column - the column to check
+     * @param onlyIfLarge - if true, small dictionaries are kept, since more rows may still repeat
+     *     their values
+     * @return true if the column is dictionary encoded and more than half of its values are
+     *     distinct
+     */
+    private static boolean hasTooManyValues(AppendableColumn column, boolean onlyIfLarge) {
+      if (!(column instanceof DictionaryColumn dictionaryColumn)) {
+        return false;
+      }
+      int distinct = dictionaryColumn.getDictionarySize();
+      return (!onlyIfLarge || distinct > AUTO_MAX_DICTIONARY_SIZE)
+          && distinct * 2 > dictionaryColumn.size();
+    }
+  }
+}
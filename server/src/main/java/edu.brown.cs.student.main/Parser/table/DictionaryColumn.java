@@ -0,0 +1,199 @@
+package edu.brown.cs.student.main.parser.table;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * A column which stores each distinct value once, in a dictionary, and an int code per row pointing
+ * into it. Columns that repeat a handful of values (states, counties, races, ...) then cost about
+ * one int per row, and every row with the same value shares one String.
+ */
+public class DictionaryColumn extends AppendableColumn {
+  /** The distinct values, indexed by their code. */
+  private String[] dictionary;
+  /** Number of distinct values in the dictionary. */
+  private int dictionarySize;
+  /** The code of each distinct value, while values are being added. */
+  private Map<String, Integer> codesByValue;
+  /** The code of the value in each row. */
+  private int[] codes;
+  /** Number of values in the column. */
+  private int size;
+
+  /** Creates an empty column. */
+  public DictionaryColumn() {
+    this.dictionary = new String[16];
+    this.dictionarySize = 0;
+    this.codesByValue = new HashMap<>();
+    this.codes = new int[16];
+    this.size = 0;
+  }
+
+  /**
+   * Creates a finished column from its dictionary and codes, e.g. read back from a snapshot. Only
+   * the start of each array is used, so the arrays may be shared with a column still being added
+   * to.
+   *
+   * @param dictionary - the distinct values, indexed by their code
+   * @param dictionarySize - the number of distinct values
+   * @param codes - the code of the value in each row
+   * @param size - the number of rows
+   */
+  DictionaryColumn(String[] dictionary, int dictionarySize, int[] codes, int size) {
+    this.dictionary = dictionary;
+    this.dictionarySize = dictionarySize;
+    this.codesByValue = null;
+    this.codes = codes;
+    this.size = size;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public String get(int row) {
+    Objects.checkIndex(row, size);
+    return dictionary[codes[row]];
+  }
+
+  @Override
+  public boolean equalsIgnoreCase(int row, String value) {
+    return get(row).equalsIgnoreCase(value);
+  }
+
+  /**
+   * Compares the value against each entry of the dictionary once, so testing a row is just a look
+   * at its code.
+   */
+  @Override
+  public IntPredicate matchIgnoreCase(String value) {
+    boolean[] matchingCodes = new boolean[dictionarySize];
+    int matches = 0;
+    int lastMatch = -1;
+    for (int code = 0; code < matchingCodes.length; code++) {
+      if (dictionary[code].equalsIgnoreCase(value)) {
+        matchingCodes[code] = true;
+        matches++;
+        lastMatch = code;
+      }
+    }
+    if (matches == 0) {
+      return row -> Objects.checkIndex(row, size) < 0;
+    }
+    if (matches == 1) {
+      int match = lastMatch;
+      return row -> codes[Objects.checkIndex(row, size)] == match;
+    }
+    return row -> matchingCodes[codes[Objects.checkIndex(row, size)]];
+  }
+
+  /**
+   * Gets the number of distinct values in the column.
+   *
+   * @return the size of the dictionary
+   */
+  public int getDictionarySize() {
+    return dictionarySize;
+  }
+
+  /**
+   * Gets a distinct value of the column.
+   *
+   * @param code - the value's code
+   * @return the value
+   * @throws IndexOutOfBoundsException if the code is out of range
+   */
+  String getDictionaryValue(int code) {
+    Objects.checkIndex(code, dictionarySize);
+    return dictionary[code];
+  }
+
+  /**
+   * Gets the code of the value in each row, for writing the column to a snapshot.
+   *
+   * @return the column's codes (not a copy)
+   */
+  int[] codes() {
+    return codes;
+  }
+
+  @Override
+  void add(CharSequence value) {
+    if (size == codes.length) {
+      codes = Arrays.copyOf(codes, size * 2);
+    }
+    codes[size++] = codeOf(value.toString());
+  }
+
+  @Override
+  void addAll(AppendableColumn other) {
+    if (!(other instanceof DictionaryColumn encoded)) {
+      for (int row = 0; row < other.size(); row++) {
+        add(other.get(row));
+      }
+      return;
+    }
+    // look each of the other column's distinct values up once, then translate its codes
+    int[] translated = new int[encoded.dictionarySize];
+    for (int code = 0; code < encoded.dictionarySize; code++) {
+      translated[code] = codeOf(encoded.dictionary[code]);
+    }
+    if (size + encoded.size > codes.length) {
+      codes = Arrays.copyOf(codes, Math.max(size + encoded.size, codes.length * 2));
+    }
+    for (int row = 0; row < encoded.size; row++) {
+      codes[size + row] = translated[encoded.codes[row]];
+    }
+    size += encoded.size;
+  }
+
+  /**
+   * Gets the code of a value, adding the value to the dictionary if it's new.
+   *
+   * @param value - the value
+   * @return the value's code
+   */
+  private int codeOf(String value) {
+    Integer code = codesByValue.get(value);
+    if (code == null) {
+      if (dictionarySize == dictionary.length) {
+        dictionary = Arrays.copyOf(dictionary, dictionarySize * 2);
+      }
+      code = dictionarySize;
+      dictionary[dictionarySize++] = value;
+      codesByValue.put(value, code);
+    }
+    return code;
+  }
+
+  /** Also drops the map from values to codes, which is only needed while adding. */
+  @Override
+  void trimToSize() {
+    codes = Arrays.copyOf(codes, size);
+    codesByValue = null;
+    dictionary = Arrays.copyOf(dictionary, dictionarySize);
+  }
+
+  @Override
+  Column snapshot() {
+    return new DictionaryColumn(dictionary, dictionarySize, codes, size);
+  }
+
+  /**
+   * Copies the values into a plain column, for when the dictionary doesn't pay off.
+   *
+   * @return a StringColumn with the same values
+   */
+  StringColumn toPlain() {
+    StringColumn plain = new StringColumn();
+    for (int row = 0; row < size; row++) {
+      plain.add(dictionary[codes[row]]);
+    }
+    return plain;
+  }
+}
@@ -0,0 +1,94 @@
+package edu.brown.cs.student.main.parser.table;
+
+import java.nio.DoubleBuffer;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * A column of decimal numbers or amounts of money, parsed once into a double array (or a view of
+ * one in a mapped snapshot). The original text is kept as well, since the same number can be
+ * written many ways (5.0, 5.00, $5, ...) and a table always gives back the values it was built
+ * from.
+ */
+public class DoubleColumn implements NumericColumn {
+  /** The original text of each value. */
+  private final Column text;
+  /** The number in each row, NaN for empty values. */
+  private final DoubleBuffer values;
+  /** Whether the values are plain decimals or amounts of money. */
+  private final ColumnType type;
+
+  /**
+   * Creates a column from its text and parsed values.
+   *
+   * @param text - the original text of each value
+   * @param values - the number in each row
+   * @param type - DOUBLE or CURRENCY
+   */
+  DoubleColumn(Column text, double[] values, ColumnType type) {
+    this(text, DoubleBuffer.wrap(values), type);
+  }
+
+  /**
+   * Creates a column from its text and a buffer of its parsed values, e.g. a view of a mapped
+   * snapshot.
+   *
+   * @param text - the original text of each value
+   * @param values - the number in each row, from index 0 to the limit
+   * @param type - DOUBLE or CURRENCY
+   */
+  DoubleColumn(Column text, DoubleBuffer values, ColumnType type) {
+    this.text = text;
+    this.values = values;
+    this.type = type;
+  }
+
+  @Override
+  public int size() {
+    return values.limit();
+  }
+
+  @Override
+  public String get(int row) {
+    return text.get(row);
+  }
+
+  @Override
+  public boolean equalsIgnoreCase(int row, String value) {
+    return text.equalsIgnoreCase(row, value);
+  }
+
+  @Override
+  public IntPredicate matchIgnoreCase(String value) {
+    return text.matchIgnoreCase(value);
+  }
+
+  @Override
+  public ColumnType getType() {
+    return type;
+  }
+
+  @Override
+  public double getDouble(int row) {
+    Objects.checkIndex(row, values.limit());
+    return values.get(row);
+  }
+
+  /**
+   * Gets the original text of the values, for writing the column to a snapshot.
+   *
+   * @return the text column
+   */
+  Column text() {
+    return text;
+  }
+
+  /**
+   * Gets the number in each row, for writing the column to a snapshot.
+   *
+   * @return the column's values (not a copy, so don't move its position)
+   */
+  DoubleBuffer values() {
+    return values;
+  }
+}
@@ -0,0 +1,89 @@
+package edu.brown.cs.student.main.parser.table;
+
+import java.nio.IntBuffer;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * A column of whole numbers stored in an int array (or a view of one in a mapped snapshot). Only
+ * made for values that are written exactly the way Integer.toString writes them, so the text of
+ * every value can be rebuilt from the number.
+ */
+public class IntColumn implements NumericColumn {
+  /** The value in each row. */
+  private final IntBuffer values;
+
+  /**
+   * Creates a column from its values.
+   *
+   * @param values - the value in each row
+   */
+  IntColumn(int[] values) {
+    this(IntBuffer.wrap(values));
+  }
+
+  /**
+   * Creates a column over a buffer of its values, e.g. a view of a mapped snapshot.
+   *
+   * @param values - the value in each row, from index 0 to the limit
+   */
+  IntColumn(IntBuffer values) {
+    this.values = values;
+  }
+
+  @Override
+  public int size() {
+    return values.limit();
+  }
+
+  @Override
+  public String get(int row) {
+    return Integer.toString(getInt(row));
+  }
+
+  @Override
+  public boolean equalsIgnoreCase(int row, String value) {
+    return matchIgnoreCase(value).test(row);
+  }
+
+  /** Parses the value once, so each row is a single int comparison. */
+  @Override
+  public IntPredicate matchIgnoreCase(String value) {
+    if (!TypeInference.isCanonicalInteger(value) || !TypeInference.fitsInInt(value)) {
+      return row -> Objects.checkIndex(row, values.limit()) < 0;
+    }
+    int number = Integer.parseInt(value);
+    return row -> getInt(row) == number;
+  }
+
+  @Override
+  public ColumnType getType() {
+    return ColumnType.INT;
+  }
+
+  @Override
+  public double getDouble(int row) {
+    return getInt(row);
+  }
+
+  /**
+   * Gets the value in each row, for writing the column to a snapshot.
+   *
+   * @return the column's values (not a copy, so don't move its position)
+   */
+  IntBuffer values() {
+    return values;
+  }
+
+  /**
+   * Gets the number in a row of the column.
+   *
+   * @param row - the index of the row
+   * @return the number
+   * @throws IndexOutOfBoundsException if the row is out of range
+   */
+  public int getInt(int row) {
+    Objects.checkIndex(row, values.limit());
+    return values.get(row);
+  }
+}
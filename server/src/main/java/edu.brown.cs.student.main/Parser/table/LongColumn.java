@@ -0,0 +1,89 @@
+package edu.brown.cs.student.main.parser.table;
+
+import java.nio.LongBuffer;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * A column of whole numbers stored in a long array (or a view of one in a mapped snapshot). Only
+ * made for values that are written exactly the way Long.toString writes them, so the text of every
+ * value can be rebuilt from the number.
+ */
+public class LongColumn implements NumericColumn {
+  /** The value in each row. */
+  private final LongBuffer values;
+
+  /**
+   * Creates a column from its values.
+   *
+   * @param values - the value in each row
+   */
+  LongColumn(long[] values) {
+    this(LongBuffer.wrap(values));
+  }
+
+  /**
+   * Creates a column over a buffer of its values, e.g. a view of a mapped snapshot.
+   *
+   * @param values - the value in each row, from index 0 to the limit
+   */
+  LongColumn(LongBuffer values) {
+    this.values = values;
+  }
+
+  @Override
+  public int size() {
+    return values.limit();
+  }
+
+  @Override
+  public String get(int row) {
+    return Long.toString(getLong(row));
+  }
+
+  @Override
+  public boolean equalsIgnoreCase(int row, String value) {
+    return matchIgnoreCase(value).test(row);
+  }
+
+  /** Parses the value once, so each row is a single long comparison. */
+  @Override
+  public IntPredicate matchIgnoreCase(String value) {
+    if (!TypeInference.isCanonicalInteger(value)) {
+      return row -> Objects.checkIndex(row, values.limit()) < 0;
+    }
+    long number = Long.parseLong(value);
+    return row -> getLong(row) == number;
+  }
+
+  @Override
+  public ColumnType getType() {
+    return ColumnType.LONG;
+  }
+
+  @Override
+  public double getDouble(int row) {
+    return getLong(row);
+  }
+
+  /**
+   * Gets the value in each row, for writing the column to a snapshot.
+   *
+   * @return the column's values (not a copy, so don't move its position)
+   */
+  LongBuffer values() {
+    return values;
+  }
+
+  /**
+   * Gets the number in a row of the column.
+   *
+   * @param row - the index of the row
+   * @return the number
+   * @throws IndexOutOfBoundsException if the row is out of range
+   */
+  public long getLong(int row) {
+    Objects.checkIndex(row, values.limit());
+    return values.get(row);
+  }
+}
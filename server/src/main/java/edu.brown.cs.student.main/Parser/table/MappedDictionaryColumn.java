@@ -0,0 +1,99 @@
+package edu.brown.cs.student.main.parser.table;
+
+import java.nio.IntBuffer;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * A read-only {@link DictionaryColumn} read from a snapshot. The dictionary is read into Strings,
+ * since there's one per distinct value, but the code of each row stays a view of the mapped file.
+ */
+public class MappedDictionaryColumn implements Column {
+  /** The distinct values, indexed by their code. */
+  private final String[] dictionary;
+  /** The code of the value in each row. */
+  private final IntBuffer codes;
+  /** Number of values in the column. */
+  private final int size;
+
+  /**
+   * Creates a column from its dictionary and a view of its codes.
+   *
+   * @param dictionary - the distinct values, indexed by their code
+   * @param codes - the code of the value in each row
+   * @param size - the number of rows
+   */
+  MappedDictionaryColumn(String[] dictionary, IntBuffer codes, int size) {
+    this.dictionary = dictionary;
+    this.codes = codes;
+    this.size = size;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public String get(int row) {
+    Objects.checkIndex(row, size);
+    return dictionary[codes.get(row)];
+  }
+
+  @Override
+  public boolean equalsIgnoreCase(int row, String value) {
+    return get(row).equalsIgnoreCase(value);
+  }
+
+  /** Compares the value against each entry of the dictionary once, like DictionaryColumn does. */
+  @Override
+  public IntPredicate matchIgnoreCase(String value) {
+    boolean[] matchingCodes = new boolean[dictionary.length];
+    int matches = 0;
+    int lastMatch = -1;
+    for (int code = 0; code < matchingCodes.length; code++) {
+      if (dictionary[code].equalsIgnoreCase(value)) {
+        matchingCodes[code] = true;
+        matches++;
+        lastMatch = code;
+      }
+    }
+    if (matches == 0) {
+      return row -> Objects.checkIndex(row, size) < 0;
+    }
+    if (matches == 1) {
+      int match = lastMatch;
+      return row -> codes.get(Objects.checkIndex(row, size)) == match;
+    }
+    return row -> matchingCodes[codes.get(Objects.checkIndex(row, size))];
+  }
+
+  /**
+   * Gets the number of distinct values in the column.
+   *
+   * @return the size of the dictionary
+   */
+  public int getDictionarySize() {
+    return dictionary.length;
+  }
+
+  /**
+   * Gets a distinct value of the column.
+   *
+   * @param code - the value's code
+   * @return the value
+   * @throws IndexOutOfBoundsException if the code is out of range
+   */
+  String getDictionaryValue(int code) {
+    return dictionary[code];
+  }
+
+  /**
+   * Gets the code of the value in each row, for writing the column to a snapshot.
+   *
+   * @return the column's codes (not a copy, so don't move its position)
+   */
+  IntBuffer codes() {
+    return codes;
+  }
+}
@@ -0,0 +1,90 @@
+package edu.brown.cs.student.main.parser.table;
+
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.util.Objects;
+
+/**
+ * A read-only {@link StringColumn} read from a snapshot: its chars and end offsets are views of the
+ * mapped file rather than arrays, so loading the column copies nothing, and the pages holding a
+ * value are only read in once the value is looked at.
+ */
+public class MappedStringColumn implements Column {
+  /** The chars of every value, one after another. */
+  private final CharBuffer chars;
+  /** The offset in chars just past the end of each value. */
+  private final IntBuffer ends;
+  /** Number of values in the column. */
+  private final int size;
+
+  /**
+   * Creates a column over its chars and end offsets.
+   *
+   * @param chars - the chars of every value, one after another
+   * @param ends - the offset just past the end of each value
+   * @param size - the number of values
+   */
+  MappedStringColumn(CharBuffer chars, IntBuffer ends, int size) {
+    this.chars = chars;
+    this.ends = ends;
+    this.size = size;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public String get(int row) {
+    Objects.checkIndex(row, size);
+    int start = start(row);
+    char[] value = new char[ends.get(row) - start];
+    chars.get(start, value);
+    return new String(value);
+  }
+
+  @Override
+  public boolean equalsIgnoreCase(int row, String value) {
+    Objects.checkIndex(row, size);
+    int start = start(row);
+    int length = ends.get(row) - start;
+    if (length != value.length()) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (!StringColumn.charsEqualIgnoreCase(chars.get(start + i), value.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets the chars of every value, for writing the column to a snapshot.
+   *
+   * @return the column's chars (not a copy, so don't move its position)
+   */
+  CharBuffer chars() {
+    return chars;
+  }
+
+  /**
+   * Gets the end offset of each value, for writing the column to a snapshot.
+   *
+   * @return the column's end offsets (not a copy, so don't move its position)
+   */
+  IntBuffer ends() {
+    return ends;
+  }
+
+  /**
+   * Gets the offset of the first char of a value.
+   *
+   * @param row - the index of the value
+   * @return the offset
+   */
+  private int start(int row) {
+    return row == 0 ? 0 : ends.get(row - 1);
+  }
+}
@@ -0,0 +1,29 @@
+package edu.brown.cs.student.main.parser.table;
+
+/** Interface for columns whose values have been parsed into numbers. */
+public interface NumericColumn extends Column {
+
+  /**
+   * Gets the number in a row of the column, without parsing its text again.
+   *
+   * @param row - the index of the row
+   * @return the number, or NaN if the row has no value
+   * @throws IndexOutOfBoundsException if the row is out of range
+   */
+  double getDouble(int row);
+
+  /**
+   * Parses a value into a number the way numeric columns are inferred: a decimal number such as
+   * -282.43485 or 1e5, or an amount of money such as $75,000 or "74,489.00".
+   *
+   * @param value - the value to parse
+   * @return the number, or NaN if the value is empty or isn't a number
+   * @throws IllegalArgumentException if the value is null
+   */
+  static double parse(String value) {
+    if (value == null) {
+      throw new IllegalArgumentException("null value input");
+    }
+    return TypeInference.parseNumber(value);
+  }
+}
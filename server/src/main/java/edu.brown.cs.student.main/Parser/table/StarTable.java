@@ -0,0 +1,302 @@
+package edu.brown.cs.student.main.parser.table;
+
+import edu.brown.cs.student.main.parser.CsvFormat;
+import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.classes.Star;
+import edu.brown.cs.student.main.parser.creators.StarCreator;
+import edu.brown.cs.student.main.parser.tokenizers.RowTokenizer;
+import edu.brown.cs.student.main.parser.tokenizers.RowView;
+import edu.brown.cs.student.main.searcher.KdTree;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Stars stored column by column: the IDs, names and each coordinate are kept in their own array,
+ * instead of one {@link Star} object (and one coordinates array) per star. Scanning a coordinate
+ * walks one contiguous array of doubles, and millions of stars cost a few arrays rather than
+ * millions of objects.
+ *
+ * <p>Nearest-neighbor and radius queries go through a {@link KdTree}, built the first time one is
+ * made, so they don't compare against every star.
+ */
+public final class StarTable {
+  /** The ID of each star. */
+  private final int[] ids;
+  /** The proper name of each star. */
+  private final String[] names;
+  /** The x coordinate of each star. */
+  private final double[] x;
+  /** The y coordinate of each star. */
+  private final double[] y;
+  /** The z coordinate of each star. */
+  private final double[] z;
+  /** The index over the stars' coordinates, or null until the first query. */
+  private volatile KdTree index;
+
+  /**
+   * Creates a table from finished arrays, all the same length.
+   *
+   * @param ids - the ID of each star
+   * @param names - the name of each star
+   * @param x - the x coordinate of each star
+   * @param y - the y coordinate of each star
+   * @param z - the z coordinate of each star
+   */
+  private StarTable(int[] ids, String[] names, double[] x, double[] y, double[] z) {
+    this.ids = ids;
+    this.names = names;
+    this.x = x;
+    this.y = y;
+    this.z = z;
+    this.index = null;
+  }
+
+  /**
+   * Reads stars (rows of StarID, ProperName, X, Y, Z) straight into a table, without creating a
+   * Star for each row.
+   *
+   * @param reader - the reader to read the stars from
+   * @param headerRow - whether there's a header row to skip
+   * @param format - how rows are split into fields
+   * @return the table of stars
+   * @throws IOException when the reader fails to read-in a row
+   * @throws FactoryFailureException when a row isn't a star
+   * @throws IllegalArgumentException when given a null input
+   */
+  public static StarTable read(Reader reader, boolean headerRow, CsvFormat format)
+      throws IOException, FactoryFailureException {
+    if (reader == null || format == null) {
+      throw new IllegalArgumentException("null reader or format input");
+    }
+    StarCreator creator = new StarCreator();
+    Builder builder = new Builder();
+    RowView row = new RowView();
+    try (RowTokenizer tokenizer = format.open(reader)) {
+      if (headerRow) {
+        tokenizer.nextRow();
+      }
+      while (tokenizer.nextRowView(row)) {
+        creator.addTo(row, builder);
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Gets the number of stars in the table.
+   *
+   * @return the number of stars
+   */
+  public int size() {
+    return ids.length;
+  }
+
+  /**
+   * Gets a star's ID.
+   *
+   * @param row - the index of the star
+   * @return the ID
+   * @throws IndexOutOfBoundsException if the row is out of range
+   */
+  public int getStarId(int row) {
+    return ids[row];
+  }
+
+  /**
+   * Gets a star's proper name.
+   *
+   * @param row - the index of the star
+   * @return the name, which may be empty
+   * @throws IndexOutOfBoundsException if the row is out of range
+   */
+  public String getProperName(int row) {
+    return names[row];
+  }
+
+  /**
+   * Gets a star's x coordinate.
+   *
+   * @param row - the index of the star
+   * @return the x coordinate
+   * @throws IndexOutOfBoundsException if the row is out of range
+   */
+  public double getX(int row) {
+    return x[row];
+  }
+
+  /**
+   * Gets a star's y coordinate.
+   *
+   * @param row - the index of the star
+   * @return the y coordinate
+   * @throws IndexOutOfBoundsException if the row is out of range
+   */
+  public double getY(int row) {
+    return y[row];
+  }
+
+  /**
+   * Gets a star's z coordinate.
+   *
+   * @param row - the index of the star
+   * @return the z coordinate
+   * @throws IndexOutOfBoundsException if the row is out of range
+   */
+  public double getZ(int row) {
+    return z[row];
+  }
+
+  /**
+   * Builds a Star object for one row, for code that works with Stars.
+   *
+   * @param row - the index of the star
+   * @return the star
+   * @throws IndexOutOfBoundsException if the row is out of range
+   */
+  public Star getStar(int row) {
+    return new Star(ids[row], names[row], new double[] {x[row], y[row], z[row]});
+  }
+
+  /**
+   * Finds the first star with the given proper name (not case-sensitive).
+   *
+   * @param properName - the name to look for
+   * @return the index of the star, or -1 if there is none with that name
+   */
+  public int indexOfName(String properName) {
+    for (int row = 0; row < names.length; row++) {
+      if (names[row].equalsIgnoreCase(properName)) {
+        return row;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Finds the stars nearest to a star, not counting the star itself.
+   *
+   * @param row - the index of the star to search around
+   * @param count - the most stars to find
+   * @return the indices of the nearest stars, nearest first
+   * @throws IndexOutOfBoundsException if the row is out of range
+   * @throws IllegalArgumentException if the count is negative
+   */
+  public int[] nearest(int row, int count) {
+    return index().nearestTo(row, count);
+  }
+
+  /**
+   * Finds the stars nearest to a point.
+   *
+   * @param px - the x coordinate of the point
+   * @param py - the y coordinate of the point
+   * @param pz - the z coordinate of the point
+   * @param count - the most stars to find
+   * @return the indices of the nearest stars, nearest first
+   * @throws IllegalArgumentException if the count is negative
+   */
+  public int[] nearest(double px, double py, double pz, int count) {
+    return index().nearest(new double[] {px, py, pz}, count);
+  }
+
+  /**
+   * Finds every star within a distance of a point.
+   *
+   * @param px - the x coordinate of the point
+   * @param py - the y coordinate of the point
+   * @param pz - the z coordinate of the point
+   * @param radius - the furthest a star can be from the point (inclusive)
+   * @return the indices of the stars in range, nearest first
+   * @throws IllegalArgumentException if the radius is negative
+   */
+  public int[] withinRadius(double px, double py, double pz, double radius) {
+    return index().withinRadius(new double[] {px, py, pz}, radius);
+  }
+
+  /**
+   * Gets the index over the stars' coordinates, building it on first use.
+   *
+   * @return the index
+   */
+  private KdTree index() {
+    KdTree built = index;
+    if (built == null) {
+      synchronized (this) {
+        built = index;
+        if (built == null) {
+          built = new KdTree(x, y, z);
+          index = built;
+        }
+      }
+    }
+    return built;
+  }
+
+  /** Builds a StarTable one star at a time. */
+  public static final class Builder {
+    /** The ID of each star added so far. */
+    private int[] ids;
+    /** The name of each star added so far. */
+    private String[] names;
+    /** The x coordinate of each star added so far. */
+    private double[] x;
+    /** The y coordinate of each star added so far. */
+    private double[] y;
+    /** The z coordinate of each star added so far. */
+    private double[] z;
+    /** Number of stars added so far. */
+    private int size;
+
+    /** Creates a builder with no stars. */
+    public Builder() {
+      this.ids = new int[64];
+      this.names = new String[64];
+      this.x = new double[64];
+      this.y = new double[64];
+      this.z = new double[64];
+      this.size = 0;
+    }
+
+    /**
+     * Adds a star to the end of the table.
+     *
+     * @param id - the star's ID
+     * @param name - the star's proper name
+     * @param px - the star's x coordinate
+     * @param py - the star's y coordinate
+     * @param pz - the star's z coordinate
+     */
+    public void add(int id, String name, double px, double py, double pz) {
+      if (size == ids.length) {
+        int capacity = size * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        z = Arrays.copyOf(z, capacity);
+      }
+      ids[size] = id;
+      names[size] = Objects.requireNonNull(name);
+      x[size] = px;
+      y[size] = py;
+      z[size] = pz;
+      size++;
+    }
+
+    /**
+     * Finishes the table. The builder shouldn't be used afterwards.
+     *
+     * @return the table of every star added
+     */
+    public StarTable build() {
+      return new StarTable(
+          Arrays.copyOf(ids, size),
+          Arrays.copyOf(names, size),
+          Arrays.copyOf(x, size),
+          Arrays.copyOf(y, size),
+          Arrays.copyOf(z, size));
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package edu.brown.cs.student.main.parser.table;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A column which stores all of its values back to back in one char array (an arena), with the end
+ * offset of each value in an int array. A value costs its chars plus one int, instead of a String
+ * object, its array and a list slot.
+ */
+public class StringColumn extends AppendableColumn {
+  /** The chars of every value, one after another. */
+  private char[] chars;
+  /** The offset in chars just past the end of each value. */
+  private int[] ends;
+  /** Number of values in the column. */
+  private int size;
+
+  /** Creates an empty column. */
+  public StringColumn() {
+    this.chars = new char[64];
+    this.ends = new int[16];
+    this.size = 0;
+  }
+
+  /**
+   * Creates a finished column from its chars and end offsets, e.g. read back from a snapshot. Only
+   * the start of each array is used, so the arrays may be shared with a column still being added
+   * to.
+   *
+   * @param chars - the chars of every value, one after another
+   * @param ends - the offset just past the end of each value
+   * @param size - the number of values
+   */
+  StringColumn(char[] chars, int[] ends, int size) {
+    this.chars = chars;
+    this.ends = ends;
+    this.size = size;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public String get(int row) {
+    Objects.checkIndex(row, size);
+    int start = start(row);
+    return new String(chars, start, ends[row] - start);
+  }
+
+  @Override
+  public boolean equalsIgnoreCase(int row, String value) {
+    Objects.checkIndex(row, size);
+    int start = start(row);
+    int length = ends[row] - start;
+    if (length != value.length()) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (!charsEqualIgnoreCase(chars[start + i], value.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  void add(CharSequence value) {
+    if (size == ends.length) {
+      ends = Arrays.copyOf(ends, size * 2);
+    }
+    int start = start(size);
+    int end = start + value.length();
+    if (end > chars.length) {
+      chars = Arrays.copyOf(chars, Math.max(end, chars.length * 2));
+    }
+    if (value instanceof String string) {
+      string.getChars(0, string.length(), chars, start);
+    } else {
+      for (int i = start; i < end; i++) {
+        chars[i] = value.charAt(i - start);
+      }
+    }
+    ends[size++] = end;
+  }
+
+  @Override
+  void addAll(AppendableColumn other) {
+    if (!(other instanceof StringColumn plain)) {
+      for (int row = 0; row < other.size(); row++) {
+        add(other.get(row));
+      }
+      return;
+    }
+    // copy the other arena after this one, moving its end offsets along by this arena's length
+    int offset = start(size);
+    int otherLength = plain.start(plain.size);
+    if (offset + otherLength > chars.length) {
+      chars = Arrays.copyOf(chars, Math.max(offset + otherLength, chars.length * 2));
+    }
+    System.arraycopy(plain.chars, 0, chars, offset, otherLength);
+    if (size + plain.size > ends.length) {
+      ends = Arrays.copyOf(ends, Math.max(size + plain.size, ends.length * 2));
+    }
+    for (int row = 0; row < plain.size; row++) {
+      ends[size + row] = plain.ends[row] + offset;
+    }
+    size += plain.size;
+  }
+
+  @Override
+  void trimToSize() {
+    chars = Arrays.copyOf(chars, start(size));
+    ends = Arrays.copyOf(ends, size);
+  }
+
+  @Override
+  Column snapshot() {
+    return new StringColumn(chars, ends, size);
+  }
+
+  /**
+   * Gets the chars of every value, for writing the column to a snapshot.
+   *
+   * @return the column's chars (not a copy)
+   */
+  char[] chars() {
+    return chars;
+  }
+
+  /**
+   * Gets the end offset of each value, for writing the column to a snapshot.
+   *
+   * @return the column's end offsets (not a copy)
+   */
+  int[] ends() {
+    return ends;
+  }
+
+  /**
+   * Gets the offset of the first char of a value.
+   *
+   * @param row - the index of the row
+   * @return the start offset
+   */
+  private int start(int row) {
+    return row == 0 ? 0 : ends[row - 1];
+  }
+
+  /**
+   * Compares two chars the same way {@link String#equalsIgnoreCase(String)} does.
+   *
+   * @param a - the first char
+   * @param b - the second char
+   * @return true if they are equal ignoring case
+   */
+  static boolean charsEqualIgnoreCase(char a, char b) {
+    if (a == b) {
+      return true;
+    }
+    char upperA = Character.toUpperCase(a);
+    char upperB = Character.toUpperCase(b);
+    return upperA == upperB || Character.toLowerCase(upperA) == Character.toLowerCase(upperB);
+  }
+}
@@ -0,0 +1,673 @@
+package edu.brown.cs.student.main.parser.table;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes ColumnarTables in a compact binary snapshot format, so a table can be loaded
+ * again by mapping a file, instead of parsing the CSV it came from. The columns of a table read
+ * back are views of the mapped file (see {@link MappedStringColumn}), so reading one copies little
+ * more than the width of each row, and pages are only read in as the rows using them are looked at.
+ *
+ * <p>A snapshot is a header followed by a payload, in the platform's byte order:
+ *
+ * <ul>
+ *   <li>header: magic number, version, the size, last modified time and fingerprint of the source
+ *       CSV, the options the table was parsed with, the payload's length and its CRC32 checksum
+ *   <li>payload: row and column counts, the header row, the width of every row, then each column in
+ *       turn (a tag for its kind followed by its arrays), and last the offset of every column
+ *       within the payload
+ * </ul>
+ *
+ * The payload and every array in it start on an 8-byte boundary, so the views are aligned. A
+ * snapshot is only used if the source still has the same size, modified time and fingerprint, the
+ * options match and the checksum is correct; otherwise it is treated as missing.
+ */
+public final class TableSnapshot {
+  /** Marks a file as a snapshot ("CSVS"). */
+  private static final int MAGIC = 0x43535653;
+  /** Version of the format, bumped whenever the layout changes. */
+  private static final int VERSION = 2;
+  /** Size of the buffer used to write snapshots. */
+  private static final int BUFFER_SIZE = 1 << 16;
+  /**
+   * Order of the bytes of every value, which a snapshot written on another platform won't match.
+   */
+  private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+  /** Arrays start on a multiple of this many bytes, so views of them are aligned. */
+  private static final int ALIGNMENT = Long.BYTES;
+  /** Number of places the source is sampled at for its fingerprint. */
+  private static final int SAMPLES = 16;
+  /** Number of bytes read at each sample of the source. */
+  private static final int SAMPLE_SIZE = 4 << 10;
+
+  /** Tag for a {@link StringColumn}. */
+  private static final byte STRING_COLUMN = 0;
+  /** Tag for a {@link DictionaryColumn}. */
+  private static final byte DICTIONARY_COLUMN = 1;
+  /** Tag for an {@link IntColumn}. */
+  private static final byte INT_COLUMN = 2;
+  /** Tag for a {@link LongColumn}. */
+  private static final byte LONG_COLUMN = 3;
+  /** Tag for a {@link DoubleColumn}. */
+  private static final byte DOUBLE_COLUMN = 4;
+
+  private TableSnapshot() {}
+
+  /**
+   * Writes a snapshot of a table parsed from a source file. The snapshot is written to a temporary
+   * file first and then moved into place, so readers never see a half-written snapshot.
+   *
+   * @param table - the table to write
+   * @param snapshot - where to write the snapshot
+   * @param source - the CSV file the table was parsed from
+   * @param options - describes how the table was parsed; a snapshot is only read with the same
+   * @throws IOException if the source can't be looked at or the snapshot can't be written
+   */
+  public static void write(ColumnarTable table, Path snapshot, Path source, String options)
+      throws IOException {
+    long sourceSize = Files.size(source);
+    long sourceModified = Files.getLastModifiedTime(source).to(TimeUnit.NANOSECONDS);
+    long sourceFingerprint = fingerprint(source);
+    Path directory = snapshot.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    Path temporary = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+        Output out = new Output(channel);
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putLong(sourceSize);
+        out.putLong(sourceModified);
+        out.putLong(sourceFingerprint);
+        out.putString(options);
+        long lengthPosition = out.position();
+        out.putLong(0); // payload length, filled in below
+        out.putLong(0); // payload checksum, filled in below
+        out.align();
+        long payloadStart = out.position();
+
+        out.startChecksum();
+        writePayload(table, out, payloadStart);
+        out.flush();
+
+        ByteBuffer trailer = ByteBuffer.allocate(2 * Long.BYTES).order(ORDER);
+        trailer.putLong(out.position() - payloadStart).putLong(out.checksum()).flip();
+        channel.write(trailer, lengthPosition);
+      }
+      Files.move(
+          temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * Reads a snapshot back into a table, if it is still valid for the source file.
+   *
+   * @param snapshot - the snapshot to read
+   * @param source - the CSV file the table was parsed from
+   * @param options - describes how the table should have been parsed
+   * @return the table, or null if there is no snapshot, the source has changed since it was
+   *     written, it was written with other options, or it is corrupt
+   * @throws IOException if the source can't be looked at or the snapshot can't be read
+   */
+  public static ColumnarTable read(Path snapshot, Path source, String options) throws IOException {
+    return read(snapshot, source, options, true);
+  }
+
+  /**
+   * Reads a snapshot back into a table, if it is still valid for the source file. Checking the
+   * payload's checksum reads the whole snapshot, so it can be skipped for a snapshot file already
+   * checked once, e.g. by a cache which has read it before; the source is always checked.
+   *
+   * @param snapshot - the snapshot to read
+   * @param source - the CSV file the table was parsed from
+   * @param options - describes how the table should have been parsed
+   * @param verifyChecksum - whether to check the payload's checksum
+   * @return the table, or null if there is no snapshot, the source has changed since it was
+   *     written, it was written with other options, or it is corrupt
+   * @throws IOException if the source can't be looked at or the snapshot can't be read
+   */
+  public static ColumnarTable read(
+      Path snapshot, Path source, String options, boolean verifyChecksum) throws IOException {
+    ByteBuffer in;
+    try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+      in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ORDER);
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+    try {
+      if (in.getInt() != MAGIC
+          || in.getInt() != VERSION
+          || in.getLong() != Files.size(source)
+          || in.getLong() != Files.getLastModifiedTime(source).to(TimeUnit.NANOSECONDS)
+          || in.getLong() != fingerprint(source)
+          || !getString(in).equals(options)) {
+        return null;
+      }
+      long payloadLength = in.getLong();
+      long checksum = in.getLong();
+      align(in);
+      if (payloadLength != in.remaining()) {
+        return null;
+      }
+      ByteBuffer payload = in.slice().order(ORDER);
+      if (verifyChecksum) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if (crc.getValue() != checksum) {
+          return null;
+        }
+      }
+      return readPayload(payload);
+    } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+      // the layout didn't match, which only a bug in this class (or an unchecked corrupt payload)
+      // can cause
+      return null;
+    }
+  }
+
+  /**
+   * Computes a cheap fingerprint of a file's content: a CRC32 of a few samples spread evenly over
+   * it, from its first bytes to its last. A rewrite keeping the size and modified time (which may
+   * only be kept to the millisecond) is then still noticed, unless it only changes bytes between
+   * the samples. Files up to about SAMPLES * SAMPLE_SIZE bytes are covered completely.
+   *
+   * @param file - the file
+   * @return the fingerprint
+   * @throws IOException if the file can't be read
+   */
+  static long fingerprint(Path file) throws IOException {
+    CRC32 crc = new CRC32();
+    ByteBuffer sample = ByteBuffer.allocate(SAMPLE_SIZE);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      long lastStart = Math.max(0, size - SAMPLE_SIZE);
+      for (int i = 0; i < SAMPLES; i++) {
+        long start = lastStart * i / (SAMPLES - 1);
+        sample.clear();
+        while (sample.hasRemaining()) {
+          if (channel.read(sample, start + sample.position()) < 0) {
+            break;
+          }
+        }
+        crc.update(sample.flip());
+      }
+    }
+    return crc.getValue();
+  }
+
+  /**
+   * Writes the rows and columns of a table.
+   *
+   * @param table - the table to write
+   * @param out - where to write it
+   * @param payloadStart - the position the payload starts at, which column offsets are relative to
+   * @throws IOException if writing fails
+   */
+  private static void writePayload(ColumnarTable table, Output out, long payloadStart)
+      throws IOException {
+    out.putInt(table.getRowCount());
+    out.putInt(table.getColumnCount());
+    List<String> header = table.getHeader();
+    out.putInt(header == null ? -1 : header.size());
+    if (header != null) {
+      for (String field : header) {
+        out.putString(field);
+      }
+    }
+    for (int row = 0; row < table.getRowCount(); row++) {
+      out.putInt(table.getRowWidth(row));
+    }
+    long[] columnOffsets = new long[table.getColumnCount()];
+    for (int col = 0; col < columnOffsets.length; col++) {
+      out.align();
+      columnOffsets[col] = out.position() - payloadStart;
+      writeColumn(table.getColumn(col), out);
+    }
+    out.align();
+    for (long offset : columnOffsets) {
+      out.putLong(offset);
+    }
+  }
+
+  /**
+   * Reads the rows and columns of a table. Each column is found through its offset, and laid over
+   * the payload as views rather than copied.
+   *
+   * @param in - the payload
+   * @return the table
+   */
+  private static ColumnarTable readPayload(ByteBuffer in) {
+    int rowCount = in.getInt();
+    int columnCount = in.getInt();
+    int headerSize = in.getInt();
+    List<String> header = null;
+    if (headerSize >= 0) {
+      header = new ArrayList<>(headerSize);
+      for (int i = 0; i < headerSize; i++) {
+        header.add(getString(in));
+      }
+    }
+    int[] rowWidths = new int[rowCount];
+    in.asIntBuffer().get(rowWidths);
+    // the offset of every column is stored after the columns
+    ByteBuffer offsets = at(in, in.limit() - (long) columnCount * Long.BYTES);
+    Column[] columns = new Column[columnCount];
+    for (int col = 0; col < columnCount; col++) {
+      columns[col] = readColumn(at(in, offsets.getLong()), rowCount);
+    }
+    return new ColumnarTable(header, columns, rowWidths, rowCount);
+  }
+
+  /**
+   * Writes a column, tagged with its kind.
+   *
+   * @param column - the column to write
+   * @param out - where to write it
+   * @throws IOException if writing fails
+   */
+  private static void writeColumn(Column column, Output out) throws IOException {
+    if (column instanceof StringColumn stringColumn) {
+      int length = stringColumn.size() == 0 ? 0 : stringColumn.ends()[stringColumn.size() - 1];
+      writeStrings(
+          CharBuffer.wrap(stringColumn.chars(), 0, length),
+          IntBuffer.wrap(stringColumn.ends(), 0, stringColumn.size()),
+          out);
+    } else if (column instanceof MappedStringColumn stringColumn) {
+      writeStrings(stringColumn.chars(), stringColumn.ends(), out);
+    } else if (column instanceof DictionaryColumn dictionaryColumn) {
+      String[] dictionary = new String[dictionaryColumn.getDictionarySize()];
+      for (int code = 0; code < dictionary.length; code++) {
+        dictionary[code] = dictionaryColumn.getDictionaryValue(code);
+      }
+      writeDictionary(
+          dictionary, IntBuffer.wrap(dictionaryColumn.codes(), 0, dictionaryColumn.size()), out);
+    } else if (column instanceof MappedDictionaryColumn dictionaryColumn) {
+      String[] dictionary = new String[dictionaryColumn.getDictionarySize()];
+      for (int code = 0; code < dictionary.length; code++) {
+        dictionary[code] = dictionaryColumn.getDictionaryValue(code);
+      }
+      writeDictionary(dictionary, dictionaryColumn.codes(), out);
+    } else if (column instanceof IntColumn intColumn) {
+      out.putByte(INT_COLUMN);
+      out.align();
+      out.putInts(intColumn.values());
+    } else if (column instanceof LongColumn longColumn) {
+      out.putByte(LONG_COLUMN);
+      out.align();
+      out.putLongs(longColumn.values());
+    } else if (column instanceof DoubleColumn doubleColumn) {
+      out.putByte(DOUBLE_COLUMN);
+      out.putByte((byte) doubleColumn.getType().ordinal());
+      writeColumn(doubleColumn.text(), out);
+      out.align();
+      out.putDoubles(doubleColumn.values());
+    } else {
+      throw new IllegalArgumentException("can't write a snapshot of " + column.getClass());
+    }
+  }
+
+  /**
+   * Writes a column of plain strings.
+   *
+   * @param chars - the chars of every value, one after another
+   * @param ends - the offset just past the end of each value
+   * @param out - where to write it
+   * @throws IOException if writing fails
+   */
+  private static void writeStrings(CharBuffer chars, IntBuffer ends, Output out)
+      throws IOException {
+    out.putByte(STRING_COLUMN);
+    out.putInt(chars.remaining());
+    out.align();
+    out.putChars(chars);
+    out.align();
+    out.putInts(ends);
+  }
+
+  /**
+   * Writes a dictionary encoded column.
+   *
+   * @param dictionary - the distinct values, indexed by their code
+   * @param codes - the code of the value in each row
+   * @param out - where to write it
+   * @throws IOException if writing fails
+   */
+  private static void writeDictionary(String[] dictionary, IntBuffer codes, Output out)
+      throws IOException {
+    out.putByte(DICTIONARY_COLUMN);
+    out.putInt(dictionary.length);
+    for (String value : dictionary) {
+      out.putString(value);
+    }
+    out.align();
+    out.putInts(codes);
+  }
+
+  /**
+   * Reads a column written by writeColumn, as views of the payload.
+   *
+   * @param in - the payload, positioned at the column
+   * @param rowCount - the number of rows in the table
+   * @return the column
+   */
+  private static Column readColumn(ByteBuffer in, int rowCount) {
+    byte tag = in.get();
+    switch (tag) {
+      case STRING_COLUMN:
+        int length = in.getInt();
+        align(in);
+        CharBuffer chars = slice(in, (long) length * Character.BYTES).asCharBuffer();
+        align(in);
+        IntBuffer ends = slice(in, (long) rowCount * Integer.BYTES).asIntBuffer();
+        return new MappedStringColumn(chars, ends, rowCount);
+      case DICTIONARY_COLUMN:
+        String[] dictionary = new String[in.getInt()];
+        for (int code = 0; code < dictionary.length; code++) {
+          dictionary[code] = getString(in);
+        }
+        align(in);
+        IntBuffer codes = slice(in, (long) rowCount * Integer.BYTES).asIntBuffer();
+        return new MappedDictionaryColumn(dictionary, codes, rowCount);
+      case INT_COLUMN:
+        align(in);
+        return new IntColumn(slice(in, (long) rowCount * Integer.BYTES).asIntBuffer());
+      case LONG_COLUMN:
+        align(in);
+        return new LongColumn(slice(in, (long) rowCount * Long.BYTES).asLongBuffer());
+      case DOUBLE_COLUMN:
+        ColumnType type = ColumnType.values()[in.get()];
+        Column text = readColumn(in, rowCount);
+        align(in);
+        DoubleBuffer doubles = slice(in, (long) rowCount * Double.BYTES).asDoubleBuffer();
+        return new DoubleColumn(text, doubles, type);
+      default:
+        throw new IllegalArgumentException("unknown column tag " + tag);
+    }
+  }
+
+  /**
+   * Gets a view of a buffer from an offset to its limit.
+   *
+   * @param in - the buffer
+   * @param offset - the offset the view starts at
+   * @return the view, positioned at the offset
+   * @throws IllegalArgumentException if the offset is out of range
+   */
+  private static ByteBuffer at(ByteBuffer in, long offset) {
+    if (offset < 0 || offset > in.limit()) {
+      throw new IllegalArgumentException("bad offset " + offset);
+    }
+    return in.duplicate().position((int) offset).order(ORDER);
+  }
+
+  /**
+   * Gets a view of the next bytes of a buffer, and moves past them.
+   *
+   * @param in - the buffer
+   * @param length - the number of bytes
+   * @return the view
+   * @throws IllegalArgumentException if there aren't that many bytes left
+   */
+  private static ByteBuffer slice(ByteBuffer in, long length) {
+    if (length > in.remaining()) {
+      throw new IllegalArgumentException("bad array length " + length);
+    }
+    ByteBuffer slice = in.slice(in.position(), (int) length).order(ORDER);
+    in.position(in.position() + (int) length);
+    return slice;
+  }
+
+  /**
+   * Moves a buffer past the padding written by Output.align.
+   *
+   * @param in - the buffer
+   */
+  private static void align(ByteBuffer in) {
+    in.position((in.position() + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT);
+  }
+
+  /**
+   * Reads a String written by Output.putString.
+   *
+   * @param in - the buffer to read from
+   * @return the String
+   */
+  private static String getString(ByteBuffer in) {
+    int length = in.getInt();
+    if (length < 0 || length > in.remaining() / Character.BYTES) {
+      throw new IllegalArgumentException("bad string length " + length);
+    }
+    char[] chars = new char[length];
+    in.asCharBuffer().get(chars);
+    in.position(in.position() + chars.length * Character.BYTES);
+    return new String(chars);
+  }
+
+  /** Writes values to a channel through a buffer, keeping a checksum of what it writes. */
+  private static final class Output {
+    /** The channel being written to. */
+    private final FileChannel channel;
+    /** Holds values until they are written to the channel. */
+    private final ByteBuffer buffer;
+    /** Checksum of everything written since startChecksum. */
+    private final CRC32 crc;
+    /** Whether writes count towards the checksum yet. */
+    private boolean checksumming;
+    /** Number of bytes written to the channel so far. */
+    private long written;
+
+    /**
+     * Creates an output writing to the start of a channel.
+     *
+     * @param channel - the channel to write to
+     */
+    Output(FileChannel channel) {
+      this.channel = channel;
+      this.buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ORDER);
+      this.crc = new CRC32();
+      this.checksumming = false;
+      this.written = 0;
+    }
+
+    /**
+     * Gets the position the next value will be written at.
+     *
+     * @return the position in bytes
+     */
+    long position() {
+      return written + buffer.position();
+    }
+
+    /**
+     * Makes everything written from now on count towards the checksum.
+     *
+     * @throws IOException if writing fails
+     */
+    void startChecksum() throws IOException {
+      flush();
+      checksumming = true;
+    }
+
+    /**
+     * Gets the checksum of everything written since startChecksum (once flushed).
+     *
+     * @return the CRC32 checksum
+     */
+    long checksum() {
+      return crc.getValue();
+    }
+
+    /**
+     * Writes a byte.
+     *
+     * @param value - the byte to write
+     * @throws IOException if writing fails
+     */
+    void putByte(byte value) throws IOException {
+      ensure(Byte.BYTES);
+      buffer.put(value);
+    }
+
+    /**
+     * Writes an int.
+     *
+     * @param value - the int to write
+     * @throws IOException if writing fails
+     */
+    void putInt(int value) throws IOException {
+      ensure(Integer.BYTES);
+      buffer.putInt(value);
+    }
+
+    /**
+     * Writes a long.
+     *
+     * @param value - the long to write
+     * @throws IOException if writing fails
+     */
+    void putLong(long value) throws IOException {
+      ensure(Long.BYTES);
+      buffer.putLong(value);
+    }
+
+    /**
+     * Writes a String as its length followed by its chars.
+     *
+     * @param value - the String to write
+     * @throws IOException if writing fails
+     */
+    void putString(String value) throws IOException {
+      putInt(value.length());
+      for (int i = 0; i < value.length(); i++) {
+        ensure(Character.BYTES);
+        buffer.putChar(value.charAt(i));
+      }
+    }
+
+    /**
+     * Writes zeros up to the next multiple of ALIGNMENT bytes from the start of the channel.
+     *
+     * @throws IOException if writing fails
+     */
+    void align() throws IOException {
+      while (position() % ALIGNMENT != 0) {
+        putByte((byte) 0);
+      }
+    }
+
+    /**
+     * Writes the chars of a buffer from its position to its limit.
+     *
+     * @param values - the chars to write, whose position isn't moved
+     * @throws IOException if writing fails
+     */
+    void putChars(CharBuffer values) throws IOException {
+      CharBuffer left = values.duplicate();
+      while (left.hasRemaining()) {
+        ensure(Character.BYTES);
+        int chunk = Math.min(left.remaining(), buffer.remaining() / Character.BYTES);
+        buffer.asCharBuffer().put(left.slice().limit(chunk));
+        buffer.position(buffer.position() + chunk * Character.BYTES);
+        left.position(left.position() + chunk);
+      }
+    }
+
+    /**
+     * Writes the ints of a buffer from its position to its limit.
+     *
+     * @param values - the ints to write, whose position isn't moved
+     * @throws IOException if writing fails
+     */
+    void putInts(IntBuffer values) throws IOException {
+      IntBuffer left = values.duplicate();
+      while (left.hasRemaining()) {
+        ensure(Integer.BYTES);
+        int chunk = Math.min(left.remaining(), buffer.remaining() / Integer.BYTES);
+        buffer.asIntBuffer().put(left.slice().limit(chunk));
+        buffer.position(buffer.position() + chunk * Integer.BYTES);
+        left.position(left.position() + chunk);
+      }
+    }
+
+    /**
+     * Writes the longs of a buffer from its position to its limit.
+     *
+     * @param values - the longs to write, whose position isn't moved
+     * @throws IOException if writing fails
+     */
+    void putLongs(LongBuffer values) throws IOException {
+      LongBuffer left = values.duplicate();
+      while (left.hasRemaining()) {
+        ensure(Long.BYTES);
+        int chunk = Math.min(left.remaining(), buffer.remaining() / Long.BYTES);
+        buffer.asLongBuffer().put(left.slice().limit(chunk));
+        buffer.position(buffer.position() + chunk * Long.BYTES);
+        left.position(left.position() + chunk);
+      }
+    }
+
+    /**
+     * Writes the doubles of a buffer from its position to its limit.
+     *
+     * @param values - the doubles to write, whose position isn't moved
+     * @throws IOException if writing fails
+     */
+    void putDoubles(DoubleBuffer values) throws IOException {
+      DoubleBuffer left = values.duplicate();
+      while (left.hasRemaining()) {
+        ensure(Double.BYTES);
+        int chunk = Math.min(left.remaining(), buffer.remaining() / Double.BYTES);
+        buffer.asDoubleBuffer().put(left.slice().limit(chunk));
+        buffer.position(buffer.position() + chunk * Double.BYTES);
+        left.position(left.position() + chunk);
+      }
+    }
+
+    /**
+     * Writes the buffered values to the channel.
+     *
+     * @throws IOException if writing fails
+     */
+    void flush() throws IOException {
+      buffer.flip();
+      if (checksumming) {
+        crc.update(buffer.duplicate());
+      }
+      while (buffer.hasRemaining()) {
+        written += channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    /**
+     * Makes room in the buffer for a value.
+     *
+     * @param bytes - the size of the value
+     * @throws IOException if writing fails
+     */
+    private void ensure(int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        flush();
+      }
+    }
+  }
+}
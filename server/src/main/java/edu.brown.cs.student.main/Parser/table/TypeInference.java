@@ -0,0 +1,166 @@
+package edu.brown.cs.student.main.parser.table;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Works out whether the values of a column are all numbers of one kind, and if so converts the
+ * column to primitive storage. Whole numbers are only inferred when their text can be rebuilt from
+ * the number exactly.
+ */
+final class TypeInference {
+  /** Plain decimal numbers, with an optional exponent (not NaN, Infinity or hex). */
+  private static final Pattern DECIMAL =
+      Pattern.compile("-?(\\d+(\\.\\d*)?|\\.\\d+)([eE][+-]?\\d+)?");
+  /**
+   * Amounts of money: an optional sign and dollar sign, digits with optional thousands separators
+   * and an optional fraction. Surrounding spaces and quotes (kept by the regex format) are allowed.
+   */
+  private static final Pattern CURRENCY =
+      Pattern.compile(
+          "\\s*\"?\\s*(-?)\\s*\\$?\\s*(-?)(\\d{1,3}(?:,\\d{3})+|\\d+)(\\.\\d+)?\\s*\"?\\s*");
+
+  private TypeInference() {}
+
+  /**
+   * Converts a column to the narrowest numeric type that holds all of its values: int, then long,
+   * then double, then currency.
+   *
+   * @param column - the column to convert
+   * @return a typed column, or the given column if its values aren't all numbers
+   */
+  static Column infer(Column column) {
+    int size = column.size();
+    boolean ints = size > 0;
+    boolean longs = size > 0;
+    boolean doubles = size > 0;
+    boolean currency = size > 0;
+    boolean anyValue = false;
+    for (int row = 0; row < size && (longs || doubles || currency); row++) {
+      String value = column.get(row);
+      if (longs && !isCanonicalInteger(value)) {
+        ints = false;
+        longs = false;
+      } else if (ints && !fitsInInt(value)) {
+        ints = false;
+      }
+      if (value.isEmpty()) {
+        continue;
+      }
+      anyValue = true;
+      doubles = doubles && DECIMAL.matcher(value).matches();
+      currency = currency && CURRENCY.matcher(value).matches();
+    }
+
+    if (ints) {
+      int[] values = new int[size];
+      for (int row = 0; row < size; row++) {
+        values[row] = Integer.parseInt(column.get(row));
+      }
+      return new IntColumn(values);
+    }
+    if (longs) {
+      long[] values = new long[size];
+      for (int row = 0; row < size; row++) {
+        values[row] = Long.parseLong(column.get(row));
+      }
+      return new LongColumn(values);
+    }
+    if (anyValue && (doubles || currency)) {
+      double[] values = new double[size];
+      for (int row = 0; row < size; row++) {
+        String value = column.get(row);
+        values[row] = doubles ? parseDecimal(value) : parseCurrency(value);
+      }
+      return new DoubleColumn(column, values, doubles ? ColumnType.DOUBLE : ColumnType.CURRENCY);
+    }
+    return column;
+  }
+
+  /**
+   * Checks whether a value is a whole number written the way Long.toString would write it: no plus
+   * sign, no leading zeros and no -0.
+   *
+   * @param value - the value to check
+   * @return true if the value is a long in its canonical form
+   */
+  static boolean isCanonicalInteger(String value) {
+    int start = value.startsWith("-") ? 1 : 0;
+    int digits = value.length() - start;
+    if (digits == 0 || digits > 19) {
+      return false;
+    }
+    if (value.charAt(start) == '0' && (digits > 1 || start == 1)) {
+      return false;
+    }
+    for (int i = start; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    if (digits < 19) {
+      return true;
+    }
+    try {
+      Long.parseLong(value);
+      return true;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Checks whether a canonical whole number fits in an int.
+   *
+   * @param value - a value for which isCanonicalInteger is true
+   * @return true if it is between Integer.MIN_VALUE and Integer.MAX_VALUE
+   */
+  static boolean fitsInInt(String value) {
+    if (value.length() < 10) {
+      return true;
+    }
+    long number = Long.parseLong(value);
+    return number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE;
+  }
+
+  /**
+   * Parses a value which may be a decimal number or an amount of money.
+   *
+   * @param value - the value to parse
+   * @return the number, or NaN if the value is empty or is neither
+   */
+  static double parseNumber(String value) {
+    if (DECIMAL.matcher(value).matches()) {
+      return Double.parseDouble(value);
+    }
+    return parseCurrency(value);
+  }
+
+  /**
+   * Parses a decimal value.
+   *
+   * @param value - a decimal number, or an empty String
+   * @return the number, or NaN if the value is empty
+   */
+  private static double parseDecimal(String value) {
+    return value.isEmpty() ? Double.NaN : Double.parseDouble(value);
+  }
+
+  /**
+   * Parses an amount of money, dropping the dollar sign, separators, spaces and quotes.
+   *
+   * @param value - an amount matching the currency pattern, or an empty String
+   * @return the amount, or NaN if the value is empty
+   */
+  private static double parseCurrency(String value) {
+    Matcher matcher = CURRENCY.matcher(value);
+    if (!matcher.matches()) {
+      return Double.NaN;
+    }
+    boolean negative = !matcher.group(1).isEmpty() || !matcher.group(2).isEmpty();
+    String fraction = matcher.group(4) == null ? "" : matcher.group(4);
+    double amount = Double.parseDouble(matcher.group(3).replace(",", "") + fraction);
+    return negative ? -amount : amount;
+  }
+}
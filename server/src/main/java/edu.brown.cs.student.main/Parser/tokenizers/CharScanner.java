@@ -0,0 +1,58 @@
+package edu.brown.cs.student.main.parser.tokenizers;
+
+/**
+ * Finds the next special char (delimiter, quote or line break) in a run of chars, so a tokenizer
+ * can copy everything before it in one go instead of looking at each char in its state machine.
+ */
+interface CharScanner {
+  /** Name of the class scanning with the Vector API, which is only loaded if the module is. */
+  String VECTOR_SCANNER = "edu.brown.cs.student.main.parser.tokenizers.VectorCharScanner";
+
+  /**
+   * Finds the first of three chars in part of an array.
+   *
+   * @param chars - the array to search
+   * @param from - the index to start at
+   * @param to - the index to stop before
+   * @param a - a char to look for
+   * @param b - another char to look for
+   * @param c - another char to look for
+   * @return the index of the first matching char, or to if there is none
+   */
+  int indexOfAny(char[] chars, int from, int to, char a, char b, char c);
+
+  /**
+   * Gets a scanner which searches many chars at a time with the jdk.incubator.vector module, if the
+   * JVM was started with it (--add-modules jdk.incubator.vector), or else a scalar one.
+   *
+   * @return the fastest scanner available
+   */
+  static CharScanner vectorOrScalar() {
+    return Holder.BEST;
+  }
+
+  /** Picks the best scanner once, the first time one is asked for. */
+  final class Holder {
+    /** The fastest scanner available. */
+    private static final CharScanner BEST = load();
+
+    private Holder() {}
+
+    /**
+     * Loads the vector scanner by name, so its class (and the incubator module) is never touched
+     * when the module isn't there.
+     *
+     * @return the vector scanner, or a scalar one if it can't be loaded
+     */
+    private static CharScanner load() {
+      if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+        try {
+          return (CharScanner) Class.forName(VECTOR_SCANNER).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+          // fall through to the scalar scanner
+        }
+      }
+      return new ScalarCharScanner();
+    }
+  }
+}
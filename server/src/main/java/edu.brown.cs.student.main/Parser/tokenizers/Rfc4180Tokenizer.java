@@ -0,0 +1,255 @@
+package edu.brown.cs.student.main.parser.tokenizers;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single-pass CSV tokenizer following RFC 4180. Fields may be wrapped in double quotes, in which
+ * case they can contain commas, line breaks and escaped ("") quotes; the wrapping quotes are
+ * removed from the returned field. Rows may end in \n, \r\n or \r.
+ *
+ * <p>Unlike the regex tokenizer, every character is looked at exactly once, so the cost is linear
+ * in the size of the input no matter how many quotes a row contains. Inside a field, the run of
+ * chars up to the next delimiter, quote or line break is found by a {@link CharScanner} and copied
+ * in one go, optionally using the Vector API to compare many chars at a time.
+ */
+public class Rfc4180Tokenizer implements RowTokenizer {
+  /** Number of chars read from the underlying reader at a time. */
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /** The states of the tokenizer while reading a row. */
+  private enum State {
+    /** At the start of a field, nothing read yet. */
+    FIELD_START,
+    /** Inside a field which didn't start with a quote. */
+    UNQUOTED,
+    /** Inside a quoted field. */
+    QUOTED,
+    /** Just read a quote inside a quoted field; it either escapes a quote or closes the field. */
+    QUOTE_IN_QUOTED
+  }
+
+  /** Reader object for reading from the input source. */
+  private final Reader reader;
+  /** Chars read from the reader that haven't been tokenized yet. */
+  private final char[] buffer;
+  /** Index of the next char to tokenize in the buffer. */
+  private int position;
+  /** Number of valid chars in the buffer. */
+  private int limit;
+  /** Finds the end of each run of plain chars. */
+  private final CharScanner scanner;
+  /** Holds the (unescaped) fields of the row being read, when it is returned as a list. */
+  private final RowView scratch;
+  /** The line the tokenizer is currently on. */
+  private long currentLine;
+  /** The line the most recently returned row started on. */
+  private long rowStartLine;
+
+  /**
+   * Creates a tokenizer over the given reader.
+   *
+   * @param reader - the reader to tokenize
+   */
+  public Rfc4180Tokenizer(Reader reader) {
+    this(reader, false);
+  }
+
+  /**
+   * Creates a tokenizer over the given reader, which can scan for delimiters with the Vector API.
+   * The Vector API is only used if the JVM was started with --add-modules jdk.incubator.vector;
+   * otherwise chars are scanned one at a time, with the same results.
+   *
+   * @param reader - the reader to tokenize
+   * @param vectorized - whether to use the Vector API when it is available
+   */
+  public Rfc4180Tokenizer(Reader reader, boolean vectorized) {
+    this.reader = reader;
+    this.scanner = vectorized ? CharScanner.vectorOrScalar() : new ScalarCharScanner();
+    this.buffer = new char[BUFFER_SIZE];
+    this.position = 0;
+    this.limit = 0;
+    this.scratch = new RowView();
+    this.currentLine = 1;
+    this.rowStartLine = 0;
+  }
+
+  @Override
+  public List<String> nextRow() throws IOException {
+    if (!nextRowView(scratch)) {
+      return null;
+    }
+    return Collections.unmodifiableList(scratch.toList());
+  }
+
+  /** Reads the fields straight into the view's chars, without building any Strings. */
+  @Override
+  public boolean nextRowView(RowView row) throws IOException {
+    int c = read();
+    if (c == -1) {
+      return false;
+    }
+    rowStartLine = currentLine;
+    row.clear();
+    State state = State.FIELD_START;
+    while (true) {
+      switch (state) {
+        case FIELD_START:
+          if (c == '"') {
+            state = State.QUOTED;
+          } else if (c == ',') {
+            row.endField();
+          } else if (isEndOfRow(c)) {
+            row.endField();
+            return endRow(c);
+          } else {
+            row.append((char) c);
+            appendRun(row, ',', '\n', '\r');
+            state = State.UNQUOTED;
+          }
+          break;
+        case UNQUOTED:
+          if (c == ',') {
+            row.endField();
+            state = State.FIELD_START;
+          } else if (isEndOfRow(c)) {
+            row.endField();
+            return endRow(c);
+          } else {
+            row.append((char) c);
+            appendRun(row, ',', '\n', '\r');
+          }
+          break;
+        case QUOTED:
+          if (c == '"') {
+            state = State.QUOTE_IN_QUOTED;
+          } else if (c == -1) {
+            throw new UnterminatedQuoteException(rowStartLine);
+          } else {
+            // line breaks are part of the field here, but still count towards the line number
+            if (c == '\n' || (c == '\r' && peek() != '\n')) {
+              currentLine++;
+            }
+            row.append((char) c);
+            appendRun(row, '"', '\n', '\r');
+          }
+          break;
+        case QUOTE_IN_QUOTED:
+          if (c == '"') {
+            row.append('"');
+            state = State.QUOTED;
+          } else if (c == ',') {
+            row.endField();
+            state = State.FIELD_START;
+          } else if (isEndOfRow(c)) {
+            row.endField();
+            return endRow(c);
+          } else {
+            // not valid RFC 4180 (e.g. "abc"def), so keep the text rather than failing the row
+            row.append((char) c);
+            state = State.UNQUOTED;
+          }
+          break;
+        default:
+          throw new IllegalStateException("unknown tokenizer state " + state);
+      }
+      c = read();
+    }
+  }
+
+  @Override
+  public long getLineNumber() {
+    return rowStartLine;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  /**
+   * Finishes a row: consumes the \n of a \r\n pair and moves on to the next line.
+   *
+   * @param c - the char that ended the row (\n, \r or -1 at the end of the input)
+   * @return true, since a row was read
+   * @throws IOException if the reader fails
+   */
+  private boolean endRow(int c) throws IOException {
+    if (c == '\r' && peek() == '\n') {
+      position++;
+    }
+    if (c != -1) {
+      currentLine++;
+    }
+    return true;
+  }
+
+  /**
+   * Copies the chars from the current position up to the next special char (or the end of the
+   * buffer) into the current field.
+   *
+   * @param row - the row being read
+   * @param a - a char which ends the run
+   * @param b - another char which ends the run
+   * @param c - another char which ends the run
+   */
+  private void appendRun(RowView row, char a, char b, char c) {
+    int end = scanner.indexOfAny(buffer, position, limit, a, b, c);
+    row.append(buffer, position, end - position);
+    position = end;
+  }
+
+  /**
+   * Checks if a char ends the current row.
+   *
+   * @param c - the char to check
+   * @return true if it is a line break or the end of the input
+   */
+  private static boolean isEndOfRow(int c) {
+    return c == '\n' || c == '\r' || c == -1;
+  }
+
+  /**
+   * Reads the next char, refilling the buffer if needed.
+   *
+   * @return the next char, or -1 at the end of the input
+   * @throws IOException if the reader fails
+   */
+  private int read() throws IOException {
+    if (position == limit && !fill()) {
+      return -1;
+    }
+    return buffer[position++];
+  }
+
+  /**
+   * Looks at the next char without consuming it, refilling the buffer if needed.
+   *
+   * @return the next char, or -1 at the end of the input
+   * @throws IOException if the reader fails
+   */
+  private int peek() throws IOException {
+    if (position == limit && !fill()) {
+      return -1;
+    }
+    return buffer[position];
+  }
+
+  /**
+   * Refills the buffer from the reader.
+   *
+   * @return false if the reader has no more input
+   * @throws IOException if the reader fails
+   */
+  private boolean fill() throws IOException {
+    int read;
+    do {
+      read = reader.read(buffer, 0, buffer.length);
+    } while (read == 0);
+    position = 0;
+    limit = Math.max(read, 0);
+    return read > 0;
+  }
+}
@@ -0,0 +1,217 @@
+package edu.brown.cs.student.main.parser.tokenizers;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A reusable block of tokenized rows, handed to a batch creator all at once. Like a {@link
+ * RowView}, the chars of every field are kept back to back in one array, but for many rows, so a
+ * creator can read a whole column at a time (e.g. with {@link #getDoubles(int, double[])}) in one
+ * tight loop instead of being called once per row.
+ *
+ * <p>The batch is cleared and refilled with the next block of rows, so fields that need to outlive
+ * it must be copied out (e.g. with {@link #getString(int, int)}).
+ */
+public final class RowBatch {
+  /** The chars of every field of every row, one after another. */
+  private char[] chars;
+  /** Number of chars in the batch. */
+  private int length;
+  /** The chars as a CharSequence, for parsing ints without copying them. */
+  private CharBuffer sequence;
+  /** The offset in chars just past the end of each field, for every row. */
+  private int[] fieldEnds;
+  /** Number of fields in the batch. */
+  private int fieldCount;
+  /** The number of fields in the batch once each row has been added. */
+  private int[] rowEnds;
+  /** Number of rows in the batch. */
+  private int size;
+
+  /** Creates an empty batch. */
+  public RowBatch() {
+    this.chars = new char[1 << 12];
+    this.length = 0;
+    this.sequence = CharBuffer.wrap(chars);
+    this.fieldEnds = new int[64];
+    this.fieldCount = 0;
+    this.rowEnds = new int[16];
+    this.size = 0;
+  }
+
+  /**
+   * Gets the number of rows in the batch.
+   *
+   * @return the number of rows
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the number of fields in a row.
+   *
+   * @param row - the index of the row
+   * @return the number of fields
+   * @throws IndexOutOfBoundsException if the row is out of range
+   */
+  public int getWidth(int row) {
+    Objects.checkIndex(row, size);
+    return rowEnds[row] - firstField(row);
+  }
+
+  /**
+   * Gets a field as a new String, which stays valid after the batch is refilled.
+   *
+   * @param row - the index of the row
+   * @param col - the index of the field in the row
+   * @return the field
+   * @throws IndexOutOfBoundsException if the row or column is out of range
+   */
+  public String getString(int row, int col) {
+    int field = field(row, col);
+    return new String(chars, start(field), fieldEnds[field] - start(field));
+  }
+
+  /**
+   * Parses a field as an int, like {@link Integer#parseInt(String)}, without copying it.
+   *
+   * @param row - the index of the row
+   * @param col - the index of the field in the row
+   * @return the int value of the field
+   * @throws NumberFormatException if the field isn't an int
+   * @throws IndexOutOfBoundsException if the row or column is out of range
+   */
+  public int getInt(int row, int col) {
+    int field = field(row, col);
+    return Integer.parseInt(sequence, start(field), fieldEnds[field], 10);
+  }
+
+  /**
+   * Parses a field as a double, like {@link Double#parseDouble(String)}, without copying plain
+   * decimals (see {@link RowView#getDouble(int)}).
+   *
+   * @param row - the index of the row
+   * @param col - the index of the field in the row
+   * @return the double value of the field
+   * @throws NumberFormatException if the field isn't a double
+   * @throws IndexOutOfBoundsException if the row or column is out of range
+   */
+  public double getDouble(int row, int col) {
+    int field = field(row, col);
+    return RowView.parseDouble(chars, start(field), fieldEnds[field]);
+  }
+
+  /**
+   * Parses one column of every row as ints.
+   *
+   * @param col - the index of the column
+   * @param out - the array to put the value of row i in at index i, at least size() long
+   * @throws NumberFormatException if a field isn't an int
+   * @throws IndexOutOfBoundsException if a row doesn't have the column, or out is too short
+   */
+  public void getInts(int col, int[] out) {
+    Objects.checkFromIndexSize(0, size, out.length);
+    for (int row = 0; row < size; row++) {
+      out[row] = this.getInt(row, col);
+    }
+  }
+
+  /**
+   * Parses one column of every row as doubles.
+   *
+   * @param col - the index of the column
+   * @param out - the array to put the value of row i in at index i, at least size() long
+   * @throws NumberFormatException if a field isn't a double
+   * @throws IndexOutOfBoundsException if a row doesn't have the column, or out is too short
+   */
+  public void getDoubles(int col, double[] out) {
+    Objects.checkFromIndexSize(0, size, out.length);
+    for (int row = 0; row < size; row++) {
+      out[row] = this.getDouble(row, col);
+    }
+  }
+
+  /**
+   * Copies the fields of a row out into a list.
+   *
+   * @param row - the index of the row
+   * @return a new list of the row's fields
+   * @throws IndexOutOfBoundsException if the row is out of range
+   */
+  public List<String> getRow(int row) {
+    int width = this.getWidth(row);
+    List<String> fields = new ArrayList<>(width);
+    for (int col = 0; col < width; col++) {
+      fields.add(this.getString(row, col));
+    }
+    return fields;
+  }
+
+  /** Empties the batch, to fill it with a new block of rows. */
+  public void clear() {
+    length = 0;
+    fieldCount = 0;
+    size = 0;
+  }
+
+  /**
+   * Copies a row onto the end of the batch.
+   *
+   * @param row - the row to add
+   */
+  public void add(RowView row) {
+    if (length + row.length() > chars.length) {
+      chars = Arrays.copyOf(chars, Math.max(length + row.length(), chars.length * 2));
+      sequence = CharBuffer.wrap(chars);
+    }
+    System.arraycopy(row.chars(), 0, chars, length, row.length());
+    if (fieldCount + row.size() > fieldEnds.length) {
+      fieldEnds = Arrays.copyOf(fieldEnds, Math.max(fieldCount + row.size(), fieldEnds.length * 2));
+    }
+    for (int i = 0; i < row.size(); i++) {
+      fieldEnds[fieldCount++] = length + row.end(i);
+    }
+    length += row.length();
+    if (size == rowEnds.length) {
+      rowEnds = Arrays.copyOf(rowEnds, size * 2);
+    }
+    rowEnds[size++] = fieldCount;
+  }
+
+  /**
+   * Gets the index of a field among all the fields in the batch.
+   *
+   * @param row - the index of the row
+   * @param col - the index of the field in the row
+   * @return the index of the field in fieldEnds
+   * @throws IndexOutOfBoundsException if the row or column is out of range
+   */
+  private int field(int row, int col) {
+    Objects.checkIndex(col, this.getWidth(row));
+    return firstField(row) + col;
+  }
+
+  /**
+   * Gets the index of a row's first field among all the fields in the batch.
+   *
+   * @param row - the index of the row
+   * @return the index of its first field
+   */
+  private int firstField(int row) {
+    return row == 0 ? 0 : rowEnds[row - 1];
+  }
+
+  /**
+   * Gets the offset of the first char of a field.
+   *
+   * @param field - the index of the field among all the fields in the batch
+   * @return the start offset
+   */
+  private int start(int field) {
+    return field == 0 ? 0 : fieldEnds[field - 1];
+  }
+}
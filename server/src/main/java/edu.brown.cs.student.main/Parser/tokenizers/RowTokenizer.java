@@ -0,0 +1,42 @@
+package edu.brown.cs.student.main.parser.tokenizers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/** Interface for tokenizers which split raw CSV input into rows of fields. */
+public interface RowTokenizer extends Closeable {
+
+  /**
+   * Reads the next row from the input and splits it into its fields.
+   *
+   * @return the fields of the next row, or null if the end of the input has been reached
+   * @throws IOException if the underlying input fails to be read or is malformed
+   */
+  List<String> nextRow() throws IOException;
+
+  /**
+   * Reads the next row from the input into a reusable view, replacing the row it held before.
+   * Tokenizers that can fill the view without building the row's Strings should override this; by
+   * default the row is read with {@link #nextRow()} and copied into the view.
+   *
+   * @param row - the view to read the row into
+   * @return true if a row was read, false if the end of the input has been reached
+   * @throws IOException if the underlying input fails to be read or is malformed
+   */
+  default boolean nextRowView(RowView row) throws IOException {
+    List<String> fields = nextRow();
+    if (fields == null) {
+      return false;
+    }
+    row.setFields(fields);
+    return true;
+  }
+
+  /**
+   * Gets the (1-based) line of the input that the most recently returned row started on.
+   *
+   * @return the line number, or 0 if no row has been returned yet
+   */
+  long getLineNumber();
+}
@@ -0,0 +1,406 @@
+package edu.brown.cs.student.main.parser.tokenizers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A reusable, read-only view of one row's fields. The chars of every field are kept back to back in
+ * one array owned by the view, and each field is handed out as a {@link CharSequence} slice of that
+ * array, so reading a row allocates nothing once the view has grown to the size of the widest row.
+ *
+ * <p>The view is overwritten by the next row, so fields that need to outlive the row must be copied
+ * out (e.g. with {@link #getString(int)}).
+ *
+ * <p>A view can be limited to some of the columns with {@link #setProjection(int[])}. Tokenizers
+ * still find where every field ends, but the chars of the other fields are never copied in, and the
+ * view only holds the projected fields.
+ */
+public final class RowView {
+  /** Exact powers of ten as doubles, the largest power a double can hold exactly being 10^22. */
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+    1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+  /** The chars of every field in the row, one after another. */
+  private char[] chars;
+  /** Number of chars in the row so far. */
+  private int length;
+  /** The offset in chars just past the end of each field. */
+  private int[] ends;
+  /** The reusable slices handed out for each field. */
+  private Field[] fields;
+  /** Number of fields in the row. */
+  private int size;
+  /** Whether each column is kept, or null to keep every column. */
+  private boolean[] projection;
+  /** Number of fields read from the input for the row, including ones that weren't kept. */
+  private int width;
+  /** Whether the field currently being read isn't kept. */
+  private boolean skipping;
+
+  /** Creates an empty view. */
+  public RowView() {
+    this.chars = new char[256];
+    this.length = 0;
+    this.ends = new int[16];
+    this.fields = new Field[0];
+    this.size = 0;
+    this.projection = null;
+    this.width = 0;
+    this.skipping = false;
+  }
+
+  /**
+   * Gets the number of fields in the row.
+   *
+   * @return the number of fields
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the number of fields the row had in the input, including any that weren't kept because
+   * they aren't in the projection.
+   *
+   * @return the number of fields read
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Limits the view to the given columns, so the fields of other columns aren't copied in. The kept
+   * fields stay in the order they appear in the input, so field i of the view is the i-th projected
+   * column (in ascending order) that the row has. Clears the view.
+   *
+   * @param columns - the indices of the columns to keep, or null to keep every column
+   * @throws IllegalArgumentException if a column is negative
+   */
+  public void setProjection(int[] columns) {
+    if (columns == null) {
+      projection = null;
+    } else {
+      int max = -1;
+      for (int column : columns) {
+        if (column < 0) {
+          throw new IllegalArgumentException("column " + column + " must be zero or greater");
+        }
+        max = Math.max(max, column);
+      }
+      projection = new boolean[max + 1];
+      for (int column : columns) {
+        projection[column] = true;
+      }
+    }
+    clear();
+  }
+
+  /**
+   * Gets a field without copying it. The returned sequence is only valid until the next row is read
+   * into this view.
+   *
+   * @param index - the index of the field
+   * @return the field's chars
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public CharSequence get(int index) {
+    Objects.checkIndex(index, size);
+    if (index >= fields.length) {
+      int oldLength = fields.length;
+      fields = Arrays.copyOf(fields, Math.max(index + 1, ends.length));
+      for (int i = oldLength; i < fields.length; i++) {
+        fields[i] = new Field(i);
+      }
+    }
+    return fields[index];
+  }
+
+  /**
+   * Gets a field as a new String, which stays valid after the view moves on.
+   *
+   * @param index - the index of the field
+   * @return the field
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public String getString(int index) {
+    Objects.checkIndex(index, size);
+    return new String(chars, start(index), ends[index] - start(index));
+  }
+
+  /**
+   * Parses a field as an int, like {@link Integer#parseInt(String)}, without copying it.
+   *
+   * @param index - the index of the field
+   * @return the int value of the field
+   * @throws NumberFormatException if the field isn't an int
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public int getInt(int index) {
+    CharSequence field = get(index);
+    return Integer.parseInt(field, 0, field.length(), 10);
+  }
+
+  /**
+   * Parses a field as a double, like {@link Double#parseDouble(String)}. Plain decimals with at
+   * most 15 significant digits (e.g. -282.43485) are parsed straight from the chars, without
+   * copying them to a String.
+   *
+   * @param index - the index of the field
+   * @return the double value of the field
+   * @throws NumberFormatException if the field isn't a double
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public double getDouble(int index) {
+    Objects.checkIndex(index, size);
+    return parseDouble(chars, start(index), ends[index]);
+  }
+
+  /**
+   * Copies the fields out into a list, e.g. to report a row in an error.
+   *
+   * @return a new list of the fields
+   */
+  public List<String> toList() {
+    List<String> row = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      row.add(getString(i));
+    }
+    return row;
+  }
+
+  /** Empties the view, to read a new row into it. */
+  void clear() {
+    size = 0;
+    length = 0;
+    width = 0;
+    skipping = !isKept(0);
+  }
+
+  /**
+   * Adds a char to the end of the field currently being read.
+   *
+   * @param c - the char to add
+   */
+  void append(char c) {
+    if (skipping) {
+      return;
+    }
+    if (length == chars.length) {
+      chars = Arrays.copyOf(chars, length * 2);
+    }
+    chars[length++] = c;
+  }
+
+  /**
+   * Adds a run of chars to the end of the field currently being read.
+   *
+   * @param source - the array to copy the chars from
+   * @param offset - the index of the first char to copy
+   * @param count - the number of chars to copy
+   */
+  void append(char[] source, int offset, int count) {
+    if (skipping) {
+      return;
+    }
+    if (length + count > chars.length) {
+      chars = Arrays.copyOf(chars, Math.max(length + count, chars.length * 2));
+    }
+    System.arraycopy(source, offset, chars, length, count);
+    length += count;
+  }
+
+  /**
+   * Decodes UTF-8 bytes onto the end of the field currently being read. ASCII bytes are widened
+   * straight into the chars; from the first byte of a multi-byte char on, the rest is decoded by
+   * the JDK.
+   *
+   * @param source - the array holding the bytes
+   * @param offset - the index of the first byte to decode
+   * @param count - the number of bytes to decode
+   */
+  void appendUtf8(byte[] source, int offset, int count) {
+    if (skipping) {
+      return;
+    }
+    if (length + count > chars.length) {
+      chars = Arrays.copyOf(chars, Math.max(length + count, chars.length * 2));
+    }
+    int end = offset + count;
+    for (int i = offset; i < end; i++) {
+      byte b = source[i];
+      if (b < 0) {
+        String rest = new String(source, i, end - i, StandardCharsets.UTF_8);
+        // never more chars than bytes, so the array is already big enough
+        rest.getChars(0, rest.length(), chars, length);
+        length += rest.length();
+        return;
+      }
+      chars[length++] = (char) b;
+    }
+  }
+
+  /** Ends the field currently being read (which may be empty). */
+  void endField() {
+    if (!skipping) {
+      if (size == ends.length) {
+        ends = Arrays.copyOf(ends, size * 2);
+      }
+      ends[size++] = length;
+    }
+    width++;
+    skipping = !isKept(width);
+  }
+
+  /**
+   * Replaces the row with the given fields.
+   *
+   * @param row - the fields of the row
+   */
+  void setFields(List<String> row) {
+    clear();
+    for (String field : row) {
+      if (skipping) {
+        endField();
+        continue;
+      }
+      if (length + field.length() > chars.length) {
+        chars = Arrays.copyOf(chars, Math.max(length + field.length(), chars.length * 2));
+      }
+      field.getChars(0, field.length(), chars, length);
+      length += field.length();
+      endField();
+    }
+  }
+
+  /**
+   * Gets the chars of every field, one after another.
+   *
+   * @return the view's chars, of which only the first {@link #length()} are used
+   */
+  char[] chars() {
+    return chars;
+  }
+
+  /**
+   * Gets the number of chars in the row.
+   *
+   * @return the number of chars
+   */
+  int length() {
+    return length;
+  }
+
+  /**
+   * Gets the offset just past the end of a field.
+   *
+   * @param index - the index of the field
+   * @return the end offset
+   */
+  int end(int index) {
+    return ends[index];
+  }
+
+  /**
+   * Parses chars as a double, like {@link Double#parseDouble(String)}. Plain decimals with at most
+   * 15 significant digits (e.g. -282.43485) are parsed straight from the chars, which is exact
+   * since both the digits and the power of ten fit in a double. Anything else is copied to a String
+   * and parsed by Double.parseDouble.
+   *
+   * @param chars - the array holding the chars
+   * @param start - the index of the first char
+   * @param end - the index just past the last char
+   * @return the double value of the chars
+   * @throws NumberFormatException if the chars aren't a double
+   */
+  static double parseDouble(char[] chars, int start, int end) {
+    int i = start;
+    boolean negative = i < end && chars[i] == '-';
+    if (negative) {
+      i++;
+    }
+    long mantissa = 0;
+    int digits = 0;
+    int fractionDigits = 0;
+    boolean seenPoint = false;
+    for (; i < end; i++) {
+      char c = chars[i];
+      if (c >= '0' && c <= '9') {
+        mantissa = mantissa * 10 + (c - '0');
+        digits++;
+        if (seenPoint) {
+          fractionDigits++;
+        }
+      } else if (c == '.' && !seenPoint) {
+        seenPoint = true;
+      } else {
+        break;
+      }
+    }
+    if (i == end && digits > 0 && digits <= 15) {
+      // both values are exact, so the one division is correctly rounded
+      double value = mantissa / POWERS_OF_TEN[fractionDigits];
+      return negative ? -value : value;
+    }
+    return Double.parseDouble(new String(chars, start, end - start));
+  }
+
+  /**
+   * Checks if a column is kept by the projection.
+   *
+   * @param column - the index of the column
+   * @return true if there's no projection or the column is in it
+   */
+  private boolean isKept(int column) {
+    return projection == null || (column < projection.length && projection[column]);
+  }
+
+  /**
+   * Gets the offset of the first char of a field.
+   *
+   * @param index - the index of the field
+   * @return the start offset
+   */
+  private int start(int index) {
+    return index == 0 ? 0 : ends[index - 1];
+  }
+
+  /** A field of the view, as a slice of its chars. */
+  private final class Field implements CharSequence {
+    /** The index of the field in the row. */
+    private final int index;
+
+    /**
+     * Creates a slice for one field.
+     *
+     * @param index - the index of the field in the row
+     */
+    Field(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public int length() {
+      return ends[index] - start(index);
+    }
+
+    @Override
+    public char charAt(int i) {
+      Objects.checkIndex(i, length());
+      return chars[start(index) + i];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return toString().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+      return getString(index);
+    }
+  }
+}
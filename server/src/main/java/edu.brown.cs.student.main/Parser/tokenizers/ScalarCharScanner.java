@@ -0,0 +1,16 @@
+package edu.brown.cs.student.main.parser.tokenizers;
+
+/** A scanner which looks at one char at a time. */
+final class ScalarCharScanner implements CharScanner {
+
+  @Override
+  public int indexOfAny(char[] chars, int from, int to, char a, char b, char c) {
+    for (int i = from; i < to; i++) {
+      char current = chars[i];
+      if (current == a || current == b || current == c) {
+        return i;
+      }
+    }
+    return to;
+  }
+}
@@ -0,0 +1,15 @@
+package edu.brown.cs.student.main.parser.tokenizers;
+
+import java.io.IOException;
+
+/** Exception thrown by tokenizers when the input ends inside a quoted field. */
+public class UnterminatedQuoteException extends IOException {
+  /**
+   * Communicates that a quoted field was never closed.
+   *
+   * @param rowStartLine the line the row holding the field started on
+   */
+  public UnterminatedQuoteException(long rowStartLine) {
+    super("unterminated quoted field in row starting at line " + rowStartLine);
+  }
+}
@@ -0,0 +1,366 @@
+package edu.brown.cs.student.main.parser.tokenizers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An RFC 4180 tokenizer which works on raw UTF-8 bytes instead of chars, giving the same rows as
+ * {@link Rfc4180Tokenizer}. Delimiters, quotes and line breaks are all ASCII, and every byte of a
+ * multi-byte UTF-8 char is 0x80 or above, so rows can be split without decoding anything.
+ *
+ * <p>The input is read from a channel into a direct buffer (or taken from a buffer already in
+ * memory, like a mapped file), skipping the Reader and its decoding into a char buffer. Each
+ * field's bytes are only decoded once it is actually needed: into a String for {@link #nextRow()},
+ * or into the view's chars for {@link #nextRowView(RowView)}. Fields of plain ASCII, like most
+ * census data, become Strings holding one byte per char.
+ */
+public class Utf8Rfc4180Tokenizer implements RowTokenizer {
+  /** Default number of bytes read from the channel at a time. */
+  private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+  /** The states of the tokenizer while reading a row. */
+  private enum State {
+    /** At the start of a field, nothing read yet. */
+    FIELD_START,
+    /** Inside a field which didn't start with a quote. */
+    UNQUOTED,
+    /** Inside a quoted field. */
+    QUOTED,
+    /** Just read a quote inside a quoted field; it either escapes a quote or closes the field. */
+    QUOTE_IN_QUOTED
+  }
+
+  /** Channel to read from, or null if the whole input is already in the buffer. */
+  private final ReadableByteChannel channel;
+  /** Bytes read that haven't been tokenized yet, between its position and limit. */
+  private final ByteBuffer buffer;
+  /** The (unescaped) bytes of every field in the row being read, one after another. */
+  private byte[] fieldBytes;
+  /** Number of bytes in the row being read so far. */
+  private int length;
+  /** The offset in bytes just past the end of each field. */
+  private int[] ends;
+  /** Number of fields in the row being read. */
+  private int size;
+  /** The line the tokenizer is currently on. */
+  private long currentLine;
+  /** The line the most recently returned row started on. */
+  private long rowStartLine;
+
+  /**
+   * Creates a tokenizer over the given channel.
+   *
+   * @param channel - the channel of UTF-8 bytes to tokenize
+   */
+  public Utf8Rfc4180Tokenizer(ReadableByteChannel channel) {
+    this(channel, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a tokenizer over the given channel, reading the given number of bytes at a time.
+   *
+   * @param channel - the channel of UTF-8 bytes to tokenize
+   * @param bufferSize - the number of bytes to read at a time
+   * @throws IllegalArgumentException if the buffer size is less than one
+   */
+  public Utf8Rfc4180Tokenizer(ReadableByteChannel channel, int bufferSize) {
+    this(channel, allocate(bufferSize));
+  }
+
+  /**
+   * Creates a tokenizer over the bytes from the given buffer's position to its limit, e.g. part of
+   * a mapped file. The buffer's position is moved along as it is read.
+   *
+   * @param bytes - the UTF-8 bytes to tokenize
+   */
+  public Utf8Rfc4180Tokenizer(ByteBuffer bytes) {
+    this(null, bytes);
+  }
+
+  /**
+   * Creates a tokenizer over the given channel or buffer.
+   *
+   * @param channel - the channel to refill the buffer from, or null
+   * @param buffer - the buffer, holding the first bytes to tokenize if there is no channel
+   */
+  private Utf8Rfc4180Tokenizer(ReadableByteChannel channel, ByteBuffer buffer) {
+    this.channel = channel;
+    this.buffer = buffer;
+    this.fieldBytes = new byte[256];
+    this.length = 0;
+    this.ends = new int[16];
+    this.size = 0;
+    this.currentLine = 1;
+    this.rowStartLine = 0;
+  }
+
+  @Override
+  public List<String> nextRow() throws IOException {
+    if (!readRow()) {
+      return null;
+    }
+    List<String> row = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      int start = start(i);
+      row.add(new String(fieldBytes, start, ends[i] - start, StandardCharsets.UTF_8));
+    }
+    return Collections.unmodifiableList(row);
+  }
+
+  /** Decodes the fields straight into the view's chars, without building any Strings. */
+  @Override
+  public boolean nextRowView(RowView row) throws IOException {
+    if (!readRow()) {
+      return false;
+    }
+    row.clear();
+    for (int i = 0; i < size; i++) {
+      int start = start(i);
+      row.appendUtf8(fieldBytes, start, ends[i] - start);
+      row.endField();
+    }
+    return true;
+  }
+
+  @Override
+  public long getLineNumber() {
+    return rowStartLine;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (channel != null) {
+      channel.close();
+    }
+  }
+
+  /**
+   * Reads the next row's fields into fieldBytes and ends.
+   *
+   * @return true if a row was read, false at the end of the input
+   * @throws IOException if the channel fails or a quoted field is never closed
+   */
+  private boolean readRow() throws IOException {
+    int c = read();
+    if (c == -1) {
+      return false;
+    }
+    rowStartLine = currentLine;
+    size = 0;
+    length = 0;
+    State state = State.FIELD_START;
+    while (true) {
+      switch (state) {
+        case FIELD_START:
+          if (c == '"') {
+            state = State.QUOTED;
+          } else if (c == ',') {
+            endField();
+          } else if (isEndOfRow(c)) {
+            endField();
+            return endRow(c);
+          } else {
+            append((byte) c);
+            appendRun((byte) ',', (byte) '\n', (byte) '\r');
+            state = State.UNQUOTED;
+          }
+          break;
+        case UNQUOTED:
+          if (c == ',') {
+            endField();
+            state = State.FIELD_START;
+          } else if (isEndOfRow(c)) {
+            endField();
+            return endRow(c);
+          } else {
+            append((byte) c);
+            appendRun((byte) ',', (byte) '\n', (byte) '\r');
+          }
+          break;
+        case QUOTED:
+          if (c == '"') {
+            state = State.QUOTE_IN_QUOTED;
+          } else if (c == -1) {
+            throw new UnterminatedQuoteException(rowStartLine);
+          } else {
+            // line breaks are part of the field here, but still count towards the line number
+            if (c == '\n' || (c == '\r' && peek() != '\n')) {
+              currentLine++;
+            }
+            append((byte) c);
+            appendRun((byte) '"', (byte) '\n', (byte) '\r');
+          }
+          break;
+        case QUOTE_IN_QUOTED:
+          if (c == '"') {
+            append((byte) '"');
+            state = State.QUOTED;
+          } else if (c == ',') {
+            endField();
+            state = State.FIELD_START;
+          } else if (isEndOfRow(c)) {
+            endField();
+            return endRow(c);
+          } else {
+            // not valid RFC 4180 (e.g. "abc"def), so keep the text rather than failing the row
+            append((byte) c);
+            state = State.UNQUOTED;
+          }
+          break;
+        default:
+          throw new IllegalStateException("unknown tokenizer state " + state);
+      }
+      c = read();
+    }
+  }
+
+  /**
+   * Finishes a row: consumes the \n of a \r\n pair and moves on to the next line.
+   *
+   * @param c - the byte that ended the row (\n, \r or -1 at the end of the input)
+   * @return true, since a row was read
+   * @throws IOException if the channel fails
+   */
+  private boolean endRow(int c) throws IOException {
+    if (c == '\r' && peek() == '\n') {
+      buffer.get();
+    }
+    if (c != -1) {
+      currentLine++;
+    }
+    return true;
+  }
+
+  /**
+   * Copies the bytes from the buffer's position up to the next special byte (or the end of the
+   * buffer) into the current field.
+   *
+   * @param a - a byte which ends the run
+   * @param b - another byte which ends the run
+   * @param c - another byte which ends the run
+   */
+  private void appendRun(byte a, byte b, byte c) {
+    int position = buffer.position();
+    int limit = buffer.limit();
+    int end = position;
+    while (end < limit) {
+      byte x = buffer.get(end);
+      if (x == a || x == b || x == c) {
+        break;
+      }
+      end++;
+    }
+    int count = end - position;
+    if (length + count > fieldBytes.length) {
+      fieldBytes = Arrays.copyOf(fieldBytes, Math.max(length + count, fieldBytes.length * 2));
+    }
+    buffer.get(position, fieldBytes, length, count);
+    buffer.position(end);
+    length += count;
+  }
+
+  /**
+   * Adds a byte to the end of the current field.
+   *
+   * @param b - the byte to add
+   */
+  private void append(byte b) {
+    if (length == fieldBytes.length) {
+      fieldBytes = Arrays.copyOf(fieldBytes, length * 2);
+    }
+    fieldBytes[length++] = b;
+  }
+
+  /** Ends the current field (which may be empty). */
+  private void endField() {
+    if (size == ends.length) {
+      ends = Arrays.copyOf(ends, size * 2);
+    }
+    ends[size++] = length;
+  }
+
+  /**
+   * Gets the offset of the first byte of a field.
+   *
+   * @param index - the index of the field
+   * @return the start offset
+   */
+  private int start(int index) {
+    return index == 0 ? 0 : ends[index - 1];
+  }
+
+  /**
+   * Checks if a byte ends the current row.
+   *
+   * @param c - the byte to check
+   * @return true if it is a line break or the end of the input
+   */
+  private static boolean isEndOfRow(int c) {
+    return c == '\n' || c == '\r' || c == -1;
+  }
+
+  /**
+   * Reads the next byte, refilling the buffer if needed.
+   *
+   * @return the next byte (from 0 to 255), or -1 at the end of the input
+   * @throws IOException if the channel fails
+   */
+  private int read() throws IOException {
+    if (!buffer.hasRemaining() && !fill()) {
+      return -1;
+    }
+    return buffer.get() & 0xFF;
+  }
+
+  /**
+   * Looks at the next byte without consuming it, refilling the buffer if needed.
+   *
+   * @return the next byte (from 0 to 255), or -1 at the end of the input
+   * @throws IOException if the channel fails
+   */
+  private int peek() throws IOException {
+    if (!buffer.hasRemaining() && !fill()) {
+      return -1;
+    }
+    return buffer.get(buffer.position()) & 0xFF;
+  }
+
+  /**
+   * Refills the buffer from the channel.
+   *
+   * @return false if there is no channel or it has no more input
+   * @throws IOException if the channel fails
+   */
+  private boolean fill() throws IOException {
+    if (channel == null) {
+      return false;
+    }
+    buffer.clear();
+    int read;
+    do {
+      read = channel.read(buffer);
+    } while (read == 0);
+    buffer.flip();
+    return read > 0;
+  }
+
+  /**
+   * Creates an empty direct buffer to read the channel into.
+   *
+   * @param bufferSize - the number of bytes the buffer holds
+   * @return the buffer, with nothing left to read in it
+   * @throws IllegalArgumentException if the buffer size is less than one
+   */
+  private static ByteBuffer allocate(int bufferSize) {
+    if (bufferSize < 1) {
+      throw new IllegalArgumentException("buffer size " + bufferSize + " must be at least one");
+    }
+    return ByteBuffer.allocateDirect(bufferSize).flip();
+  }
+}
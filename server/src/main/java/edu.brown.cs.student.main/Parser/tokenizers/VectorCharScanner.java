@@ -0,0 +1,37 @@
+package edu.brown.cs.student.main.parser.tokenizers;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A scanner which compares a whole vector of chars (16 to 64 bytes, depending on the CPU) at a
+ * time. Only loaded through {@link CharScanner#vectorOrScalar()}, once the jdk.incubator.vector
+ * module is known to be there.
+ */
+final class VectorCharScanner implements CharScanner {
+  /** The widest vector of 16-bit lanes the CPU handles well. */
+  private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+  @Override
+  public int indexOfAny(char[] chars, int from, int to, char a, char b, char c) {
+    int i = from;
+    int bound = from + SPECIES.loopBound(to - from);
+    for (; i < bound; i += SPECIES.length()) {
+      ShortVector lanes = ShortVector.fromCharArray(SPECIES, chars, i);
+      VectorMask<Short> matches =
+          lanes.eq((short) a).or(lanes.eq((short) b)).or(lanes.eq((short) c));
+      if (matches.anyTrue()) {
+        return i + matches.firstTrue();
+      }
+    }
+    // the tail that doesn't fill a whole vector
+    for (; i < to; i++) {
+      char current = chars[i];
+      if (current == a || current == b || current == c) {
+        return i;
+      }
+    }
+    return to;
+  }
+}
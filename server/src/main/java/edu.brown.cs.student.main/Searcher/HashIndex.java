@@ -0,0 +1,199 @@
+package edu.brown.cs.student.main.searcher;
+
+import edu.brown.cs.student.main.parser.table.Column;
+import java.util.Arrays;
+
+/**
+ * An index from the values of a column to the rows holding them, ignoring case, so finding the rows
+ * equal to a value doesn't compare it against every row. It finds exactly the rows {@link
+ * Column#equalsIgnoreCase(int, String)} is true for.
+ *
+ * <p>No value is kept in the index. Each distinct value (up to case) has a slot in an open
+ * addressing hash table holding the first and last row with it, and rows with the same value are
+ * linked in order through one array with an entry per row, so the index costs a few ints per row
+ * rather than an object per value. Lookups compare against the column itself, which is why the
+ * column is passed to each call: it must hold the same rows the index was built from, though it may
+ * have more (rows appended since are indexed by the next lookup), or fewer (rows after the end of
+ * the column are left out of the result).
+ */
+public final class HashIndex {
+  /** The first row with the value in each slot, or -1 for an empty slot. */
+  private int[] firsts;
+  /** The last row with the value in each slot. */
+  private int[] lasts;
+  /** The case-folded hash of the value in each slot. */
+  private int[] hashes;
+  /** The next row with the same value as each row, or -1 if it's the last. */
+  private int[] next;
+  /** The number of rows indexed. */
+  private int size;
+  /** The number of distinct values indexed. */
+  private int keys;
+
+  /**
+   * Indexes every row of a column.
+   *
+   * @param column - the column to index
+   * @throws IllegalArgumentException if the column is null
+   */
+  public HashIndex(Column column) {
+    if (column == null) {
+      throw new IllegalArgumentException("null column input");
+    }
+    // slots grow with the number of distinct values, which is often far fewer than the rows
+    this.firsts = new int[16];
+    Arrays.fill(this.firsts, -1);
+    this.lasts = new int[16];
+    this.hashes = new int[16];
+    this.next = new int[Math.max(column.size(), 16)];
+    this.size = 0;
+    this.keys = 0;
+    this.addRows(column);
+  }
+
+  /**
+   * Finds the rows of the column equal to a value, ignoring case. Rows appended to the column since
+   * the last lookup are indexed first.
+   *
+   * @param column - the column the index was built from
+   * @param value - the value to look for
+   * @return the indices of the rows equal to the value, in ascending order
+   * @throws IllegalArgumentException if the column or value is null
+   */
+  public synchronized int[] find(Column column, String value) {
+    if (column == null || value == null) {
+      throw new IllegalArgumentException("null column or value input");
+    }
+    if (size < column.size()) {
+      this.addRows(column);
+    }
+    int limit = column.size();
+    int slot = this.findSlot(column, value, foldedHash(value), limit);
+    if (firsts[slot] == -1) {
+      return new int[0];
+    }
+    int count = 0;
+    for (int row = firsts[slot]; row != -1 && row < limit; row = next[row]) {
+      count++;
+    }
+    int[] rows = new int[count];
+    int i = 0;
+    for (int row = firsts[slot]; i < count; row = next[row]) {
+      rows[i++] = row;
+    }
+    return rows;
+  }
+
+  /**
+   * Gets the number of rows indexed.
+   *
+   * @return the number of rows
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Gets the number of distinct values (ignoring case) indexed.
+   *
+   * @return the number of values
+   */
+  public synchronized int getKeyCount() {
+    return keys;
+  }
+
+  /**
+   * Hashes a value the same as every value equal to it ignoring case, by hashing each code point
+   * folded the same way {@link String#equalsIgnoreCase(String)} compares them.
+   *
+   * @param value - the value to hash
+   * @return the hash
+   */
+  static int foldedHash(String value) {
+    int hash = 0;
+    for (int i = 0; i < value.length(); ) {
+      int codePoint = value.codePointAt(i);
+      hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(codePoint));
+      i += Character.charCount(codePoint);
+    }
+    // spread the high bits into the low ones, which pick the slot
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Indexes the rows of the column after the ones already indexed.
+   *
+   * @param column - the column the index was built from
+   */
+  private void addRows(Column column) {
+    int end = column.size();
+    if (end > next.length) {
+      next = Arrays.copyOf(next, Math.max(end, next.length * 2));
+    }
+    for (int row = size; row < end; row++) {
+      String value = column.get(row);
+      int hash = foldedHash(value);
+      int slot = this.findSlot(column, value, hash, row);
+      next[row] = -1;
+      if (firsts[slot] == -1) {
+        firsts[slot] = row;
+        hashes[slot] = hash;
+        keys++;
+      } else {
+        next[lasts[slot]] = row;
+      }
+      lasts[slot] = row;
+      size = row + 1;
+      if (keys * 2 > firsts.length) {
+        this.grow();
+      }
+    }
+  }
+
+  /**
+   * Finds the slot of a value: the slot holding it if it's been indexed, or else the empty slot it
+   * would go in.
+   *
+   * @param column - the column the index was built from
+   * @param value - the value to look for
+   * @param hash - the folded hash of the value
+   * @param limit - the end of the column, past which a slot's first row can't be compared against
+   * @return the slot
+   */
+  private int findSlot(Column column, String value, int hash, int limit) {
+    int mask = firsts.length - 1;
+    int slot = hash & mask;
+    while (firsts[slot] != -1) {
+      int first = firsts[slot];
+      // a value first seen after the end of the column has no rows in it, so it can't match
+      if (hashes[slot] == hash && first < limit && column.equalsIgnoreCase(first, value)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /** Doubles the number of slots, moving every value to its slot in the larger table. */
+  private void grow() {
+    int[] oldFirsts = firsts;
+    int[] oldLasts = lasts;
+    int[] oldHashes = hashes;
+    firsts = new int[oldFirsts.length * 2];
+    Arrays.fill(firsts, -1);
+    lasts = new int[firsts.length];
+    hashes = new int[firsts.length];
+    int mask = firsts.length - 1;
+    for (int old = 0; old < oldFirsts.length; old++) {
+      if (oldFirsts[old] != -1) {
+        int slot = oldHashes[old] & mask;
+        while (firsts[slot] != -1) {
+          slot = (slot + 1) & mask;
+        }
+        firsts[slot] = oldFirsts[old];
+        lasts[slot] = oldLasts[old];
+        hashes[slot] = oldHashes[old];
+      }
+    }
+  }
+}
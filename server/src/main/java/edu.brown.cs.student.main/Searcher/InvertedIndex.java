@@ -0,0 +1,225 @@
+package edu.brown.cs.student.main.searcher;
+
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import java.util.Arrays;
+
+/**
+ * An index from every value in a table to the rows holding it in any column, ignoring case, so
+ * finding the rows containing a value doesn't compare it against every field. It finds exactly the
+ * rows {@link ColumnarTable#equalsIgnoreCase(int, int, String)} is true for in some column.
+ *
+ * <p>Like {@link HashIndex}, no value is kept: each distinct value (up to case) has a slot in an
+ * open addressing hash table holding the field it was first seen in, which lookups compare against.
+ * Each slot's rows are a posting list, linked in ascending order through two int arrays with an
+ * entry per row holding the value, so a value in several columns of one row lists the row once. The
+ * table is passed to each call, and must hold the same rows the index was built from, though it may
+ * have more (rows appended since are indexed by the next lookup) or fewer (rows after the end of
+ * the table are left out of the result).
+ */
+public final class InvertedIndex {
+  /** The row of the field each slot's value was first seen in, or -1 for an empty slot. */
+  private int[] firstRows;
+  /** The column of the field each slot's value was first seen in. */
+  private int[] firstCols;
+  /** The first posting of each slot. */
+  private int[] heads;
+  /** The last posting of each slot. */
+  private int[] tails;
+  /** The case-folded hash of the value in each slot. */
+  private int[] hashes;
+  /** The row of each posting. */
+  private int[] postingRows;
+  /** The next posting of the same value after each posting, or -1 if it's the last. */
+  private int[] postingNext;
+  /** The number of postings. */
+  private int postings;
+  /** The number of rows indexed. */
+  private int size;
+  /** The number of distinct values indexed. */
+  private int keys;
+
+  /**
+   * Indexes every field of a table.
+   *
+   * @param table - the table to index
+   * @throws IllegalArgumentException if the table is null
+   */
+  public InvertedIndex(ColumnarTable table) {
+    if (table == null) {
+      throw new IllegalArgumentException("null table input");
+    }
+    this.firstRows = new int[16];
+    Arrays.fill(this.firstRows, -1);
+    this.firstCols = new int[16];
+    this.heads = new int[16];
+    this.tails = new int[16];
+    this.hashes = new int[16];
+    // most fields are the only one in their row with their value, so expect a posting per field
+    long fields = (long) table.getRowCount() * table.getColumnCount();
+    int capacity = (int) Math.max(Math.min(fields, 1 << 26), 16);
+    this.postingRows = new int[capacity];
+    this.postingNext = new int[capacity];
+    this.postings = 0;
+    this.size = 0;
+    this.keys = 0;
+    this.addRows(table);
+  }
+
+  /**
+   * Finds the rows of the table containing a value in any column, ignoring case. Rows appended to
+   * the table since the last lookup are indexed first.
+   *
+   * @param table - the table the index was built from
+   * @param value - the value to look for
+   * @return the indices of the rows containing the value, in ascending order
+   * @throws IllegalArgumentException if the table or value is null
+   */
+  public synchronized int[] find(ColumnarTable table, String value) {
+    if (table == null || value == null) {
+      throw new IllegalArgumentException("null table or value input");
+    }
+    if (size < table.getRowCount()) {
+      this.addRows(table);
+    }
+    int limit = table.getRowCount();
+    int slot = this.findSlot(table, value, HashIndex.foldedHash(value), limit);
+    if (firstRows[slot] == -1) {
+      return new int[0];
+    }
+    int count = 0;
+    for (int posting = heads[slot];
+        posting != -1 && postingRows[posting] < limit;
+        posting = postingNext[posting]) {
+      count++;
+    }
+    int[] rows = new int[count];
+    int posting = heads[slot];
+    for (int i = 0; i < count; i++) {
+      rows[i] = postingRows[posting];
+      posting = postingNext[posting];
+    }
+    return rows;
+  }
+
+  /**
+   * Gets the number of rows indexed.
+   *
+   * @return the number of rows
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Gets the number of distinct values (ignoring case) indexed.
+   *
+   * @return the number of values
+   */
+  public synchronized int getKeyCount() {
+    return keys;
+  }
+
+  /**
+   * Indexes the rows of the table after the ones already indexed.
+   *
+   * @param table - the table the index was built from
+   */
+  private void addRows(ColumnarTable table) {
+    for (int row = size; row < table.getRowCount(); row++) {
+      for (int col = 0; col < table.getRowWidth(row); col++) {
+        String value = table.get(row, col);
+        int hash = HashIndex.foldedHash(value);
+        // fields before this one are all comparable, so limit the comparisons to the row after it
+        int slot = this.findSlot(table, value, hash, row + 1);
+        if (firstRows[slot] == -1) {
+          firstRows[slot] = row;
+          firstCols[slot] = col;
+          hashes[slot] = hash;
+          heads[slot] = this.addPosting(row);
+          tails[slot] = heads[slot];
+          keys++;
+          if (keys * 2 > firstRows.length) {
+            this.grow();
+          }
+        } else if (postingRows[tails[slot]] != row) {
+          // the value is only listed once for each row, however many columns it's in
+          int posting = this.addPosting(row);
+          postingNext[tails[slot]] = posting;
+          tails[slot] = posting;
+        }
+      }
+      size = row + 1;
+    }
+  }
+
+  /**
+   * Adds a posting to the end of the postings.
+   *
+   * @param row - the row of the posting
+   * @return the index of the posting
+   */
+  private int addPosting(int row) {
+    if (postings == postingRows.length) {
+      postingRows = Arrays.copyOf(postingRows, postings * 2);
+      postingNext = Arrays.copyOf(postingNext, postings * 2);
+    }
+    postingRows[postings] = row;
+    postingNext[postings] = -1;
+    return postings++;
+  }
+
+  /**
+   * Finds the slot of a value: the slot holding it if it's been indexed, or else the empty slot it
+   * would go in.
+   *
+   * @param table - the table the index was built from
+   * @param value - the value to look for
+   * @param hash - the folded hash of the value
+   * @param limit - the end of the table, past which a slot's first field can't be compared against
+   * @return the slot
+   */
+  private int findSlot(ColumnarTable table, String value, int hash, int limit) {
+    int mask = firstRows.length - 1;
+    int slot = hash & mask;
+    while (firstRows[slot] != -1) {
+      // a value first seen after the end of the table has no rows in it, so it can't match
+      if (hashes[slot] == hash
+          && firstRows[slot] < limit
+          && table.equalsIgnoreCase(firstRows[slot], firstCols[slot], value)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /** Doubles the number of slots, moving every value to its slot in the larger table. */
+  private void grow() {
+    int[] oldFirstRows = firstRows;
+    int[] oldFirstCols = firstCols;
+    int[] oldHeads = heads;
+    int[] oldTails = tails;
+    int[] oldHashes = hashes;
+    int capacity = oldFirstRows.length * 2;
+    firstRows = new int[capacity];
+    Arrays.fill(firstRows, -1);
+    firstCols = new int[capacity];
+    heads = new int[capacity];
+    tails = new int[capacity];
+    hashes = new int[capacity];
+    int mask = capacity - 1;
+    for (int old = 0; old < oldFirstRows.length; old++) {
+      if (oldFirstRows[old] != -1) {
+        int slot = oldHashes[old] & mask;
+        while (firstRows[slot] != -1) {
+          slot = (slot + 1) & mask;
+        }
+        firstRows[slot] = oldFirstRows[old];
+        firstCols[slot] = oldFirstCols[old];
+        heads[slot] = oldHeads[old];
+        tails[slot] = oldTails[old];
+        hashes[slot] = oldHashes[old];
+      }
+    }
+  }
+}
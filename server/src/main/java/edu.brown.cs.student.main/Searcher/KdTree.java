@@ -0,0 +1,504 @@
+package edu.brown.cs.student.main.searcher;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A k-d tree over points with any number of coordinates, for finding the points nearest to a given
+ * point, or within a given distance of it, without comparing against every point. Points are
+ * referred to by their index in the coordinate arrays the tree was built from (e.g. the row of a
+ * star in a {@link edu.brown.cs.student.main.parser.table.StarTable}).
+ *
+ * <p>The tree is implicit: the points are sorted into tree order in one array, where the median of
+ * each range is the node splitting it, so there are no node objects and a query walks contiguous
+ * memory. Each node splits on the coordinate its range is most spread out in.
+ *
+ * <p>Distances are Euclidean, so geographic points should be projected first (e.g. longitude scaled
+ * by the cosine of the latitude) if their distances need to be accurate.
+ */
+public final class KdTree {
+  /** Number of coordinates each point has. */
+  private final int dimensions;
+  /** Number of points in the tree. */
+  private final int size;
+  /** The coordinates of each point in tree order, one point after another. */
+  private final double[] points;
+  /** The index each point had in the coordinate arrays, in tree order. */
+  private final int[] indices;
+  /** The position of each point in tree order, by its index in the coordinate arrays. */
+  private final int[] positions;
+  /** The coordinate each node splits on, by the node's position in tree order. */
+  private final byte[] splitDimensions;
+
+  /**
+   * Builds a tree over points given one coordinate at a time: coordinates[d][i] is coordinate d of
+   * point i.
+   *
+   * @param coordinates - an array of each point's values for each coordinate
+   * @throws IllegalArgumentException if there are no coordinates, more than 127, or the arrays have
+   *     different lengths
+   */
+  public KdTree(double[]... coordinates) throws IllegalArgumentException {
+    if (coordinates == null || coordinates.length == 0 || coordinates.length > Byte.MAX_VALUE) {
+      throw new IllegalArgumentException("points must have between 1 and 127 coordinates");
+    }
+    this.dimensions = coordinates.length;
+    this.size = coordinates[0].length;
+    for (double[] coordinate : coordinates) {
+      if (coordinate.length != size) {
+        throw new IllegalArgumentException("every coordinate must have a value for every point");
+      }
+    }
+    this.indices = new int[size];
+    Arrays.setAll(indices, i -> i);
+    this.splitDimensions = new byte[size];
+    build(coordinates, 0, size);
+
+    this.points = new double[size * dimensions];
+    this.positions = new int[size];
+    for (int i = 0; i < size; i++) {
+      positions[indices[i]] = i;
+      for (int d = 0; d < dimensions; d++) {
+        points[i * dimensions + d] = coordinates[d][indices[i]];
+      }
+    }
+  }
+
+  /**
+   * Gets the number of points in the tree.
+   *
+   * @return the number of points
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Finds the points nearest to a given point.
+   *
+   * @param query - the coordinates of the point to search around
+   * @param count - the most points to find
+   * @return the indices of the nearest points, nearest first (ties broken by the lower index)
+   * @throws IllegalArgumentException if the query has the wrong number of coordinates, or the count
+   *     is negative
+   */
+  public int[] nearest(double[] query, int count) throws IllegalArgumentException {
+    return nearest(query, count, -1);
+  }
+
+  /**
+   * Finds the points nearest to one of the tree's own points, not counting the point itself.
+   *
+   * @param index - the index of the point to search around
+   * @param count - the most points to find
+   * @return the indices of the nearest other points, nearest first (ties broken by the lower index)
+   * @throws IndexOutOfBoundsException if the index is out of range
+   * @throws IllegalArgumentException if the count is negative
+   */
+  public int[] nearestTo(int index, int count) throws IllegalArgumentException {
+    Objects.checkIndex(index, size);
+    int position = positions[index];
+    double[] query = Arrays.copyOfRange(points, position * dimensions, (position + 1) * dimensions);
+    return nearest(query, count, index);
+  }
+
+  /**
+   * Finds every point within a distance of a given point.
+   *
+   * @param query - the coordinates of the point to search around
+   * @param radius - the furthest a point can be from the query (inclusive)
+   * @return the indices of the points in range, nearest first (ties broken by the lower index)
+   * @throws IllegalArgumentException if the query has the wrong number of coordinates, or the
+   *     radius is negative or NaN
+   */
+  public int[] withinRadius(double[] query, double radius) throws IllegalArgumentException {
+    checkQuery(query);
+    if (!(radius >= 0)) {
+      throw new IllegalArgumentException("radius " + radius + " must be zero or greater");
+    }
+    Neighbors found = new Neighbors(Math.min(size, 16), Integer.MAX_VALUE);
+    searchRadius(query, radius * radius, 0, size, found);
+    return found.sortedIndices();
+  }
+
+  /**
+   * Sorts a range of points into tree order: the median (by the range's most spread out coordinate)
+   * goes in the middle, smaller points before it and larger after, then each side is sorted the
+   * same way.
+   *
+   * @param coordinates - the coordinates of every point
+   * @param from - the first position of the range
+   * @param to - the position just past the range
+   */
+  private void build(double[][] coordinates, int from, int to) {
+    while (to - from > 1) {
+      int dimension = widestDimension(coordinates, from, to);
+      int mid = (from + to) >>> 1;
+      select(coordinates[dimension], from, to - 1, mid);
+      splitDimensions[mid] = (byte) dimension;
+      // recurse on the smaller side, loop on the larger, so the stack stays O(log n) deep
+      if (mid - from < to - mid - 1) {
+        build(coordinates, from, mid);
+        from = mid + 1;
+      } else {
+        build(coordinates, mid + 1, to);
+        to = mid;
+      }
+    }
+  }
+
+  /**
+   * Finds the coordinate a range of points is most spread out in.
+   *
+   * @param coordinates - the coordinates of every point
+   * @param from - the first position of the range
+   * @param to - the position just past the range
+   * @return the coordinate with the largest range of values
+   */
+  private int widestDimension(double[][] coordinates, int from, int to) {
+    int widest = 0;
+    double widestSpread = -1;
+    for (int d = 0; d < dimensions; d++) {
+      double min = Double.POSITIVE_INFINITY;
+      double max = Double.NEGATIVE_INFINITY;
+      for (int i = from; i < to; i++) {
+        double value = coordinates[d][indices[i]];
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+      if (max - min > widestSpread) {
+        widest = d;
+        widestSpread = max - min;
+      }
+    }
+    return widest;
+  }
+
+  /**
+   * Moves the point with the k-th smallest value of a coordinate to position k, with smaller values
+   * before it and larger after (quickselect).
+   *
+   * @param values - the coordinate's value for every point
+   * @param left - the first position of the range
+   * @param right - the last position of the range (inclusive)
+   * @param k - the position to select
+   */
+  private void select(double[] values, int left, int right, int k) {
+    while (left < right) {
+      // median of three, so sorted input doesn't make this quadratic
+      int mid = (left + right) >>> 1;
+      if (values[indices[mid]] < values[indices[left]]) {
+        swap(mid, left);
+      }
+      if (values[indices[right]] < values[indices[left]]) {
+        swap(right, left);
+      }
+      if (values[indices[right]] < values[indices[mid]]) {
+        swap(right, mid);
+      }
+      double pivot = values[indices[mid]];
+      int i = left;
+      int j = right;
+      while (i <= j) {
+        while (values[indices[i]] < pivot) {
+          i++;
+        }
+        while (values[indices[j]] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          swap(i++, j--);
+        }
+      }
+      if (k <= j) {
+        right = j;
+      } else if (k >= i) {
+        left = i;
+      } else {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Swaps two points in tree order.
+   *
+   * @param a - the position of one point
+   * @param b - the position of the other
+   */
+  private void swap(int a, int b) {
+    int temp = indices[a];
+    indices[a] = indices[b];
+    indices[b] = temp;
+  }
+
+  /**
+   * Finds the points nearest to a given point, skipping one of them.
+   *
+   * @param query - the coordinates of the point to search around
+   * @param count - the most points to find
+   * @param skip - the index of a point not to count, or -1 to count every point
+   * @return the indices of the nearest points, nearest first
+   */
+  private int[] nearest(double[] query, int count, int skip) {
+    checkQuery(query);
+    if (count < 0) {
+      throw new IllegalArgumentException("count " + count + " must be zero or greater");
+    }
+    Neighbors found = new Neighbors(Math.min(count, size), count);
+    if (count > 0) {
+      searchNearest(query, 0, size, skip, found);
+    }
+    return found.sortedIndices();
+  }
+
+  /**
+   * Adds the nearest points in a range of the tree to those found so far, skipping subtrees that
+   * can't hold a point nearer than the furthest one found.
+   *
+   * @param query - the coordinates of the point to search around
+   * @param from - the first position of the range
+   * @param to - the position just past the range
+   * @param skip - the index of a point not to count, or -1
+   * @param found - the nearest points found so far
+   */
+  private void searchNearest(double[] query, int from, int to, int skip, Neighbors found) {
+    if (from >= to) {
+      return;
+    }
+    int mid = (from + to) >>> 1;
+    if (indices[mid] != skip) {
+      found.offer(indices[mid], distanceSquared(query, mid));
+    }
+    if (to - from == 1) {
+      return;
+    }
+    int dimension = splitDimensions[mid];
+    double offset = query[dimension] - points[mid * dimensions + dimension];
+    // search the side the query is on first, which is where the nearest points are likely to be
+    if (offset < 0) {
+      searchNearest(query, from, mid, skip, found);
+      if (!found.isFull() || offset * offset <= found.furthest()) {
+        searchNearest(query, mid + 1, to, skip, found);
+      }
+    } else {
+      searchNearest(query, mid + 1, to, skip, found);
+      if (!found.isFull() || offset * offset <= found.furthest()) {
+        searchNearest(query, from, mid, skip, found);
+      }
+    }
+  }
+
+  /**
+   * Adds the points in a range of the tree within a distance of the query to those found so far.
+   *
+   * @param query - the coordinates of the point to search around
+   * @param radiusSquared - the square of the furthest a point can be from the query
+   * @param from - the first position of the range
+   * @param to - the position just past the range
+   * @param found - the points found so far
+   */
+  private void searchRadius(
+      double[] query, double radiusSquared, int from, int to, Neighbors found) {
+    if (from >= to) {
+      return;
+    }
+    int mid = (from + to) >>> 1;
+    double distance = distanceSquared(query, mid);
+    if (distance <= radiusSquared) {
+      found.offer(indices[mid], distance);
+    }
+    int dimension = splitDimensions[mid];
+    double offset = query[dimension] - points[mid * dimensions + dimension];
+    if (offset <= 0 || offset * offset <= radiusSquared) {
+      searchRadius(query, radiusSquared, from, mid, found);
+    }
+    if (offset >= 0 || offset * offset <= radiusSquared) {
+      searchRadius(query, radiusSquared, mid + 1, to, found);
+    }
+  }
+
+  /**
+   * Gets the square of the distance from the query to a point.
+   *
+   * @param query - the coordinates of the query
+   * @param position - the position of the point in tree order
+   * @return the squared distance
+   */
+  private double distanceSquared(double[] query, int position) {
+    double sum = 0;
+    int base = position * dimensions;
+    for (int d = 0; d < dimensions; d++) {
+      double difference = query[d] - points[base + d];
+      sum += difference * difference;
+    }
+    return sum;
+  }
+
+  /**
+   * Checks a query has one value for each coordinate.
+   *
+   * @param query - the query to check
+   * @throws IllegalArgumentException if it doesn't
+   */
+  private void checkQuery(double[] query) {
+    if (query == null || query.length != dimensions) {
+      throw new IllegalArgumentException("query must have " + dimensions + " coordinates");
+    }
+  }
+
+  /**
+   * The points found by a query, as a max-heap on distance when it has a limit, so the furthest
+   * found point can be replaced by a nearer one.
+   */
+  private static final class Neighbors {
+    /** The most points to keep. */
+    private final int limit;
+    /** The index of each point found, in heap order. */
+    private int[] found;
+    /** The squared distance of each point found, in heap order. */
+    private double[] distances;
+    /** Number of points found. */
+    private int count;
+
+    /**
+     * Creates an empty set of points.
+     *
+     * @param capacity - the number of points to make room for up front
+     * @param limit - the most points to keep
+     */
+    Neighbors(int capacity, int limit) {
+      this.limit = limit;
+      this.found = new int[Math.max(capacity, 1)];
+      this.distances = new double[found.length];
+      this.count = 0;
+    }
+
+    /**
+     * Checks if as many points have been found as are wanted.
+     *
+     * @return true if the set is full
+     */
+    boolean isFull() {
+      return count == limit;
+    }
+
+    /**
+     * Gets the squared distance of the furthest point found.
+     *
+     * @return the largest squared distance
+     */
+    double furthest() {
+      return distances[0];
+    }
+
+    /**
+     * Adds a point, replacing the furthest point found if the set is full and this one is nearer.
+     *
+     * @param index - the index of the point
+     * @param distance - its squared distance from the query
+     */
+    void offer(int index, double distance) {
+      if (count < limit) {
+        if (count == found.length) {
+          found = Arrays.copyOf(found, count * 2);
+          distances = Arrays.copyOf(distances, count * 2);
+        }
+        found[count] = index;
+        distances[count] = distance;
+        siftUp(count++);
+      } else if (isCloser(distance, index, distances[0], found[0])) {
+        found[0] = index;
+        distances[0] = distance;
+        siftDown(0);
+      }
+    }
+
+    /**
+     * Gets the indices of the points found, nearest first.
+     *
+     * @return the indices
+     */
+    int[] sortedIndices() {
+      Integer[] order = new Integer[count];
+      Arrays.setAll(order, i -> i);
+      Arrays.sort(
+          order,
+          (a, b) ->
+              isCloser(distances[a], found[a], distances[b], found[b])
+                  ? -1
+                  : (found[a] == found[b] ? 0 : 1));
+      int[] sorted = new int[count];
+      for (int i = 0; i < count; i++) {
+        sorted[i] = found[order[i]];
+      }
+      return sorted;
+    }
+
+    /**
+     * Compares two points by distance, then by index.
+     *
+     * @param distance - the squared distance of one point
+     * @param index - the index of that point
+     * @param otherDistance - the squared distance of the other point
+     * @param otherIndex - the index of the other point
+     * @return true if the first point comes before the other
+     */
+    private static boolean isCloser(
+        double distance, int index, double otherDistance, int otherIndex) {
+      return distance < otherDistance || (distance == otherDistance && index < otherIndex);
+    }
+
+    /**
+     * Moves a point up the heap until its parent is further away.
+     *
+     * @param i - the heap position of the point
+     */
+    private void siftUp(int i) {
+      while (i > 0) {
+        int parent = (i - 1) / 2;
+        if (!isCloser(distances[parent], found[parent], distances[i], found[i])) {
+          return;
+        }
+        swap(i, parent);
+        i = parent;
+      }
+    }
+
+    /**
+     * Moves a point down the heap until its children are nearer.
+     *
+     * @param i - the heap position of the point
+     */
+    private void siftDown(int i) {
+      while (true) {
+        int furthest = i;
+        for (int child = 2 * i + 1; child <= 2 * i + 2 && child < count; child++) {
+          if (isCloser(distances[furthest], found[furthest], distances[child], found[child])) {
+            furthest = child;
+          }
+        }
+        if (furthest == i) {
+          return;
+        }
+        swap(i, furthest);
+        i = furthest;
+      }
+    }
+
+    /**
+     * Swaps two points in the heap.
+     *
+     * @param a - the heap position of one point
+     * @param b - the heap position of the other
+     */
+    private void swap(int a, int b) {
+      int index = found[a];
+      found[a] = found[b];
+      found[b] = index;
+      double distance = distances[a];
+      distances[a] = distances[b];
+      distances[b] = distance;
+    }
+  }
+}
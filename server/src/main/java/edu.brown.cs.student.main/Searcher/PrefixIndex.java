@@ -0,0 +1,249 @@
+package edu.brown.cs.student.main.searcher;
+
+import edu.brown.cs.student.main.parser.table.Column;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * An index of the distinct values of a column in sorted order, ignoring case, for completing what's
+ * been typed so far: the values starting with a prefix are next to each other in the order, so
+ * they're found with a binary search rather than by scanning the column, and only they are looked
+ * at to pick the most common.
+ *
+ * <p>Rows appended to the column afterwards are indexed by {@link #addRows(Column)}: values already
+ * indexed just count the new rows, and new values are sorted among themselves and merged into the
+ * order, so only the appended rows are sorted rather than the whole column again.
+ */
+public final class PrefixIndex {
+  /**
+   * A value suggested for a prefix.
+   *
+   * @param value - the value, as it's first written in the column
+   * @param count - the number of rows with the value (ignoring case)
+   */
+  public record Suggestion(String value, int count) {}
+
+  /** Each distinct value folded to ignore case, in sorted order. */
+  private String[] keys;
+  /** Each distinct value as it's first written in the column, in the order of the keys. */
+  private String[] values;
+  /** The number of rows with each distinct value, in the order of the keys. */
+  private int[] counts;
+  /** The index of the key of the first row, or -1 if the column is empty. */
+  private int firstRowKey;
+  /** The number of rows indexed. */
+  private int size;
+
+  /**
+   * Indexes every row of a column.
+   *
+   * @param column - the column to index
+   * @throws IllegalArgumentException if the column is null
+   */
+  public PrefixIndex(Column column) {
+    if (column == null) {
+      throw new IllegalArgumentException("null column input");
+    }
+    this.keys = new String[0];
+    this.values = new String[0];
+    this.counts = new int[0];
+    this.firstRowKey = -1;
+    this.size = 0;
+    this.addRows(column);
+  }
+
+  /**
+   * Indexes the rows appended to the column since it was last indexed. Does nothing if there are
+   * none.
+   *
+   * @param column - the column the index was built from, with any rows appended since
+   * @throws IllegalArgumentException if the column is null
+   */
+  public synchronized void addRows(Column column) {
+    if (column == null) {
+      throw new IllegalArgumentException("null column input");
+    }
+    int end = column.size();
+    Map<String, Integer> found = new HashMap<>();
+    List<String> foundValues = new ArrayList<>();
+    int[] foundCounts = new int[16];
+    int firstRowFound = -1;
+    for (int row = size; row < end; row++) {
+      String value = column.get(row);
+      String key = fold(value);
+      int indexed = Arrays.binarySearch(keys, key);
+      if (indexed >= 0) {
+        counts[indexed]++;
+        continue;
+      }
+      Integer index = found.get(key);
+      if (index == null) {
+        index = foundValues.size();
+        found.put(key, index);
+        foundValues.add(value);
+        if (index == foundCounts.length) {
+          foundCounts = Arrays.copyOf(foundCounts, index * 2);
+        }
+      }
+      foundCounts[index]++;
+      if (row == 0) {
+        firstRowFound = index;
+      }
+    }
+    if (!found.isEmpty()) {
+      this.merge(found, foundValues, foundCounts, firstRowFound);
+    }
+    size = Math.max(size, end);
+  }
+
+  /**
+   * Finds the most common values starting with a prefix, ignoring case.
+   *
+   * @param prefix - what's been typed so far
+   * @param limit - the most values to find
+   * @param skipFirstRow - whether to leave out the first row, if it's a header row
+   * @return the values found with their numbers of rows, most common first (then alphabetically)
+   * @throws IllegalArgumentException if the prefix is null or the limit is negative
+   */
+  public synchronized List<Suggestion> complete(String prefix, int limit, boolean skipFirstRow) {
+    if (prefix == null) {
+      throw new IllegalArgumentException("null prefix input");
+    } else if (limit < 0) {
+      throw new IllegalArgumentException("limit " + limit + " must be zero or greater");
+    }
+    String folded = fold(prefix);
+    int start = Arrays.binarySearch(keys, folded);
+    if (start < 0) {
+      start = -start - 1;
+    }
+    // keep the most common so far, with the least common of them on top to be replaced
+    Comparator<Integer> mostCommon =
+        Comparator.<Integer>comparingInt(i -> count(i, skipFirstRow))
+            .reversed()
+            .thenComparing(i -> keys[i]);
+    PriorityQueue<Integer> best = new PriorityQueue<>(mostCommon.reversed());
+    for (int i = start; i < keys.length && keys[i].startsWith(folded) && limit > 0; i++) {
+      if (count(i, skipFirstRow) == 0) {
+        continue;
+      }
+      best.add(i);
+      if (best.size() > limit) {
+        best.poll();
+      }
+    }
+
+    List<Integer> found = new ArrayList<>(best);
+    found.sort(mostCommon);
+    List<Suggestion> suggestions = new ArrayList<>(found.size());
+    for (int i : found) {
+      suggestions.add(new Suggestion(values[i], count(i, skipFirstRow)));
+    }
+    return suggestions;
+  }
+
+  /**
+   * Gets the number of rows indexed.
+   *
+   * @return the number of rows
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Gets the number of distinct values (ignoring case) indexed.
+   *
+   * @return the number of values
+   */
+  public synchronized int getKeyCount() {
+    return keys.length;
+  }
+
+  /**
+   * Merges values new to the index into the sorted keys.
+   *
+   * @param found - the index of each new value among the new values, by its folded key
+   * @param foundValues - each new value as it's first written in the column
+   * @param foundCounts - the number of new rows with each new value
+   * @param firstRowFound - the index of the first row's value among the new values, or -1 if the
+   *     first row was indexed before
+   */
+  private void merge(
+      Map<String, Integer> found, List<String> foundValues, int[] foundCounts, int firstRowFound) {
+    String[] foundKeys = found.keySet().toArray(new String[0]);
+    Arrays.sort(foundKeys);
+    int length = keys.length + foundKeys.length;
+    String[] mergedKeys = new String[length];
+    String[] mergedValues = new String[length];
+    int[] mergedCounts = new int[length];
+    int mergedFirst = -1;
+    int old = 0;
+    int added = 0;
+    for (int i = 0; i < length; i++) {
+      if (added == foundKeys.length
+          || (old < keys.length && keys[old].compareTo(foundKeys[added]) < 0)) {
+        mergedKeys[i] = keys[old];
+        mergedValues[i] = values[old];
+        mergedCounts[i] = counts[old];
+        if (old == firstRowKey) {
+          mergedFirst = i;
+        }
+        old++;
+      } else {
+        int index = found.get(foundKeys[added]);
+        mergedKeys[i] = foundKeys[added];
+        mergedValues[i] = foundValues.get(index);
+        mergedCounts[i] = foundCounts[index];
+        if (index == firstRowFound) {
+          mergedFirst = i;
+        }
+        added++;
+      }
+    }
+    this.keys = mergedKeys;
+    this.values = mergedValues;
+    this.counts = mergedCounts;
+    this.firstRowKey = mergedFirst;
+  }
+
+  /**
+   * Gets the number of rows with a value.
+   *
+   * @param key - the index of the value's key
+   * @param skipFirstRow - whether to leave out the first row
+   * @return the number of rows
+   */
+  private int count(int key, boolean skipFirstRow) {
+    return skipFirstRow && key == firstRowKey ? counts[key] - 1 : counts[key];
+  }
+
+  /**
+   * Folds a value so values equal ignoring case fold to the same string, folding each code point
+   * the same way {@link String#equalsIgnoreCase(String)} compares them. Every code point is kept,
+   * so a value starts with a prefix exactly when its folded value starts with the folded prefix.
+   *
+   * @param value - the value to fold
+   * @return the folded value
+   */
+  static String fold(String value) {
+    StringBuilder folded = null;
+    for (int i = 0; i < value.length(); ) {
+      int codePoint = value.codePointAt(i);
+      int foldedPoint = Character.toLowerCase(Character.toUpperCase(codePoint));
+      if (folded == null && foldedPoint != codePoint) {
+        folded = new StringBuilder(value.length()).append(value, 0, i);
+      }
+      if (folded != null) {
+        folded.appendCodePoint(foldedPoint);
+      }
+      i += Character.charCount(codePoint);
+    }
+    // values which are already folded are kept as they are
+    return folded == null ? value : folded.toString();
+  }
+}
@@ -0,0 +1,260 @@
+package edu.brown.cs.student.main.searcher;
+
+import edu.brown.cs.student.main.parser.table.Column;
+import edu.brown.cs.student.main.parser.table.NumericColumn;
+import java.util.Arrays;
+
+/**
+ * An index of the rows of a column in order of their numbers, so the rows with numbers in a range
+ * are next to each other in the order, and are found with two binary searches rather than by
+ * parsing every row. Values are read as numbers the way {@link NumericColumn#parse(String)} reads
+ * them, so amounts of money such as $75,000 are indexed as 75000; rows whose value isn't a number
+ * (such as a header row, or an empty value) are left out.
+ *
+ * <p>Rows appended to the column afterwards are indexed by {@link #addRows(Column)}: only the new
+ * rows are sorted, and then merged into the order, rather than sorting the whole column again.
+ */
+public final class RangeIndex {
+  /** The rows with numbers, in ascending order of their numbers (then of the rows). */
+  private int[] order;
+  /** The number of each row in the order. */
+  private double[] numbers;
+  /** The number of rows indexed. */
+  private int size;
+
+  /**
+   * Indexes every row of a column.
+   *
+   * @param column - the column to index
+   * @throws IllegalArgumentException if the column is null
+   */
+  public RangeIndex(Column column) {
+    if (column == null) {
+      throw new IllegalArgumentException("null column input");
+    }
+    this.order = new int[0];
+    this.numbers = new double[0];
+    this.size = 0;
+    this.addRows(column);
+  }
+
+  /**
+   * Indexes the rows appended to the column since it was last indexed. Does nothing if there are
+   * none.
+   *
+   * @param column - the column the index was built from, with any rows appended since
+   * @throws IllegalArgumentException if the column is null
+   */
+  public synchronized void addRows(Column column) {
+    if (column == null) {
+      throw new IllegalArgumentException("null column input");
+    }
+    int end = column.size();
+    if (end <= size) {
+      return;
+    }
+    // parse each row once, rather than on every comparison of the sort
+    int[] rows = new int[end - size];
+    double[] parsed = new double[end - size];
+    int count = 0;
+    for (int row = size; row < end; row++) {
+      double number =
+          column instanceof NumericColumn numeric
+              ? numeric.getDouble(row)
+              : NumericColumn.parse(column.get(row));
+      if (!Double.isNaN(number)) {
+        rows[count] = row;
+        parsed[count++] = number;
+      }
+    }
+    rows = Arrays.copyOf(rows, count);
+    parsed = Arrays.copyOf(parsed, count);
+    sort(rows, parsed);
+
+    // every new row comes after the rows already indexed, so merging keeps ties in row order
+    int[] mergedOrder = new int[order.length + count];
+    double[] mergedNumbers = new double[order.length + count];
+    merge(order, numbers, 0, order.length, rows, parsed, 0, count, mergedOrder, mergedNumbers, 0);
+    this.order = mergedOrder;
+    this.numbers = mergedNumbers;
+    this.size = end;
+  }
+
+  /**
+   * Finds the rows of the column with numbers from min to max, inclusive. Rows appended to the
+   * column since the last lookup are indexed first, and rows past the end of the column (indexed
+   * from a longer copy of it) are left out.
+   *
+   * @param column - the column the index was built from
+   * @param min - the smallest number to find
+   * @param max - the largest number to find
+   * @return the indices of the rows found, in ascending order
+   * @throws IllegalArgumentException if the column is null, or min or max isn't a number
+   */
+  public synchronized int[] find(Column column, double min, double max) {
+    if (column == null) {
+      throw new IllegalArgumentException("null column input");
+    } else if (Double.isNaN(min) || Double.isNaN(max)) {
+      throw new IllegalArgumentException("range from " + min + " to " + max + " must be numbers");
+    }
+    if (size < column.size()) {
+      this.addRows(column);
+    }
+    int limit = column.size();
+    int start = this.firstAtLeast(min);
+    int end = max < min ? start : this.firstAbove(max);
+    int[] rows = new int[Math.max(0, end - start)];
+    int count = 0;
+    for (int i = start; i < end; i++) {
+      if (order[i] < limit) {
+        rows[count++] = order[i];
+      }
+    }
+    rows = Arrays.copyOf(rows, count);
+    Arrays.sort(rows);
+    return rows;
+  }
+
+  /**
+   * Gets the number of rows indexed.
+   *
+   * @return the number of rows
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Gets the number of rows indexed which have numbers.
+   *
+   * @return the number of rows with numbers
+   */
+  public synchronized int getNumberCount() {
+    return order.length;
+  }
+
+  /**
+   * Finds the first place in the order with a number at least a bound.
+   *
+   * @param bound - the bound
+   * @return the place, or the length of the order if every number is less
+   */
+  private int firstAtLeast(double bound) {
+    int low = 0;
+    int high = numbers.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (numbers[middle] < bound) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Finds the first place in the order with a number greater than a bound.
+   *
+   * @param bound - the bound
+   * @return the place, or the length of the order if no number is greater
+   */
+  private int firstAbove(double bound) {
+    int low = 0;
+    int high = numbers.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (numbers[middle] <= bound) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Sorts rows by their numbers, keeping rows with the same number in the order given, by a
+   * bottom-up merge sort of the rows and numbers together.
+   *
+   * @param rows - the rows
+   * @param numbers - the number of each row, sorted along with them
+   */
+  private static void sort(int[] rows, double[] numbers) {
+    int count = rows.length;
+    int[] fromRows = rows;
+    double[] fromNumbers = numbers;
+    int[] toRows = new int[count];
+    double[] toNumbers = new double[count];
+    for (int width = 1; width < count; width *= 2) {
+      for (int start = 0; start < count; start += 2 * width) {
+        int middle = Math.min(start + width, count);
+        int end = Math.min(start + 2 * width, count);
+        merge(
+            fromRows,
+            fromNumbers,
+            start,
+            middle,
+            fromRows,
+            fromNumbers,
+            middle,
+            end,
+            toRows,
+            toNumbers,
+            start);
+      }
+      int[] swapRows = fromRows;
+      fromRows = toRows;
+      toRows = swapRows;
+      double[] swapNumbers = fromNumbers;
+      fromNumbers = toNumbers;
+      toNumbers = swapNumbers;
+    }
+    if (fromRows != rows) {
+      System.arraycopy(fromRows, 0, rows, 0, count);
+      System.arraycopy(fromNumbers, 0, numbers, 0, count);
+    }
+  }
+
+  /**
+   * Merges two runs of rows sorted by their numbers, taking the first run's row on a tie.
+   *
+   * @param firstRows - the rows of the first run
+   * @param firstNumbers - the numbers of the first run's rows
+   * @param firstStart - where the first run starts
+   * @param firstEnd - where the first run ends, exclusive
+   * @param secondRows - the rows of the second run
+   * @param secondNumbers - the numbers of the second run's rows
+   * @param secondStart - where the second run starts
+   * @param secondEnd - where the second run ends, exclusive
+   * @param outRows - where to put the merged rows
+   * @param outNumbers - where to put the merged numbers
+   * @param out - where the merged run starts
+   */
+  private static void merge(
+      int[] firstRows,
+      double[] firstNumbers,
+      int firstStart,
+      int firstEnd,
+      int[] secondRows,
+      double[] secondNumbers,
+      int secondStart,
+      int secondEnd,
+      int[] outRows,
+      double[] outNumbers,
+      int out) {
+    int first = firstStart;
+    int second = secondStart;
+    while (first < firstEnd || second < secondEnd) {
+      if (second == secondEnd
+          || (first < firstEnd
+              && Double.compare(firstNumbers[first], secondNumbers[second]) <= 0)) {
+        outRows[out] = firstRows[first];
+        outNumbers[out++] = firstNumbers[first++];
+      } else {
+        outRows[out] = secondRows[second];
+        outNumbers[out++] = secondNumbers[second++];
+      }
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package edu.brown.cs.student.main.searcher;
+
+import edu.brown.cs.student.main.parser.IncrementalCsvTable;
+import edu.brown.cs.student.main.parser.table.Column;
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The indexes built over a file's table, shared by every Searcher of the same file loaded the same
+ * way. Searchers are made for each search (the server makes one per request), and load a fresh copy
+ * of the table from its snapshot, so indexes are kept here rather than with the table, and each is
+ * built the first time it's needed and reused until the file changes.
+ */
+final class SearchIndexes {
+  /** The indexes of each loaded file, by its path and how it was loaded. */
+  private static final Map<String, SearchIndexes> LOADED = new ConcurrentHashMap<>();
+
+  /** When the file was last modified as of loading it, or null if it's followed. */
+  private final FileTime modified;
+  /** The size of the file as of loading it, or -1 if it's followed. */
+  private final long size;
+  /** The hash index of each column searched so far, by column index. */
+  private final Map<Integer, HashIndex> hashIndexes;
+  /** The prefix index of each column completed so far, by column index. */
+  private final Map<Integer, PrefixIndex> prefixIndexes;
+  /** The trigram index of each column searched for parts of values so far, by column index. */
+  private final Map<Integer, TrigramIndex> trigramIndexes;
+  /** The range index of each column searched for numbers in a range so far, by column index. */
+  private final Map<Integer, RangeIndex> rangeIndexes;
+  /** The index of every column, or null until the first search of every column. */
+  private volatile InvertedIndex invertedIndex;
+
+  /**
+   * Creates an empty set of indexes.
+   *
+   * @param modified - when the file was last modified, or null if it's followed
+   * @param size - the size of the file, or -1 if it's followed
+   */
+  private SearchIndexes(FileTime modified, long size) {
+    this.modified = modified;
+    this.size = size;
+    this.hashIndexes = new ConcurrentHashMap<>();
+    this.prefixIndexes = new ConcurrentHashMap<>();
+    this.trigramIndexes = new ConcurrentHashMap<>();
+    this.rangeIndexes = new ConcurrentHashMap<>();
+    this.invertedIndex = null;
+  }
+
+  /**
+   * Gets the indexes of a file's table, which are thrown away for new ones once the file changes.
+   *
+   * @param path - the absolute path of the file
+   * @param options - describes how the file was loaded into a table
+   * @return the indexes
+   * @throws IOException if the file can't be read
+   */
+  static SearchIndexes forFile(Path path, String options) throws IOException {
+    FileTime modified = Files.getLastModifiedTime(path);
+    long size = Files.size(path);
+    return LOADED.compute(
+        path + "|" + options,
+        (key, loaded) ->
+            loaded != null && modified.equals(loaded.modified) && size == loaded.size
+                ? loaded
+                : new SearchIndexes(modified, size));
+  }
+
+  /**
+   * Gets the indexes of a followed file's table. Rows appended to the table are added to each index
+   * the next time it's used, and the indexes are thrown away if the file is parsed again from the
+   * start.
+   *
+   * @param followed - the table following the file
+   * @param path - the absolute path of the file
+   * @param options - describes which of the table's columns are searched
+   * @return the indexes
+   */
+  static SearchIndexes forFollowed(IncrementalCsvTable followed, Path path, String options) {
+    return LOADED.computeIfAbsent(
+        "followed|" + path + "|" + options,
+        key -> {
+          SearchIndexes indexes = new SearchIndexes(null, -1);
+          followed.addListener(
+              (table, firstNewRow) -> {
+                if (firstNewRow == 0) {
+                  indexes.clear();
+                }
+              });
+          return indexes;
+        });
+  }
+
+  /**
+   * Gets the hash index of a column, building it if this is the first time the column is searched.
+   *
+   * @param col - the index of the column
+   * @param column - the column
+   * @return the index
+   */
+  HashIndex hashIndex(int col, Column column) {
+    return hashIndexes.computeIfAbsent(col, key -> new HashIndex(column));
+  }
+
+  /**
+   * Gets the prefix index of a column, building it if this is the first time the column is
+   * completed, and adding any rows appended to the column since.
+   *
+   * @param col - the index of the column
+   * @param column - the column
+   * @return the index
+   */
+  PrefixIndex prefixIndex(int col, Column column) {
+    PrefixIndex index = prefixIndexes.computeIfAbsent(col, key -> new PrefixIndex(column));
+    index.addRows(column);
+    return index;
+  }
+
+  /**
+   * Gets the trigram index of a column, building it if this is the first time the column is
+   * searched for parts of values, and adding any rows appended to the column since.
+   *
+   * @param col - the index of the column
+   * @param column - the column
+   * @return the index
+   */
+  TrigramIndex trigramIndex(int col, Column column) {
+    TrigramIndex index = trigramIndexes.computeIfAbsent(col, key -> new TrigramIndex(column));
+    index.addRows(column);
+    return index;
+  }
+
+  /**
+   * Gets the range index of a column, building it if this is the first time the column is searched
+   * for numbers in a range. Rows appended to the column since are indexed by the lookup.
+   *
+   * @param col - the index of the column
+   * @param column - the column
+   * @return the index
+   */
+  RangeIndex rangeIndex(int col, Column column) {
+    return rangeIndexes.computeIfAbsent(col, key -> new RangeIndex(column));
+  }
+
+  /**
+   * Gets the inverted index of every column, building it if this is the first search of every
+   * column.
+   *
+   * @param table - the table
+   * @return the index
+   */
+  InvertedIndex invertedIndex(ColumnarTable table) {
+    InvertedIndex built = invertedIndex;
+    if (built == null) {
+      synchronized (this) {
+        built = invertedIndex;
+        if (built == null) {
+          built = new InvertedIndex(table);
+          invertedIndex = built;
+        }
+      }
+    }
+    return built;
+  }
+
+  /** Throws away every index, for the file was parsed again from the start. */
+  private synchronized void clear() {
+    hashIndexes.clear();
+    prefixIndexes.clear();
+    trigramIndexes.clear();
+    rangeIndexes.clear();
+    invertedIndex = null;
+  }
+}
@@ -1,24 +1,56 @@
 package edu.brown.cs.student.main.searcher;
 
+import edu.brown.cs.student.main.parser.ChunkedFileParser;
+import edu.brown.cs.student.main.parser.CsvFormat;
+import edu.brown.cs.student.main.parser.CsvInput;
+import edu.brown.cs.student.main.parser.CsvTableCache;
+import edu.brown.cs.student.main.parser.IncrementalCsvTable;
 import edu.brown.cs.student.main.parser.Parser;
 import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.classes.UncheckedFactoryFailureException;
 import edu.brown.cs.student.main.parser.creators.TrivialCreator;
+import edu.brown.cs.student.main.parser.table.Column;
+import edu.brown.cs.student.main.parser.table.ColumnEncoding;
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import edu.brown.cs.student.main.parser.table.NumericColumn;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 import org.jetbrains.annotations.Nullable;
 
 /** A Searcher class used for searching through data, containing the search method. */
 public class Searcher {
-  /** Parsed csv data to search in. */
-  private List<List<String>> parsedContent;
+  /** Files at least this many bytes are parsed on all cores with a ChunkedFileParser. */
+  private static final long PARALLEL_PARSE_THRESHOLD = 16L << 20;
+  /** Tables of the append-only files being followed, by the absolute path of each file. */
+  private static final Map<Path, IncrementalCsvTable> FOLLOWED_FILES = new ConcurrentHashMap<>();
+
+  /** Parsed csv data to search in, or null if the file is streamed from disk on every search. */
+  private ColumnarTable table;
+  /** The first row of the file (the header row if there is one), or null if the file is empty. */
+  private List<String> firstRow;
   /** boolean indicating if the data has a header row. */
   private boolean headerRow;
 
   private String csvFileName;
+  /** Path of the csv file being searched. */
+  private String csvFilePath;
+  /** The indices of the columns searched (in ascending order), or null to search every column. */
+  private int[] columns;
+  /** The indexes over the table, shared with other searchers of the file, or null if streaming. */
+  private SearchIndexes indexes;
 
   /**
    * An object used to search CSV data with the search method.
@@ -32,30 +64,208 @@ public class Searcher {
    */
   public Searcher(String csvFileName, boolean headerRow)
       throws IllegalArgumentException, IOException, FactoryFailureException {
+    this(csvFileName, headerRow, false);
+  }
+
+  /**
+   * An object used to search CSV data with the search method. If streaming, the file isn't kept in
+   * memory: only the first row is read up front, and each search re-reads the file one row at a
+   * time, keeping just the matching rows. This suits a single search over a large file, while the
+   * default suits many searches over the same file.
+   *
+   * @param csvFileName - name of the csv file to search (String, extension optional)
+   * @param headerRow - boolean indicating if the file has a header row (true if so, false if not)
+   * @param streaming - true to stream the file on each search instead of holding it in memory
+   * @throws IllegalArgumentException when given a null input
+   * @throws FileNotFoundException if file name isn't found in the data directory
+   * @throws IOException if parser fails
+   * @throws FactoryFailureException if parser fails
+   */
+  public Searcher(String csvFileName, boolean headerRow, boolean streaming)
+      throws IllegalArgumentException, IOException, FactoryFailureException {
+    this(csvFileName, headerRow, streaming, null);
+  }
+
+  /**
+   * An object used to search just some of the columns of CSV data. Only those columns are parsed
+   * (the rest of each row is skipped over), and the searcher acts as if the file only had those
+   * columns, in the order they appear in the file: searches return rows of just those columns, and
+   * column names and indices given to search refer to them.
+   *
+   * @param csvFileName - name of the csv file to search (String, extension optional)
+   * @param headerRow - boolean indicating if the file has a header row (true if so, false if not)
+   * @param streaming - true to stream the file on each search instead of holding it in memory
+   * @param columns - the names (if there's a header row) or indices of the columns to search, or
+   *     null to search every column
+   * @throws IllegalArgumentException when given a null input or a column index out of range
+   * @throws FileNotFoundException if file name isn't found in the data directory
+   * @throws IOException if parser fails or a column name isn't found in the dataset
+   * @throws FactoryFailureException if parser fails
+   */
+  public Searcher(String csvFileName, boolean headerRow, boolean streaming, List<String> columns)
+      throws IllegalArgumentException, IOException, FactoryFailureException {
     // throw an exception if given a null input
     if (csvFileName == null) {
       throw new IllegalArgumentException("null csvFileName input");
     }
-    if (!csvFileName.endsWith(".csv")) {
+    if (!csvFileName.endsWith(".csv") && !csvFileName.endsWith(".csv" + CsvInput.GZIP_EXTENSION)) {
       csvFileName += ".csv";
     }
 
     this.csvFileName = csvFileName;
 
     // get the file path using the name by searching in our resources directory
-    String csvFilePath = this.getFilePath(csvFileName);
+    this.csvFilePath = this.getFilePath(csvFileName);
     this.headerRow = headerRow;
+    this.columns = null;
+    this.indexes = null;
+
+    if (columns != null && !columns.isEmpty()) {
+      // the columns are found in the first row, which is all that's read of the whole file
+      List<String> fileFirstRow;
+      try (Stream<List<String>> rows = this.rows()) {
+        fileFirstRow = rows.findFirst().orElse(null);
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      this.columns =
+          findColumns(fileFirstRow == null ? List.of() : fileFirstRow, columns, headerRow);
+    }
+
+    if (streaming) {
+      // only read the first row, the rest is read on each search
+      this.table = null;
+      try (Stream<List<String>> rows = this.rows()) {
+        this.firstRow = rows.findFirst().orElse(null);
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      return;
+    }
+
+    Path path = Path.of(this.csvFilePath).toAbsolutePath().normalize();
+    IncrementalCsvTable followed = FOLLOWED_FILES.get(path);
+    int[] projection = this.columns;
+    // describes how the file is parsed into a table, to tell apart snapshots made some other way
+    String options =
+        CsvTableCache.options(CsvFormat.REGEX, false, true, ColumnEncoding.AUTO, false, projection);
+    if (followed != null) {
+      // only parse the rows appended since the file was last searched
+      this.table = followed.refresh();
+      if (projection != null) {
+        this.table = this.table.select(projection);
+      }
+      this.indexes = SearchIndexes.forFollowed(followed, path, options);
+    } else {
+      // load the data from its snapshot if the file hasn't changed since it was last parsed
+      this.table =
+          CsvTableCache.getDefault().load(path, options, () -> parseTable(path, projection));
+      this.indexes = SearchIndexes.forFile(path, options);
+    }
+    this.firstRow = table.getRowCount() == 0 ? null : table.getRow(0);
+  }
+
+  /**
+   * Marks a csv file as append-only (like a log), so searches over it only parse the rows appended
+   * since the last search instead of the whole file. Does nothing if the file is already followed.
+   *
+   * @param csvFilePath - path of the csv file
+   * @return the table following the file, shared by every search of it
+   * @throws IllegalArgumentException when given a null input
+   */
+  public static IncrementalCsvTable followAppends(String csvFilePath) {
+    if (csvFilePath == null) {
+      throw new IllegalArgumentException("null csvFilePath input");
+    }
+    return FOLLOWED_FILES.computeIfAbsent(
+        Path.of(csvFilePath).toAbsolutePath().normalize(),
+        path -> new IncrementalCsvTable(path, false, true, CsvFormat.REGEX, ColumnEncoding.AUTO));
+  }
+
+  /**
+   * Finds the columns to search among the columns of the file. A column can be given by its name in
+   * the header row (not case-sensitive), or by its index.
+   *
+   * @param firstRow - the first row of the file (the header row if there is one)
+   * @param columns - the names or indices of the columns
+   * @param headerRow - whether the first row is a header row, whose names can be used
+   * @return the indices of the columns, in ascending order
+   * @throws IOException if a column isn't an index and isn't found in the header row
+   * @throws IllegalArgumentException if a column index is negative or out of range
+   */
+  public static int[] findColumns(List<String> firstRow, List<String> columns, boolean headerRow)
+      throws IOException {
+    int[] indices = new int[columns.size()];
+    for (int i = 0; i < indices.length; i++) {
+      String column = columns.get(i).strip();
+      indices[i] = -1;
+      // names come first, so a column named like a number (e.g. 2020) can still be found
+      for (int col = 0; headerRow && col < firstRow.size() && indices[i] == -1; col++) {
+        if (firstRow.get(col).equalsIgnoreCase(column)) {
+          indices[i] = col;
+        }
+      }
+      if (indices[i] == -1) {
+        try {
+          indices[i] = Integer.parseInt(column);
+        } catch (NumberFormatException e) {
+          throw new IOException(
+              "column name "
+                  + column
+                  + " not found in dataset. Columns in dataset: "
+                  + String.join(", ", firstRow));
+        }
+        if (indices[i] < 0) {
+          throw new IllegalArgumentException(
+              "column index " + indices[i] + " must be zero or greater");
+        } else if (!firstRow.isEmpty() && indices[i] >= firstRow.size()) {
+          throw new IllegalArgumentException(
+              "column index "
+                  + indices[i]
+                  + " out of range of "
+                  + firstRow.size()
+                  + " number of columns");
+        }
+      }
+    }
+    return Arrays.stream(indices).sorted().distinct().toArray();
+  }
 
-    // parse the data
+  /**
+   * Parses the file into columns, large files in parallel on all cores. Columns which repeat a few
+   * values (states, races, ...) are dictionary encoded, so each value is only stored once.
+   *
+   * @param path - the path of the file
+   * @param projection - the indices of the only columns to parse, or null to parse every column
+   * @return the table of the file's rows, including the header row if there is one
+   * @throws IOException if the file can't be read
+   * @throws FactoryFailureException if the file has an inconsistent number of columns
+   */
+  private static ColumnarTable parseTable(Path path, int[] projection)
+      throws IOException, FactoryFailureException {
+    // gzipped files can't be split into chunks, but are decompressed while they're parsed
+    if (!CsvInput.isGzipped(path)
+        && new File(path.toString()).length() >= PARALLEL_PARSE_THRESHOLD) {
+      ChunkedFileParser<List<String>> parser =
+          new ChunkedFileParser<>(path, new TrivialCreator(), false, true, CsvFormat.REGEX);
+      if (projection != null) {
+        parser.setProjection(projection);
+      }
+      return parser.parseToTable(ColumnEncoding.AUTO);
+    }
     Parser<List<String>> parser =
-        new Parser<>(new FileReader(csvFilePath), new TrivialCreator(), false, true);
-    parser.parse();
-    this.parsedContent = parser.getParsedContent();
+        new Parser<>(CsvInput.openReader(path), new TrivialCreator(), false, true);
+    if (projection != null) {
+      parser.setProjection(projection);
+    }
+    return parser.parseToTable(ColumnEncoding.AUTO);
   }
 
   /**
    * A method which searches through parsed data for the value given and returns the rows containing
-   * the value (not case-sensitive).
+   * the value (not case-sensitive). The first search builds an {@link InvertedIndex} of every
+   * column, shared by every searcher of the file until the file changes, so later searches only
+   * look at the rows that match.
    *
    * @param value - the exact value to search for (not case-sensitive)
    * @return a list of all the rows containing the value
@@ -65,25 +275,20 @@ public class Searcher {
     if (value == null) {
       throw new IllegalArgumentException("null value input");
     }
-    // list to return
-    List<List<String>> rowsContainingValue = new ArrayList<>();
-
-    // If there's a header row, skip it in our search
-    boolean firstLine = this.headerRow;
-    for (List<String> row : this.parsedContent) {
-      if (firstLine) {
-        firstLine = false;
-        continue;
-      }
-      for (String word : row) {
-        if (word.equalsIgnoreCase(value)) {
-          rowsContainingValue.add(row);
-          break; // we found a match, so don't need to check the rest of the row
-        }
-      }
+    // keep the rows where any of the words match (not case-sensitive)
+    if (this.table == null) {
+      return this.filterStreamedRows(
+          row -> {
+            for (String word : row) {
+              if (word.equalsIgnoreCase(value)) {
+                return true; // we found a match, so don't need to check the rest of the row
+              }
+            }
+            return false;
+          });
     }
-
-    return rowsContainingValue;
+    // look the value up in the index of every column, built by the first search of every column
+    return this.indexedRows(this.indexes.invertedIndex(this.table).find(this.table, value));
   }
 
   /**
@@ -107,10 +312,286 @@ public class Searcher {
     }
 
     // if our csv file was empty, return an empty list (avoids bugs with finding colName)
-    if (parsedContent.isEmpty()) {
+    if (firstRow == null) {
+      return new ArrayList<>();
+    }
+
+    return this.search(value, this.findColumn(colName));
+  }
+
+  /**
+   * This method looks for a specific value in the specified column of parsed data and returns all
+   * rows containing that value in the column (not case-sensitive). The first search of a column
+   * builds a {@link HashIndex} of it, shared by every searcher of the file until the file changes,
+   * so later searches of the column only look at the rows that match.
+   *
+   * @param value - the exact value to search for (not case-sensitive)
+   * @param colIndex - the index of the column to search in (0 corresponds to the first column, 1
+   *     the next, etc.)
+   * @return a list of all the rows containing the value in the column
+   * @throws IllegalArgumentException if given any null inputs, if the colIndex is less than zero,
+   *     if the colIndex is out of range.
+   */
+  public List<List<String>> search(String value, int colIndex) {
+    // throw specific errors for various issues with the inputs...
+    if (value == null) {
+      throw new IllegalArgumentException("null value input");
+    }
+    this.checkColumnIndex(colIndex);
+    if (firstRow == null) {
+      return new ArrayList<>(); // this is to make sure the below search won't error
+    }
+
+    // conduct the search
+    if (this.table == null) {
+      return this.filterStreamedRows(row -> row.get(colIndex).equalsIgnoreCase(value));
+    }
+    // look the value up in the column's index, built the first time the column is searched
+    Column column = this.table.getColumn(colIndex);
+    return this.indexedRows(this.indexes.hashIndex(colIndex, column).find(column, value));
+  }
+
+  /**
+   * Looks for rows whose value in the named column is a number from min to max, inclusive. Values
+   * are read as numbers the way {@link NumericColumn#parse(String)} reads them, so amounts of money
+   * such as $75,000 are compared as 75000, and rows whose value isn't a number are never found.
+   *
+   * @param colName - the name of the column to search in (not case-sensitive)
+   * @param min - the smallest number to find
+   * @param max - the largest number to find
+   * @return a list of all the rows with numbers in the range in the column
+   * @throws IOException if the column name isn't found in the dataset or if there's no header row
+   * @throws IllegalArgumentException if given a null colName, or if min or max isn't a number
+   */
+  public List<List<String>> search(String colName, double min, double max)
+      throws IOException, IllegalArgumentException {
+    if (colName == null) {
+      throw new IllegalArgumentException("null colName input");
+    } else if (firstRow == null) {
       return new ArrayList<>();
     }
+    return this.search(this.findColumn(colName), min, max);
+  }
 
+  /**
+   * Looks for rows whose value in a column is a number from min to max, inclusive. The first such
+   * search of a column builds a {@link RangeIndex} of it, shared by every searcher of the file
+   * until the file changes, so later searches of the column find the range with two binary
+   * searches.
+   *
+   * @param colIndex - the index of the column to search in
+   * @param min - the smallest number to find
+   * @param max - the largest number to find
+   * @return a list of all the rows with numbers in the range in the column
+   * @throws IllegalArgumentException if min or max isn't a number, or if the colIndex is less than
+   *     zero or out of range
+   */
+  public List<List<String>> search(int colIndex, double min, double max) {
+    if (Double.isNaN(min) || Double.isNaN(max)) {
+      throw new IllegalArgumentException("range from " + min + " to " + max + " must be numbers");
+    }
+    this.checkColumnIndex(colIndex);
+    if (firstRow == null) {
+      return new ArrayList<>();
+    }
+
+    if (this.table == null) {
+      return this.filterStreamedRows(
+          row -> {
+            double number = NumericColumn.parse(row.get(colIndex));
+            return number >= min && number <= max;
+          });
+    }
+    // look the range up in the column's sorted order, built the first time the column is searched
+    Column column = this.table.getColumn(colIndex);
+    return this.indexedRows(this.indexes.rangeIndex(colIndex, column).find(column, min, max));
+  }
+
+  /**
+   * Looks for rows containing a string in the named column (not case-sensitive), the tightest
+   * matches first.
+   *
+   * @param value - the string to look for (not case-sensitive)
+   * @param colName - the name of the column to search in (not case-sensitive)
+   * @param limit - the most rows to find
+   * @return the rows found, best match first
+   * @throws IOException if the column name isn't found in the dataset or if there's no header row
+   * @throws IllegalArgumentException if given null inputs or a negative limit
+   */
+  public List<List<String>> searchContains(String value, String colName, int limit)
+      throws IOException, IllegalArgumentException {
+    return this.searchFuzzy(value, colName, 0, limit);
+  }
+
+  /**
+   * Looks for rows containing a string in a column (not case-sensitive), the tightest matches
+   * first.
+   *
+   * @param value - the string to look for (not case-sensitive)
+   * @param colIndex - the index of the column to search in
+   * @param limit - the most rows to find
+   * @return the rows found, best match first
+   * @throws IllegalArgumentException if given a null value, a negative limit, or a colIndex less
+   *     than zero or out of range
+   */
+  public List<List<String>> searchContains(String value, int colIndex, int limit) {
+    return this.searchFuzzy(value, colIndex, 0, limit);
+  }
+
+  /**
+   * Looks for rows of the named column containing a string, or something a few typos away from it
+   * (not case-sensitive), the closest matches first.
+   *
+   * @param value - the string to look for (not case-sensitive)
+   * @param colName - the name of the column to search in (not case-sensitive)
+   * @param maxDistance - the most typos (characters inserted, deleted or replaced) to allow
+   * @param limit - the most rows to find
+   * @return the rows found, best match first
+   * @throws IOException if the column name isn't found in the dataset or if there's no header row
+   * @throws IllegalArgumentException if given null inputs, or a negative distance or limit
+   */
+  public List<List<String>> searchFuzzy(String value, String colName, int maxDistance, int limit)
+      throws IOException, IllegalArgumentException {
+    if (value == null || colName == null) {
+      throw new IllegalArgumentException("null value or colName input");
+    } else if (firstRow == null) {
+      return new ArrayList<>();
+    }
+    return this.searchFuzzy(value, this.findColumn(colName), maxDistance, limit);
+  }
+
+  /**
+   * Looks for rows of a column containing a string, or something a few typos away from it (not
+   * case-sensitive). Rows are ordered by the fewest typos needed, then by how close the whole value
+   * is in length to the string, then alphabetically. The first such search of a column builds a
+   * {@link TrigramIndex} of it, shared by every searcher of the file until the file changes, so
+   * later searches only measure the typos in values sharing enough of the string's trigrams.
+   *
+   * @param value - the string to look for (not case-sensitive)
+   * @param colIndex - the index of the column to search in
+   * @param maxDistance - the most typos (characters inserted, deleted or replaced) to allow; zero
+   *     finds just the rows containing the string
+   * @param limit - the most rows to find
+   * @return the rows found, best match first
+   * @throws IllegalArgumentException if given a null value, a negative distance or limit, or a
+   *     colIndex less than zero or out of range
+   */
+  public List<List<String>> searchFuzzy(String value, int colIndex, int maxDistance, int limit) {
+    if (value == null) {
+      throw new IllegalArgumentException("null value input");
+    } else if (maxDistance < 0) {
+      throw new IllegalArgumentException("distance " + maxDistance + " must be zero or greater");
+    } else if (limit < 0) {
+      throw new IllegalArgumentException("limit " + limit + " must be zero or greater");
+    }
+    this.checkColumnIndex(colIndex);
+    if (firstRow == null) {
+      return new ArrayList<>();
+    }
+
+    String folded = PrefixIndex.fold(value);
+    if (this.table == null) {
+      // measure each distinct value once, then order the matching rows the way the index does
+      Map<String, Integer> distances = new HashMap<>();
+      List<List<String>> rowsFound =
+          this.filterStreamedRows(
+              row ->
+                  distances.computeIfAbsent(
+                          PrefixIndex.fold(row.get(colIndex)),
+                          key -> TrigramIndex.distance(folded, key, maxDistance))
+                      <= maxDistance);
+      Comparator<String> closest =
+          Comparator.<String>comparingInt(distances::get)
+              .thenComparingInt(key -> Math.abs(key.length() - folded.length()))
+              .thenComparing(key -> key);
+      rowsFound.sort(Comparator.comparing(row -> PrefixIndex.fold(row.get(colIndex)), closest));
+      return new ArrayList<>(rowsFound.subList(0, Math.min(limit, rowsFound.size())));
+    }
+    // find the closest values through the column's trigram index, then their rows by hash index
+    Column column = this.table.getColumn(colIndex);
+    List<TrigramIndex.Match> matches =
+        this.indexes.trigramIndex(colIndex, column).find(value, maxDistance, limit, this.headerRow);
+    HashIndex rowIndex = this.indexes.hashIndex(colIndex, column);
+    List<List<String>> rowsFound = new ArrayList<>();
+    for (TrigramIndex.Match match : matches) {
+      for (List<String> row : this.indexedRows(rowIndex.find(column, match.value()))) {
+        if (rowsFound.size() == limit) {
+          return rowsFound;
+        }
+        rowsFound.add(row);
+      }
+    }
+    return rowsFound;
+  }
+
+  /**
+   * Suggests values of the named column starting with what's been typed so far (not
+   * case-sensitive), the most common first.
+   *
+   * @param prefix - the start of the values to suggest (not case-sensitive)
+   * @param colName - the name of the column to suggest values from (not case-sensitive)
+   * @param limit - the most values to suggest
+   * @return the values suggested, each with the number of rows holding it
+   * @throws IOException if the column name isn't found in the dataset or if there's no header row
+   * @throws IllegalArgumentException if given null inputs or a negative limit
+   */
+  public List<PrefixIndex.Suggestion> suggest(String prefix, String colName, int limit)
+      throws IOException, IllegalArgumentException {
+    if (prefix == null || colName == null) {
+      throw new IllegalArgumentException("null prefix or colName input");
+    } else if (firstRow == null) {
+      return new ArrayList<>();
+    }
+    return this.suggest(prefix, this.findColumn(colName), limit);
+  }
+
+  /**
+   * Suggests values of a column starting with what's been typed so far (not case-sensitive), the
+   * most common first. The first suggestion from a column builds a {@link PrefixIndex} of it,
+   * shared by every searcher of the file until the file changes, so later suggestions only look at
+   * the values starting with the prefix.
+   *
+   * @param prefix - the start of the values to suggest (not case-sensitive)
+   * @param colIndex - the index of the column to suggest values from
+   * @param limit - the most values to suggest
+   * @return the values suggested, each with the number of rows holding it
+   * @throws IllegalArgumentException if given a null prefix, a negative limit, or a colIndex less
+   *     than zero or out of range
+   */
+  public List<PrefixIndex.Suggestion> suggest(String prefix, int colIndex, int limit) {
+    if (prefix == null) {
+      throw new IllegalArgumentException("null prefix input");
+    } else if (limit < 0) {
+      throw new IllegalArgumentException("limit " + limit + " must be zero or greater");
+    }
+    this.checkColumnIndex(colIndex);
+    if (firstRow == null) {
+      return new ArrayList<>();
+    }
+
+    if (this.table == null) {
+      // index just the rows starting with the prefix, which are all a streaming search keeps
+      String folded = PrefixIndex.fold(prefix);
+      List<List<String>> rowsFound =
+          this.filterStreamedRows(row -> PrefixIndex.fold(row.get(colIndex)).startsWith(folded));
+      if (rowsFound.isEmpty()) {
+        return new ArrayList<>();
+      }
+      return new PrefixIndex(ColumnarTable.fromRows(rowsFound, null).getColumn(colIndex))
+          .complete(prefix, limit, false);
+    }
+    Column column = this.table.getColumn(colIndex);
+    return this.indexes.prefixIndex(colIndex, column).complete(prefix, limit, this.headerRow);
+  }
+
+  /**
+   * Finds the index of a column from its name in the header row.
+   *
+   * @param colName - the name of the column (not case-sensitive)
+   * @return the index of the column
+   * @throws IOException if the column name isn't found in the dataset or if there's no header row
+   */
+  private int findColumn(String colName) throws IOException {
     // Throw an exception if there's no header row, and we're expected to search off of colName
     if (!headerRow) {
       throw new IOException("header row not present, cannot access colName");
@@ -118,8 +599,8 @@ public class Searcher {
 
     // Find the index corresponding to the column name
     int colIndex = -1;
-    for (int i = 0; i < parsedContent.get(0).size(); i++) {
-      if (parsedContent.get(0).get(i).equalsIgnoreCase(colName)) {
+    for (int i = 0; i < firstRow.size(); i++) {
+      if (firstRow.get(i).equalsIgnoreCase(colName)) {
         colIndex = i;
       }
     }
@@ -132,60 +613,100 @@ public class Searcher {
               + " not found in dataset "
               + csvFileName
               + ". Columns in dataset: "
-              + String.join(", ", parsedContent.get(0)));
+              + String.join(", ", firstRow));
     }
-    return this.search(value, colIndex);
+    return colIndex;
   }
 
   /**
-   * This method looks for a specific value in the specified column of parsed data and returns all
-   * rows containing that value in the column (not case-sensitive).
+   * Checks that a column index is in range of the columns of the file.
    *
-   * @param value - the exact value to search for (not case-sensitive)
-   * @param colIndex - the index of the column to search in (0 corresponds to the first column, 1
-   *     the next, etc.)
-   * @return a list of all the rows containing the value in the column
-   * @throws IllegalArgumentException if given any null inputs, if the colIndex is less than zero,
-   *     if the colIndex is out of range.
+   * @param colIndex - the index of the column
+   * @throws IllegalArgumentException if the colIndex is less than zero, or out of range of a file
+   *     that isn't empty
    */
-  public List<List<String>> search(String value, int colIndex) {
-    // throw specific errors for various issues with the inputs...
-    if (value == null) {
-      throw new IllegalArgumentException("null value input");
-    } else if (colIndex < 0) {
+  private void checkColumnIndex(int colIndex) {
+    if (colIndex < 0) {
       throw new IllegalArgumentException("column index " + colIndex + " must be zero or greater");
-    } else if (parsedContent.isEmpty()) {
-      return new ArrayList<>(); // this is to make sure the below clause won't error
-    } else if (colIndex > parsedContent.get(0).size() - 1) {
+    } else if (firstRow != null && colIndex > firstRow.size() - 1) {
       throw new IllegalArgumentException(
           "column index "
               + colIndex
               + " out of range of "
-              + parsedContent.get(0).size()
+              + firstRow.size()
               + " number"
               + " of columns");
     }
+  }
 
-    // conduct the search
-    List<List<String>> rowsContainingValue = new ArrayList<>();
-    boolean firstLine = this.headerRow;
-    for (List<String> row : this.parsedContent) {
-      if (firstLine) {
-        firstLine = false;
-        continue;
+  /**
+   * Gets the rows of the table found in an index (skipping the header row, if there is one).
+   *
+   * @param rows - the indices of the rows found, in ascending order
+   * @return a list of the rows
+   */
+  private List<List<String>> indexedRows(int[] rows) {
+    List<List<String>> rowsFound = new ArrayList<>(rows.length);
+    for (int row : rows) {
+      // If there's a header row, skip it in our search
+      if (row >= (this.headerRow ? 1 : 0)) {
+        rowsFound.add(this.table.getRow(row));
       }
+    }
+    return rowsFound;
+  }
 
-      if (row.get(colIndex).equalsIgnoreCase(value)) {
-        rowsContainingValue.add(row);
+  /**
+   * Reads the rows from disk (skipping the header row, if there is one) and returns those matching
+   * the given condition. Only the matching rows are kept, so a streaming search never holds the
+   * file.
+   *
+   * @param condition - returns true for rows that should be in the result
+   * @return a list of all the matching rows
+   * @throws UncheckedIOException if the file can't be read
+   * @throws UncheckedFactoryFailureException if the file has inconsistent columns
+   */
+  private List<List<String>> filterStreamedRows(Predicate<List<String>> condition) {
+    List<List<String>> rowsFound = new ArrayList<>();
+    try (Stream<List<String>> rows = this.rows()) {
+      Iterator<List<String>> iterator = rows.iterator();
+      // If there's a header row, skip it in our search
+      if (this.headerRow && iterator.hasNext()) {
+        iterator.next();
+      }
+      while (iterator.hasNext()) {
+        List<String> row = iterator.next();
+        if (condition.test(row)) {
+          rowsFound.add(row);
+        }
       }
     }
+    return rowsFound;
+  }
 
-    return rowsContainingValue;
+  /**
+   * Opens a stream over the rows of the csv file, read from disk one row at a time.
+   *
+   * @return the stream of rows, which must be closed after use
+   * @throws UncheckedIOException if the file can't be opened
+   */
+  private Stream<List<String>> rows() {
+    try {
+      Parser<List<String>> parser =
+          new Parser<>(
+              CsvInput.openReader(Path.of(this.csvFilePath)), new TrivialCreator(), false, true);
+      if (this.columns != null) {
+        parser.setProjection(this.columns);
+      }
+      return parser.stream();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 
   /**
    * A method which finds the corresponding file path in the local data directory to a given file
-   * name.
+   * name. If there's no plain csv file with the name, a gzipped one (name.csv.gz) is looked for.
    *
    * @param csvFileName - the file name to search for
    * @return the file path corresponding to the file name
@@ -195,6 +716,9 @@ public class Searcher {
     File dir = new File("data/resources");
 
     String filePath = getFilePathHelper(dir, csvFileName);
+    if (filePath == null && !csvFileName.endsWith(CsvInput.GZIP_EXTENSION)) {
+      filePath = getFilePathHelper(dir, csvFileName + CsvInput.GZIP_EXTENSION);
+    }
     if (filePath == null) {
       throw new FileNotFoundException(csvFileName + " not found in resources folder");
     }
@@ -0,0 +1,368 @@
+package edu.brown.cs.student.main.searcher;
+
+import edu.brown.cs.student.main.parser.table.Column;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * An index from the trigrams (runs of three characters) and bigrams (runs of two) of a column's
+ * values to the distinct values holding them, ignoring case, for finding the values containing a
+ * string, or containing something a few typos away from it, without comparing it against every
+ * value.
+ *
+ * <p>A value containing the query with at most k edits shares all but at most 3k of the query's
+ * distinct trigrams, since each edit breaks at most three of them. So only the values sharing
+ * enough trigrams are compared against the query, by an edit distance bounded by k, and only the
+ * values holding some of them are counted. When k is too large for that to rule anything out, the
+ * query is split into k + 1 pieces instead, one of which a match must contain unchanged, since each
+ * edit changes at most one piece; the values holding every trigram (or bigram, for pieces of two
+ * characters) of some piece are compared. Only a query shorter than two characters a piece is
+ * compared against every distinct value.
+ *
+ * <p>Rows appended to the column afterwards are indexed by {@link #addRows(Column)}: new values are
+ * added to the end of the keys, so each posting list stays in ascending order and just grows.
+ */
+public final class TrigramIndex {
+  /**
+   * A value matched by a query.
+   *
+   * @param value - the value, as it's first written in the column
+   * @param distance - the fewest edits (insertions, deletions or substitutions of a character)
+   *     turning the query into part of the value, ignoring case; zero if the value contains it
+   */
+  public record Match(String value, int distance) {}
+
+  /** Each distinct value folded to ignore case, in the order first seen. */
+  private String[] keys;
+  /** Each distinct value as it's first written in the column, in the order of the keys. */
+  private String[] values;
+  /** The number of rows with each distinct value, in the order of the keys. */
+  private int[] counts;
+  /** The number of distinct values indexed. */
+  private int keyCount;
+  /** The index of each key. */
+  private final Map<String, Integer> keyIndexes;
+  /** The keys holding each trigram. */
+  private final Map<String, Postings> trigramPostings;
+  /** The keys holding each bigram. */
+  private final Map<String, Postings> bigramPostings;
+  /** How many grams each key touched by a query holds, kept at zero between queries. */
+  private int[] shared;
+  /** The keys touched by a query, in the order touched. */
+  private int[] touched;
+  /** The index of the key of the first row, or -1 if the column is empty. */
+  private int firstRowKey;
+  /** The number of rows indexed. */
+  private int size;
+
+  /** The keys holding one gram, in ascending order. */
+  private static final class Postings {
+    /** The keys, with room to grow. */
+    private int[] keys = new int[2];
+    /** The number of keys. */
+    private int size;
+
+    /**
+     * Adds a key greater than any added before.
+     *
+     * @param key - the key
+     */
+    private void add(int key) {
+      if (size == keys.length) {
+        keys = Arrays.copyOf(keys, size * 2);
+      }
+      keys[size++] = key;
+    }
+  }
+
+  /**
+   * Indexes every row of a column.
+   *
+   * @param column - the column to index
+   * @throws IllegalArgumentException if the column is null
+   */
+  public TrigramIndex(Column column) {
+    if (column == null) {
+      throw new IllegalArgumentException("null column input");
+    }
+    this.keys = new String[16];
+    this.values = new String[16];
+    this.counts = new int[16];
+    this.keyCount = 0;
+    this.keyIndexes = new HashMap<>();
+    this.trigramPostings = new HashMap<>();
+    this.bigramPostings = new HashMap<>();
+    this.shared = new int[16];
+    this.touched = new int[16];
+    this.firstRowKey = -1;
+    this.size = 0;
+    this.addRows(column);
+  }
+
+  /**
+   * Indexes the rows appended to the column since it was last indexed. Does nothing if there are
+   * none.
+   *
+   * @param column - the column the index was built from, with any rows appended since
+   * @throws IllegalArgumentException if the column is null
+   */
+  public synchronized void addRows(Column column) {
+    if (column == null) {
+      throw new IllegalArgumentException("null column input");
+    }
+    int end = column.size();
+    for (int row = size; row < end; row++) {
+      String value = column.get(row);
+      String key = PrefixIndex.fold(value);
+      Integer index = keyIndexes.get(key);
+      if (index == null) {
+        index = this.addKey(key, value);
+      }
+      counts[index]++;
+      if (row == 0) {
+        firstRowKey = index;
+      }
+    }
+    size = Math.max(size, end);
+  }
+
+  /**
+   * Finds the values closest to containing a query, ignoring case: the values needing the fewest
+   * edits to the query for them to contain it, then the values nearest in length to the query (the
+   * tightest matches), then alphabetically.
+   *
+   * @param query - the string to look for
+   * @param maxDistance - the most edits to the query a value may need to contain it; zero finds
+   *     just the values containing the query
+   * @param limit - the most values to find
+   * @param skipFirstRow - whether to leave out the first row, if it's a header row
+   * @return the values found, best first
+   * @throws IllegalArgumentException if the query is null, or the distance or limit is negative
+   */
+  public synchronized List<Match> find(
+      String query, int maxDistance, int limit, boolean skipFirstRow) {
+    if (query == null) {
+      throw new IllegalArgumentException("null query input");
+    } else if (maxDistance < 0) {
+      throw new IllegalArgumentException("distance " + maxDistance + " must be zero or greater");
+    } else if (limit < 0) {
+      throw new IllegalArgumentException("limit " + limit + " must be zero or greater");
+    }
+    String folded = PrefixIndex.fold(query);
+    int[] candidates = limit > 0 ? this.candidates(folded, maxDistance) : new int[0];
+
+    // keep the best so far, with the worst of them on top to be replaced
+    Comparator<int[]> best =
+        Comparator.<int[]>comparingInt(match -> match[1])
+            .thenComparingInt(match -> Math.abs(keys[match[0]].length() - folded.length()))
+            .thenComparing(match -> keys[match[0]]);
+    PriorityQueue<int[]> found = new PriorityQueue<>(best.reversed());
+    int candidateCount = candidates == null ? keyCount : candidates.length;
+    for (int i = 0; i < candidateCount; i++) {
+      int key = candidates == null ? i : candidates[i];
+      if (skipFirstRow && key == firstRowKey && counts[key] == 1) {
+        continue;
+      }
+      int distance = distance(folded, keys[key], maxDistance);
+      if (distance <= maxDistance) {
+        found.add(new int[] {key, distance});
+        if (found.size() > limit) {
+          found.poll();
+        }
+      }
+    }
+
+    List<int[]> sorted = new ArrayList<>(found);
+    sorted.sort(best);
+    List<Match> matches = new ArrayList<>(sorted.size());
+    for (int[] match : sorted) {
+      matches.add(new Match(values[match[0]], match[1]));
+    }
+    return matches;
+  }
+
+  /**
+   * Gets the number of rows indexed.
+   *
+   * @return the number of rows
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Gets the number of distinct trigrams (ignoring case) indexed.
+   *
+   * @return the number of trigrams
+   */
+  public synchronized int getTrigramCount() {
+    return trigramPostings.size();
+  }
+
+  /**
+   * Finds the fewest edits turning a query into part of a value, by the edit distance between the
+   * query and the closest substring of the value: starting or ending anywhere in the value is free.
+   *
+   * @param query - the folded query
+   * @param value - the folded value
+   * @param maxDistance - the most edits worth counting
+   * @return the fewest edits, or maxDistance + 1 if more than maxDistance are needed
+   */
+  static int distance(String query, String value, int maxDistance) {
+    if (value.contains(query)) {
+      return 0;
+    }
+    // previous[i] is the fewest edits turning the first i characters of the query into a
+    // substring of the value ending just before the current character
+    int[] previous = new int[query.length() + 1];
+    int[] current = new int[query.length() + 1];
+    for (int i = 0; i <= query.length(); i++) {
+      previous[i] = i;
+    }
+    int closest = previous[query.length()];
+    for (int j = 0; j < value.length(); j++) {
+      current[0] = 0;
+      for (int i = 1; i <= query.length(); i++) {
+        int substitute = previous[i - 1] + (query.charAt(i - 1) == value.charAt(j) ? 0 : 1);
+        current[i] = Math.min(substitute, Math.min(previous[i], current[i - 1]) + 1);
+      }
+      closest = Math.min(closest, current[query.length()]);
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+      if (closest == 0) {
+        break;
+      }
+    }
+    return Math.min(closest, maxDistance + 1);
+  }
+
+  /**
+   * Adds a value new to the index, and its trigrams and bigrams.
+   *
+   * @param key - the folded value
+   * @param value - the value as it's first written in the column
+   * @return the index of the key
+   */
+  private int addKey(String key, String value) {
+    int index = keyCount++;
+    if (index == keys.length) {
+      keys = Arrays.copyOf(keys, index * 2);
+      values = Arrays.copyOf(values, index * 2);
+      counts = Arrays.copyOf(counts, index * 2);
+      shared = Arrays.copyOf(shared, index * 2);
+      touched = Arrays.copyOf(touched, index * 2);
+    }
+    keys[index] = key;
+    values[index] = value;
+    keyIndexes.put(key, index);
+    // each gram is only added once for a key, and keys are added in order
+    for (String trigram : grams(key, 3)) {
+      trigramPostings.computeIfAbsent(trigram, t -> new Postings()).add(index);
+    }
+    for (String bigram : grams(key, 2)) {
+      bigramPostings.computeIfAbsent(bigram, b -> new Postings()).add(index);
+    }
+    return index;
+  }
+
+  /**
+   * Finds the keys which could contain a query with at most some number of edits.
+   *
+   * @param folded - the folded query
+   * @param maxDistance - the most edits to the query
+   * @return the keys, in no particular order, or null if any key could
+   */
+  private int[] candidates(String folded, int maxDistance) {
+    Set<String> queryTrigrams = grams(folded, 3);
+    int needed = queryTrigrams.size() - 3 * maxDistance;
+    if (needed > 0) {
+      return this.holding(trigramPostings, queryTrigrams, needed);
+    }
+
+    // a match contains one of the k + 1 pieces unchanged, and so every gram of that piece
+    int pieces = maxDistance + 1;
+    if (folded.length() / pieces < 2) {
+      return null;
+    }
+    int[] found = new int[0];
+    for (int piece = 0; piece < pieces; piece++) {
+      String part =
+          folded.substring(
+              piece * folded.length() / pieces, (piece + 1) * folded.length() / pieces);
+      int gramLength = Math.min(3, part.length());
+      Set<String> grams = grams(part, gramLength);
+      int[] holding =
+          this.holding(gramLength == 3 ? trigramPostings : bigramPostings, grams, grams.size());
+      int start = found.length;
+      found = Arrays.copyOf(found, start + holding.length);
+      System.arraycopy(holding, 0, found, start, holding.length);
+    }
+    // a key may hold more than one piece
+    Arrays.sort(found);
+    int distinct = 0;
+    for (int i = 0; i < found.length; i++) {
+      if (i == 0 || found[i] != found[i - 1]) {
+        found[distinct++] = found[i];
+      }
+    }
+    return Arrays.copyOf(found, distinct);
+  }
+
+  /**
+   * Finds the keys holding at least some number of a set of grams, by counting only the keys in the
+   * grams' posting lists.
+   *
+   * @param postings - the posting lists of grams of the same length as the set's
+   * @param grams - the grams
+   * @param needed - the fewest of the grams a key must hold
+   * @return the keys, in no particular order
+   */
+  private int[] holding(Map<String, Postings> postings, Set<String> grams, int needed) {
+    int touchedCount = 0;
+    for (String gram : grams) {
+      Postings keysFound = postings.get(gram);
+      if (keysFound == null) {
+        continue;
+      }
+      for (int i = 0; i < keysFound.size; i++) {
+        int key = keysFound.keys[i];
+        if (shared[key]++ == 0) {
+          touched[touchedCount++] = key;
+        }
+      }
+    }
+    int[] found = new int[touchedCount];
+    int foundCount = 0;
+    for (int i = 0; i < touchedCount; i++) {
+      int key = touched[i];
+      if (shared[key] >= needed) {
+        found[foundCount++] = key;
+      }
+      shared[key] = 0;
+    }
+    return Arrays.copyOf(found, foundCount);
+  }
+
+  /**
+   * Gets the distinct runs of some number of characters of a folded string.
+   *
+   * @param folded - the folded string
+   * @param length - the number of characters in each run
+   * @return the runs
+   */
+  private static Set<String> grams(String folded, int length) {
+    Set<String> grams = new HashSet<>();
+    for (int i = 0; i + length <= folded.length(); i++) {
+      grams.add(folded.substring(i, i + length));
+    }
+    return grams;
+  }
+}
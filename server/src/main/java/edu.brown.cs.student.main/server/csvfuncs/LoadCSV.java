@@ -1,5 +1,7 @@
 package edu.brown.cs.student.main.server.csvfuncs;
 
+import edu.brown.cs.student.main.parser.CsvInput;
+import edu.brown.cs.student.main.searcher.Searcher;
 import java.io.FileNotFoundException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -8,13 +10,26 @@ import java.nio.file.Paths;
 public class LoadCSV {
 
   /**
-   * Loads a CSV file from the specified file path.
+   * Loads a CSV file (plain, or gzipped as .csv.gz) from the specified file path.
    *
    * @param filepath The file path of the CSV file to load.
    * @throws FileNotFoundException If the file does not exist or is not in the correct directory.
    * @return the name of the file that was loaded
    */
   public String loadCSV(String filepath) throws FileNotFoundException {
+    return this.loadCSV(filepath, false);
+  }
+
+  /**
+   * Loads a CSV file from the specified file path, optionally as an append-only file. Searches of
+   * an append-only file only parse the rows added to its end since the last search.
+   *
+   * @param filepath The file path of the CSV file to load.
+   * @param incremental Whether the file is only ever appended to.
+   * @throws FileNotFoundException If the file does not exist or is not in the correct directory.
+   * @return the name of the file that was loaded
+   */
+  public String loadCSV(String filepath, boolean incremental) throws FileNotFoundException {
     Path path = Paths.get(filepath).toAbsolutePath();
     Path dataDirectory = Paths.get("data/resources").toAbsolutePath();
 
@@ -27,9 +42,19 @@ public class LoadCSV {
       throw new FileNotFoundException("File not found at the specified path");
     }
 
+    // gzipped files can't be parsed from an offset, so they're always parsed whole
+    if (incremental && !CsvInput.isGzipped(path)) {
+      Searcher.followAppends(path.toString());
+    }
+
     // Get the filename
     String filename = path.getFileName().toString();
 
+    // Remove the .gz of a gzipped file first, so name.csv.gz is loaded as name
+    if (CsvInput.isGzipped(path)) {
+      filename = filename.substring(0, filename.length() - CsvInput.GZIP_EXTENSION.length());
+    }
+
     // Remove extension if present
     int dotIndex = filename.lastIndexOf('.');
     if (dotIndex > 0) { // Ensure there's a dot and it's not at the start
@@ -4,9 +4,12 @@ import com.squareup.moshi.JsonAdapter;
 import com.squareup.moshi.Moshi;
 import com.squareup.moshi.Types;
 import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.classes.UncheckedFactoryFailureException;
+import edu.brown.cs.student.main.searcher.PrefixIndex;
 import edu.brown.cs.student.main.searcher.Searcher;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /** Class for searching csv files through an endpoint. */
@@ -14,6 +17,19 @@ public class SearchCSV {
   /** Moshi instance used to convert data objects to json form. */
   static Moshi moshi = new Moshi.Builder().build();
 
+  /** A search of one column, identified by its index or by its name. */
+  @FunctionalInterface
+  private interface ColumnSearch<C, T> {
+    /**
+     * Searches the column.
+     *
+     * @param column - the index or name of the column
+     * @return the result of the search
+     * @throws IOException if the column name isn't found or there's no header row
+     */
+    T search(C column) throws IOException;
+  }
+
   /**
    * Function that searches the given csv file for the searchkey and returns all rows containing it.
    * If specified, this function can take in a columnID (name or index) and search specifically in
@@ -29,52 +45,252 @@ public class SearchCSV {
    */
   public String searchCSV(String filepath, Boolean ifHeader, String searchKey, String columnID)
       throws IOException, FactoryFailureException {
+    return this.searchCSV(filepath, ifHeader, searchKey, columnID, null);
+  }
+
+  /**
+   * Function that searches just some of the columns of the given csv file for the searchkey, and
+   * returns those columns of all rows containing it. Only those columns are parsed. The columnID,
+   * if given, identifies one of those columns (its index counts from the first of them).
+   *
+   * @param filepath - the path to the file they want to search in
+   * @param ifHeader - whether the data has a header row
+   * @param searchKey - the value to search for
+   * @param columnID - an identifier to a column to search in specifically, search in all cols if
+   *     null
+   * @param columns - the names or indices of the columns to search and return, or null for all
+   * @return - A string representation of what json did with our results
+   * @throws IOException if there are any issues with reading the csv file
+   */
+  public String searchCSV(
+      String filepath, Boolean ifHeader, String searchKey, String columnID, List<String> columns)
+      throws IOException, FactoryFailureException {
 
     // Get our information for the search
     List<List<String>> rowsFound;
     File file = new File(filepath);
     String filename = file.getName();
-    Searcher searcher = new Searcher(filename, ifHeader);
+    // Load the file from its snapshot, which is much cheaper than parsing it for every search
+    Searcher searcher = new Searcher(filename, ifHeader, false, columns);
 
-    if (columnID == null || columnID.isEmpty()) {
-      rowsFound = searcher.search(searchKey);
-    } else {
+    try {
+      rowsFound = this.search(searcher, searchKey, columnID);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } catch (UncheckedFactoryFailureException e) {
+      throw e.getCause();
+    }
 
-      /* The purpose of this statement is to handle the case where a column name is an integer (e.g.
-      2020). so if there's an error with the column number being out of bounds or strange, we check
-      to see if it works as a column name before throwing that error */
+    // Return the viewable, json formatted rowsFound
+    return this.rowsToJson(rowsFound);
+  }
 
-      try {
-        // Check if the colID can be parsed into an int
-        int columnNumber = Integer.parseInt(columnID);
+  /**
+   * Function that searches a column of the given csv file for rows containing the searchKey, or
+   * something a few typos away from it, and returns the closest matches first.
+   *
+   * @param filepath - the path to the file they want to search in
+   * @param ifHeader - whether the data has a header row
+   * @param searchKey - the string to look for
+   * @param columnID - an identifier to the column to search in (name or index)
+   * @param columns - the names or indices of the columns to search and return, or null for all
+   * @param maxDistance - the most typos to allow, or zero for rows containing the searchKey
+   * @param limit - the most rows to return
+   * @return - A string representation of what json did with our results
+   * @throws IOException if there are any issues with reading the csv file, or the column name isn't
+   *     found
+   * @throws IllegalArgumentException if the column index is out of range, or the distance or limit
+   *     is negative
+   */
+  public String fuzzySearchCSV(
+      String filepath,
+      Boolean ifHeader,
+      String searchKey,
+      String columnID,
+      List<String> columns,
+      int maxDistance,
+      int limit)
+      throws IOException, FactoryFailureException {
+    List<List<String>> rowsFound;
+    Searcher searcher = new Searcher(new File(filepath).getName(), ifHeader, false, columns);
+    try {
+      rowsFound =
+          this.byColumn(
+              columnID,
+              columnNumber -> searcher.searchFuzzy(searchKey, columnNumber, maxDistance, limit),
+              columnName -> searcher.searchFuzzy(searchKey, columnName, maxDistance, limit));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } catch (UncheckedFactoryFailureException e) {
+      throw e.getCause();
+    }
+    return this.rowsToJson(rowsFound);
+  }
 
-        try {
-          // Try to search using it if so
-          rowsFound = searcher.search(searchKey, columnNumber);
-        } catch (IllegalArgumentException e) {
-          // If we fail, see if it may be a column name, but if that fails throw the old error
-          try {
-            rowsFound = searcher.search(searchKey, columnID);
-          } catch (IllegalArgumentException | IOException e2) {
-            throw new IllegalArgumentException(e);
-          }
-        }
+  /**
+   * Function that searches a column of the given csv file for rows whose value is a number from min
+   * to max (inclusive), reading amounts of money such as $75,000 as numbers.
+   *
+   * @param filepath - the path to the file they want to search in
+   * @param ifHeader - whether the data has a header row
+   * @param columnID - an identifier to the column to search in (name or index)
+   * @param columns - the names or indices of the columns to search and return, or null for all
+   * @param min - the smallest number to find
+   * @param max - the largest number to find
+   * @return - A string representation of what json did with our results
+   * @throws IOException if there are any issues with reading the csv file, or the column name isn't
+   *     found
+   * @throws IllegalArgumentException if the column index is out of range, or min or max isn't a
+   *     number
+   */
+  public String rangeSearchCSV(
+      String filepath,
+      Boolean ifHeader,
+      String columnID,
+      List<String> columns,
+      double min,
+      double max)
+      throws IOException, FactoryFailureException {
+    List<List<String>> rowsFound;
+    Searcher searcher = new Searcher(new File(filepath).getName(), ifHeader, false, columns);
+    try {
+      rowsFound =
+          this.byColumn(
+              columnID,
+              columnNumber -> searcher.search(columnNumber, min, max),
+              columnName -> searcher.search(columnName, min, max));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } catch (UncheckedFactoryFailureException e) {
+      throw e.getCause();
+    }
+    return this.rowsToJson(rowsFound);
+  }
 
-      } catch (NumberFormatException e) {
-        // Try to search assuming the colID is a string, allow errors to occur if we fail
-        rowsFound = searcher.search(searchKey, columnID);
-      }
+  /**
+   * Function that suggests values of a column of the given csv file starting with what's been typed
+   * so far, the most common first.
+   *
+   * @param filepath - the path to the file they want suggestions from
+   * @param ifHeader - whether the data has a header row
+   * @param prefix - what's been typed so far
+   * @param columnID - an identifier to the column to suggest values from (name or index)
+   * @param columns - the names or indices of the only columns to parse, or null for all; an index
+   *     columnID counts from the first of them
+   * @param limit - the most values to suggest
+   * @return - A string representation of what json did with the values and their numbers of rows
+   * @throws IOException if there are any issues with reading the csv file, or the column name isn't
+   *     found
+   * @throws IllegalArgumentException if the column index is out of range or the limit is negative
+   */
+  public String suggestCSV(
+      String filepath,
+      Boolean ifHeader,
+      String prefix,
+      String columnID,
+      List<String> columns,
+      int limit)
+      throws IOException, FactoryFailureException {
+    List<PrefixIndex.Suggestion> suggestions;
+    Searcher searcher = new Searcher(new File(filepath).getName(), ifHeader, false, columns);
+    try {
+      suggestions =
+          this.byColumn(
+              columnID,
+              columnNumber -> searcher.suggest(prefix, columnNumber, limit),
+              columnName -> searcher.suggest(prefix, columnName, limit));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } catch (UncheckedFactoryFailureException e) {
+      throw e.getCause();
     }
 
+    java.lang.reflect.Type type =
+        Types.newParameterizedType(List.class, PrefixIndex.Suggestion.class);
+    JsonAdapter<List<PrefixIndex.Suggestion>> adapter = moshi.adapter(type);
+    return adapter.toJson(suggestions);
+  }
+
+  /**
+   * Helper which converts the rows found to JSON.
+   *
+   * @param rowsFound - the rows found
+   * @return the rows as JSON
+   */
+  private String rowsToJson(List<List<String>> rowsFound) {
     // Initializes an adapter to a List of List of Strings class then uses it to parse the JSON.
     java.lang.reflect.Type type =
         Types.newParameterizedType(
             List.class, Types.newParameterizedType(List.class, String.class));
     JsonAdapter<List<List<String>>> adapter = moshi.adapter(type);
+    return adapter.toJson(rowsFound);
+  }
 
-    String jsonData = adapter.toJson(rowsFound);
+  /**
+   * Helper which runs the search on the searcher, in all columns or in the column identified by the
+   * columnID.
+   *
+   * @param searcher - the searcher for the file
+   * @param searchKey - the value to search for
+   * @param columnID - an identifier to a column to search in specifically, search in all cols if
+   *     null
+   * @return the rows found
+   * @throws IOException if the column name isn't found or there's no header row
+   */
+  private List<List<String>> search(Searcher searcher, String searchKey, String columnID)
+      throws IOException {
+    List<List<String>> rowsFound;
+    if (columnID == null || columnID.isEmpty()) {
+      rowsFound = searcher.search(searchKey);
+    } else {
+      rowsFound =
+          this.byColumn(
+              columnID,
+              columnNumber -> searcher.search(searchKey, columnNumber),
+              columnName -> searcher.search(searchKey, columnName));
+    }
+    return rowsFound;
+  }
 
-    // Return the viewable, json formatted rowsFound
-    return jsonData;
+  /**
+   * Helper which runs a search of the column identified by the columnID, which may be its index or
+   * its name.
+   *
+   * @param columnID - an identifier to a column (name or index)
+   * @param byIndex - the search of a column by its index
+   * @param byName - the search of a column by its name
+   * @return the result of the search
+   * @throws IOException if the column name isn't found or there's no header row
+   */
+  private <T> T byColumn(
+      String columnID, ColumnSearch<Integer, T> byIndex, ColumnSearch<String, T> byName)
+      throws IOException {
+    T found;
+
+    /* The purpose of this statement is to handle the case where a column name is an integer (e.g.
+    2020). so if there's an error with the column number being out of bounds or strange, we check
+    to see if it works as a column name before throwing that error */
+
+    try {
+      // Check if the colID can be parsed into an int
+      int columnNumber = Integer.parseInt(columnID);
+
+      try {
+        // Try to search using it if so
+        found = byIndex.search(columnNumber);
+      } catch (IllegalArgumentException e) {
+        // If we fail, see if it may be a column name, but if that fails throw the old error
+        try {
+          found = byName.search(columnID);
+        } catch (IllegalArgumentException | IOException e2) {
+          throw new IllegalArgumentException(e);
+        }
+      }
+
+    } catch (NumberFormatException e) {
+      // Try to search assuming the colID is a string, allow errors to occur if we fail
+      found = byName.search(columnID);
+    }
+    return found;
   }
 }
@@ -1,14 +1,19 @@
 package edu.brown.cs.student.main.server.csvfuncs;
 
 import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonWriter;
 import com.squareup.moshi.Moshi;
 import com.squareup.moshi.Types;
-import edu.brown.cs.student.main.parser.Parser;
+import edu.brown.cs.student.main.parser.CsvFormat;
+import edu.brown.cs.student.main.parser.CsvTableCache;
 import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
-import edu.brown.cs.student.main.parser.creators.TrivialCreator;
-import java.io.FileReader;
+import edu.brown.cs.student.main.parser.table.ColumnEncoding;
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import edu.brown.cs.student.main.searcher.Searcher;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
+import okio.Buffer;
 
 /** Class for viewing csv files. */
 public class ViewCSV {
@@ -25,19 +30,57 @@ public class ViewCSV {
    *     file to Strings
    */
   public String viewCSV(String filepath) throws IOException, FactoryFailureException {
-    // Parses and gets the csv data
-    Parser<List<String>> parser =
-        new Parser<>(new FileReader(filepath), new TrivialCreator(), false, false);
-    parser.parse();
-    List<List<String>> parsedData = parser.getParsedContent();
+    return this.viewCSV(filepath, false, null);
+  }
+
+  /**
+   * Views just some of the columns of a CSV file. The file is loaded into a table once (from its
+   * snapshot, if it hasn't changed) whichever columns are viewed, and the columns are picked out of
+   * that table without copying them.
+   *
+   * @param filepath The file path of the CSV file to view.
+   * @param headerRow Whether the file has a header row, whose names can be used for columns.
+   * @param columns The names (from the header row) or indices of the columns to view, or null to
+   *     view every column.
+   * @return the parsed columns of the csv file in the form of json data
+   * @throws IOException if the parser has errors reading the CSV file, or a column name isn't in
+   *     the first row
+   * @throws FactoryFailureException if the parser's Trivial Creator has errors converting the csv
+   *     file to Strings
+   * @throws IllegalArgumentException if a column index is negative or out of range
+   */
+  public String viewCSV(String filepath, boolean headerRow, List<String> columns)
+      throws IOException, FactoryFailureException {
+    // Loads the csv data from its snapshot, only parsing it if it changed since the last view. The
+    // header row is kept as the first row of the table, so it's viewed like any other row
+    ColumnarTable table =
+        CsvTableCache.getDefault()
+            .load(Path.of(filepath), false, false, CsvFormat.REGEX, ColumnEncoding.AUTO, false);
+    if (columns != null && !columns.isEmpty()) {
+      // Find the columns in the table's first row, then view just those columns
+      List<String> firstRow = table.getRowCount() == 0 ? List.of() : table.getRow(0);
+      int[] projection = Searcher.findColumns(firstRow, columns, headerRow);
+      // an empty file has no columns to pick out
+      if (table.getColumnCount() > 0) {
+        table = table.select(projection);
+      }
+    }
+
+    // Initializes an adapter to a List of Strings class then uses it to write each row as JSON.
+    java.lang.reflect.Type type = Types.newParameterizedType(List.class, String.class);
+    JsonAdapter<List<String>> rowAdapter = moshi.adapter(type);
 
-    // Initializes an adapter to a List of List of Strings class then uses it to parse the JSON.
-    java.lang.reflect.Type type =
-        Types.newParameterizedType(
-            List.class, Types.newParameterizedType(List.class, String.class));
-    JsonAdapter<List<List<String>>> adapter = moshi.adapter(type);
+    // Write the rows straight from the table's columns into the JSON array
+    Buffer buffer = new Buffer();
+    try (JsonWriter writer = JsonWriter.of(buffer)) {
+      writer.beginArray();
+      for (int row = 0; row < table.getRowCount(); row++) {
+        rowAdapter.toJson(writer, table.getRow(row));
+      }
+      writer.endArray();
+    }
 
     // Return the viewable, json format data
-    return adapter.toJson(parsedData);
+    return buffer.readUtf8();
   }
 }
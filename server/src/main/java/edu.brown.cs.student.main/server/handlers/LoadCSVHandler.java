@@ -42,6 +42,7 @@ public class LoadCSVHandler implements Route {
   @Override
   public Object handle(Request request, Response response) {
     // example request: http://localhost:3232/loadcsv?filepath=data/resources/students.csv
+    // add &incremental=true for files that are only ever appended to, like logs
 
     if (LOADED_FILES.size() >= maxFiles) {
       return new LoadCSVFailureResponse("error_max_number_files_loaded").serialize();
@@ -62,11 +63,13 @@ public class LoadCSVHandler implements Route {
     try {
       // Try to create the loader object with this filepath (throws errors)
       LoadCSV loader = new LoadCSV();
-      String fileName = loader.loadCSV(paramFilePath);
+      boolean incremental = Boolean.parseBoolean(request.queryParams("incremental"));
+      String fileName = loader.loadCSV(paramFilePath, incremental);
 
       // If we succeeded, continue
       responseMap.put("filepath", paramFilePath);
       responseMap.put("filename", fileName);
+      responseMap.put("incremental", incremental);
 
       this.LOADED_FILES.put(fileName, paramFilePath);
 
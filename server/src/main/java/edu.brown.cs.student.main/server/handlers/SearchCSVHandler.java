@@ -3,9 +3,11 @@ package edu.brown.cs.student.main.server.handlers;
 import com.squareup.moshi.JsonAdapter;
 import com.squareup.moshi.Moshi;
 import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.table.NumericColumn;
 import edu.brown.cs.student.main.server.csvfuncs.SearchCSV;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import spark.Request;
 import spark.Response;
@@ -17,6 +19,10 @@ public class SearchCSVHandler implements Route {
   private static HashMap<String, String> LOADED_FILES;
   /** Moshi object used to convert data to json form. */
   private static Moshi moshi = new Moshi.Builder().build();
+  /** The most values suggested in prefix mode, or rows found in other modes, without a limit. */
+  private static final int DEFAULT_LIMIT = 10;
+  /** The most typos allowed in fuzzy mode when no distance is given. */
+  private static final int DEFAULT_DISTANCE = 1;
 
   /**
    * Constructs a SearchCSVHandler with access to a shared server variable.
@@ -39,12 +45,26 @@ public class SearchCSVHandler implements Route {
   public Object handle(Request request, Response response) {
     // example request:
     // http://localhost:3232/searchcsv?filename=students&fifHeader=true&searchKey=Alice&columnID=2
+    // add &columns=Name,Major to only parse (and send back) some of the columns
+    // add &mode=prefix to get the most common values of the column starting with the searchKey,
+    // with their numbers of rows, instead of rows (add &limit=5 for at most 5 of them)
+    // add &mode=contains to find the rows of the column containing the searchKey, or &mode=fuzzy
+    // for those within a typo of containing it (add &distance=2 to allow two), best match first
+    // add &mode=range&min=50000&max=$75,000 (either may be left out) instead of a searchKey to find
+    // the rows of the column with numbers (or amounts of money) in that range
 
     // Get the variables from the request
     String paramFileName = request.queryParams("filename");
     boolean ifHeader = Boolean.parseBoolean(request.queryParams("ifHeader"));
     String searchKey = request.queryParams("searchKey");
     String columnID = request.queryParams("columnID");
+    List<String> columns = parseColumns(request.queryParams("columns"));
+    String mode = request.queryParams("mode");
+    String limitParam = request.queryParams("limit");
+    String distanceParam = request.queryParams("distance");
+    boolean rangeMode = "range".equalsIgnoreCase(mode);
+    double min = parseBound(request.queryParams("min"), Double.NEGATIVE_INFINITY);
+    double max = parseBound(request.queryParams("max"), Double.POSITIVE_INFINITY);
     String rowsFound;
 
     // Make sure we're given a loaded file has been loaded
@@ -59,18 +79,60 @@ public class SearchCSVHandler implements Route {
     // Get the file path
     String filePath = LOADED_FILES.get(paramFileName);
 
-    // Make sure we're given a searchKey
-    if (searchKey == null || searchKey.isEmpty()) {
+    // Make sure we're given a searchKey, or a range of numbers in range mode
+    if (!rangeMode && (searchKey == null || searchKey.isEmpty())) {
       response.status(400); // Bad Request
       return new SearchCSVFailureResponse("error_invalid_search_key").serialize();
+    } else if (rangeMode && (Double.isNaN(min) || Double.isNaN(max))) {
+      response.status(400); // Bad Request
+      return new SearchCSVFailureResponse("error_invalid_range").serialize();
+    }
+
+    // Make sure we're given a search mode we support, and what the mode needs
+    boolean prefixMode = "prefix".equalsIgnoreCase(mode);
+    boolean containsMode = "contains".equalsIgnoreCase(mode);
+    boolean fuzzyMode = "fuzzy".equalsIgnoreCase(mode);
+    boolean columnMode = prefixMode || containsMode || fuzzyMode || rangeMode;
+    int limit = parseCount(limitParam, DEFAULT_LIMIT);
+    int distance = parseCount(distanceParam, DEFAULT_DISTANCE);
+    if (mode != null && !mode.isEmpty() && !columnMode && !"exact".equalsIgnoreCase(mode)) {
+      response.status(400); // Bad Request
+      return new SearchCSVFailureResponse("error_invalid_mode").serialize();
+    } else if (columnMode && (columnID == null || columnID.isEmpty())) {
+      response.status(400); // Bad Request
+      return new SearchCSVFailureResponse("error_column_required").serialize();
+    } else if (columnMode && limit < 0) {
+      response.status(400); // Bad Request
+      return new SearchCSVFailureResponse("error_invalid_limit").serialize();
+    } else if (fuzzyMode && distance < 0) {
+      response.status(400); // Bad Request
+      return new SearchCSVFailureResponse("error_invalid_distance").serialize();
     }
 
     // Create a hashmap to store the results of the request
     Map<String, Object> responseMap = new HashMap<>();
 
     try {
-      // Use our search class and attempt to search
-      rowsFound = new SearchCSV().searchCSV(filePath, ifHeader, searchKey, columnID);
+      // Use our search class and attempt to search, or to suggest values in prefix mode
+      if (prefixMode) {
+        rowsFound =
+            new SearchCSV().suggestCSV(filePath, ifHeader, searchKey, columnID, columns, limit);
+      } else if (rangeMode) {
+        rowsFound = new SearchCSV().rangeSearchCSV(filePath, ifHeader, columnID, columns, min, max);
+      } else if (containsMode || fuzzyMode) {
+        rowsFound =
+            new SearchCSV()
+                .fuzzySearchCSV(
+                    filePath,
+                    ifHeader,
+                    searchKey,
+                    columnID,
+                    columns,
+                    fuzzyMode ? distance : 0,
+                    limit);
+      } else {
+        rowsFound = new SearchCSV().searchCSV(filePath, ifHeader, searchKey, columnID, columns);
+      }
 
       // Fill response map if we succeeded, and return success response
       responseMap.put("data", rowsFound);
@@ -109,6 +171,52 @@ public class SearchCSVHandler implements Route {
     }
   }
 
+  /**
+   * Splits the columns parameter (a comma separated list of column names or indices) into its
+   * columns.
+   *
+   * @param columnsParam - the columns parameter, which may be null
+   * @return the columns, or null if there were none
+   */
+  static List<String> parseColumns(String columnsParam) {
+    if (columnsParam == null || columnsParam.isBlank()) {
+      return null;
+    }
+    return List.of(columnsParam.split(","));
+  }
+
+  /**
+   * Parses a count parameter (a limit or distance), which must be a whole number zero or greater.
+   *
+   * @param countParam - the count parameter, which may be null
+   * @param defaultCount - the count to use if there's no parameter
+   * @return the count, or -1 if the parameter isn't a whole number zero or greater
+   */
+  static int parseCount(String countParam, int defaultCount) {
+    if (countParam == null || countParam.isBlank()) {
+      return defaultCount;
+    }
+    try {
+      return Math.max(Integer.parseInt(countParam.strip()), -1);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Parses a bound of a range parameter, which may be a number or an amount of money.
+   *
+   * @param boundParam - the bound parameter, which may be null
+   * @param defaultBound - the bound to use if there's no parameter
+   * @return the bound, or NaN if the parameter isn't a number
+   */
+  static double parseBound(String boundParam, double defaultBound) {
+    if (boundParam == null || boundParam.isBlank()) {
+      return defaultBound;
+    }
+    return NumericColumn.parse(boundParam.strip());
+  }
+
   /** Response object to send, containing a success method and the csv file loaded. */
   public record SearchCSVSuccessResponse(String response_type, Map<String, Object> responseMap) {
     public SearchCSVSuccessResponse(Map<String, Object> responseMap) {
@@ -6,6 +6,7 @@ import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
 import edu.brown.cs.student.main.server.csvfuncs.ViewCSV;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import spark.Request;
 import spark.Response;
@@ -38,8 +39,11 @@ public class ViewCSVHandler implements Route {
   @Override
   public Object handle(Request request, Response response) {
     // example request: http://localhost:3232/viewcsv?filename=students
+    // add &columns=Name,2 to only send back some of the columns (and &ifHeader=true to find
+    // columns by their names in the header row)
     // Get the filepath from the params
     String paramFileName = request.queryParams("filename");
+    boolean ifHeader = Boolean.parseBoolean(request.queryParams("ifHeader"));
     // Create a hashmap to store the results of the request
     Map<String, Object> responseMap = new HashMap<>();
 
@@ -54,7 +58,8 @@ public class ViewCSVHandler implements Route {
     // Converts CSV contents to List<List<String>
     try {
       // Try viewing the csv file (catch clauses for errors)
-      String jsonData = new ViewCSV().viewCSV(filePath);
+      List<String> columns = SearchCSVHandler.parseColumns(request.queryParams("columns"));
+      String jsonData = new ViewCSV().viewCSV(filePath, ifHeader, columns);
 
       // If we succeeded, add the data to the map and return a success method
       responseMap.put("data", jsonData);
@@ -63,8 +68,16 @@ public class ViewCSVHandler implements Route {
 
     } catch (IOException e) {
       e.printStackTrace();
+      if (e.getMessage() != null && e.getMessage().contains("not found in dataset")) {
+        response.status(404);
+        return new ViewCSVFailureResponse("error_column_name_not_found").serialize();
+      }
       response.status(500);
       return new ViewCSVFailureResponse("error_parsing_file").serialize();
+    } catch (IllegalArgumentException e) {
+      e.printStackTrace();
+      response.status(400);
+      return new ViewCSVFailureResponse("error_column_index_out_of_range").serialize();
     } catch (FactoryFailureException e) {
       e.printStackTrace();
       response.status(400);
@@ -0,0 +1,239 @@
+package edu.brown.cs.student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.brown.cs.student.main.parser.ChunkedFileParser;
+import edu.brown.cs.student.main.parser.CsvFormat;
+import edu.brown.cs.student.main.parser.Parser;
+import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.classes.Star;
+import edu.brown.cs.student.main.parser.creators.CreatorFromRow;
+import edu.brown.cs.student.main.parser.creators.StarCreator;
+import edu.brown.cs.student.main.parser.creators.TrivialCreator;
+import edu.brown.cs.student.main.parser.table.ColumnEncoding;
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the ChunkedFileParser class */
+public class ChunkedFileParserTest {
+  /** Pool with a few threads so chunks really are parsed in parallel */
+  private static ForkJoinPool pool;
+
+  TrivialCreator trivialCreator = new TrivialCreator();
+
+  @BeforeAll
+  public static void setUp() {
+    pool = new ForkJoinPool(4);
+  }
+
+  @AfterAll
+  public static void tearDown() {
+    pool.shutdown();
+  }
+
+  /**
+   * Helper which writes the given text to a temporary csv file
+   *
+   * @param text the file's contents
+   * @return the path of the file
+   */
+  private static Path tempCsv(String text) throws IOException {
+    Path file = Files.createTempFile("chunked", ".csv");
+    file.toFile().deleteOnExit();
+    Files.writeString(file, text);
+    return file;
+  }
+
+  // tiny chunks give the same rows, in the same order, as the regular parser
+  @Test
+  public void testMatchesParser() throws IOException, FactoryFailureException {
+    for (CsvFormat format : CsvFormat.values()) {
+      Parser<List<String>> parser =
+          new Parser<>(
+              new FileReader("data/csv/census/income_by_race.csv"),
+              trivialCreator,
+              true,
+              true,
+              format);
+      parser.parse();
+
+      for (int chunkSize : new int[] {1, 7, 64, 1000, 1 << 20}) {
+        ChunkedFileParser<List<String>> chunkedParser =
+            new ChunkedFileParser<>(
+                Path.of("data/csv/census/income_by_race.csv"),
+                trivialCreator,
+                true,
+                true,
+                format,
+                pool,
+                chunkSize);
+        chunkedParser.parse();
+        assertEquals(parser.getParsedContent(), chunkedParser.getParsedContent());
+      }
+    }
+  }
+
+  // chunks never split a quoted field, even one with line breaks in it
+  @Test
+  public void testQuotedLineBreaks() throws IOException, FactoryFailureException {
+    String text = "id,note\n1,\"a\nb,\"\"c\"\"\n\"\n2,\"\n\n\n\"\n3,é plain\n4,\"x,\ny\"";
+    Path file = tempCsv(text);
+    Parser<List<String>> parser =
+        new Parser<>(new StringReader(text), trivialCreator, true, true, CsvFormat.RFC4180);
+    parser.parse();
+
+    for (int chunkSize = 1; chunkSize <= text.length() + 1; chunkSize++) {
+      ChunkedFileParser<List<String>> chunkedParser =
+          new ChunkedFileParser<>(
+              file, trivialCreator, true, true, CsvFormat.RFC4180, pool, chunkSize);
+      chunkedParser.parse();
+      assertEquals(parser.getParsedContent(), chunkedParser.getParsedContent());
+    }
+    assertEquals(4, parser.getParsedContent().size());
+    assertEquals(List.of("1", "a\nb,\"c\"\n"), parser.getParsedContent().get(0));
+    assertEquals(List.of("3", "é plain"), parser.getParsedContent().get(2));
+  }
+
+  // a stray quote in an unquoted field is kept as it is, even when it throws off the quote count
+  // used to pick where the chunks after it start
+  @Test
+  public void testStrayQuote() throws IOException, FactoryFailureException {
+    StringBuilder text = new StringBuilder("id,note\n1,5\" pipe\n");
+    for (int row = 2; row < 12; row++) {
+      text.append(row).append(",\"line\n").append(row).append("\"\n");
+    }
+    Path file = tempCsv(text.toString());
+    for (CsvFormat format : List.of(CsvFormat.RFC4180, CsvFormat.RFC4180_VECTOR)) {
+      Parser<List<String>> parser =
+          new Parser<>(new StringReader(text.toString()), trivialCreator, true, true, format);
+      parser.parse();
+
+      for (int chunkSize = 1; chunkSize <= text.length() + 1; chunkSize++) {
+        ChunkedFileParser<List<String>> chunkedParser =
+            new ChunkedFileParser<>(file, trivialCreator, true, true, format, pool, chunkSize);
+        chunkedParser.parse();
+        assertEquals(parser.getParsedContent(), chunkedParser.getParsedContent());
+      }
+      assertEquals(11, parser.getParsedContent().size());
+      assertEquals(List.of("1", "5\" pipe"), parser.getParsedContent().get(0));
+    }
+  }
+
+  // each chunk fills its own columns, which are joined into the same table Parser would build,
+  // even when a column gives up on its dictionary in some chunks but not others
+  @Test
+  public void testParseToTable() throws IOException, FactoryFailureException {
+    StringBuilder text = new StringBuilder("id,state,note\n");
+    for (int row = 0; row < 3000; row++) {
+      String note = row < 1500 ? "same" : "\"note\n" + row + "\"";
+      text.append(row).append(",RI").append(row % 3).append(',').append(note).append('\n');
+    }
+    Path file = tempCsv(text.toString());
+    for (ColumnEncoding encoding : ColumnEncoding.values()) {
+      for (int[] projection : List.of(new int[] {0, 1, 2}, new int[] {2})) {
+        Parser<List<String>> parser =
+            new Parser<>(
+                new StringReader(text.toString()), trivialCreator, true, true, CsvFormat.RFC4180);
+        parser.setProjection(projection);
+        ColumnarTable expected = parser.parseToTable(encoding);
+
+        for (int chunkSize : List.of(64, 4096, text.length() + 1)) {
+          ChunkedFileParser<List<String>> chunkedParser =
+              new ChunkedFileParser<>(
+                  file, trivialCreator, true, true, CsvFormat.RFC4180, pool, chunkSize);
+          chunkedParser.setProjection(projection);
+          ColumnarTable table = chunkedParser.parseToTable(encoding);
+          assertEquals(expected.getHeader(), table.getHeader());
+          assertEquals(expected.getRowCount(), table.getRowCount());
+          assertEquals(expected.getColumnCount(), table.getColumnCount());
+          for (int row = 0; row < table.getRowCount(); row++) {
+            assertEquals(expected.getRow(row), table.getRow(row));
+          }
+        }
+        assertEquals(3000, expected.getRowCount());
+      }
+    }
+  }
+
+  // creators run on the chunks, and the first bad row in the file is the one reported
+  @Test
+  public void testErrorsInFileOrder() throws IOException, FactoryFailureException {
+    Path stars = tempCsv("0,Sol,0,0,0\n1,Andreas,282.43485,0.00449,5.36884\n");
+    ChunkedFileParser<Star> starParser =
+        new ChunkedFileParser<>(stars, new StarCreator(), false, true, CsvFormat.REGEX, pool, 4);
+    starParser.parse();
+    assertEquals(2, starParser.getParsedContent().size());
+    assertEquals("Andreas", starParser.getParsedContent().get(1).getProperName());
+
+    // each chunk on its own is consistent, but the second has a different number of columns
+    Path malformed = tempCsv("a,b\nc,d\ne,f,g\nh,i,j\nk,l\n");
+    ChunkedFileParser<List<String>> malformedParser =
+        new ChunkedFileParser<>(malformed, trivialCreator, false, true, CsvFormat.REGEX, pool, 8);
+    FactoryFailureException exception =
+        assertThrows(FactoryFailureException.class, malformedParser::parse);
+    assertTrue(exception.getMessage().contains("e,f,g"));
+
+    // should not error when setNumColumns is false
+    malformedParser =
+        new ChunkedFileParser<>(malformed, trivialCreator, false, false, CsvFormat.REGEX, pool, 8);
+    malformedParser.parse();
+    assertEquals(5, malformedParser.getParsedContent().size());
+  }
+
+  // a bad row mid-file is reported from its own chunk, without parsing the rest of the file again
+  @Test
+  public void testBadRowNotParsedAgain() throws IOException {
+    StringBuilder text = new StringBuilder();
+    for (int row = 0; row < 100; row++) {
+      text.append(row).append(row == 30 ? ",\"bad\",extra\n" : ",\"good\"\n");
+    }
+    Path file = tempCsv(text.toString());
+    Set<String> created = ConcurrentHashMap.newKeySet();
+    List<String> createdTwice = new CopyOnWriteArrayList<>();
+    CreatorFromRow<List<String>> counting =
+        row -> {
+          if (!created.add(row.get(0))) {
+            createdTwice.add(row.get(0));
+          }
+          return row;
+        };
+    ChunkedFileParser<List<String>> chunkedParser =
+        new ChunkedFileParser<>(file, counting, false, true, CsvFormat.RFC4180, pool, 64);
+    FactoryFailureException exception =
+        assertThrows(FactoryFailureException.class, chunkedParser::parse);
+    assertTrue(exception.getMessage().contains("30,bad,extra"));
+    assertEquals(List.of(), createdTwice);
+    assertFalse(created.contains("30"));
+    assertTrue(created.contains("99"));
+  }
+
+  // empty files and missing files
+  @Test
+  public void testEmptyAndMissingFiles() throws IOException, FactoryFailureException {
+    ChunkedFileParser<List<String>> emptyParser =
+        new ChunkedFileParser<>(
+            Path.of("data/csv/malformed/empty.csv"), trivialCreator, false, true, CsvFormat.REGEX);
+    emptyParser.parse();
+    assertEquals(0, emptyParser.getParsedContent().size());
+
+    ChunkedFileParser<List<String>> missingParser =
+        new ChunkedFileParser<>(
+            Path.of("data/csv/census/housing.csv"), trivialCreator, false, true, CsvFormat.REGEX);
+    assertThrows(IOException.class, missingParser::parse);
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ChunkedFileParser<>(null, trivialCreator, false, true, CsvFormat.REGEX));
+  }
+}
@@ -0,0 +1,246 @@
+package edu.brown.cs.student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.brown.cs.student.main.parser.CsvFormat;
+import edu.brown.cs.student.main.parser.Parser;
+import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.creators.TrivialCreator;
+import edu.brown.cs.student.main.parser.table.ColumnEncoding;
+import edu.brown.cs.student.main.parser.table.ColumnType;
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import edu.brown.cs.student.main.parser.table.DictionaryColumn;
+import edu.brown.cs.student.main.parser.table.IntColumn;
+import edu.brown.cs.student.main.parser.table.StringColumn;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the ColumnarTable class and Parser.parseToTable */
+public class ColumnarTableTest {
+  TrivialCreator trivialCreator = new TrivialCreator();
+
+  // the table holds the same rows as the regular parser
+  @Test
+  public void testMatchesParser() throws IOException, FactoryFailureException {
+    Parser<List<String>> parser =
+        new Parser<>(
+            new FileReader("data/csv/census/income_by_race.csv"), trivialCreator, true, true);
+    parser.parse();
+    Parser<List<String>> tableParser =
+        new Parser<>(
+            new FileReader("data/csv/census/income_by_race.csv"), trivialCreator, true, true);
+    ColumnarTable table = tableParser.parseToTable();
+
+    List<List<String>> rows = parser.getParsedContent();
+    assertEquals(rows.size(), table.getRowCount());
+    assertEquals(tableParser.getHeader(), table.getHeader());
+    assertEquals(rows.get(0).size(), table.getColumnCount());
+    for (int row = 0; row < rows.size(); row++) {
+      assertEquals(rows.get(row), table.getRow(row));
+      for (int col = 0; col < table.getColumnCount(); col++) {
+        assertEquals(rows.get(row).get(col), table.get(row, col));
+        assertEquals(rows.get(row).get(col), table.getColumn(col).get(row));
+      }
+    }
+  }
+
+  // rows of different widths, and values with quotes, line breaks and other characters
+  @Test
+  public void testRaggedRows() throws IOException, FactoryFailureException {
+    String text = "a\n\"b,\nc\",d,é\n,\ne,f\n";
+    ColumnarTable table =
+        new Parser<>(new StringReader(text), trivialCreator, false, false, CsvFormat.RFC4180)
+            .parseToTable();
+    assertNull(table.getHeader());
+    assertEquals(4, table.getRowCount());
+    assertEquals(3, table.getColumnCount());
+    assertEquals(List.of("a"), table.getRow(0));
+    assertEquals(List.of("b,\nc", "d", "é"), table.getRow(1));
+    assertEquals(List.of("", ""), table.getRow(2));
+    assertEquals(2, table.getRowWidth(3));
+    assertEquals("f", table.get(3, 1));
+    assertNull(table.get(0, 2));
+    assertThrows(IndexOutOfBoundsException.class, () -> table.get(4, 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> table.get(0, 3));
+    assertThrows(UnsupportedOperationException.class, () -> table.getRow(1).set(0, "x"));
+  }
+
+  // comparisons ignore case the same way String.equalsIgnoreCase does
+  @Test
+  public void testEqualsIgnoreCase() {
+    ColumnarTable table =
+        ColumnarTable.fromRows(List.of(List.of("Sol", "ÉTOILE"), List.of("")), List.of("a", "b"));
+    assertEquals(List.of("a", "b"), table.getHeader());
+    assertTrue(table.equalsIgnoreCase(0, 0, "sOL"));
+    assertTrue(table.equalsIgnoreCase(0, 1, "étoile"));
+    assertFalse(table.equalsIgnoreCase(0, 0, "So"));
+    assertFalse(table.equalsIgnoreCase(0, 0, "Sol "));
+    assertTrue(table.equalsIgnoreCase(1, 0, ""));
+    // the second row has no value in the second column
+    assertFalse(table.equalsIgnoreCase(1, 1, ""));
+    assertTrue(table.getColumn(1).equalsIgnoreCase(0, "Étoile"));
+  }
+
+  // errors while parsing are the same as for parse()
+  @Test
+  public void testErrors() throws IOException, FactoryFailureException {
+    Parser<List<String>> malformedParser =
+        new Parser<>(
+            new FileReader("data/csv/malformed/malformed_signs.csv"), trivialCreator, true, true);
+    assertThrows(FactoryFailureException.class, malformedParser::parseToTable);
+
+    Parser<List<String>> emptyParser =
+        new Parser<>(new FileReader("data/csv/malformed/empty.csv"), trivialCreator, false, true);
+    ColumnarTable empty = emptyParser.parseToTable();
+    assertEquals(0, empty.getRowCount());
+    assertEquals(0, empty.getColumnCount());
+    assertThrows(IllegalStateException.class, emptyParser::parseToTable);
+  }
+
+  // every encoding holds the same values, and AUTO only keeps dictionaries that repeat values
+  @Test
+  public void testEncodings() throws IOException, FactoryFailureException {
+    Parser<List<String>> parser =
+        new Parser<>(
+            new FileReader("data/csv/census/income_by_race.csv"), trivialCreator, true, true);
+    ColumnarTable plain = parser.parseToTable();
+    for (ColumnEncoding encoding : ColumnEncoding.values()) {
+      ColumnarTable table =
+          new Parser<>(
+                  new FileReader("data/csv/census/income_by_race.csv"), trivialCreator, true, true)
+              .parseToTable(encoding);
+      assertEquals(plain.getRowCount(), table.getRowCount());
+      for (int row = 0; row < plain.getRowCount(); row++) {
+        assertEquals(plain.getRow(row), table.getRow(row));
+      }
+    }
+
+    ColumnarTable auto =
+        new Parser<>(
+                new FileReader("data/csv/census/income_by_race.csv"), trivialCreator, true, true)
+            .parseToTable(ColumnEncoding.AUTO);
+    // Race repeats a few values, Household Income by Race is nearly all distinct
+    assertTrue(auto.getColumn(1) instanceof DictionaryColumn);
+    assertTrue(((DictionaryColumn) auto.getColumn(1)).getDictionarySize() == 10);
+    assertTrue(auto.getColumn(4) instanceof StringColumn);
+    assertThrows(IllegalArgumentException.class, () -> new ColumnarTable.Builder(null));
+  }
+
+  // a dictionary column's match compares each distinct value once, and agrees with equalsIgnoreCase
+  @Test
+  public void testDictionaryMatch() {
+    List<List<String>> rows = new ArrayList<>();
+    for (String value : new String[] {"Black", "white", "BLACK", "Asian", "black", "Other"}) {
+      rows.add(List.of(value));
+    }
+    ColumnarTable table = ColumnarTable.fromRows(rows, null, ColumnEncoding.DICTIONARY);
+    assertTrue(table.getColumn(0) instanceof DictionaryColumn);
+    DictionaryColumn column = (DictionaryColumn) table.getColumn(0);
+    assertEquals(6, column.getDictionarySize());
+    for (String value : new String[] {"black", "White", "asian", "none", ""}) {
+      IntPredicate match = column.matchIgnoreCase(value);
+      for (int row = 0; row < rows.size(); row++) {
+        assertEquals(rows.get(row).get(0).equalsIgnoreCase(value), match.test(row));
+        assertEquals(
+            rows.get(row).get(0).equalsIgnoreCase(value), column.equalsIgnoreCase(row, value));
+      }
+      assertThrows(IndexOutOfBoundsException.class, () -> match.test(rows.size()));
+    }
+    // rows with the same value share one String
+    ColumnarTable repeated =
+        ColumnarTable.fromRows(
+            List.of(List.of(new String("RI")), List.of(new String("RI"))),
+            null,
+            ColumnEncoding.DICTIONARY);
+    assertSame(repeated.get(0, 0), repeated.get(1, 0));
+  }
+
+  // numeric columns are stored as numbers, and still give back exactly the text they were built
+  // from
+  @Test
+  public void testInferTypes() throws IOException, FactoryFailureException {
+    String[] files = {
+      "data/csv/census/income_by_race.csv",
+      "data/csv/income/ri_town_and_income.csv",
+      "data/csv/census/dol_ri_earnings_disparity.csv",
+      "data/csv/stars/ten-star.csv"
+    };
+    for (String file : files) {
+      ColumnarTable plain =
+          new Parser<>(new FileReader(file), trivialCreator, true, true).parseToTable();
+      ColumnarTable typed =
+          new Parser<>(new FileReader(file), trivialCreator, true, true)
+              .parseToTable(ColumnEncoding.AUTO, true);
+      for (int row = 0; row < plain.getRowCount(); row++) {
+        assertEquals(plain.getRow(row), typed.getRow(row));
+      }
+    }
+
+    ColumnarTable income =
+        new Parser<>(
+                new FileReader("data/csv/census/income_by_race.csv"), trivialCreator, true, true)
+            .parseToTable(ColumnEncoding.PLAIN, true);
+    assertEquals(ColumnType.INT, income.getColumnType(0));
+    assertEquals(ColumnType.STRING, income.getColumnType(1));
+    assertEquals(ColumnType.INT, income.getColumnType(4));
+    assertEquals(ColumnType.STRING, income.getColumnType(6));
+    assertEquals(85413, ((IntColumn) income.getColumn(4)).getInt(0));
+    assertTrue(income.getColumn(4).matchIgnoreCase("85413").test(0));
+    assertFalse(income.getColumn(4).matchIgnoreCase("085413").test(0));
+    assertThrows(IllegalArgumentException.class, () -> income.getNumericColumn(1));
+
+    // the regex format keeps the quotes around "74,489.00"
+    ColumnarTable towns =
+        new Parser<>(
+                new FileReader("data/csv/income/ri_town_and_income.csv"),
+                trivialCreator,
+                true,
+                true)
+            .parseToTable(ColumnEncoding.PLAIN, true);
+    assertEquals(ColumnType.CURRENCY, towns.getColumnType(1));
+    assertEquals(74489.0, towns.getNumericColumn(1).getDouble(0));
+    assertEquals("\"74,489.00\"", towns.get(0, 1));
+
+    ColumnarTable earnings =
+        new Parser<>(
+                new FileReader("data/csv/census/dol_ri_earnings_disparity.csv"),
+                trivialCreator,
+                true,
+                true)
+            .parseToTable(ColumnEncoding.PLAIN, true);
+    assertEquals(ColumnType.CURRENCY, earnings.getColumnType(2));
+    assertEquals(1058.47, earnings.getNumericColumn(2).getDouble(0));
+    assertEquals(ColumnType.DOUBLE, earnings.getColumnType(3));
+    assertEquals(ColumnType.STRING, earnings.getColumnType(5));
+
+    // leading zeros and empty values keep the text, but are still numbers
+    ColumnarTable mixed =
+        buildTyped(List.of(List.of("007", "1", "3000000000"), List.of("", "-2", "-1")));
+    assertEquals(ColumnType.DOUBLE, mixed.getColumnType(0));
+    assertEquals("007", mixed.get(0, 0));
+    assertTrue(Double.isNaN(mixed.getNumericColumn(0).getDouble(1)));
+    assertEquals(ColumnType.INT, mixed.getColumnType(1));
+    assertEquals(ColumnType.LONG, mixed.getColumnType(2));
+    assertEquals(3000000000.0, mixed.getNumericColumn(2).getDouble(0));
+  }
+
+  /**
+   * Helper which builds a table with inferred column types
+   *
+   * @param rows the rows of the table
+   * @return the table
+   */
+  private static ColumnarTable buildTyped(List<List<String>> rows) {
+    ColumnarTable.Builder builder = new ColumnarTable.Builder();
+    builder.setInferTypes(true);
+    for (List<String> row : rows) {
+      builder.addRow(row);
+    }
+    return builder.build();
+  }
+}
@@ -0,0 +1,106 @@
+package edu.brown.cs.student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.brown.cs.student.main.parser.BackgroundInputStream;
+import edu.brown.cs.student.main.parser.CsvFormat;
+import edu.brown.cs.student.main.parser.CsvInput;
+import edu.brown.cs.student.main.parser.CsvTableCache;
+import edu.brown.cs.student.main.parser.Parser;
+import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.creators.TrivialCreator;
+import edu.brown.cs.student.main.parser.table.ColumnEncoding;
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the CsvInput and BackgroundInputStream classes */
+public class CsvInputTest {
+  TrivialCreator trivialCreator = new TrivialCreator();
+
+  /**
+   * Helper which gzips a file into a temporary .csv.gz file
+   *
+   * @param file the file to gzip
+   * @return the path of the gzipped file
+   */
+  private static Path gzip(Path file) throws IOException {
+    Path gzipped = Files.createTempFile("compressed", ".csv.gz");
+    gzipped.toFile().deleteOnExit();
+    try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzipped))) {
+      Files.copy(file, out);
+    }
+    return gzipped;
+  }
+
+  // a gzipped file parses to the same rows as the plain one
+  @Test
+  public void testGzippedMatchesPlain() throws IOException, FactoryFailureException {
+    Path plain = Path.of("data/csv/census/dol_ri_earnings_disparity.csv");
+    Path gzipped = gzip(plain);
+    assertTrue(CsvInput.isGzipped(gzipped));
+    assertFalse(CsvInput.isGzipped(plain));
+
+    Parser<List<String>> plainParser =
+        new Parser<>(CsvInput.openReader(plain), trivialCreator, true, true);
+    plainParser.parse();
+    Parser<List<String>> gzippedParser =
+        new Parser<>(CsvInput.openReader(gzipped), trivialCreator, true, true);
+    gzippedParser.parse();
+    assertEquals(plainParser.getParsedContent(), gzippedParser.getParsedContent());
+    assertEquals(plainParser.getHeader(), gzippedParser.getHeader());
+
+    // the cache reads gzipped files too
+    Path directory = Files.createTempDirectory("snapshots");
+    directory.toFile().deleteOnExit();
+    ColumnarTable table =
+        new CsvTableCache(directory)
+            .load(gzipped, true, true, CsvFormat.RFC4180, ColumnEncoding.AUTO, false);
+    assertEquals(plainParser.getParsedContent().size(), table.getRowCount());
+  }
+
+  // bytes read in the background come out in order, across many chunks
+  @Test
+  public void testBackgroundStream() throws IOException {
+    byte[] bytes = new byte[1_000_003];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) (i * 31);
+    }
+    try (InputStream in = new BackgroundInputStream(new ByteArrayInputStream(bytes), "test")) {
+      assertEquals(bytes[0] & 0xFF, in.read());
+      byte[] rest = in.readAllBytes();
+      assertArrayEquals(Arrays.copyOfRange(bytes, 1, bytes.length), rest);
+      assertEquals(-1, in.read());
+    }
+
+    // closing before the end stops the background thread
+    InputStream in = new BackgroundInputStream(new ByteArrayInputStream(bytes), "test");
+    in.read(new byte[10]);
+    in.close();
+  }
+
+  // a cut-off gzip file fails once the reader reaches the missing part
+  @Test
+  public void testTruncatedGzip() throws IOException {
+    Path gzipped = gzip(Path.of("data/csv/census/dol_ri_earnings_disparity.csv"));
+    byte[] bytes = Files.readAllBytes(gzipped);
+    Files.write(gzipped, Arrays.copyOf(bytes, bytes.length / 2));
+
+    Parser<List<String>> parser =
+        new Parser<>(CsvInput.openReader(gzipped), trivialCreator, true, false);
+    assertThrows(IOException.class, parser::parse);
+
+    Path notGzip = Files.createTempFile("plain", ".csv.gz");
+    notGzip.toFile().deleteOnExit();
+    Files.writeString(notGzip, "a,b\n");
+    assertThrows(IOException.class, () -> CsvInput.openReader(notGzip));
+  }
+}
@@ -0,0 +1,64 @@
+package edu.brown.cs.student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.brown.cs.student.main.parser.table.Column;
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import edu.brown.cs.student.main.searcher.HashIndex;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the HashIndex class */
+public class HashIndexTest {
+  /**
+   * Helper which makes rows of 40 towns, each in several rows, with the number of each row
+   *
+   * @return the rows
+   */
+  private static List<List<String>> towns() {
+    List<List<String>> rows = new ArrayList<>();
+    for (int row = 0; row < 100; row++) {
+      rows.add(List.of("town " + (row % 40), Integer.toString(row)));
+    }
+    return rows;
+  }
+
+  /** Test that the index finds rows ignoring case */
+  @Test
+  public void testFind() {
+    Column column = IndexFixtures.builder(towns()).snapshot().getColumn(0);
+    HashIndex index = new HashIndex(column);
+    assertEquals(40, index.getKeyCount());
+    assertEquals(100, index.size());
+    assertArrayEquals(new int[] {3, 43, 83}, index.find(column, "TOWN 3"));
+    assertEquals(0, index.find(column, "town 40").length);
+    assertThrows(IllegalArgumentException.class, () -> index.find(null, "town 3"));
+  }
+
+  /**
+   * Test that lookups with older and newer copies of the column, in any order, each find just that
+   * copy's rows, as an index built from the copy would
+   */
+  @Test
+  public void testOlderAndNewerCopies() {
+    ColumnarTable.Builder builder = IndexFixtures.builder(towns());
+    Column first = builder.snapshot().getColumn(0);
+    HashIndex index = new HashIndex(first);
+    Column second = IndexFixtures.append(builder, List.of(List.of("Town 3", "100"))).getColumn(0);
+    Column third =
+        IndexFixtures.append(builder, List.of(List.of("town 40", "101"), List.of("TOWN 3", "102")))
+            .getColumn(0);
+
+    for (Column copy : List.of(second, first, third, second, first)) {
+      HashIndex rebuilt = new HashIndex(copy);
+      for (String value : List.of("town 3", "town 40", "town 39")) {
+        assertArrayEquals(rebuilt.find(copy, value), index.find(copy, value));
+      }
+    }
+    assertArrayEquals(new int[] {3, 43, 83, 100, 102}, index.find(third, "town 3"));
+    assertArrayEquals(new int[] {3, 43, 83, 100}, index.find(second, "town 3"));
+    assertEquals(0, index.find(second, "town 40").length);
+    assertEquals(103, index.size());
+  }
+}
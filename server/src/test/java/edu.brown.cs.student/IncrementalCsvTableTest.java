@@ -0,0 +1,165 @@
+package edu.brown.cs.student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.brown.cs.student.main.parser.CsvFormat;
+import edu.brown.cs.student.main.parser.IncrementalCsvTable;
+import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.table.ColumnEncoding;
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the IncrementalCsvTable class */
+public class IncrementalCsvTableTest {
+  /** The csv file being appended to */
+  private Path file;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    file = Files.createTempFile("incremental", ".csv");
+    file.toFile().deleteOnExit();
+  }
+
+  /**
+   * Helper which appends the given text to the csv file
+   *
+   * @param text the text to append
+   */
+  private void append(String text) throws IOException {
+    Files.writeString(file, text, StandardOpenOption.APPEND);
+  }
+
+  // only appended rows are parsed, and listeners are told where they start
+  @Test
+  public void testAppendedRows() throws IOException, FactoryFailureException {
+    append("name,count\nred,1\n");
+    IncrementalCsvTable incremental =
+        new IncrementalCsvTable(file, true, true, CsvFormat.REGEX, ColumnEncoding.DICTIONARY);
+    List<Integer> firstNewRows = new ArrayList<>();
+    incremental.addListener((table, firstNewRow) -> firstNewRows.add(firstNewRow));
+
+    ColumnarTable first = incremental.refresh();
+    assertEquals(List.of("name", "count"), first.getHeader());
+    assertEquals(1, first.getRowCount());
+    assertEquals(Files.size(file), incremental.getOffset());
+
+    append("blue,2\nred,3\n");
+    ColumnarTable second = incremental.refresh();
+    assertEquals(3, second.getRowCount());
+    assertEquals(List.of("blue", "2"), second.getRow(1));
+    assertEquals(List.of("red", "3"), second.getRow(2));
+    assertEquals(List.of(0, 1), firstNewRows);
+
+    // tables from earlier refreshes don't see the new rows
+    assertEquals(1, first.getRowCount());
+    assertEquals(List.of("red", "1"), first.getRow(0));
+
+    // nothing new, so nothing to tell the listeners
+    assertSame(second, incremental.refresh());
+    assertEquals(List.of(0, 1), firstNewRows);
+  }
+
+  // a record that's still being written is left until its line break arrives
+  @Test
+  public void testPartialRecords() throws IOException, FactoryFailureException {
+    append("1,plain\n2,\"quoted\nstill");
+    IncrementalCsvTable incremental =
+        new IncrementalCsvTable(file, false, true, CsvFormat.RFC4180, ColumnEncoding.PLAIN);
+    assertEquals(1, incremental.refresh().getRowCount());
+    assertEquals(8, incremental.getOffset());
+
+    append(" going\"\n3,next\n");
+    ColumnarTable table = incremental.refresh();
+    assertEquals(3, table.getRowCount());
+    assertEquals(List.of("2", "quoted\nstill going"), table.getRow(1));
+    assertEquals(List.of("3", "next"), table.getRow(2));
+  }
+
+  // a last record without a line break is left pending until its line break arrives
+  @Test
+  public void testLastRecordWithoutLineBreak() throws IOException, FactoryFailureException {
+    append("a,b,c\nd,e,f\ng,h");
+    IncrementalCsvTable incremental =
+        new IncrementalCsvTable(file, false, true, CsvFormat.REGEX, ColumnEncoding.AUTO);
+    List<Integer> firstNewRows = new ArrayList<>();
+    incremental.addListener((table, firstNewRow) -> firstNewRows.add(firstNewRow));
+    // the half-written row has too few columns, but isn't parsed, so it isn't an error
+    assertEquals(2, incremental.refresh().getRowCount());
+    assertEquals(12, incremental.getOffset());
+
+    // nor is it served once it has enough columns, still without its line break
+    append(",i");
+    assertEquals(2, incremental.refresh().getRowCount());
+    assertEquals(12, incremental.getOffset());
+
+    // nor is a multi-byte character split by the writer
+    byte[] accent = "é".getBytes(StandardCharsets.UTF_8);
+    Files.write(file, new byte[] {accent[0]}, StandardOpenOption.APPEND);
+    assertEquals(2, incremental.refresh().getRowCount());
+    Files.write(file, new byte[] {accent[1]}, StandardOpenOption.APPEND);
+    append("\nj,k,l\n");
+
+    // once the line break arrives the row is added on its own, without parsing the file again
+    ColumnarTable table = incremental.refresh();
+    assertEquals(4, table.getRowCount());
+    assertEquals(List.of("g", "h", "ié"), table.getRow(2));
+    assertEquals(List.of("j", "k", "l"), table.getRow(3));
+    assertEquals(List.of(0, 2), firstNewRows);
+    assertEquals(Files.size(file), incremental.getOffset());
+  }
+
+  // a file that gets shorter was rewritten, so it's parsed again from the start
+  @Test
+  public void testTruncatedFile() throws IOException, FactoryFailureException {
+    append("1,2\n3,4\n");
+    IncrementalCsvTable incremental =
+        new IncrementalCsvTable(file, false, true, CsvFormat.REGEX, ColumnEncoding.PLAIN);
+    List<Integer> firstNewRows = new ArrayList<>();
+    incremental.addListener((table, firstNewRow) -> firstNewRows.add(firstNewRow));
+    assertEquals(2, incremental.refresh().getRowCount());
+
+    Files.writeString(file, "5,6\n");
+    ColumnarTable table = incremental.refresh();
+    assertEquals(1, table.getRowCount());
+    assertEquals(List.of("5", "6"), table.getRow(0));
+    assertEquals(List.of(0, 0), firstNewRows);
+
+    Files.writeString(file, "");
+    assertEquals(0, incremental.refresh().getRowCount());
+    assertEquals(List.of(0, 0, 0), firstNewRows);
+  }
+
+  // a bad appended row adds none of the new rows, and is tried again on the next refresh
+  @Test
+  public void testInconsistentColumns() throws IOException, FactoryFailureException {
+    append("a,b\n");
+    IncrementalCsvTable incremental =
+        new IncrementalCsvTable(file, false, true, CsvFormat.REGEX, ColumnEncoding.PLAIN);
+    incremental.refresh();
+    long offset = incremental.getOffset();
+
+    append("c,d\ne,f,g\n");
+    FactoryFailureException exception =
+        assertThrows(FactoryFailureException.class, incremental::refresh);
+    assertTrue(exception.getMessage().contains("e,f,g"));
+    assertEquals(1, incremental.getTable().getRowCount());
+    assertEquals(offset, incremental.getOffset());
+    assertThrows(FactoryFailureException.class, incremental::refresh);
+
+    // should not error when setNumColumns is false
+    IncrementalCsvTable lenient =
+        new IncrementalCsvTable(file, false, false, CsvFormat.REGEX, ColumnEncoding.PLAIN);
+    assertEquals(3, lenient.refresh().getRowCount());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new IncrementalCsvTable(null, false, true, CsvFormat.REGEX, ColumnEncoding.PLAIN));
+  }
+}
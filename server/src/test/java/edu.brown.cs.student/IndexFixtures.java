@@ -0,0 +1,54 @@
+package edu.brown.cs.student;
+
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the tables the index tests index. Rows are added to a builder in batches, and the snapshot
+ * taken after each batch is an older copy of the table that later copies grow from, the way a
+ * followed file's searchers each hold the copy of its table from their own refresh.
+ */
+final class IndexFixtures {
+  private IndexFixtures() {}
+
+  /**
+   * Helper which makes the rows of a table with a single column
+   *
+   * @param values the value of each row
+   * @return the rows
+   */
+  static List<List<String>> oneColumn(String... values) {
+    List<List<String>> rows = new ArrayList<>(values.length);
+    for (String value : values) {
+      rows.add(List.of(value));
+    }
+    return rows;
+  }
+
+  /**
+   * Helper which starts a table with the given rows
+   *
+   * @param rows the first rows of the table
+   * @return the builder, which more rows can be added to
+   */
+  static ColumnarTable.Builder builder(List<List<String>> rows) {
+    ColumnarTable.Builder builder = new ColumnarTable.Builder();
+    append(builder, rows);
+    return builder;
+  }
+
+  /**
+   * Helper which adds rows to a table, leaving the copies taken before as they were
+   *
+   * @param builder the builder of the table
+   * @param rows the rows to add
+   * @return the copy of the table with the rows added
+   */
+  static ColumnarTable append(ColumnarTable.Builder builder, List<List<String>> rows) {
+    for (List<String> row : rows) {
+      builder.addRow(row);
+    }
+    return builder.snapshot();
+  }
+}
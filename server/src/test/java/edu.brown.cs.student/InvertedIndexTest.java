@@ -0,0 +1,52 @@
+package edu.brown.cs.student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import edu.brown.cs.student.main.searcher.InvertedIndex;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the InvertedIndex class */
+public class InvertedIndexTest {
+  /** Rows of a small table with values repeated across columns */
+  private static final List<List<String>> ROWS =
+      List.of(List.of("a", "A", "b"), List.of("c", "b", "a"));
+
+  /** Test that a value in several columns of a row lists the row once, ignoring case */
+  @Test
+  public void testFind() {
+    ColumnarTable table = IndexFixtures.builder(ROWS).snapshot();
+    InvertedIndex index = new InvertedIndex(table);
+    assertEquals(3, index.getKeyCount());
+    assertArrayEquals(new int[] {0, 1}, index.find(table, "a"));
+    assertArrayEquals(new int[] {1}, index.find(table, "C"));
+    assertEquals(0, index.find(table, "d").length);
+    assertThrows(IllegalArgumentException.class, () -> index.find(table, null));
+  }
+
+  /**
+   * Test that lookups with older and newer copies of the table, in any order, each find just that
+   * copy's rows, as an index built from the copy would
+   */
+  @Test
+  public void testOlderAndNewerCopies() {
+    ColumnarTable.Builder builder = IndexFixtures.builder(ROWS);
+    ColumnarTable first = builder.snapshot();
+    InvertedIndex index = new InvertedIndex(first);
+    ColumnarTable second = IndexFixtures.append(builder, List.of(List.of("d", "c", "c")));
+    ColumnarTable third =
+        IndexFixtures.append(builder, List.of(List.of("e", "D", "a"), List.of("b", "e", "f")));
+
+    for (ColumnarTable copy : List.of(second, first, third, second, first)) {
+      InvertedIndex rebuilt = new InvertedIndex(copy);
+      for (String value : List.of("a", "c", "d", "e", "f")) {
+        assertArrayEquals(rebuilt.find(copy, value), index.find(copy, value));
+      }
+    }
+    assertArrayEquals(new int[] {1, 2}, index.find(third, "c"));
+    assertArrayEquals(new int[] {2, 3}, index.find(third, "D"));
+    assertArrayEquals(new int[] {2}, index.find(second, "D"));
+    assertEquals(0, index.find(first, "d").length);
+  }
+}
@@ -0,0 +1,121 @@
+package edu.brown.cs.student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.brown.cs.student.main.parser.Parser;
+import edu.brown.cs.student.main.parser.ParserPublisher;
+import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.creators.TrivialCreator;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the ParserPublisher class */
+public class ParserPublisherTest {
+  TrivialCreator trivialCreator = new TrivialCreator();
+
+  /** Subscriber which records everything it's sent, and only asks for batches when told to. */
+  private static class RecordingSubscriber implements Flow.Subscriber<List<List<String>>> {
+    Flow.Subscription subscription;
+    List<List<List<String>>> batches = new ArrayList<>();
+    Throwable error;
+    boolean completed;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(List<List<String>> batch) {
+      batches.add(batch);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+  }
+
+  /**
+   * Helper which builds a publisher over the given text, sending batches on the calling thread
+   *
+   * @param text the csv text
+   * @param batchSize the most rows in each batch
+   * @return the publisher
+   */
+  private ParserPublisher<List<String>> publisher(String text, int batchSize) {
+    Parser<List<String>> parser = new Parser<>(new StringReader(text), trivialCreator, false, true);
+    return new ParserPublisher<>(parser, batchSize, Runnable::run);
+  }
+
+  // batches are only read as they're asked for, and the end is sent without asking for more
+  @Test
+  public void testDemand() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher("a\nb\nc\nd\ne\n", 2).subscribe(subscriber);
+    assertTrue(subscriber.batches.isEmpty());
+
+    subscriber.subscription.request(1);
+    assertEquals(List.of(List.of(List.of("a"), List.of("b"))), subscriber.batches);
+    assertFalse(subscriber.completed);
+
+    subscriber.subscription.request(5);
+    assertEquals(3, subscriber.batches.size());
+    assertEquals(List.of(List.of("e")), subscriber.batches.get(2));
+    assertTrue(subscriber.completed);
+    assertNull(subscriber.error);
+
+    // rows that fill the last batch exactly still complete
+    subscriber = new RecordingSubscriber();
+    publisher("a\nb\n", 2).subscribe(subscriber);
+    subscriber.subscription.request(1);
+    assertEquals(1, subscriber.batches.size());
+    assertTrue(subscriber.completed);
+  }
+
+  // bad rows end the subscription with the parser's error, after the rows before them
+  @Test
+  public void testErrors() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher("a,b\nc,d\ne,f,g\n", 10).subscribe(subscriber);
+    subscriber.subscription.request(Long.MAX_VALUE);
+    assertEquals(List.of(List.of(List.of("a", "b"), List.of("c", "d"))), subscriber.batches);
+    assertTrue(subscriber.error instanceof FactoryFailureException);
+    assertFalse(subscriber.completed);
+
+    // asking for no batches is an error
+    subscriber = new RecordingSubscriber();
+    publisher("a\n", 10).subscribe(subscriber);
+    subscriber.subscription.request(0);
+    assertTrue(subscriber.error instanceof IllegalArgumentException);
+
+    // a parser can only be read by one subscriber
+    ParserPublisher<List<String>> publisher = publisher("a\n", 10);
+    publisher.subscribe(new RecordingSubscriber());
+    subscriber = new RecordingSubscriber();
+    publisher.subscribe(subscriber);
+    assertTrue(subscriber.error instanceof IllegalStateException);
+    assertThrows(IllegalArgumentException.class, () -> publisher("a\n", 0));
+  }
+
+  // nothing more is sent once the subscription is cancelled
+  @Test
+  public void testCancel() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher("a\nb\nc\n", 1).subscribe(subscriber);
+    subscriber.subscription.request(1);
+    subscriber.subscription.cancel();
+    subscriber.subscription.request(5);
+    assertEquals(1, subscriber.batches.size());
+    assertFalse(subscriber.completed);
+    assertNull(subscriber.error);
+  }
+}
@@ -3,15 +3,36 @@ package edu.brown.cs.student;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import edu.brown.cs.student.main.parser.CsvFormat;
+import edu.brown.cs.student.main.parser.ParseErrorReport;
+import edu.brown.cs.student.main.parser.ParseMetrics;
 import edu.brown.cs.student.main.parser.Parser;
 import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
 import edu.brown.cs.student.main.parser.classes.Star;
 import edu.brown.cs.student.main.parser.classes.StudentRecord;
+import edu.brown.cs.student.main.parser.classes.UncheckedFactoryFailureException;
+import edu.brown.cs.student.main.parser.creators.BatchCreatorFromRow;
+import edu.brown.cs.student.main.parser.creators.RecordCreator;
 import edu.brown.cs.student.main.parser.creators.StarCreator;
 import edu.brown.cs.student.main.parser.creators.StudentRecordCreator;
 import edu.brown.cs.student.main.parser.creators.TrivialCreator;
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import edu.brown.cs.student.main.parser.tokenizers.Rfc4180Tokenizer;
+import edu.brown.cs.student.main.parser.tokenizers.RowBatch;
+import edu.brown.cs.student.main.parser.tokenizers.RowView;
+import edu.brown.cs.student.main.parser.tokenizers.Utf8Rfc4180Tokenizer;
 import java.io.*;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 
 /** Tests for the Parser class */
@@ -352,4 +373,582 @@ public class ParserTest {
       throw new RuntimeException(e);
     }
   }
+
+  // lenient parsing records bad rows with their lines, and keeps the good ones
+  @Test
+  public void testErrorReport() throws IOException, FactoryFailureException {
+    malformedParser =
+        new Parser<>(
+            new FileReader("data/csv/malformed/malformed_signs.csv"), trivialCreator, true, true);
+    ParseErrorReport report = new ParseErrorReport(2);
+    malformedParser.setErrorReport(report);
+    malformedParser.parse();
+
+    assertEquals(8, malformedParser.getParsedContent().size());
+    assertEquals(List.of("Pisces", "Danny"), malformedParser.getParsedContent().get(7));
+    assertEquals(4, report.getRejectedCount());
+    assertTrue(report.isTruncated());
+    ParseErrorReport.RejectedRow gemini = report.getRejectedRows().get(0);
+    assertEquals(4, gemini.lineNumber());
+    assertEquals(ParseErrorReport.Reason.INCONSISTENT_COLUMNS, gemini.reason());
+    assertEquals(List.of("Gemini", "Roberto", "Nick"), gemini.row());
+    assertEquals("line 4: expected 2 columns but found 3: Gemini,Roberto,Nick", gemini.describe());
+    assertEquals(7, report.getRejectedRows().get(1).lineNumber());
+
+    // rows the creator fails on are skipped too, including with row views
+    starParser =
+        new Parser<>(
+            new StringReader("0,Sol,0,0,0\n1,Andreas,x,0,0\n2,,1,2,3\n3,Bad,0,0,y"),
+            starCreator,
+            false,
+            true);
+    report = new ParseErrorReport(10);
+    starParser.setErrorReport(report);
+    starParser.parse();
+    assertEquals(2, starParser.getParsedContent().size());
+    assertEquals(2, report.getRejectedCount());
+    assertEquals(ParseErrorReport.Reason.CREATOR_FAILED, report.getRejectedRows().get(0).reason());
+    assertEquals(List.of("3", "Bad", "0", "0", "y"), report.getRejectedRows().get(1).row());
+    assertEquals(4, report.getRejectedRows().get(1).lineNumber());
+    assertThrows(IllegalStateException.class, () -> starParser.setErrorReport(null));
+  }
+
+  /** ========================= Tests with the RFC 4180 tokenizer ============================== */
+  // quoted fields keep their commas, lose their quotes, and unescape doubled quotes
+  @Test
+  public void testRfc4180Quotes() {
+    try {
+      stringParser =
+          new Parser<List<String>>(
+              new StringReader("7,\"Kent County, RI\",kent\n\"He said \"\"hi\"\"\",,\"\"\n"),
+              trivialCreator,
+              false,
+              false,
+              CsvFormat.RFC4180);
+      stringParser.parse();
+    } catch (IOException | IllegalArgumentException | FactoryFailureException e) {
+      throw new RuntimeException(e);
+    }
+
+    assertEquals(2, stringParser.getParsedContent().size());
+    assertEquals(List.of("7", "Kent County, RI", "kent"), stringParser.getParsedContent().get(0));
+    assertEquals(List.of("He said \"hi\"", "", ""), stringParser.getParsedContent().get(1));
+  }
+
+  // quoted fields can span lines, and all line endings are accepted
+  @Test
+  public void testRfc4180MultiLineFields() {
+    try {
+      stringParser =
+          new Parser<List<String>>(
+              new StringReader("id,note\r\n1,\"first\r\nsecond\"\r2,\"a\nb\nc\"\n3,\n\n4,end"),
+              trivialCreator,
+              true,
+              false,
+              CsvFormat.RFC4180);
+      stringParser.parse();
+    } catch (IOException | IllegalArgumentException | FactoryFailureException e) {
+      throw new RuntimeException(e);
+    }
+
+    assertEquals(List.of("1", "first\r\nsecond"), stringParser.getParsedContent().get(0));
+    assertEquals(List.of("2", "a\nb\nc"), stringParser.getParsedContent().get(1));
+    // unlike the regex split, trailing empty fields are kept
+    assertEquals(List.of("3", ""), stringParser.getParsedContent().get(2));
+    assertEquals(List.of(""), stringParser.getParsedContent().get(3));
+    assertEquals(List.of("4", "end"), stringParser.getParsedContent().get(4));
+    assertEquals(5, stringParser.getParsedContent().size());
+  }
+
+  // the RFC 4180 tokenizer agrees with the regex on files without quotes
+  @Test
+  public void testRfc4180MatchesRegexOnPlainFile() {
+    try {
+      studentRecordParser =
+          new Parser<StudentRecord>(
+              new FileReader("data/csv/students/students.csv"),
+              studentRecordCreator,
+              true,
+              true,
+              CsvFormat.RFC4180);
+      studentRecordParser.parse();
+      incomeByRaceParser =
+          new Parser<List<String>>(
+              new FileReader("data/csv/census/income_by_race.csv"),
+              trivialCreator,
+              false,
+              true,
+              CsvFormat.RFC4180);
+      incomeByRaceParser.parse();
+    } catch (IOException | IllegalArgumentException | FactoryFailureException e) {
+      throw new RuntimeException(e);
+    }
+
+    assertEquals(10, studentRecordParser.getParsedContent().size());
+    assertEquals("Hank Martin", studentRecordParser.getParsedContent().get(7).getName());
+    assertEquals(324, incomeByRaceParser.getParsedContent().size());
+    assertEquals("Kent County, RI", incomeByRaceParser.getParsedContent().get(143).get(6));
+  }
+
+  // an unterminated quote is reported rather than swallowing the rest of the file
+  @Test
+  public void testRfc4180UnterminatedQuote() {
+    stringParser =
+        new Parser<List<String>>(
+            new StringReader("a,b\nc,\"d\ne,f"), trivialCreator, false, false, CsvFormat.RFC4180);
+    assertThrows(IOException.class, () -> stringParser.parse());
+  }
+
+  // the vector backend splits rows the same way, whether or not the Vector API is available
+  @Test
+  public void testRfc4180VectorMatchesScalar() {
+    // fields longer than a vector, with special chars at every offset within one
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      String run = "x".repeat(i);
+      text.append(run).append(",\"").append(run).append("\"\"q,\n").append(i).append("\",");
+      text.append("é".repeat(i % 7)).append(i % 3 == 0 ? "\r\n" : "\n");
+    }
+    List<List<String>> expected;
+    List<List<String>> vectorized;
+    try {
+      stringParser =
+          new Parser<>(
+              new StringReader(text.toString()), trivialCreator, false, true, CsvFormat.RFC4180);
+      stringParser.parse();
+      expected = stringParser.getParsedContent();
+      stringParser =
+          new Parser<>(
+              new StringReader(text.toString()),
+              trivialCreator,
+              false,
+              true,
+              CsvFormat.RFC4180_VECTOR);
+      stringParser.parse();
+      vectorized = stringParser.getParsedContent();
+    } catch (IOException | IllegalArgumentException | FactoryFailureException e) {
+      throw new RuntimeException(e);
+    }
+
+    assertEquals(100, expected.size());
+    assertEquals(List.of("x".repeat(5), "x".repeat(5) + "\"q,\n5", "é".repeat(5)), expected.get(5));
+    assertEquals(expected, vectorized);
+  }
+
+  // the UTF-8 byte tokenizer gives the same rows as the char one, however its buffer splits them
+  @Test
+  public void testUtf8BytesMatchChars() throws IOException, FactoryFailureException {
+    String text = "id,note\r\n1,\"a\nb,\"\"c\"\"\"\n2,é €𝄞\r3,\"\"\n4,\"x\"y,\n";
+    stringParser =
+        new Parser<>(new StringReader(text), trivialCreator, true, false, CsvFormat.RFC4180);
+    stringParser.parse();
+    List<List<String>> expected = stringParser.getParsedContent();
+    assertEquals(List.of("2", "é €𝄞"), expected.get(1));
+
+    // with an unclosed quoted field after the rows
+    byte[] bytes = (text + "5,\"é\n").getBytes(StandardCharsets.UTF_8);
+    for (int bufferSize = 1; bufferSize <= bytes.length; bufferSize++) {
+      Utf8Rfc4180Tokenizer tokenizer =
+          new Utf8Rfc4180Tokenizer(
+              Channels.newChannel(new ByteArrayInputStream(bytes)), bufferSize);
+      tokenizer.nextRow(); // header
+      for (List<String> row : expected.subList(0, 4)) {
+        assertEquals(row, tokenizer.nextRow());
+      }
+      IOException exception = assertThrows(IOException.class, tokenizer::nextRow);
+      assertTrue(exception.getMessage().contains("line 7"));
+    }
+
+    // parsing a channel, with row views decoded straight from the bytes
+    Path file = Files.createTempFile("utf8", ".csv");
+    file.toFile().deleteOnExit();
+    Files.writeString(file, "1001,Sallé,Pysch\n1002,Bob,Sally\n");
+    Parser<StudentRecord> channelParser =
+        Parser.fromChannel(FileChannel.open(file), studentRecordCreator, false, true);
+    channelParser.parse();
+    assertEquals("Sallé", channelParser.getParsedContent().get(0).getName());
+    assertEquals(1002, channelParser.getParsedContent().get(1).getStudentId());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> Parser.fromChannel(null, trivialCreator, false, true));
+  }
+
+  /** ============================= Tests with streaming rows ================================== */
+  // the iterator creates rows lazily, and closes the reader once it reaches the end
+  @Test
+  public void testIterator() throws IOException {
+    StringReader reader = new StringReader("1001,Sally,Pysch\n1002,Sally's boy,Sally");
+    studentRecordParser = new Parser<StudentRecord>(reader, studentRecordCreator, false, true);
+    Iterator<StudentRecord> records = studentRecordParser.iterator();
+
+    assertTrue(records.hasNext());
+    assertTrue(records.hasNext()); // doesn't skip rows
+    assertEquals(1001, records.next().getStudentId());
+    assertEquals("Sally's boy", records.next().getName());
+    assertFalse(records.hasNext());
+    assertThrows(java.util.NoSuchElementException.class, records::next);
+
+    // the rows were never buffered, and the reader has been closed
+    assertEquals(0, studentRecordParser.getParsedContent().size());
+    assertThrows(IOException.class, reader::read);
+  }
+
+  // the stream gives the same rows as parse, skipping the header
+  @Test
+  public void testStream() {
+    try {
+      starParser =
+          new Parser<Star>(new FileReader("data/csv/stars/ten-star.csv"), starCreator, true, true);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    List<String> names;
+    try (Stream<Star> stars = starParser.stream()) {
+      names =
+          stars
+              .map(Star::getProperName)
+              .filter(name -> !name.isEmpty())
+              .collect(Collectors.toList());
+    }
+    assertEquals(
+        List.of(
+            "Sol",
+            "96 G. Psc",
+            "Proxima Centauri",
+            "Rigel Kentaurus B",
+            "Rigel Kentaurus A",
+            "Barnard's Star"),
+        names);
+  }
+
+  // creator errors are rethrown unchecked from the iterator, and the input can only be read once
+  @Test
+  public void testIteratorErrors() {
+    erroringStudentRecordParser =
+        new Parser<StudentRecord>(
+            new StringReader("1234,Johnny,Astrophysics\nthree,Jo,Math"),
+            studentRecordCreator,
+            false,
+            true);
+    Iterator<StudentRecord> records = erroringStudentRecordParser.iterator();
+    assertEquals("Johnny", records.next().getName());
+    UncheckedFactoryFailureException exception =
+        assertThrows(UncheckedFactoryFailureException.class, records::hasNext);
+    assertNotNull(exception.getCause());
+    assertFalse(records.hasNext());
+
+    assertThrows(IllegalStateException.class, () -> erroringStudentRecordParser.parse());
+    assertThrows(IllegalStateException.class, () -> erroringStudentRecordParser.stream());
+  }
+
+  /** ============================== Tests with row views ====================================== */
+  // creators that take row views build the same objects as from lists, in both formats
+  @Test
+  public void testRowViewCreators() throws IOException, FactoryFailureException {
+    for (CsvFormat format : CsvFormat.values()) {
+      starParser =
+          new Parser<>(
+              new FileReader("data/csv/stars/ten-star.csv"), starCreator, true, true, format);
+      starParser.parse();
+      List<Star> stars = starParser.getParsedContent();
+      assertEquals(10, stars.size());
+      List<String> lines =
+          new BufferedReader(new FileReader("data/csv/stars/ten-star.csv"))
+              .lines()
+              .skip(1)
+              .collect(Collectors.toList());
+      for (int i = 0; i < stars.size(); i++) {
+        // compare against the list-based create method
+        Star expected = starCreator.create(List.of(lines.get(i).split(",", -1)));
+        assertEquals(expected.getStarId(), stars.get(i).getStarId());
+        assertEquals(expected.getProperName(), stars.get(i).getProperName());
+        assertArrayEquals(expected.getCoordinates(), stars.get(i).getCoordinates());
+      }
+
+      studentRecordParser =
+          new Parser<>(
+              new StringReader("StudentID,Name,Major\n1001,Alice Johnson,Computer Science"),
+              studentRecordCreator,
+              true,
+              true,
+              format);
+      studentRecordParser.parse();
+      assertEquals(
+          List.of(new StudentRecord(1001, "Alice Johnson", "Computer Science")),
+          studentRecordParser.getParsedContent());
+    }
+
+    erroringStarParser =
+        new Parser<>(
+            new StringReader("0,Sol,0,0,zero"), starCreator, false, true, CsvFormat.RFC4180);
+    assertThrows(FactoryFailureException.class, () -> erroringStarParser.parse());
+    erroringStudentRecordParser =
+        new Parser<>(
+            new StringReader("1,Jo"), studentRecordCreator, false, true, CsvFormat.RFC4180);
+    assertThrows(FactoryFailureException.class, () -> erroringStudentRecordParser.parse());
+  }
+
+  // fields are slices of the view, and numbers are parsed the same as by Integer and Double
+  @Test
+  public void testRowViewFields() throws IOException {
+    String[] numbers = {
+      "0",
+      "-0",
+      "1",
+      "-282.43485",
+      "0.00449",
+      "5.36884",
+      "1.",
+      ".5",
+      "-.5",
+      "123456789012345",
+      "1234567890123456789",
+      "0.1",
+      "9007199254740993",
+      "1e5",
+      "-1.5E-3",
+      " 7",
+      "NaN",
+      "Infinity"
+    };
+    RowView row = new RowView();
+    Rfc4180Tokenizer tokenizer =
+        new Rfc4180Tokenizer(new StringReader(String.join(",", numbers) + "\n\"a\"\"b\",,c\n"));
+    assertTrue(tokenizer.nextRowView(row));
+    assertEquals(numbers.length, row.size());
+    for (int i = 0; i < numbers.length; i++) {
+      assertEquals(numbers[i], row.get(i).toString());
+      assertEquals(Double.parseDouble(numbers[i]), row.getDouble(i));
+    }
+    assertEquals(-282, (int) row.getDouble(3));
+    assertEquals(1, row.getInt(2));
+    assertThrows(NumberFormatException.class, () -> row.getInt(3));
+
+    // the view is reused for the next row
+    assertTrue(tokenizer.nextRowView(row));
+    assertEquals(List.of("a\"b", "", "c"), row.toList());
+    assertEquals(3, row.get(0).length());
+    assertEquals('"', row.get(0).charAt(1));
+    assertEquals("", row.getString(1));
+    assertThrows(NumberFormatException.class, () -> row.getDouble(1));
+    assertThrows(IndexOutOfBoundsException.class, () -> row.get(3));
+    assertFalse(tokenizer.nextRowView(row));
+  }
+
+  /** ============================= Tests with batch creators ================================== */
+  // batches of many rows build the same objects as creating one row at a time
+  @Test
+  public void testBatchCreators() throws IOException, FactoryFailureException {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 2500; i++) {
+      text.append(i).append(",Star ").append(i).append(',').append(i * 0.5).append(",-1.25,");
+      text.append(i % 7).append('\n');
+    }
+    starParser = new Parser<>(new StringReader(text.toString()), starCreator, false, true);
+    starParser.parse();
+    List<Star> stars = starParser.getParsedContent();
+    assertEquals(2500, stars.size());
+    assertEquals(2499, stars.get(2499).getStarId());
+    assertEquals("Star 1500", stars.get(1500).getProperName());
+    assertArrayEquals(new double[] {1024.5, -1.25, 5}, stars.get(2049).getCoordinates());
+
+    // any creator can be adapted to batches
+    RowBatch batch = new RowBatch();
+    RowView row = new RowView();
+    Rfc4180Tokenizer tokenizer = new Rfc4180Tokenizer(new StringReader("a,1.5\nb,c,2\n"));
+    while (tokenizer.nextRowView(row)) {
+      batch.add(row);
+    }
+    List<List<String>> rows = new ArrayList<>();
+    BatchCreatorFromRow.adapt(trivialCreator).createAll(batch, rows);
+    assertEquals(List.of(List.of("a", "1.5"), List.of("b", "c", "2")), rows);
+    assertEquals(1.5, batch.getDouble(0, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> batch.getString(0, 2));
+    assertSame(starCreator, BatchCreatorFromRow.adapt(starCreator));
+
+    // a bad row in a batch keeps the rows before it, and is skipped with an error report
+    erroringStarParser =
+        new Parser<>(
+            new StringReader("0,Sol,0,0,0\n1,Bad,x,0,0\n2,Lo,1,2,3\n"), starCreator, false, true);
+    assertThrows(FactoryFailureException.class, () -> erroringStarParser.parse());
+    assertEquals(1, erroringStarParser.getParsedContent().size());
+    starParser =
+        new Parser<>(
+            new StringReader("0,Sol,0,0,0\n1,Bad,x,0,0\n2,Lo,1,2,3\n"), starCreator, false, true);
+    ParseErrorReport report = new ParseErrorReport(10);
+    starParser.setErrorReport(report);
+    starParser.parse();
+    assertEquals(
+        List.of(0, 2),
+        starParser.getParsedContent().stream().map(Star::getStarId).collect(Collectors.toList()));
+    assertEquals(2, report.getRejectedRows().get(0).lineNumber());
+  }
+
+  /** ============================= Tests with record creators ================================= */
+  /** Kinds of listing, for testing enum columns. */
+  public enum ListingKind {
+    SALE,
+    RENT
+  }
+
+  /** Record with one component of each supported type, for testing the record creator. */
+  public record Listing(
+      String address,
+      int beds,
+      long price,
+      double area,
+      boolean sold,
+      BigDecimal tax,
+      ListingKind kind) {}
+
+  // record creators build the same records as the hand-written creator, from lists or views
+  @Test
+  public void testRecordCreator() throws IOException, FactoryFailureException {
+    for (CsvFormat format : CsvFormat.values()) {
+      studentRecordParser =
+          new Parser<>(
+              new FileReader("data/csv/students/students.csv"),
+              RecordCreator.fromHeader(StudentRecord.class, List.of("StudentID", "Name", "Major")),
+              true,
+              true,
+              format);
+      studentRecordParser.parse();
+      Parser<StudentRecord> expected =
+          new Parser<>(
+              new FileReader("data/csv/students/students.csv"), studentRecordCreator, true, true);
+      expected.parse();
+      assertEquals(expected.getParsedContent(), studentRecordParser.getParsedContent());
+    }
+
+    // columns can be mapped in any order, and other columns are ignored
+    RecordCreator<Listing> listingCreator = RecordCreator.of(Listing.class, 7, 1, 2, 3, 4, 5, 6);
+    Listing listing =
+        new Listing(
+            "1 Main St", 3, 450000L, 1250.5, false, new BigDecimal("3120.75"), ListingKind.SALE);
+    List<String> row =
+        List.of("x", "3", "450000", "1250.5", "false", "3120.75", "SALE", "1 Main St");
+    assertEquals(listing, listingCreator.create(row));
+    RowView view = new RowView();
+    Rfc4180Tokenizer tokenizer = new Rfc4180Tokenizer(new StringReader(String.join(",", row)));
+    assertTrue(tokenizer.nextRowView(view));
+    assertEquals(listing, listingCreator.create(view));
+
+    // fields that can't be converted, and missing columns, fail like any creator
+    assertThrows(
+        FactoryFailureException.class,
+        () ->
+            listingCreator.create(List.of("x", "3", "450000", "1250.5", "false", "3", "BUY", "a")));
+    assertThrows(
+        FactoryFailureException.class,
+        () -> RecordCreator.of(StudentRecord.class).create(List.of("1", "Jo")));
+    assertThrows(
+        FactoryFailureException.class,
+        () -> RecordCreator.of(StudentRecord.class).create(List.of("one", "Jo", "Art")));
+    assertThrows(IllegalArgumentException.class, () -> RecordCreator.of(Listing.class, 0, 1));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> RecordCreator.fromHeader(StudentRecord.class, List.of("StudentID", "Name")));
+  }
+
+  /** ================================ Tests with projection =================================== */
+  // only the projected columns are read, by index or by header name, with every tokenizer
+  @Test
+  public void testProjection() throws IOException, FactoryFailureException {
+    String text = "a,b,c,d\n1,\"x,y\",3,4\n5,6,7,8\n";
+    List<List<String>> expected = List.of(List.of("1", "4"), List.of("5", "8"));
+    for (CsvFormat format : CsvFormat.values()) {
+      stringParser = new Parser<>(new StringReader(text), trivialCreator, true, true, format);
+      stringParser.setProjection(3, 0);
+      stringParser.parse();
+      assertEquals(expected, stringParser.getParsedContent());
+      assertEquals(List.of("a", "d"), stringParser.getHeader());
+    }
+    stringParser =
+        Parser.fromChannel(
+            Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))),
+            trivialCreator,
+            true,
+            true);
+    stringParser.setProjection(List.of("D", "b"));
+    assertEquals(
+        List.of(List.of("x,y", "4"), List.of("6", "8")),
+        stringParser.stream().collect(Collectors.toList()));
+
+    // creators only see the projected columns, and tables only hold them
+    studentRecordParser =
+        new Parser<>(
+            new StringReader("Year,StudentID,Name,Major\n2024,1001,Alice Johnson,CS"),
+            studentRecordCreator,
+            true,
+            true);
+    studentRecordParser.setProjection(List.of("StudentID", "Name", "Major"));
+    studentRecordParser.parse();
+    assertEquals(
+        List.of(new StudentRecord(1001, "Alice Johnson", "CS")),
+        studentRecordParser.getParsedContent());
+    stringParser = new Parser<>(new StringReader(text), trivialCreator, false, true);
+    stringParser.setProjection(1);
+    ColumnarTable table = stringParser.parseToTable();
+    assertEquals(1, table.getColumnCount());
+    assertEquals(List.of("6"), table.getRow(2));
+
+    // rows missing a projected column are bad rows, even without a set number of columns
+    malformedParser =
+        new Parser<>(new StringReader("a,b,c\nd,e\nf,g,h\n"), trivialCreator, false, false);
+    malformedParser.setProjection(2);
+    assertThrows(FactoryFailureException.class, () -> malformedParser.parse());
+    malformedParser =
+        new Parser<>(new StringReader("a,b,c\nd,e\nf,g,h\n"), trivialCreator, false, false);
+    malformedParser.setProjection(2);
+    ParseErrorReport report = new ParseErrorReport(5);
+    malformedParser.setErrorReport(report);
+    malformedParser.parse();
+    assertEquals(List.of(List.of("c"), List.of("h")), malformedParser.getParsedContent());
+    assertEquals(3, report.getRejectedRows().get(0).expectedColumns());
+
+    malformedParser = new Parser<>(new StringReader(text), trivialCreator, true, true);
+    malformedParser.setProjection(List.of("e"));
+    assertThrows(IOException.class, () -> malformedParser.parse());
+    assertThrows(IllegalStateException.class, () -> malformedParser.setProjection(0));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new Parser<>(new StringReader(text), trivialCreator, false, true).setProjection(-1));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            new Parser<>(new StringReader(text), trivialCreator, false, true)
+                .setProjection(List.of("a")));
+  }
+
+  // listeners are told how much was read, tokenized, created and rejected once a parse is over
+  @Test
+  public void testParseListener() throws IOException, FactoryFailureException {
+    String text = "StarID,ProperName,X,Y,Z\n0,Sol,0,0,0\n1,Andreas,x,0,0\n2,,1,2,3\n3,Short,0\n";
+    List<ParseMetrics> finished = new ArrayList<>();
+    starParser = new Parser<>(new StringReader(text), starCreator, true, true);
+    starParser.setErrorReport(new ParseErrorReport(10));
+    starParser.addListener(finished::add);
+    starParser.parse();
+    assertEquals(1, finished.size());
+    ParseMetrics metrics = finished.get(0);
+    assertEquals(text.length(), metrics.inputRead());
+    assertEquals(4, metrics.rowsTokenized());
+    assertEquals(2, metrics.rowsCreated());
+    assertEquals(2, metrics.rowsRejected());
+    assertTrue(metrics.totalNanos() >= metrics.readNanos() + metrics.createNanos());
+    assertTrue(metrics.rowsPerSecond() > 0);
+    assertThrows(IllegalStateException.class, () -> starParser.addListener(finished::add));
+
+    // channels are counted in bytes, and iterating reports once the rows run out
+    byte[] bytes = "name,city\nJosé,Providence\nAnn,Boston\n".getBytes(StandardCharsets.UTF_8);
+    stringParser =
+        Parser.fromChannel(
+            Channels.newChannel(new ByteArrayInputStream(bytes)), trivialCreator, true, true);
+    stringParser.addListener(finished::add);
+    assertEquals(2, stringParser.stream().count());
+    assertEquals(2, finished.size());
+    assertEquals(bytes.length, finished.get(1).inputRead());
+    assertEquals(2, finished.get(1).rowsCreated());
+    assertThrows(IllegalArgumentException.class, () -> stringParser.addListener(null));
+  }
 }
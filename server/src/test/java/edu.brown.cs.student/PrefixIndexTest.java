@@ -0,0 +1,82 @@
+package edu.brown.cs.student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.brown.cs.student.main.parser.table.Column;
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import edu.brown.cs.student.main.searcher.PrefixIndex;
+import edu.brown.cs.student.main.searcher.PrefixIndex.Suggestion;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the PrefixIndex class */
+public class PrefixIndexTest {
+  /** A column of races under a header row */
+  private static final List<List<String>> RACES =
+      IndexFixtures.oneColumn(
+          "Race", "White", "Black", "WHITE", "Asian", "white non-hispanic", "Rare");
+
+  /** Test that suggestions are the most common values starting with the prefix, ignoring case */
+  @Test
+  public void testComplete() {
+    PrefixIndex index = new PrefixIndex(IndexFixtures.builder(RACES).snapshot().getColumn(0));
+    assertEquals(7, index.size());
+    assertEquals(6, index.getKeyCount());
+    assertEquals(
+        List.of(new Suggestion("White", 2), new Suggestion("white non-hispanic", 1)),
+        index.complete("wh", 10, true));
+    assertEquals(List.of(new Suggestion("White", 2)), index.complete("W", 1, true));
+    assertEquals(
+        List.of(new Suggestion("White", 2), new Suggestion("Asian", 1)),
+        index.complete("", 2, true));
+    assertTrue(index.complete("x", 10, true).isEmpty());
+    assertTrue(index.complete("W", 0, true).isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> index.complete(null, 1, true));
+    assertThrows(IllegalArgumentException.class, () -> index.complete("W", -1, true));
+  }
+
+  /** Test that the header row is only suggested when it isn't skipped */
+  @Test
+  public void testSkipFirstRow() {
+    PrefixIndex index = new PrefixIndex(IndexFixtures.builder(RACES).snapshot().getColumn(0));
+    assertEquals(List.of(new Suggestion("Rare", 1)), index.complete("Ra", 10, true));
+    assertEquals(
+        List.of(new Suggestion("Race", 1), new Suggestion("Rare", 1)),
+        index.complete("Ra", 10, false));
+  }
+
+  /**
+   * Test that rows added in batches are counted and merged in as if the index were built again,
+   * even with older copies of the column passed in between
+   */
+  @Test
+  public void testAddedRows() {
+    ColumnarTable.Builder builder = IndexFixtures.builder(RACES);
+    Column first = IndexFixtures.builder(RACES).snapshot().getColumn(0);
+    PrefixIndex index = new PrefixIndex(first);
+    Column second =
+        IndexFixtures.append(builder, IndexFixtures.oneColumn("Aleut", "white", "Zuni"))
+            .getColumn(0);
+    Column third =
+        IndexFixtures.append(builder, IndexFixtures.oneColumn("Black", "Whitish", "Asian"))
+            .getColumn(0);
+
+    // a copy older than the newest one indexed adds nothing
+    List<Column> added = List.of(second, first, third, second, third);
+    List<Column> newest = List.of(second, second, third, third, third);
+    for (int i = 0; i < added.size(); i++) {
+      index.addRows(added.get(i));
+      PrefixIndex rebuilt = new PrefixIndex(newest.get(i));
+      assertEquals(rebuilt.size(), index.size());
+      assertEquals(rebuilt.getKeyCount(), index.getKeyCount());
+      for (String prefix : List.of("", "a", "w", "White", "z", "Ra", "b")) {
+        assertEquals(rebuilt.complete(prefix, 10, true), index.complete(prefix, 10, true));
+        assertEquals(rebuilt.complete(prefix, 10, false), index.complete(prefix, 10, false));
+      }
+    }
+    assertEquals(13, index.size());
+    assertEquals(
+        List.of(new Suggestion("White", 3), new Suggestion("white non-hispanic", 1)),
+        index.complete("whit", 2, true));
+  }
+}
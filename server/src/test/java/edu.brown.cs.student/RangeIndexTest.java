@@ -0,0 +1,62 @@
+package edu.brown.cs.student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.brown.cs.student.main.parser.table.Column;
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import edu.brown.cs.student.main.searcher.RangeIndex;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the RangeIndex class */
+public class RangeIndexTest {
+  /** A column of prices under a header row */
+  private static final List<List<String>> PRICES =
+      IndexFixtures.oneColumn("Price", "$75,000", "74,999.99", "\"$1,200,000\"", "", "75000", "-5");
+
+  /** Test that the index reads amounts of money as numbers, with inclusive bounds */
+  @Test
+  public void testFind() {
+    Column column = IndexFixtures.builder(PRICES).snapshot().getColumn(0);
+    RangeIndex index = new RangeIndex(column);
+    assertEquals(7, index.size());
+    assertEquals(5, index.getNumberCount());
+    assertArrayEquals(new int[] {1, 5}, index.find(column, 75000, 75000));
+    assertArrayEquals(new int[] {1, 2, 5}, index.find(column, 70000, 80000));
+    assertArrayEquals(new int[] {1, 2, 3, 5, 6}, index.find(column, Double.NEGATIVE_INFINITY, 2e6));
+    assertArrayEquals(new int[] {3}, index.find(column, 1.2e6, Double.POSITIVE_INFINITY));
+    assertEquals(0, index.find(column, 80000, 70000).length);
+    assertThrows(IllegalArgumentException.class, () -> index.find(column, 0, Double.NaN));
+    assertThrows(IllegalArgumentException.class, () -> index.find(null, 0, 1));
+  }
+
+  /**
+   * Test that lookups with older and newer copies of the column, in any order, each find just that
+   * copy's rows, as an index built from the copy would
+   */
+  @Test
+  public void testOlderAndNewerCopies() {
+    ColumnarTable.Builder builder = IndexFixtures.builder(PRICES);
+    Column first = IndexFixtures.builder(PRICES).snapshot().getColumn(0);
+    RangeIndex index = new RangeIndex(first);
+    Column second =
+        IndexFixtures.append(builder, IndexFixtures.oneColumn("75,000", "n/a", "-10")).getColumn(0);
+    Column third =
+        IndexFixtures.append(builder, IndexFixtures.oneColumn("1e3", "74999.99")).getColumn(0);
+
+    double[] bounds = {Double.NEGATIVE_INFINITY, -10, -5, 0, 1000, 75000, 1.2e6};
+    for (Column copy : List.of(second, first, third, second, first)) {
+      RangeIndex rebuilt = new RangeIndex(copy);
+      for (double min : bounds) {
+        for (double max : bounds) {
+          assertArrayEquals(rebuilt.find(copy, min, max), index.find(copy, min, max));
+        }
+      }
+    }
+    assertArrayEquals(new int[] {1, 5, 7}, index.find(third, 75000, 75000));
+    assertArrayEquals(new int[] {1, 5}, index.find(first, 75000, 75000));
+    assertArrayEquals(new int[] {2, 11}, index.find(third, 74999.99, 74999.99));
+    assertEquals(12, index.size());
+    assertEquals(new RangeIndex(third).getNumberCount(), index.getNumberCount());
+  }
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.searcher.PrefixIndex.Suggestion;
 import edu.brown.cs.student.main.searcher.Searcher;
 import java.io.*;
 import java.util.List;
@@ -23,7 +24,7 @@ public class SearcherTest {
   public void setUp() {
     try {
       student_searcher = new Searcher("students.csv", true);
-      star_searcher = new Searcher("stardata", true);
+      star_searcher = new Searcher("ten-star", true);
       empty_searcher = new Searcher("empty.csv", false);
       income_by_race_searcher = new Searcher("income_by_race", true);
       header_student_searcher = new Searcher("students.csv", false);
@@ -229,4 +230,142 @@ public class SearcherTest {
     // col index out of bounds
     assertThrows(IllegalArgumentException.class, () -> header_student_searcher.search("", 19));
   }
+
+  /** Test searching just some of the columns, by name or index */
+  @Test
+  public void testColumnsSearch() throws IOException, FactoryFailureException {
+    // only the chosen columns are searched and returned, in file order
+    for (boolean streaming : new boolean[] {false, true}) {
+      Searcher searcher =
+          new Searcher("income_by_race", true, streaming, List.of("Slug Geography", "year", "1"));
+      List<List<String>> result = searcher.search("kent-county-ri");
+      assertFalse(result.isEmpty());
+      assertEquals(List.of("Total", "2020", "kent-county-ri"), result.get(0));
+      // column names and indices refer to the chosen columns
+      assertEquals(result, searcher.search("kent-county-ri", "Slug Geography"));
+      assertEquals(result, searcher.search("kent-county-ri", 2));
+      assertTrue(searcher.search("85413").isEmpty());
+    }
+
+    assertThrows(
+        IOException.class, () -> new Searcher("students.csv", true, false, List.of("Age")));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new Searcher("students.csv", true, false, List.of("3")));
+  }
+
+  /** Test that column searches through the index find the same rows as scanning the file */
+  @Test
+  public void testColumnIndex() throws IOException, FactoryFailureException {
+    Searcher streamed = new Searcher("income_by_race", true, true);
+    for (String value : List.of("Kent County, RI", "\"KENT County, RI\"", "2020", "Black", "")) {
+      for (int col = 0; col < 4; col++) {
+        // a new searcher each time, like the server, reuses the index built by the first
+        assertEquals(
+            streamed.search(value, col), new Searcher("income_by_race", true).search(value, col));
+      }
+    }
+    // the header row is indexed, but never returned
+    assertTrue(income_by_race_searcher.search("Race", 0).isEmpty());
+    assertEquals(1, header_student_searcher.search("studentid", 0).size());
+  }
+
+  /** Test that whole-row searches through the index find the same rows as scanning the file */
+  @Test
+  public void testIndexedSearch() throws IOException, FactoryFailureException {
+    Searcher streamed = new Searcher("income_by_race", true, true);
+    for (String value : List.of("\"Kent County, RI\"", "2020", "BLACK", "05000US44003", "")) {
+      assertEquals(streamed.search(value), new Searcher("income_by_race", true).search(value));
+    }
+  }
+
+  /** Test that suggestions are the most common values starting with the prefix */
+  @Test
+  public void testSuggest() throws IOException, FactoryFailureException {
+    assertEquals(
+        List.of(new Suggestion("Asian", 40), new Suggestion("Hispanic", 40)),
+        income_by_race_searcher.suggest("", "race", 2));
+    assertEquals(
+        List.of(new Suggestion("White", 40), new Suggestion("White Non-Hispanic", 40)),
+        income_by_race_searcher.suggest("wHi", 1, 10));
+    assertEquals(
+        List.of(new Suggestion("Pacific Islander", 7)),
+        income_by_race_searcher.suggest("P", 1, 10));
+    // the header row is never suggested
+    assertTrue(income_by_race_searcher.suggest("Ra", 1, 10).isEmpty());
+    assertTrue(income_by_race_searcher.suggest("W", 1, 0).isEmpty());
+
+    Searcher streamed = new Searcher("income_by_race", true, true);
+    for (String prefix : List.of("", "t", "White ", "Nothing")) {
+      assertEquals(income_by_race_searcher.suggest(prefix, 1, 5), streamed.suggest(prefix, 1, 5));
+    }
+
+    assertThrows(IllegalArgumentException.class, () -> income_by_race_searcher.suggest(null, 1, 5));
+    assertThrows(IllegalArgumentException.class, () -> income_by_race_searcher.suggest("W", 1, -1));
+    assertThrows(IllegalArgumentException.class, () -> income_by_race_searcher.suggest("W", 20, 5));
+    assertThrows(IOException.class, () -> income_by_race_searcher.suggest("W", "Town", 5));
+  }
+
+  /** Test that fuzzy searches find misspelled values, closest first, as streaming searches do */
+  @Test
+  public void testSearchFuzzy() throws IOException, FactoryFailureException {
+    List<List<String>> bristol = income_by_race_searcher.searchFuzzy("Bristl", "Geography", 1, 100);
+    assertEquals(48, bristol.size());
+    for (List<String> row : bristol) {
+      assertTrue(row.get(6).contains("Bristol County"));
+    }
+    assertTrue(income_by_race_searcher.searchFuzzy("Bristl", 6, 0, 100).isEmpty());
+    // every county contains "county", but Kent's is the shortest value so the tightest match
+    List<List<String>> counties = income_by_race_searcher.searchContains("COUNTY", 6, 5);
+    assertEquals(5, counties.size());
+    for (List<String> row : counties) {
+      assertTrue(row.get(6).contains("Kent County"));
+    }
+
+    Searcher streamed = new Searcher("income_by_race", true, true);
+    for (String value : List.of("Bristl", "port", "Nwport Cnty", "ri", "Geography", "")) {
+      for (int distance = 0; distance < 3; distance++) {
+        assertEquals(
+            income_by_race_searcher.searchFuzzy(value, 6, distance, 200),
+            streamed.searchFuzzy(value, 6, distance, 200));
+      }
+    }
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> income_by_race_searcher.searchFuzzy("Bristl", 6, -1, 5));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> income_by_race_searcher.searchContains("Bristl", 6, -1));
+    assertThrows(
+        IOException.class, () -> income_by_race_searcher.searchFuzzy("Bristl", "Town", 1, 5));
+  }
+
+  /** Test that range searches find the rows with numbers in the range, as streaming searches do */
+  @Test
+  public void testRangeSearch() throws IOException, FactoryFailureException {
+    List<List<String>> incomes =
+        income_by_race_searcher.search("Household Income by Race", 50000, 75000);
+    assertEquals(139, incomes.size());
+    for (List<String> row : incomes) {
+      double income = Double.parseDouble(row.get(4));
+      assertTrue(income >= 50000 && income <= 75000);
+    }
+    assertEquals(323, income_by_race_searcher.search(4, Double.NEGATIVE_INFINITY, 1e9).size());
+    assertTrue(income_by_race_searcher.search(4, 75000, 50000).isEmpty());
+    // the header row and other values which aren't numbers are never found
+    assertTrue(income_by_race_searcher.search(6, Double.NEGATIVE_INFINITY, 1e9).isEmpty());
+
+    Searcher streamed = new Searcher("income_by_race", true, true);
+    for (double[] range : new double[][] {{50000, 75000}, {0, 0}, {85413, 85413}, {-1, 1e9}}) {
+      assertEquals(
+          income_by_race_searcher.search(4, range[0], range[1]),
+          streamed.search(4, range[0], range[1]));
+    }
+
+    assertThrows(
+        IllegalArgumentException.class, () -> income_by_race_searcher.search(4, Double.NaN, 5));
+    assertThrows(IllegalArgumentException.class, () -> income_by_race_searcher.search(20, 0, 5));
+    assertThrows(IOException.class, () -> income_by_race_searcher.search("Price", 0, 5));
+  }
 }
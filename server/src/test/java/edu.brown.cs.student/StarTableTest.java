@@ -0,0 +1,168 @@
+package edu.brown.cs.student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.brown.cs.student.main.parser.CsvFormat;
+import edu.brown.cs.student.main.parser.Parser;
+import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.classes.Star;
+import edu.brown.cs.student.main.parser.creators.StarCreator;
+import edu.brown.cs.student.main.parser.table.StarTable;
+import edu.brown.cs.student.main.searcher.KdTree;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the StarTable and KdTree classes */
+public class StarTableTest {
+
+  /**
+   * Helper which finds the nearest points by comparing against every point
+   *
+   * @param coordinates the coordinates of every point, one array per coordinate
+   * @param query the point to search around
+   * @param skip a point not to count, or -1
+   * @return the indices of every point, nearest first (ties broken by the lower index)
+   */
+  private static int[] bruteForce(double[][] coordinates, double[] query, int skip) {
+    double[] distances = new double[coordinates[0].length];
+    for (int i = 0; i < distances.length; i++) {
+      for (int d = 0; d < query.length; d++) {
+        double difference = query[d] - coordinates[d][i];
+        distances[i] += difference * difference;
+      }
+    }
+    return IntStream.range(0, distances.length)
+        .filter(i -> i != skip)
+        .boxed()
+        .sorted((a, b) -> a.equals(b) ? 0 : Double.compare(distances[a], distances[b]))
+        .mapToInt(Integer::intValue)
+        .toArray();
+  }
+
+  // the table holds the same stars as the parser creates
+  @Test
+  public void testMatchesParser() throws IOException, FactoryFailureException {
+    StarTable table =
+        StarTable.read(new FileReader("data/csv/stars/ten-star.csv"), true, CsvFormat.RFC4180);
+    Parser<Star> parser =
+        new Parser<>(new FileReader("data/csv/stars/ten-star.csv"), new StarCreator(), true, true);
+    parser.parse();
+    List<Star> stars = parser.getParsedContent();
+    assertEquals(stars.size(), table.size());
+    for (int row = 0; row < stars.size(); row++) {
+      assertEquals(stars.get(row).getStarId(), table.getStarId(row));
+      assertEquals(stars.get(row).getProperName(), table.getProperName(row));
+      assertArrayEquals(
+          stars.get(row).getCoordinates(),
+          new double[] {table.getX(row), table.getY(row), table.getZ(row)});
+    }
+    assertArrayEquals(stars.get(5).getCoordinates(), table.getStar(5).getCoordinates());
+
+    assertThrows(
+        FactoryFailureException.class,
+        () -> StarTable.read(new StringReader("0,Sol,0,0"), false, CsvFormat.RFC4180));
+    assertThrows(
+        FactoryFailureException.class,
+        () -> StarTable.read(new StringReader("0,Sol,0,0,zero"), false, CsvFormat.REGEX));
+  }
+
+  // nearest-neighbor and radius queries find the same stars as checking every star
+  @Test
+  public void testNearestStars() throws IOException, FactoryFailureException {
+    StarTable table =
+        StarTable.read(new FileReader("data/csv/stars/ten-star.csv"), true, CsvFormat.REGEX);
+    int sol = table.indexOfName("sol");
+    assertEquals(0, sol);
+    assertEquals("Proxima Centauri", table.getProperName(table.nearest(sol, 1)[0]));
+    assertEquals(9, table.nearest(sol, 20).length);
+    assertEquals(0, table.nearest(sol, 0).length);
+    assertArrayEquals(new int[] {0}, table.nearest(0.1, 0, 0, 1));
+    // Sol, Proxima Centauri and both Rigel Kentaurus stars are within 1.5 of Sol
+    assertEquals(4, table.withinRadius(0, 0, 0, 1.5).length);
+    assertEquals(-1, table.indexOfName("Vega"));
+    assertThrows(IllegalArgumentException.class, () -> table.withinRadius(0, 0, 0, -1));
+  }
+
+  // the k-d tree agrees with a brute force search on random points, in 2 and 3 dimensions
+  @Test
+  public void testKdTree() {
+    Random random = new Random(42);
+    for (int dimensions = 2; dimensions <= 3; dimensions++) {
+      double[][] coordinates = new double[dimensions][2000];
+      for (double[] coordinate : coordinates) {
+        for (int i = 0; i < coordinate.length; i++) {
+          // rounded, so some points share coordinates
+          coordinate[i] = Math.round(random.nextDouble() * 50);
+        }
+      }
+      KdTree tree = new KdTree(coordinates);
+      for (int query = 0; query < 50; query++) {
+        double[] point = new double[dimensions];
+        for (int d = 0; d < dimensions; d++) {
+          point[d] = random.nextDouble() * 60 - 5;
+        }
+        int[] expected = bruteForce(coordinates, point, -1);
+        int[] nearest = tree.nearest(point, 10);
+        for (int i = 0; i < nearest.length; i++) {
+          assertEquals(
+              bruteForceDistance(coordinates, point, expected[i]),
+              bruteForceDistance(coordinates, point, nearest[i]));
+        }
+        int[] inRadius = tree.withinRadius(point, 7.5);
+        assertEquals(
+            IntStream.of(expected)
+                .filter(i -> bruteForceDistance(coordinates, point, i) <= 7.5 * 7.5)
+                .count(),
+            inRadius.length);
+
+        int[] expectedTo = bruteForce(coordinates, columnOf(coordinates, query), query);
+        int[] nearestTo = tree.nearestTo(query, 5);
+        for (int i = 0; i < nearestTo.length; i++) {
+          assertNotEquals(query, nearestTo[i]);
+          assertEquals(
+              bruteForceDistance(coordinates, columnOf(coordinates, query), expectedTo[i]),
+              bruteForceDistance(coordinates, columnOf(coordinates, query), nearestTo[i]));
+        }
+      }
+    }
+    assertThrows(IllegalArgumentException.class, () -> new KdTree(new double[2], new double[3]));
+    assertThrows(IllegalArgumentException.class, () -> new KdTree(new double[2]).nearest(null, 1));
+  }
+
+  /**
+   * Helper which gets the squared distance from a query to a point
+   *
+   * @param coordinates the coordinates of every point, one array per coordinate
+   * @param query the query
+   * @param point the index of the point
+   * @return the squared distance
+   */
+  private static double bruteForceDistance(double[][] coordinates, double[] query, int point) {
+    double sum = 0;
+    for (int d = 0; d < query.length; d++) {
+      double difference = query[d] - coordinates[d][point];
+      sum += difference * difference;
+    }
+    return sum;
+  }
+
+  /**
+   * Helper which gets the coordinates of one point
+   *
+   * @param coordinates the coordinates of every point, one array per coordinate
+   * @param point the index of the point
+   * @return the point's coordinates
+   */
+  private static double[] columnOf(double[][] coordinates, int point) {
+    double[] values = new double[coordinates.length];
+    for (int d = 0; d < values.length; d++) {
+      values[d] = coordinates[d][point];
+    }
+    return values;
+  }
+}
@@ -0,0 +1,169 @@
+package edu.brown.cs.student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.brown.cs.student.main.parser.CsvFormat;
+import edu.brown.cs.student.main.parser.CsvTableCache;
+import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
+import edu.brown.cs.student.main.parser.table.Column;
+import edu.brown.cs.student.main.parser.table.ColumnEncoding;
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import edu.brown.cs.student.main.parser.table.DictionaryColumn;
+import edu.brown.cs.student.main.parser.table.MappedDictionaryColumn;
+import edu.brown.cs.student.main.parser.table.MappedStringColumn;
+import edu.brown.cs.student.main.parser.table.StringColumn;
+import edu.brown.cs.student.main.parser.table.TableSnapshot;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the TableSnapshot and CsvTableCache classes */
+public class TableSnapshotTest {
+  /** Directory holding the test's csv files and snapshots */
+  private Path directory;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("snapshots");
+    directory.toFile().deleteOnExit();
+  }
+
+  /**
+   * Helper which checks two tables hold the same data
+   *
+   * @param expected the table that was written
+   * @param actual the table that was read back
+   */
+  private static void assertSameTable(ColumnarTable expected, ColumnarTable actual) {
+    assertEquals(expected.getHeader(), actual.getHeader());
+    assertEquals(expected.getRowCount(), actual.getRowCount());
+    assertEquals(expected.getColumnCount(), actual.getColumnCount());
+    for (int col = 0; col < expected.getColumnCount(); col++) {
+      assertEquals(expected.getColumnType(col), actual.getColumnType(col));
+      // text columns come back as views of the snapshot, stored the same way
+      Column column = expected.getColumn(col);
+      if (column instanceof StringColumn) {
+        assertTrue(actual.getColumn(col) instanceof MappedStringColumn);
+      } else if (column instanceof DictionaryColumn) {
+        assertTrue(actual.getColumn(col) instanceof MappedDictionaryColumn);
+      } else {
+        assertEquals(column.getClass(), actual.getColumn(col).getClass());
+      }
+    }
+    for (int row = 0; row < expected.getRowCount(); row++) {
+      assertEquals(expected.getRow(row), actual.getRow(row));
+    }
+  }
+
+  // every kind of column is read back the same as it was written
+  @Test
+  public void testRoundTrip() throws IOException, FactoryFailureException {
+    String[] files = {
+      "data/csv/census/income_by_race.csv",
+      "data/csv/income/ri_town_and_income.csv",
+      "data/csv/census/dol_ri_earnings_disparity.csv",
+      "data/csv/malformed/empty.csv"
+    };
+    CsvTableCache cache = new CsvTableCache(directory);
+    for (String file : files) {
+      for (ColumnEncoding encoding : ColumnEncoding.values()) {
+        ColumnarTable table =
+            cache.load(Path.of(file), true, false, CsvFormat.REGEX, encoding, true);
+        Path snapshot = directory.resolve("table.snap");
+        TableSnapshot.write(table, snapshot, Path.of(file), "options");
+        assertSameTable(table, TableSnapshot.read(snapshot, Path.of(file), "options"));
+      }
+    }
+
+    // ragged rows, and a table without a header
+    Path ragged = directory.resolve("ragged.csv");
+    Files.writeString(ragged, "a,b,c\nd\n\"e,f\",,g\né,\"\"\"x\"\"\"\n");
+    ColumnarTable table =
+        cache.load(ragged, false, false, CsvFormat.RFC4180, ColumnEncoding.PLAIN, false);
+    assertNull(table.getHeader());
+    TableSnapshot.write(table, directory.resolve("ragged.snap"), ragged, "options");
+    assertSameTable(table, TableSnapshot.read(directory.resolve("ragged.snap"), ragged, "options"));
+  }
+
+  // snapshots aren't used once the source changes, with other options, or when corrupt
+  @Test
+  public void testInvalidSnapshots() throws IOException {
+    Path csv = directory.resolve("data.csv");
+    Files.writeString(csv, "id,name\n1,Sol\n2,Proxima\n");
+    ColumnarTable table =
+        ColumnarTable.fromRows(List.of(List.of("1", "Sol"), List.of("2", "Proxima")), null);
+    Path snapshot = directory.resolve("data.snap");
+
+    assertNull(TableSnapshot.read(snapshot, csv, "options"));
+    TableSnapshot.write(table, snapshot, csv, "options");
+    assertNotNull(TableSnapshot.read(snapshot, csv, "options"));
+    assertNull(TableSnapshot.read(snapshot, csv, "other options"));
+
+    // a changed modified time (or size) means the source changed
+    Files.setLastModifiedTime(csv, FileTime.fromMillis(0));
+    assertNull(TableSnapshot.read(snapshot, csv, "options"));
+    TableSnapshot.write(table, snapshot, csv, "options");
+    Files.writeString(csv, "id,name\n1,Sol\n2,Proxima\n3,Barnard\n");
+    Files.setLastModifiedTime(csv, FileTime.fromMillis(0));
+    assertNull(TableSnapshot.read(snapshot, csv, "options"));
+
+    // so does a rewrite keeping both the size and the modified time
+    TableSnapshot.write(table, snapshot, csv, "options");
+    assertNotNull(TableSnapshot.read(snapshot, csv, "options"));
+    Files.writeString(csv, "id,name\n1,Sol\n2,Proxima\n3,Barnarb\n");
+    Files.setLastModifiedTime(csv, FileTime.fromMillis(0));
+    assertNull(TableSnapshot.read(snapshot, csv, "options"));
+
+    // flipping a byte of the payload fails the checksum
+    TableSnapshot.write(table, snapshot, csv, "options");
+    byte[] bytes = Files.readAllBytes(snapshot);
+    bytes[bytes.length - 20] ^= 1;
+    Files.write(snapshot, bytes);
+    assertNull(TableSnapshot.read(snapshot, csv, "options"));
+
+    // and so does cutting it short
+    Files.write(snapshot, new byte[] {1, 2, 3});
+    assertNull(TableSnapshot.read(snapshot, csv, "options"));
+  }
+
+  // the cache parses once, then loads from the snapshot until the file changes
+  @Test
+  public void testCache() throws IOException, FactoryFailureException {
+    Path csv = directory.resolve("stars.csv");
+    Files.writeString(csv, "StarID,ProperName\n0,Sol\n");
+    CsvTableCache cache = new CsvTableCache(directory.resolve("cache"));
+    int[] parses = {0};
+    CsvTableCache.TableLoader loader =
+        () -> {
+          parses[0]++;
+          return ColumnarTable.fromRows(List.of(List.of(Files.readString(csv).trim())), null);
+        };
+
+    ColumnarTable first = cache.load(csv, "options", loader);
+    assertTrue(Files.exists(cache.getSnapshotPath(csv, "options")));
+    ColumnarTable second = cache.load(csv, "options", loader);
+    assertEquals(1, parses[0]);
+    assertEquals(first.getRow(0), second.getRow(0));
+
+    Files.writeString(csv, "StarID,ProperName\n0,Sol\n1,Andreas\n");
+    ColumnarTable third = cache.load(csv, "options", loader);
+    assertEquals(2, parses[0]);
+    assertEquals(List.of("StarID,ProperName\n0,Sol\n1,Andreas"), third.getRow(0));
+
+    // loads with other options keep their own snapshot, rather than replacing it
+    for (int i = 0; i < 2; i++) {
+      cache.load(csv, "options", loader);
+      cache.load(csv, "other options", loader);
+    }
+    assertEquals(3, parses[0]);
+    assertNotEquals(cache.getSnapshotPath(csv, "options"), cache.getSnapshotPath(csv, "other"));
+
+    assertThrows(
+        IOException.class, () -> cache.load(directory.resolve("missing.csv"), "options", loader));
+    assertThrows(IllegalArgumentException.class, () -> new CsvTableCache(null));
+  }
+}
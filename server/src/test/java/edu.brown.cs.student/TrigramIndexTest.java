@@ -0,0 +1,90 @@
+package edu.brown.cs.student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.brown.cs.student.main.parser.table.Column;
+import edu.brown.cs.student.main.parser.table.ColumnarTable;
+import edu.brown.cs.student.main.searcher.TrigramIndex;
+import edu.brown.cs.student.main.searcher.TrigramIndex.Match;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the TrigramIndex class */
+public class TrigramIndexTest {
+  /** A column of places under a header row */
+  private static final List<List<String>> PLACES =
+      IndexFixtures.oneColumn("Town", "Bristol", "BRISTOL", "Bristow", "Pistol", "Bristol Ferry");
+
+  /** Test that the index scores matches by typos, then by how tight they are */
+  @Test
+  public void testFind() {
+    TrigramIndex index = new TrigramIndex(IndexFixtures.builder(PLACES).snapshot().getColumn(0));
+    assertEquals(6, index.size());
+    assertEquals(
+        List.of(new Match("Bristol", 0), new Match("Bristol Ferry", 0)),
+        index.find("bristol", 0, 10, true));
+    assertEquals(
+        List.of(new Match("Bristol", 1), new Match("Bristow", 1), new Match("Bristol Ferry", 1)),
+        index.find("Bristl", 1, 10, true));
+    assertEquals(List.of(new Match("Bristol", 1)), index.find("Bristl", 1, 1, true));
+    assertThrows(IllegalArgumentException.class, () -> index.find(null, 1, 10, true));
+    assertThrows(IllegalArgumentException.class, () -> index.find("Bristl", -1, 10, true));
+  }
+
+  /** Test that values are still found when too many typos are allowed to need a shared trigram */
+  @Test
+  public void testManyTypos() {
+    TrigramIndex index = new TrigramIndex(IndexFixtures.builder(PLACES).snapshot().getColumn(0));
+    assertEquals(new Match("Pistol", 3), index.find("Bristl", 3, 10, true).get(3));
+    assertEquals(List.of(new Match("Pistol", 0)), index.find("ol", 0, 1, true));
+
+    // found through a piece of the query that's left unchanged
+    assertEquals(
+        List.of(new Match("Bristol", 1), new Match("Bristow", 1), new Match("Bristol Ferry", 1)),
+        index.find("Bristl", 2, 10, true));
+    assertEquals(
+        List.of(new Match("Bristol", 2), new Match("Bristow", 2), new Match("Bristol Ferry", 2)),
+        index.find("Xristox", 2, 10, true));
+  }
+
+  /**
+   * Test that rows added in batches are found as if the index were built again, even with older
+   * copies of the column passed in between
+   */
+  @Test
+  public void testAddedRows() {
+    ColumnarTable.Builder builder = IndexFixtures.builder(PLACES);
+    Column first = IndexFixtures.builder(PLACES).snapshot().getColumn(0);
+    TrigramIndex index = new TrigramIndex(first);
+    Column second =
+        IndexFixtures.append(builder, IndexFixtures.oneColumn("Bristo", "Newport")).getColumn(0);
+    Column third =
+        IndexFixtures.append(builder, IndexFixtures.oneColumn("bristol", "Newport")).getColumn(0);
+
+    // a copy older than the newest one indexed adds nothing
+    List<Column> added = List.of(second, first, third, second);
+    List<Column> newest = List.of(second, second, third, third);
+    for (int i = 0; i < added.size(); i++) {
+      index.addRows(added.get(i));
+      TrigramIndex rebuilt = new TrigramIndex(newest.get(i));
+      assertEquals(rebuilt.size(), index.size());
+      assertEquals(rebuilt.getTrigramCount(), index.getTrigramCount());
+      for (String query : List.of("bristol", "Bristl", "newprt", "Xristox", "ol")) {
+        for (int distance = 0; distance <= 3; distance++) {
+          assertEquals(
+              rebuilt.find(query, distance, 10, true), index.find(query, distance, 10, true));
+        }
+      }
+    }
+    assertEquals(10, index.size());
+    assertEquals(List.of(new Match("Newport", 1)), index.find("newprt", 1, 10, true));
+  }
+
+  /** Test that the header row is only found when it isn't skipped */
+  @Test
+  public void testSkipFirstRow() {
+    TrigramIndex index = new TrigramIndex(IndexFixtures.builder(PLACES).snapshot().getColumn(0));
+    assertTrue(index.find("town", 0, 10, true).isEmpty());
+    assertEquals(List.of(new Match("Town", 0)), index.find("town", 0, 10, false));
+  }
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
 import edu.brown.cs.student.main.server.csvfuncs.SearchCSV;
 import java.io.IOException;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -74,4 +75,26 @@ class SearchCSVTest {
       throw new RuntimeException(e);
     }
   }
+
+  /** Test suggesting values of a column by name */
+  @Test
+  void testSuggestCSV() {
+    try {
+      String jsonResult =
+          searchCSV.suggestCSV("data/csv/students/students.csv", true, "f", "Name", null, 5);
+      assertNotNull(jsonResult);
+      assertTrue(jsonResult.contains("Frank Adams"));
+      assertTrue(jsonResult.contains("\"count\":1"));
+      assertFalse(jsonResult.contains("Eva Brown"));
+
+      // a column index counts from the first projected column, like in every other mode
+      jsonResult =
+          searchCSV.suggestCSV(
+              "data/csv/students/students.csv", true, "c", "1", List.of("Name", "Major"), 5);
+      assertTrue(jsonResult.contains("Computer Science"));
+      assertFalse(jsonResult.contains("Carol White"));
+    } catch (IOException | FactoryFailureException e) {
+      throw new RuntimeException(e);
+    }
+  }
 }
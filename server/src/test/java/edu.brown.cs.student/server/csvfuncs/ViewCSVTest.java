@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import edu.brown.cs.student.main.parser.classes.FactoryFailureException;
 import edu.brown.cs.student.main.server.csvfuncs.ViewCSV;
 import java.io.IOException;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -44,6 +45,24 @@ public class ViewCSVTest {
     }
   }
 
+  /** Tests that columns are found by name only when the file is said to have a header row */
+  @Test
+  public void testViewCSV_Columns() throws IOException, FactoryFailureException {
+    String expectedJson =
+        "[[\"StarID\",\"ProperName\"],[\"0\",\"Sol\"],[\"1\",\"\"],[\"2\",\"\"],[\"3\",\"\"],"
+            + "[\"3759\",\"96 G. Psc\"],[\"70667\",\"Proxima Centauri\"],"
+            + "[\"71454\",\"Rigel Kentaurus B\"],[\"71457\",\"Rigel Kentaurus A\"],"
+            + "[\"87666\",\"Barnard's Star\"],[\"118721\",\"\"]]";
+    assertEquals(
+        expectedJson,
+        viewCSV.viewCSV("data/csv/stars/ten-star.csv", true, List.of("ProperName", "starid")));
+    assertEquals(
+        expectedJson, viewCSV.viewCSV("data/csv/stars/ten-star.csv", false, List.of("1", "0")));
+    assertThrows(
+        IOException.class,
+        () -> viewCSV.viewCSV("data/csv/stars/ten-star.csv", false, List.of("ProperName")));
+  }
+
   /**
    * Tests that viewCSV doesn't throw an exception for inconsistent number of columns or empty file
    */
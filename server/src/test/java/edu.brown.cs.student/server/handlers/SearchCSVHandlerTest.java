@@ -1,6 +1,8 @@
 package edu.brown.cs.student.server.handlers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.squareup.moshi.JsonAdapter;
 import com.squareup.moshi.Moshi;
@@ -346,4 +348,87 @@ public class SearchCSVHandlerTest {
 
     clientConnection.disconnect();
   }
+
+  /** Testing a call to searchcsv in prefix mode, suggesting values of a column */
+  @Test
+  public void testSearchCSVPrefixMode() throws IOException {
+    // Load a CSV file
+    HttpURLConnection loadConnection =
+        tryRequest("loadcsv?" + "filepath=data/resources/students.csv");
+    assertEquals(200, loadConnection.getResponseCode());
+    loadConnection.disconnect();
+
+    HttpURLConnection clientConnection =
+        tryRequest(
+            "searchcsv?filename=students&ifHeader=true&searchKey=g&columnID=Name&mode=prefix");
+    assertEquals(200, clientConnection.getResponseCode());
+
+    Moshi moshi = new Moshi.Builder().build();
+
+    SearchCSVHandler.SearchCSVSuccessResponse response =
+        moshi
+            .adapter(SearchCSVHandler.SearchCSVSuccessResponse.class)
+            .fromJson(new Buffer().readFrom(clientConnection.getInputStream()));
+
+    assertEquals("success", response.response_type());
+    assertTrue(response.responseMap().get("data").toString().contains("Grace Lee"));
+
+    clientConnection.disconnect();
+  }
+
+  /** Testing a call to searchcsv in fuzzy mode, finding a misspelled value */
+  @Test
+  public void testSearchCSVFuzzyMode() throws IOException {
+    // Load a CSV file
+    HttpURLConnection loadConnection =
+        tryRequest("loadcsv?" + "filepath=data/resources/students.csv");
+    assertEquals(200, loadConnection.getResponseCode());
+    loadConnection.disconnect();
+
+    HttpURLConnection clientConnection =
+        tryRequest(
+            "searchcsv?filename=students&ifHeader=true&searchKey=Jonson&columnID=1&mode=fuzzy");
+    assertEquals(200, clientConnection.getResponseCode());
+
+    Moshi moshi = new Moshi.Builder().build();
+
+    SearchCSVHandler.SearchCSVSuccessResponse response =
+        moshi
+            .adapter(SearchCSVHandler.SearchCSVSuccessResponse.class)
+            .fromJson(new Buffer().readFrom(clientConnection.getInputStream()));
+
+    assertEquals("success", response.response_type());
+    assertTrue(response.responseMap().get("data").toString().contains("Alice Johnson"));
+
+    clientConnection.disconnect();
+  }
+
+  /** Testing a call to searchcsv in range mode, finding rows with numbers in a range */
+  @Test
+  public void testSearchCSVRangeMode() throws IOException {
+    // Load a CSV file
+    HttpURLConnection loadConnection =
+        tryRequest("loadcsv?" + "filepath=data/resources/students.csv");
+    assertEquals(200, loadConnection.getResponseCode());
+    loadConnection.disconnect();
+
+    HttpURLConnection clientConnection =
+        tryRequest(
+            "searchcsv?filename=students&ifHeader=true&columnID=StudentID&mode=range&min=1005&max=1006");
+    assertEquals(200, clientConnection.getResponseCode());
+
+    Moshi moshi = new Moshi.Builder().build();
+
+    SearchCSVHandler.SearchCSVSuccessResponse response =
+        moshi
+            .adapter(SearchCSVHandler.SearchCSVSuccessResponse.class)
+            .fromJson(new Buffer().readFrom(clientConnection.getInputStream()));
+
+    assertEquals("success", response.response_type());
+    String data = response.responseMap().get("data").toString();
+    assertTrue(data.contains("Eva Brown") && data.contains("Frank Adams"));
+    assertFalse(data.contains("Grace Lee"));
+
+    clientConnection.disconnect();
+  }
 }